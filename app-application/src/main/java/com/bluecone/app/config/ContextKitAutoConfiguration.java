@@ -38,13 +38,15 @@ public class ContextKitAutoConfiguration {
     @Bean(name = "contextKitCache")
     @ConditionalOnBean(name = "contextKitL2Cache")
     public ContextCache twoLevelContextCache(ContextCache contextKitL1Cache,
-                                             ContextCache contextKitL2Cache) {
-        return new TwoLevelContextCache(contextKitL1Cache, contextKitL2Cache);
+                                             ContextCache contextKitL2Cache,
+                                             ContextKitProperties props) {
+        return new TwoLevelContextCache(contextKitL1Cache, contextKitL2Cache, props);
     }
 
     @Bean
     @ConditionalOnMissingBean(VersionChecker.class)
     public VersionChecker versionChecker(ContextKitProperties props) {
-        return new VersionChecker(props.getVersionCheckWindow(), props.getVersionCheckSampleRate());
+        return new VersionChecker(props.getVersionCheckWindow(), props.getVersionCheckSampleRate(),
+                props.getVersionCheckMaxEntries());
     }
 }
@@ -7,12 +7,16 @@ import com.bluecone.app.core.create.application.DefaultIdempotentCreateTemplate;
 import com.bluecone.app.core.event.DomainEventPublisher;
 import com.bluecone.app.core.idempotency.api.IdempotencyTemplate;
 import com.bluecone.app.core.idempotency.application.DefaultIdempotencyTemplate;
+import com.bluecone.app.core.idempotency.spi.IdempotencyFastStore;
 import com.bluecone.app.core.idempotency.spi.IdempotencyLock;
 import com.bluecone.app.core.idempotency.spi.IdempotencyMetrics;
 import com.bluecone.app.core.idempotency.spi.IdempotencyRepository;
+import com.bluecone.app.core.idempotency.spi.IdempotencyRepository.AcquireState;
 import com.bluecone.app.id.api.IdService;
 import com.bluecone.app.id.publicid.api.PublicIdCodec;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -27,13 +31,48 @@ import org.springframework.transaction.PlatformTransactionManager;
 @ConditionalOnClass(ObjectMapper.class)
 public class IdempotencyConfiguration {
 
-    @Bean
+    @Bean(destroyMethod = "close")
     @ConditionalOnBean(IdempotencyRepository.class)
     public IdempotencyTemplate idempotencyTemplate(IdempotencyRepository repository,
+                                                   ObjectProvider<IdempotencyFastStore> fastStoreProvider,
+                                                   ObjectProvider<MeterRegistry> meterRegistryProvider,
                                                    ObjectMapper objectMapper) {
         IdempotencyLock lock = IdempotencyLock.noop();
-        IdempotencyMetrics metrics = IdempotencyMetrics.noop();
-        return new DefaultIdempotencyTemplate(repository, lock, metrics, objectMapper, Clock.systemUTC());
+        IdempotencyMetrics metrics = backstopAlertMetrics(meterRegistryProvider.getIfAvailable());
+        // 存在 Redis 快速存储时已知幂等键由 Redis 重放，未命中仍由数据库获取执行权，终态异步补写数据库
+        return new DefaultIdempotencyTemplate(repository, lock, metrics, objectMapper, Clock.systemUTC(),
+                fastStoreProvider.getIfAvailable(), null);
+    }
+
+    /**
+     * 仅上报数据库补写失败计数，用于告警；其余指标保持 no-op。
+     */
+    private IdempotencyMetrics backstopAlertMetrics(MeterRegistry meterRegistry) {
+        if (meterRegistry == null) {
+            return IdempotencyMetrics.noop();
+        }
+        return new IdempotencyMetrics() {
+            @Override
+            public void recordAcquire(AcquireState state) {
+            }
+
+            @Override
+            public void recordConflict() {
+            }
+
+            @Override
+            public void recordReplay() {
+            }
+
+            @Override
+            public void recordInProgress() {
+            }
+
+            @Override
+            public void recordBackstopFailure() {
+                meterRegistry.counter("bluecone.idempotency.backstop.failed").increment();
+            }
+        };
     }
 
     @Bean
@@ -144,6 +144,7 @@ class UserContextResolverAnonymousTest {
 
         UserSnapshotRepository snapshotRepository = mock(UserSnapshotRepository.class);
         when(snapshotRepository.loadFull(any())).thenReturn(Optional.empty());
+        when(snapshotRepository.loadFullWithVersion(any())).thenCallRealMethod();
 
         ContextCache cache = new CaffeineContextCache(100);
         VersionChecker versionChecker = new VersionChecker(Duration.ofSeconds(1), 1.0d);
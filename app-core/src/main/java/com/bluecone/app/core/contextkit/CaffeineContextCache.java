@@ -5,6 +5,9 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -33,11 +36,32 @@ public class CaffeineContextCache implements ContextCache {
         return Optional.of(entry.value());
     }
 
+    @Override
+    public Map<CacheKey, CacheValue> getAll(Collection<CacheKey> keys) {
+        Map<CacheKey, Entry> entries = cache.getAllPresent(keys);
+        Map<CacheKey, CacheValue> result = new LinkedHashMap<>(entries.size());
+        entries.forEach((key, entry) -> {
+            if (entry.isExpired()) {
+                cache.invalidate(key);
+            } else {
+                result.put(key, entry.value());
+            }
+        });
+        return result;
+    }
+
     @Override
     public void put(CacheKey key, CacheValue value, Duration ttl) {
         cache.put(key, new Entry(value, ttl));
     }
 
+    @Override
+    public void putAll(Map<CacheKey, CacheValue> values, Duration ttl) {
+        Map<CacheKey, Entry> entries = new LinkedHashMap<>(values.size());
+        values.forEach((key, value) -> entries.put(key, new Entry(value, ttl)));
+        cache.putAll(entries);
+    }
+
     private static final class Entry {
         private final CacheValue value;
         private final Instant expireAt;
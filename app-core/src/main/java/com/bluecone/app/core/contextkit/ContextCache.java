@@ -1,6 +1,9 @@
 package com.bluecone.app.core.contextkit;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -18,6 +21,24 @@ public interface ContextCache {
      */
     void put(CacheKey key, CacheValue value, Duration ttl);
 
+    /**
+     * 批量获取，只返回命中的条目。默认逐个 get，实现可覆盖为一次批量访问。
+     */
+    default Map<CacheKey, CacheValue> getAll(Collection<CacheKey> keys) {
+        Map<CacheKey, CacheValue> result = new LinkedHashMap<>();
+        for (CacheKey key : keys) {
+            get(key).ifPresent(value -> result.put(key, value));
+        }
+        return result;
+    }
+
+    /**
+     * 以相同 TTL 批量写入。默认逐个 put，实现可覆盖为一次批量访问。
+     */
+    default void putAll(Map<CacheKey, CacheValue> values, Duration ttl) {
+        values.forEach((key, value) -> put(key, value, ttl));
+    }
+
     /**
      * 失效缓存。
      */
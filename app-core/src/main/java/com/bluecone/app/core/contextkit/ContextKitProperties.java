@@ -18,6 +18,7 @@ public class ContextKitProperties {
     private Duration l2Ttl = Duration.ofMinutes(30);
     private Duration versionCheckWindow = Duration.ofSeconds(2);
     private double versionCheckSampleRate = 0.1d;
+    private int versionCheckMaxEntries = VersionChecker.DEFAULT_MAX_ENTRIES;
 
     public Duration getL1Ttl() {
         return l1Ttl;
@@ -66,5 +67,12 @@ public class ContextKitProperties {
     public void setVersionCheckSampleRate(double versionCheckSampleRate) {
         this.versionCheckSampleRate = versionCheckSampleRate;
     }
-}
 
+    public int getVersionCheckMaxEntries() {
+        return versionCheckMaxEntries;
+    }
+
+    public void setVersionCheckMaxEntries(int versionCheckMaxEntries) {
+        this.versionCheckMaxEntries = versionCheckMaxEntries;
+    }
+}
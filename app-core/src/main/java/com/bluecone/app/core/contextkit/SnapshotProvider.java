@@ -1,13 +1,28 @@
 package com.bluecone.app.core.contextkit;
 
 import com.bluecone.app.core.cacheepoch.api.CacheEpochProvider;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 通用快照 Provider：封装缓存、多级版本校验与负缓存。
+ *
+ * <p>同一 {@link SnapshotLoadKey} 的并发回源会被合并：只有一个线程查库并回填缓存，其余线程等待其结果。
+ * 批量入口 {@link #getOrLoadAll} 对缓存、版本校验与回源各只访问一次。</p>
  */
 public class SnapshotProvider<T> {
 
+    private final ConcurrentHashMap<SnapshotLoadKey, CompletableFuture<T>> inFlightLoads = new ConcurrentHashMap<>();
+
     public T getOrLoad(SnapshotLoadKey loadKey,
                        SnapshotRepository<T> repository,
                        ContextCache cache,
@@ -30,18 +45,7 @@ public class SnapshotProvider<T> {
                        SnapshotSerde<T> serde,
                        ContextKitProperties props,
                        CacheEpochProvider epochProvider) {
-        String namespace = loadKey.scopeType();
-        String keySuffix;
-        if (epochProvider != null) {
-            long epoch = epochProvider.currentEpoch(loadKey.tenantId(), namespace);
-            keySuffix = loadKey.tenantId() + ":" + epoch + ":" + String.valueOf(loadKey.scopeId());
-        } else {
-            keySuffix = loadKey.tenantId() + ":" + String.valueOf(loadKey.scopeId());
-        }
-        CacheKey cacheKey = new CacheKey(
-                namespace,
-                keySuffix
-        );
+        CacheKey cacheKey = toCacheKey(loadKey, epochProvider, null);
 
         // 1) 读缓存
         Optional<CacheValue> cachedOpt = cache.get(cacheKey);
@@ -69,21 +73,172 @@ public class SnapshotProvider<T> {
         return reloadAndFill(loadKey, repository, cache, serde, props, cacheKey);
     }
 
+    public Map<SnapshotLoadKey, T> getOrLoadAll(List<SnapshotLoadKey> loadKeys,
+                                                SnapshotRepository<T> repository,
+                                                ContextCache cache,
+                                                VersionChecker versionChecker,
+                                                SnapshotSerde<T> serde,
+                                                ContextKitProperties props) {
+        return getOrLoadAll(loadKeys, repository, cache, versionChecker, serde, props, null);
+    }
+
+    /**
+     * 批量获取快照：缓存 getAll 一次 → 需要校验的 key 一次 loadVersionBatch → 未命中与版本变化的 key
+     * 一次 loadFullBatch → 按正向/负缓存分组 putAll 回填。
+     *
+     * <p>返回按入参顺序排列、仅包含存在的快照；批量路径不参与单 key 的并发合并。</p>
+     */
+    public Map<SnapshotLoadKey, T> getOrLoadAll(List<SnapshotLoadKey> loadKeys,
+                                                SnapshotRepository<T> repository,
+                                                ContextCache cache,
+                                                VersionChecker versionChecker,
+                                                SnapshotSerde<T> serde,
+                                                ContextKitProperties props,
+                                                CacheEpochProvider epochProvider) {
+        if (loadKeys == null || loadKeys.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Long> epochs = new HashMap<>();
+        Map<SnapshotLoadKey, CacheKey> cacheKeys = new LinkedHashMap<>(loadKeys.size());
+        for (SnapshotLoadKey loadKey : loadKeys) {
+            cacheKeys.computeIfAbsent(loadKey, key -> toCacheKey(key, epochProvider, epochs));
+        }
+
+        // 1) 一次批量读缓存
+        Map<CacheKey, CacheValue> cached = cache.getAll(cacheKeys.values());
+        Map<SnapshotLoadKey, T> found = new HashMap<>(cacheKeys.size());
+        Map<SnapshotLoadKey, Long> cachedVersions = new HashMap<>();
+        Set<SnapshotLoadKey> toLoad = new LinkedHashSet<>();
+        List<SnapshotLoadKey> toCheck = new ArrayList<>();
+        cacheKeys.forEach((loadKey, cacheKey) -> {
+            CacheValue value = cached.get(cacheKey);
+            if (value instanceof HitValue<?> hit) {
+                found.put(loadKey, serde.fromCacheValue(hit.value()));
+                if (versionChecker.shouldCheck(cacheKey)) {
+                    toCheck.add(loadKey);
+                    cachedVersions.put(loadKey, hit.version());
+                }
+            } else if (!(value instanceof NegativeValue)) {
+                toLoad.add(loadKey);
+            }
+        });
+
+        // 2) 一次批量版本校验
+        if (!toCheck.isEmpty()) {
+            Map<SnapshotLoadKey, Long> dbVersions = repository.loadVersionBatch(toCheck);
+            for (SnapshotLoadKey loadKey : toCheck) {
+                Long dbVersion = dbVersions.get(loadKey);
+                if (dbVersion != null && dbVersion.longValue() != cachedVersions.get(loadKey)) {
+                    found.remove(loadKey);
+                    toLoad.add(loadKey);
+                }
+                versionChecker.markChecked(cacheKeys.get(loadKey));
+            }
+        }
+
+        // 3) 一次批量回源并回填
+        if (!toLoad.isEmpty()) {
+            Map<SnapshotLoadKey, VersionedSnapshot<T>> loaded = repository.loadFullBatch(toLoad);
+            Map<CacheKey, CacheValue> hits = new LinkedHashMap<>();
+            Map<CacheKey, CacheValue> negatives = new LinkedHashMap<>();
+            for (SnapshotLoadKey loadKey : toLoad) {
+                VersionedSnapshot<T> snapshot = loaded.get(loadKey);
+                CacheKey cacheKey = cacheKeys.get(loadKey);
+                if (snapshot == null) {
+                    negatives.put(cacheKey, new NegativeValue("NOT_FOUND"));
+                } else {
+                    found.put(loadKey, snapshot.value());
+                    hits.put(cacheKey, new HitValue<>(serde.toCacheValue(snapshot.value()), snapshot.version()));
+                }
+            }
+            if (!hits.isEmpty()) {
+                cache.putAll(hits, props.getL1Ttl());
+            }
+            if (!negatives.isEmpty()) {
+                cache.putAll(negatives, props.getNegativeTtl());
+            }
+        }
+
+        Map<SnapshotLoadKey, T> result = new LinkedHashMap<>(found.size());
+        for (SnapshotLoadKey loadKey : cacheKeys.keySet()) {
+            T value = found.get(loadKey);
+            if (value != null) {
+                result.put(loadKey, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 生成缓存键；批量时传入 epochs，同一请求内按 租户+namespace 复用 epoch，避免重复查询。
+     */
+    private CacheKey toCacheKey(SnapshotLoadKey loadKey, CacheEpochProvider epochProvider, Map<String, Long> epochs) {
+        String namespace = loadKey.scopeType();
+        String keySuffix;
+        if (epochProvider != null) {
+            long epoch = epochs == null
+                    ? epochProvider.currentEpoch(loadKey.tenantId(), namespace)
+                    : epochs.computeIfAbsent(loadKey.tenantId() + ":" + namespace,
+                            ignored -> epochProvider.currentEpoch(loadKey.tenantId(), namespace));
+            keySuffix = loadKey.tenantId() + ":" + epoch + ":" + String.valueOf(loadKey.scopeId());
+        } else {
+            keySuffix = loadKey.tenantId() + ":" + String.valueOf(loadKey.scopeId());
+        }
+        return new CacheKey(namespace, keySuffix);
+    }
+
     private T reloadAndFill(SnapshotLoadKey loadKey,
                             SnapshotRepository<T> repository,
                             ContextCache cache,
                             SnapshotSerde<T> serde,
                             ContextKitProperties props,
                             CacheKey cacheKey) {
-        Optional<T> loaded = repository.loadFull(loadKey);
+        CompletableFuture<T> flight = new CompletableFuture<>();
+        CompletableFuture<T> existing = inFlightLoads.putIfAbsent(loadKey, flight);
+        if (existing != null) {
+            return awaitFlight(existing);
+        }
+        try {
+            T value = loadAndFill(loadKey, repository, cache, serde, props, cacheKey);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlightLoads.remove(loadKey, flight);
+        }
+    }
+
+    private T loadAndFill(SnapshotLoadKey loadKey,
+                          SnapshotRepository<T> repository,
+                          ContextCache cache,
+                          SnapshotSerde<T> serde,
+                          ContextKitProperties props,
+                          CacheKey cacheKey) {
+        Optional<VersionedSnapshot<T>> loaded = repository.loadFullWithVersion(loadKey);
         if (loaded.isEmpty()) {
             cache.put(cacheKey, new NegativeValue("NOT_FOUND"), props.getNegativeTtl());
             return null;
         }
-        T value = loaded.get();
-        long version = repository.loadVersion(loadKey).orElse(0L);
-        CacheValue hit = new HitValue<>(serde.toCacheValue(value), version);
+        T value = loaded.get().value();
+        CacheValue hit = new HitValue<>(serde.toCacheValue(value), loaded.get().version());
         cache.put(cacheKey, hit, props.getL1Ttl());
         return value;
     }
+
+    private T awaitFlight(CompletableFuture<T> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
 }
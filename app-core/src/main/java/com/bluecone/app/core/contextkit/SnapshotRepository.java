@@ -1,5 +1,8 @@
 package com.bluecone.app.core.contextkit;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -10,5 +13,40 @@ public interface SnapshotRepository<T> {
     Optional<T> loadFull(SnapshotLoadKey key);
 
     Optional<Long> loadVersion(SnapshotLoadKey key);
-}
 
+    /**
+     * 加载完整快照并同时给出版本号，供缓存回填使用。
+     *
+     * <p>默认实现为 loadFull + loadVersion 两次查询；快照自身已携带版本号的仓储应覆盖此方法，
+     * 从同一行数据取版本，省掉第二次查询。</p>
+     */
+    default Optional<VersionedSnapshot<T>> loadFullWithVersion(SnapshotLoadKey key) {
+        return loadFull(key).map(value -> new VersionedSnapshot<>(value, loadVersion(key).orElse(0L)));
+    }
+
+    /**
+     * 批量加载完整快照及版本号，结果中缺失的 key 视为不存在。
+     *
+     * <p>默认逐个调用 {@link #loadFullWithVersion}；底表支持时实现应覆盖为一次 {@code IN} 查询。</p>
+     */
+    default Map<SnapshotLoadKey, VersionedSnapshot<T>> loadFullBatch(Collection<SnapshotLoadKey> keys) {
+        Map<SnapshotLoadKey, VersionedSnapshot<T>> result = new LinkedHashMap<>();
+        for (SnapshotLoadKey key : keys) {
+            loadFullWithVersion(key).ifPresent(snapshot -> result.put(key, snapshot));
+        }
+        return result;
+    }
+
+    /**
+     * 批量加载版本号，结果中缺失的 key 视为版本未知（不触发重载）。
+     *
+     * <p>默认逐个调用 {@link #loadVersion}；实现应覆盖为一次 {@code IN} 查询。</p>
+     */
+    default Map<SnapshotLoadKey, Long> loadVersionBatch(Collection<SnapshotLoadKey> keys) {
+        Map<SnapshotLoadKey, Long> result = new LinkedHashMap<>();
+        for (SnapshotLoadKey key : keys) {
+            loadVersion(key).ifPresent(version -> result.put(key, version));
+        }
+        return result;
+    }
+}
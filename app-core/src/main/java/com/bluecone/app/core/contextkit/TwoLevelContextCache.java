@@ -1,19 +1,32 @@
 package com.bluecone.app.core.contextkit;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * 简单的两级缓存组合器：优先访问 L1，miss 后访问 L2。
+ *
+ * <p>L2 命中会回填 L1：正向值使用 l1Ttl，负缓存使用 negativeTtl，避免 L1 过期后每次请求都打到 Redis。</p>
  */
 public class TwoLevelContextCache implements ContextCache {
 
     private final ContextCache l1;
     private final ContextCache l2;
+    private final ContextKitProperties props;
 
     public TwoLevelContextCache(ContextCache l1, ContextCache l2) {
+        this(l1, l2, new ContextKitProperties());
+    }
+
+    public TwoLevelContextCache(ContextCache l1, ContextCache l2, ContextKitProperties props) {
         this.l1 = l1;
         this.l2 = l2;
+        this.props = props;
     }
 
     @Override
@@ -23,12 +36,49 @@ public class TwoLevelContextCache implements ContextCache {
             return v1;
         }
         Optional<CacheValue> v2 = l2.get(key);
-        v2.ifPresent(value -> {
-            // 回填 L1，TTL 由调用方在后续 put 时控制；此处不设置 TTL。
-        });
+        v2.ifPresent(value -> l1.put(key, value, backfillTtl(value)));
         return v2;
     }
 
+    /**
+     * L1 批量命中 → 剩余 key 一次访问 L2 → L2 命中按类型分组批量回填 L1。
+     */
+    @Override
+    public Map<CacheKey, CacheValue> getAll(Collection<CacheKey> keys) {
+        Map<CacheKey, CacheValue> found = l1.getAll(keys);
+        Set<CacheKey> missing = new LinkedHashSet<>(keys);
+        missing.removeAll(found.keySet());
+        if (missing.isEmpty()) {
+            return found;
+        }
+        Map<CacheKey, CacheValue> l2Hits = l2.getAll(missing);
+        if (!l2Hits.isEmpty()) {
+            Map<CacheKey, CacheValue> hits = new LinkedHashMap<>();
+            Map<CacheKey, CacheValue> negatives = new LinkedHashMap<>();
+            l2Hits.forEach((key, value) -> (value instanceof NegativeValue ? negatives : hits).put(key, value));
+            if (!hits.isEmpty()) {
+                l1.putAll(hits, props.getL1Ttl());
+            }
+            if (!negatives.isEmpty()) {
+                l1.putAll(negatives, props.getNegativeTtl());
+            }
+        }
+        Map<CacheKey, CacheValue> result = new LinkedHashMap<>(found.size() + l2Hits.size());
+        for (CacheKey key : keys) {
+            CacheValue value = found.containsKey(key) ? found.get(key) : l2Hits.get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void putAll(Map<CacheKey, CacheValue> values, Duration ttl) {
+        l1.putAll(values, ttl);
+        l2.putAll(values, ttl);
+    }
+
     @Override
     public void put(CacheKey key, CacheValue value, Duration ttl) {
         l1.put(key, value, ttl);
@@ -40,5 +90,8 @@ public class TwoLevelContextCache implements ContextCache {
         l1.invalidate(key);
         l2.invalidate(key);
     }
-}
 
+    private Duration backfillTtl(CacheValue value) {
+        return value instanceof NegativeValue ? props.getNegativeTtl() : props.getL1Ttl();
+    }
+}
@@ -1,39 +1,137 @@
 package com.bluecone.app.core.contextkit;
 
 import java.time.Duration;
-import java.time.Instant;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
 
 /**
  * 版本校验控制器：基于时间窗口与采样率决定是否触发轻量版本查询。
+ *
+ * <p>最近校验时间记录在定长的 2 路组相联表中：以 {@link CacheKey} 的 64 位哈希作指纹，
+ * 时间戳为 {@code long} 纳秒，组满时替换较旧的一路。容量固定，内存占用与历史 key 数量无关；
+ * 被挤出的 key 只会多做一次版本校验，不影响正确性。</p>
  */
 public class VersionChecker {
 
-    private final Duration window;
+    /**
+     * 默认容量：65536 组 × 2 路，约 2MB。
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 1 << 17;
+
+    private static final int WAYS = 2;
+    private static final long EMPTY = 0L;
+
+    private final long windowNanos;
     private final double sampleRate;
-    private final Map<CacheKey, Instant> lastChecked = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
+    private final int setMask;
+    /**
+     * 每个槽位占两个 long：[指纹, 最近校验纳秒]。
+     */
+    private final AtomicLongArray slots;
 
     public VersionChecker(Duration window, double sampleRate) {
-        this.window = window != null ? window : Duration.ZERO;
+        this(window, sampleRate, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param maxEntries 最多记录的 key 数，向上取整为 2 的幂
+     */
+    public VersionChecker(Duration window, double sampleRate, int maxEntries) {
+        this(window, sampleRate, maxEntries, System::nanoTime);
+    }
+
+    VersionChecker(Duration window, double sampleRate, int maxEntries, LongSupplier nanoClock) {
+        if (maxEntries < WAYS) {
+            throw new IllegalArgumentException("maxEntries must be >= " + WAYS);
+        }
+        this.windowNanos = window != null ? window.toNanos() : 0L;
         this.sampleRate = sampleRate;
+        this.nanoClock = nanoClock;
+        int sets = Integer.highestOneBit(Math.max(maxEntries / WAYS - 1, 1)) << 1;
+        this.setMask = sets - 1;
+        this.slots = new AtomicLongArray(sets * WAYS * 2);
     }
 
     public boolean shouldCheck(CacheKey key) {
-        if (window.isZero() || sampleRate <= 0.0d) {
+        if (windowNanos <= 0L || sampleRate <= 0.0d) {
             return false;
         }
-        Instant now = Instant.now();
-        Instant last = lastChecked.get(key);
-        if (last != null && now.isBefore(last.plus(window))) {
-            return false;
+        long fingerprint = fingerprint(key);
+        int base = setBase(fingerprint);
+        for (int way = 0; way < WAYS; way++) {
+            int slot = base + way * 2;
+            if (slots.get(slot) == fingerprint) {
+                long last = slots.get(slot + 1);
+                if (nanoClock.getAsLong() - last < windowNanos) {
+                    return false;
+                }
+                break;
+            }
         }
         return ThreadLocalRandom.current().nextDouble() < sampleRate;
     }
 
     public void markChecked(CacheKey key) {
-        lastChecked.put(key, Instant.now());
+        long fingerprint = fingerprint(key);
+        long now = nanoClock.getAsLong();
+        int base = setBase(fingerprint);
+        int victim = base;
+        long victimAge = -1L;
+        for (int way = 0; way < WAYS; way++) {
+            int slot = base + way * 2;
+            long current = slots.get(slot);
+            if (current == fingerprint) {
+                slots.set(slot + 1, now);
+                return;
+            }
+            // 空槽优先，其次替换最久未校验的一路
+            long age = current == EMPTY ? Long.MAX_VALUE : now - slots.get(slot + 1);
+            if (age > victimAge) {
+                victim = slot;
+                victimAge = age;
+            }
+        }
+        // 先写时间再写指纹：并发读到新指纹时看到的时间一定是本次写入的
+        slots.set(victim + 1, now);
+        slots.set(victim, fingerprint);
     }
-}
 
+    /**
+     * 表的槽位数（即最多记录的 key 数）。
+     */
+    public int capacity() {
+        return slots.length() / 2;
+    }
+
+    private int setBase(long fingerprint) {
+        return ((int) (fingerprint >>> 32) & setMask) * WAYS * 2;
+    }
+
+    /**
+     * 直接遍历字符计算 64 位哈希，不拼接字符串；结果永不为 0（0 表示空槽）。
+     */
+    static long fingerprint(CacheKey key) {
+        long h = 0xCBF29CE484222325L;
+        h = mix(h, key.namespace());
+        h = (h ^ 0x1F) * 0x100000001B3L;
+        h = mix(h, key.key());
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h == EMPTY ? 1L : h;
+    }
+
+    private static long mix(long h, String value) {
+        if (value == null) {
+            return h * 0x100000001B3L;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,10 @@
+package com.bluecone.app.core.contextkit;
+
+/**
+ * 同一次查询得到的快照及其版本号。
+ *
+ * @param value   快照
+ * @param version 快照版本号，用于后续版本校验
+ */
+public record VersionedSnapshot<T>(T value, long version) {
+}
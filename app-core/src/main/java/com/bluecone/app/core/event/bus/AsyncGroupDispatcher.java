@@ -0,0 +1,163 @@
+package com.bluecone.app.core.event.bus;
+
+import com.bluecone.app.core.event.consume.api.EventEnvelope;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个消费组的异步投递器：按排序键哈希到固定通道，每个通道一个有界队列和一个虚拟线程。
+ *
+ * <p>同一排序键总在同一通道内串行执行，保证发布顺序；通道队列满时发布方阻塞至 offerTimeout，
+ * 仍无空位则拒绝，把压力反馈给发布方而不是无限堆积。</p>
+ */
+class AsyncGroupDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncGroupDispatcher.class);
+    private static final Runnable STOP = () -> {
+    };
+
+    private final String group;
+    private final AsyncGroupOptions options;
+    private final List<BlockingQueue<Runnable>> queues;
+    private final List<Thread> workers;
+    private final Timer lagTimer;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+    private volatile boolean closed;
+
+    AsyncGroupDispatcher(String group, AsyncGroupOptions options, MeterRegistry meterRegistry) {
+        this.group = group;
+        this.options = options;
+        this.queues = new ArrayList<>(options.lanes());
+        this.workers = new ArrayList<>(options.lanes());
+        for (int i = 0; i < options.lanes(); i++) {
+            BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(options.queueCapacity());
+            queues.add(queue);
+            workers.add(Thread.ofVirtual().name("event-bus-" + group + "-" + i).start(() -> drain(queue)));
+        }
+        if (meterRegistry != null) {
+            Gauge.builder("bluecone_event_bus_queue_depth", queues,
+                            qs -> qs.stream().mapToInt(BlockingQueue::size).sum())
+                    .tag("group", group)
+                    .register(meterRegistry);
+            this.lagTimer = Timer.builder("bluecone_event_bus_lag_seconds")
+                    .tag("group", group)
+                    .register(meterRegistry);
+            this.rejectedCounter = meterRegistry.counter("bluecone_event_bus_rejected_total", "group", group);
+            this.failedCounter = meterRegistry.counter("bluecone_event_bus_failed_total", "group", group);
+        } else {
+            this.lagTimer = null;
+            this.rejectedCounter = null;
+            this.failedCounter = null;
+        }
+    }
+
+    /**
+     * 投递一条事件到对应通道。
+     *
+     * @throws RejectedExecutionException 已关闭，或队列满且等待超时
+     */
+    void submit(EventEnvelope event, Runnable work) {
+        if (closed) {
+            if (rejectedCounter != null) {
+                rejectedCounter.increment();
+            }
+            throw new RejectedExecutionException("event bus group closed: " + group);
+        }
+        String key = options.orderingKey().apply(event);
+        Object routing = key != null ? key : event.eventId();
+        BlockingQueue<Runnable> queue = queues.get(Math.floorMod(routing.hashCode(), queues.size()));
+        long enqueuedAt = System.nanoTime();
+        Runnable task = () -> {
+            if (lagTimer != null) {
+                lagTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+            }
+            try {
+                work.run();
+            } catch (RuntimeException ex) {
+                if (failedCounter != null) {
+                    failedCounter.increment();
+                }
+                log.error("[EventBus] async handler failed group={} eventId={} eventType={}",
+                        group, event.eventId(), event.eventType(), ex);
+            }
+        };
+        boolean accepted;
+        try {
+            accepted = queue.offer(task, options.offerTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            if (rejectedCounter != null) {
+                rejectedCounter.increment();
+            }
+            throw new RejectedExecutionException("event bus group saturated: group=" + group
+                    + ", eventId=" + event.eventId());
+        }
+    }
+
+    /**
+     * 当前排队中的事件数。
+     */
+    int pending() {
+        return queues.stream().mapToInt(BlockingQueue::size).sum();
+    }
+
+    /**
+     * 停止接收新事件，等待已排队事件处理完毕；超时后中断剩余通道。
+     */
+    void close(Duration timeout) {
+        closed = true;
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (BlockingQueue<Runnable> queue : queues) {
+            try {
+                if (!queue.offer(STOP, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        for (Thread worker : workers) {
+            try {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !worker.join(Duration.ofNanos(remaining))) {
+                    worker.interrupt();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                worker.interrupt();
+            }
+        }
+    }
+
+    private void drain(BlockingQueue<Runnable> queue) {
+        while (true) {
+            Runnable task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (task == STOP) {
+                return;
+            }
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.bluecone.app.core.event.bus;
+
+import com.bluecone.app.core.event.consume.api.EventEnvelope;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 消费组异步投递选项。
+ *
+ * @param lanes          并行通道数，每个通道一个虚拟线程串行处理
+ * @param queueCapacity  每个通道的队列容量，满时发布方阻塞
+ * @param offerTimeout   发布方在队列满时最多阻塞的时长，超时抛出 {@link java.util.concurrent.RejectedExecutionException}
+ * @param orderingKey    排序键（如聚合根 ID），同键事件落在同一通道、按发布顺序处理；返回 null 时按事件 ID 打散
+ */
+public record AsyncGroupOptions(
+        int lanes,
+        int queueCapacity,
+        Duration offerTimeout,
+        Function<EventEnvelope, String> orderingKey
+) {
+
+    public AsyncGroupOptions {
+        if (lanes <= 0) {
+            throw new IllegalArgumentException("lanes must be positive");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("queueCapacity must be positive");
+        }
+        offerTimeout = (offerTimeout != null ? offerTimeout : Duration.ZERO);
+        orderingKey = Objects.requireNonNullElse(orderingKey, event -> null);
+    }
+
+    /**
+     * 4 个通道、每通道 1024 条、队列满时最多阻塞 1 秒。
+     */
+    public static AsyncGroupOptions defaults(Function<EventEnvelope, String> orderingKey) {
+        return new AsyncGroupOptions(4, 1024, Duration.ofSeconds(1), orderingKey);
+    }
+}
@@ -4,25 +4,46 @@ import com.bluecone.app.core.event.consume.api.ConsumeOptions;
 import com.bluecone.app.core.event.consume.api.EventEnvelope;
 import com.bluecone.app.core.event.consume.api.EventHandler;
 import com.bluecone.app.core.event.consume.api.EventHandlerTemplate;
+import com.bluecone.app.core.tenant.TenantContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 简单的进程内事件总线，仅用于开发与测试环境。
  *
  * <p>通过 {@link EventHandlerTemplate} 统一走消费端幂等与重试逻辑。</p>
+ *
+ * <p>消费组默认同步执行（在发布方线程、发布方事务内）；调用 {@link #enableAsync} 后该组改为异步：
+ * 每组独立的有界虚拟线程通道，同一排序键按发布顺序处理，队列满时阻塞发布方，
+ * 并按组输出队列深度、排队延迟、拒绝与失败指标。</p>
+ *
+ * <p>发布方处于事务中时，异步组在提交后才入队，避免消费方看到未提交或已回滚的数据；
+ * 发布方线程的租户上下文与 MDC 随任务带到异步线程。</p>
  */
-public class InProcessEventBus {
+public class InProcessEventBus implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(InProcessEventBus.class);
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
 
     private final EventHandlerTemplate handlerTemplate;
     private final ConsumeOptions defaultOptions;
+    private final MeterRegistry meterRegistry;
 
     private final Map<String, Map<String, List<EventHandler>>> registry = new ConcurrentHashMap<>();
+    private final Map<String, AsyncGroupDispatcher> asyncGroups = new ConcurrentHashMap<>();
 
     public InProcessEventBus(EventHandlerTemplate handlerTemplate) {
         this(handlerTemplate, new ConsumeOptions(
@@ -36,8 +57,30 @@ public class InProcessEventBus {
     }
 
     public InProcessEventBus(EventHandlerTemplate handlerTemplate, ConsumeOptions defaultOptions) {
+        this(handlerTemplate, defaultOptions, null);
+    }
+
+    /**
+     * @param meterRegistry 为 null 时不输出异步组指标
+     */
+    public InProcessEventBus(EventHandlerTemplate handlerTemplate, ConsumeOptions defaultOptions,
+                             MeterRegistry meterRegistry) {
         this.handlerTemplate = Objects.requireNonNull(handlerTemplate, "handlerTemplate must not be null");
         this.defaultOptions = Objects.requireNonNull(defaultOptions, "defaultOptions must not be null");
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 将消费组切换为异步执行。必须在 handler 内参与发布方事务的组不要开启。
+     */
+    public void enableAsync(String consumerGroup, AsyncGroupOptions options) {
+        Objects.requireNonNull(options, "options must not be null");
+        asyncGroups.compute(consumerGroup, (group, existing) -> {
+            if (existing != null) {
+                throw new IllegalStateException("consumer group already async: " + group);
+            }
+            return new AsyncGroupDispatcher(group, options, meterRegistry);
+        });
     }
 
     public void register(String consumerGroup, String eventType, EventHandler handler) {
@@ -47,16 +90,106 @@ public class InProcessEventBus {
                 .add(handler);
     }
 
+    /**
+     * 发布事件：同步组在当前线程依次执行，异步组只入队即返回；有事务同步时异步组推迟到提交后入队。
+     *
+     * @throws RejectedExecutionException 立即入队时某个异步组队列满且等待超时；其余组照常投递
+     */
     public void publish(EventEnvelope event) {
+        List<Runnable> asyncSubmits = new ArrayList<>();
         registry.forEach((group, byType) -> {
             List<EventHandler> handlers = byType.get(event.eventType());
             if (handlers == null || handlers.isEmpty()) {
                 return;
             }
-            for (EventHandler handler : handlers) {
-                handlerTemplate.consume(group, event, handler, defaultOptions);
+            AsyncGroupDispatcher async = asyncGroups.get(group);
+            if (async != null) {
+                Runnable work = withCallerContext(() -> consumeAll(group, event, handlers));
+                asyncSubmits.add(() -> async.submit(event, work));
+                return;
             }
+            consumeAll(group, event, handlers);
         });
+        if (asyncSubmits.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    RejectedExecutionException rejected = submitAll(asyncSubmits);
+                    if (rejected != null) {
+                        log.error("[EventBus] async submit rejected after commit eventId={} eventType={}",
+                                event.eventId(), event.eventType(), rejected);
+                    }
+                }
+            });
+            return;
+        }
+        RejectedExecutionException rejected = submitAll(asyncSubmits);
+        if (rejected != null) {
+            throw rejected;
+        }
+    }
+
+    /**
+     * 异步组当前排队中的事件数，同步组返回 0。
+     */
+    public int pending(String consumerGroup) {
+        AsyncGroupDispatcher async = asyncGroups.get(consumerGroup);
+        return async != null ? async.pending() : 0;
+    }
+
+    /**
+     * 停止异步组并等待已排队事件处理完毕（最长 10 秒）。
+     */
+    @Override
+    public void close() {
+        asyncGroups.values().forEach(dispatcher -> dispatcher.close(CLOSE_TIMEOUT));
+    }
+
+    /**
+     * 逐组入队，某组拒绝不影响其余组；返回首个拒绝异常，其余作为 suppressed 附加。
+     */
+    private static RejectedExecutionException submitAll(List<Runnable> submits) {
+        RejectedExecutionException first = null;
+        for (Runnable submit : submits) {
+            try {
+                submit.run();
+            } catch (RejectedExecutionException ex) {
+                if (first == null) {
+                    first = ex;
+                } else {
+                    first.addSuppressed(ex);
+                }
+            }
+        }
+        return first;
+    }
+
+    private static Runnable withCallerContext(Runnable work) {
+        String tenantId = TenantContext.getTenantId();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        return () -> {
+            if (tenantId != null) {
+                TenantContext.setTenantId(tenantId);
+            }
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            try {
+                work.run();
+            } finally {
+                TenantContext.clear();
+                MDC.clear();
+            }
+        };
+    }
+
+    private void consumeAll(String group, EventEnvelope event, List<EventHandler> handlers) {
+        for (EventHandler handler : handlers) {
+            handlerTemplate.consume(group, event, handler, defaultOptions);
+        }
     }
 }
 
@@ -0,0 +1,94 @@
+package com.bluecone.app.core.event.consume.application;
+
+import com.bluecone.app.core.event.consume.spi.ConsumeCompletionNotifier.ConsumeCompletion;
+import com.bluecone.app.id.core.Ulid128;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内的消费完成登记表，按 consumer_group + event_id 挂起等待方。
+ *
+ * <p>等待方先 {@link #subscribe} 再回查数据库，避免“查完尚未挂起时完成”的信号丢失；
+ * 同一事件的多个等待方共享一个 future，最后一个等待方退出时移除登记。</p>
+ */
+public class ConsumeCompletionRegistry {
+
+    private final ConcurrentHashMap<Key, Waiters> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * 挂起等待指定事件完成，使用完毕须关闭返回的订阅。
+     */
+    public Subscription subscribe(String consumerGroup, Ulid128 eventId) {
+        Key key = new Key(consumerGroup, eventId);
+        Waiters entry = waiters.compute(key, (k, existing) -> {
+            Waiters w = existing != null ? existing : new Waiters();
+            w.count++;
+            return w;
+        });
+        return new Subscription(key, entry);
+    }
+
+    /**
+     * 唤醒等待指定事件的所有线程；没有等待方时为空操作。
+     */
+    public void complete(ConsumeCompletion completion) {
+        Waiters entry = waiters.remove(new Key(completion.consumerGroup(), completion.eventId()));
+        if (entry != null) {
+            entry.future.complete(completion.succeeded());
+        }
+    }
+
+    /**
+     * 当前登记的事件数，供测试与诊断使用。
+     */
+    public int size() {
+        return waiters.size();
+    }
+
+    private void release(Key key, Waiters entry) {
+        waiters.computeIfPresent(key, (k, existing) -> {
+            if (existing != entry) {
+                return existing;
+            }
+            return --existing.count == 0 ? null : existing;
+        });
+    }
+
+    /**
+     * 一次等待登记。
+     */
+    public final class Subscription implements AutoCloseable {
+
+        private final Key key;
+        private final Waiters entry;
+
+        private Subscription(Key key, Waiters entry) {
+            this.key = key;
+            this.entry = entry;
+        }
+
+        /**
+         * 完成时得到 true（成功）或 false（失败）。
+         */
+        public CompletableFuture<Boolean> future() {
+            return entry.future;
+        }
+
+        @Override
+        public void close() {
+            release(key, entry);
+        }
+    }
+
+    private record Key(String consumerGroup, Ulid128 eventId) {
+    }
+
+    /**
+     * count 只在 ConcurrentHashMap 的 compute 中读写。
+     */
+    private static final class Waiters {
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        private int count;
+    }
+}
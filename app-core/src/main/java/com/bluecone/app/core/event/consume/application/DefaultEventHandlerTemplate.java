@@ -7,6 +7,8 @@ import com.bluecone.app.core.event.consume.api.EventConsumeFailedException;
 import com.bluecone.app.core.event.consume.api.EventEnvelope;
 import com.bluecone.app.core.event.consume.api.EventHandler;
 import com.bluecone.app.core.event.consume.api.EventHandlerTemplate;
+import com.bluecone.app.core.event.consume.spi.ConsumeCompletionNotifier;
+import com.bluecone.app.core.event.consume.spi.ConsumeCompletionNotifier.ConsumeCompletion;
 import com.bluecone.app.core.event.consume.spi.ConsumeMetrics;
 import com.bluecone.app.core.event.consume.spi.EventDedupRepository;
 import com.bluecone.app.core.event.consume.spi.EventDedupRepository.AcquireConsumeCommand;
@@ -18,6 +20,8 @@ import com.bluecone.app.core.event.consume.spi.EventDedupRepository.MarkConsumeS
 import com.bluecone.app.id.core.Ulid128;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Clock;
@@ -25,6 +29,9 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * 默认事件消费模板实现，负责：
@@ -33,6 +40,10 @@ import java.util.Optional;
  *     <li>多实例并发下的处理权抢占；</li>
  *     <li>失败重试与退避。</li>
  * </ul>
+ *
+ * <p>遇到处理中的事件且需要等待时，挂在进程内的 {@link ConsumeCompletionRegistry} 上，
+ * 持有者标记成功/失败（事务提交后）即唤醒，并经 {@link ConsumeCompletionNotifier} 通知其他节点；
+ * 数据库只在挂起前与超时后各回查一次。</p>
  */
 public class DefaultEventHandlerTemplate implements EventHandlerTemplate {
 
@@ -44,15 +55,30 @@ public class DefaultEventHandlerTemplate implements EventHandlerTemplate {
     private final PlatformTransactionManager transactionManager;
     private final Clock clock;
     private final ConsumeMetrics metrics;
+    private final ConsumeCompletionNotifier completionNotifier;
+    private final ConsumeCompletionRegistry completionRegistry = new ConsumeCompletionRegistry();
 
     public DefaultEventHandlerTemplate(EventDedupRepository repository,
                                        PlatformTransactionManager transactionManager,
                                        Clock clock,
                                        ConsumeMetrics metrics) {
+        this(repository, transactionManager, clock, metrics, ConsumeCompletionNotifier.local());
+    }
+
+    /**
+     * @param completionNotifier 跨节点完成通知，为 null 时只唤醒本进程内的等待方
+     */
+    public DefaultEventHandlerTemplate(EventDedupRepository repository,
+                                       PlatformTransactionManager transactionManager,
+                                       Clock clock,
+                                       ConsumeMetrics metrics,
+                                       ConsumeCompletionNotifier completionNotifier) {
         this.repository = Objects.requireNonNull(repository, "repository must not be null");
         this.transactionManager = Objects.requireNonNull(transactionManager, "transactionManager must not be null");
         this.clock = (clock != null ? clock : Clock.systemUTC());
         this.metrics = (metrics != null ? metrics : ConsumeMetrics.noop());
+        this.completionNotifier = (completionNotifier != null ? completionNotifier : ConsumeCompletionNotifier.local());
+        this.completionNotifier.subscribe(completionRegistry::complete);
     }
 
     @Override
@@ -115,28 +141,67 @@ public class DefaultEventHandlerTemplate implements EventHandlerTemplate {
             return new ConsumeResult(false, true, false, retryCount);
         }
 
-        Instant deadline = Instant.now(clock).plus(options.waitMax());
-        int lastRetryCount = currentRecord != null ? currentRecord.retryCount() : 0;
-        while (Instant.now(clock).isBefore(deadline)) {
-            Optional<ConsumeRecord> opt = repository.find(consumerGroup, event.eventId());
-            if (opt.isEmpty()) {
-                break;
+        int retryCount = currentRecord != null ? currentRecord.retryCount() : 0;
+        // 先挂起并登记远端等待再回查，持有者在两步之间完成也不会丢信号
+        try (ConsumeCompletionRegistry.Subscription subscription =
+                     completionRegistry.subscribe(consumerGroup, event.eventId())) {
+            announceAwaiting(consumerGroup, event.eventId(), options.waitMax());
+            ConsumeResult settled = checkSettled(consumerGroup, event);
+            if (settled != null) {
+                return settled;
             }
-            ConsumeRecord record = opt.get();
-            lastRetryCount = record.retryCount();
-            if (record.status() == STATUS_SUCCEEDED) {
-                metrics.onReplay();
-                return new ConsumeResult(true, false, true, lastRetryCount);
-            }
-            if (record.status() == STATUS_FAILED) {
-                throw new EventConsumeFailedException(
-                        "事件消费失败：consumerGroup=" + consumerGroup
-                                + ", eventId=" + event.eventId()
-                                + ", eventType=" + event.eventType());
+            Boolean succeeded = awaitCompletion(subscription, options.waitMax());
+            if (succeeded != null) {
+                if (succeeded) {
+                    metrics.onReplay();
+                    return new ConsumeResult(true, false, true, retryCount);
+                }
+                throw consumeFailed(consumerGroup, event);
             }
-            sleepQuietly(50);
         }
-        return new ConsumeResult(false, true, false, lastRetryCount);
+        // 超时兜底：通知可能丢失，回查一次
+        ConsumeResult settled = checkSettled(consumerGroup, event);
+        return settled != null ? settled : new ConsumeResult(false, true, false, retryCount);
+    }
+
+    /**
+     * 回查消费记录：已成功返回重放结果，已失败抛出异常，仍在处理中或记录不存在返回 null。
+     */
+    private ConsumeResult checkSettled(String consumerGroup, EventEnvelope event) {
+        Optional<ConsumeRecord> opt = repository.find(consumerGroup, event.eventId());
+        if (opt.isEmpty()) {
+            return null;
+        }
+        ConsumeRecord record = opt.get();
+        if (record.status() == STATUS_SUCCEEDED) {
+            metrics.onReplay();
+            return new ConsumeResult(true, false, true, record.retryCount());
+        }
+        if (record.status() == STATUS_FAILED) {
+            throw consumeFailed(consumerGroup, event);
+        }
+        return null;
+    }
+
+    private EventConsumeFailedException consumeFailed(String consumerGroup, EventEnvelope event) {
+        return new EventConsumeFailedException(
+                "事件消费失败：consumerGroup=" + consumerGroup
+                        + ", eventId=" + event.eventId()
+                        + ", eventType=" + event.eventType());
+    }
+
+    /**
+     * @return 完成结果，超时或被中断返回 null
+     */
+    private Boolean awaitCompletion(ConsumeCompletionRegistry.Subscription subscription, Duration waitMax) {
+        try {
+            return subscription.future().get(waitMax.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
     }
 
     private ConsumeResult executeInTx(String consumerGroup,
@@ -160,10 +225,12 @@ public class DefaultEventHandlerTemplate implements EventHandlerTemplate {
                 return null;
             });
             metrics.onSuccess();
+            signalCompletion(consumerGroup, event.eventId(), true);
             int retryCount = record != null ? record.retryCount() : 0;
             return new ConsumeResult(false, false, true, retryCount);
         } catch (RuntimeException ex) {
             metrics.onFailure();
+            signalCompletion(consumerGroup, event.eventId(), false);
             // 原因可能被包装在 RuntimeException 中
             Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
             if (cause instanceof RuntimeException runtime) {
@@ -224,12 +291,37 @@ public class DefaultEventHandlerTemplate implements EventHandlerTemplate {
         return candidate;
     }
 
-    private void sleepQuietly(long millis) {
+    /**
+     * 唤醒等待该事件的线程并通知其他节点；处于外层事务中时推迟到外层事务结束，回滚则按失败通知。
+     */
+    private void signalCompletion(String consumerGroup, Ulid128 eventId, boolean succeeded) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    fireCompletion(new ConsumeCompletion(consumerGroup, eventId,
+                            succeeded && status == STATUS_COMMITTED));
+                }
+            });
+            return;
+        }
+        fireCompletion(new ConsumeCompletion(consumerGroup, eventId, succeeded));
+    }
+
+    private void announceAwaiting(String consumerGroup, Ulid128 eventId, Duration waitMax) {
         try {
-            Thread.sleep(millis);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            completionNotifier.awaiting(consumerGroup, eventId, waitMax);
+        } catch (RuntimeException ignored) {
+            // 登记失败只会让等待方退化为超时回查
         }
     }
-}
 
+    private void fireCompletion(ConsumeCompletion completion) {
+        completionRegistry.complete(completion);
+        try {
+            completionNotifier.publish(completion);
+        } catch (RuntimeException ignored) {
+            // 通知只是加速信号，等待方超时后会回查
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.bluecone.app.core.event.consume.autoconfigure;
 
 import com.bluecone.app.core.event.consume.api.EventHandlerTemplate;
 import com.bluecone.app.core.event.consume.application.DefaultEventHandlerTemplate;
+import com.bluecone.app.core.event.consume.spi.ConsumeCompletionNotifier;
 import com.bluecone.app.core.event.consume.spi.ConsumeMetrics;
 import com.bluecone.app.core.event.consume.spi.EventDedupRepository;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -26,12 +28,14 @@ public class EventConsumeAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean(EventHandlerTemplate.class)
     public EventHandlerTemplate eventHandlerTemplate(EventDedupRepository repository,
-                                                     PlatformTransactionManager transactionManager) {
+                                                     PlatformTransactionManager transactionManager,
+                                                     ObjectProvider<ConsumeCompletionNotifier> completionNotifier) {
         return new DefaultEventHandlerTemplate(
                 repository,
                 transactionManager,
                 Clock.systemUTC(),
-                ConsumeMetrics.noop()
+                ConsumeMetrics.noop(),
+                completionNotifier.getIfAvailable(ConsumeCompletionNotifier::local)
         );
     }
 }
@@ -0,0 +1,56 @@
+package com.bluecone.app.core.event.consume.spi;
+
+import com.bluecone.app.id.core.Ulid128;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * 跨节点的消费完成通知扩展点。
+ *
+ * <p>持有消费权的节点在标记成功或失败后发布通知，其他节点上等待同一事件的线程据此立即返回，
+ * 不再轮询消费表。通知只是加速信号，丢失时等待方在超时后回查数据库兜底。</p>
+ *
+ * <p>等待方在回查数据库前先登记 {@link #awaiting}，实现可据此只为有远端等待方的事件广播完成通知。</p>
+ */
+public interface ConsumeCompletionNotifier {
+
+    /**
+     * 广播一次消费完成，须快速返回，不得抛出异常。
+     */
+    void publish(ConsumeCompletion completion);
+
+    /**
+     * 登记本节点正在等待指定事件完成，最长等待 waitMax；在回查数据库之前调用。默认不做任何事。
+     */
+    default void awaiting(String consumerGroup, Ulid128 eventId, Duration waitMax) {
+    }
+
+    /**
+     * 订阅其他节点发布的完成通知，回调须快速返回。
+     */
+    void subscribe(Consumer<ConsumeCompletion> listener);
+
+    /**
+     * 仅本进程内通知的实现。
+     */
+    static ConsumeCompletionNotifier local() {
+        return new ConsumeCompletionNotifier() {
+            @Override
+            public void publish(ConsumeCompletion completion) {
+            }
+
+            @Override
+            public void subscribe(Consumer<ConsumeCompletion> listener) {
+            }
+        };
+    }
+
+    /**
+     * 消费完成事件。
+     *
+     * @param succeeded true 表示成功，false 表示本次处理失败
+     */
+    record ConsumeCompletion(String consumerGroup, Ulid128 eventId, boolean succeeded) {
+    }
+}
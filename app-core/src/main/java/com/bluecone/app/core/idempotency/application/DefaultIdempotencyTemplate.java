@@ -1,9 +1,16 @@
 package com.bluecone.app.core.idempotency.application;
 
+import java.lang.reflect.Method;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import com.bluecone.app.core.idempotency.api.IdempotentResult;
@@ -14,6 +21,7 @@ import com.bluecone.app.core.idempotency.api.IdempotencyStorageException;
 import com.bluecone.app.core.idempotency.api.IdempotencyTemplate;
 import com.bluecone.app.core.idempotency.domain.IdemStatus;
 import com.bluecone.app.core.idempotency.domain.IdempotencyRecord;
+import com.bluecone.app.core.idempotency.spi.IdempotencyFastStore;
 import com.bluecone.app.core.idempotency.spi.IdempotencyLock;
 import com.bluecone.app.core.idempotency.spi.IdempotencyMetrics;
 import com.bluecone.app.core.idempotency.spi.IdempotencyRepository;
@@ -24,30 +32,118 @@ import com.bluecone.app.core.idempotency.spi.IdempotencyRepository.MarkFailedCom
 import com.bluecone.app.core.idempotency.spi.IdempotencyRepository.MarkSuccessCommand;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * 默认幂等执行模板实现。
  *
  * <p>基于数据库幂等记录 + 可选分布式锁实现高并发幂等控制，支持请求冲突检测与结果重放。</p>
+ *
+ * <p>配置 {@link IdempotencyFastStore} 时，快速存储中已有的幂等键直接重放或判定冲突，不访问数据库；
+ * 未命中（新请求、淘汰、故障切换）时仍由数据库同步获取执行权，并用数据库结果回填快速存储。
+ * 获得执行权后的结果先写快速存储，数据库终态由有界线程池异步补写并重试，重试耗尽记录指标告警。
+ * 关闭时等待内置线程池中排队的补写完成，之后的补写改由调用线程同步执行。</p>
  */
-public class DefaultIdempotencyTemplate implements IdempotencyTemplate {
+public class DefaultIdempotencyTemplate implements IdempotencyTemplate, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DefaultIdempotencyTemplate.class);
+    private static final int BACKSTOP_THREADS = 4;
+    private static final int BACKSTOP_QUEUE_CAPACITY = 2048;
+    private static final int BACKSTOP_MAX_ATTEMPTS = 3;
+    private static final long BACKSTOP_RETRY_BACKOFF_MILLIS = 200L;
+    private static final long BACKSTOP_SHUTDOWN_TIMEOUT_SECONDS = 30L;
+
+    /**
+     * 按结果类型缓存 publicId()/getPublicId() 访问器，避免每次执行都反射查找方法。
+     */
+    private static final ClassValue<Optional<Method>> REF_ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Optional<Method> computeValue(Class<?> type) {
+            for (String name : new String[]{"publicId", "getPublicId"}) {
+                try {
+                    return Optional.of(type.getMethod(name));
+                } catch (NoSuchMethodException ignored) {
+                }
+            }
+            return Optional.empty();
+        }
+    };
 
     private final IdempotencyRepository repository;
     private final IdempotencyLock lock;
     private final IdempotencyMetrics metrics;
     private final ObjectMapper objectMapper;
     private final Clock clock;
+    private final IdempotencyFastStore fastStore;
+    private final Executor backstopExecutor;
+    /**
+     * 模板自建的补写线程池，由 {@link #close()} 关闭；外部传入的执行器由调用方管理生命周期。
+     */
+    private final ExecutorService ownedBackstopExecutor;
 
     public DefaultIdempotencyTemplate(IdempotencyRepository repository,
                                       IdempotencyLock lock,
                                       IdempotencyMetrics metrics,
                                       ObjectMapper objectMapper,
                                       Clock clock) {
+        this(repository, lock, metrics, objectMapper, clock, null, null);
+    }
+
+    /**
+     * @param fastStore        快速存储，为 null 时仅使用数据库
+     * @param backstopExecutor 数据库异步补写执行器，为 null 时使用固定线程数、有界队列的线程池，队列满或已关闭时由调用线程同步写入
+     */
+    public DefaultIdempotencyTemplate(IdempotencyRepository repository,
+                                      IdempotencyLock lock,
+                                      IdempotencyMetrics metrics,
+                                      ObjectMapper objectMapper,
+                                      Clock clock,
+                                      IdempotencyFastStore fastStore,
+                                      Executor backstopExecutor) {
         this.repository = repository;
         this.lock = (lock != null ? lock : IdempotencyLock.noop());
         this.metrics = (metrics != null ? metrics : IdempotencyMetrics.noop());
         this.objectMapper = objectMapper;
         this.clock = (clock != null ? clock : Clock.systemUTC());
+        this.fastStore = fastStore;
+        this.ownedBackstopExecutor = (backstopExecutor != null ? null : newBackstopExecutor());
+        this.backstopExecutor = (backstopExecutor != null ? backstopExecutor : ownedBackstopExecutor);
+    }
+
+    private static ExecutorService newBackstopExecutor() {
+        // 不用 CallerRunsPolicy：它在线程池关闭后会静默丢弃任务，这里无论队列满还是已关闭都由调用线程补写
+        return new ThreadPoolExecutor(BACKSTOP_THREADS, BACKSTOP_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(BACKSTOP_QUEUE_CAPACITY),
+                Thread.ofPlatform().daemon().name("idempotency-backstop-", 0).factory(),
+                (task, executor) -> task.run());
+    }
+
+    /**
+     * 停止接收新的异步补写，并等待已排队的补写落库；超时仍未完成的按补写失败记录告警。
+     */
+    @Override
+    public void close() {
+        if (ownedBackstopExecutor == null || ownedBackstopExecutor.isShutdown()) {
+            return;
+        }
+        ownedBackstopExecutor.shutdown();
+        try {
+            if (!ownedBackstopExecutor.awaitTermination(BACKSTOP_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                abandonBackstops();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            abandonBackstops();
+        }
+    }
+
+    private void abandonBackstops() {
+        int dropped = ownedBackstopExecutor.shutdownNow().size();
+        for (int i = 0; i < dropped; i++) {
+            metrics.recordBackstopFailure();
+        }
+        log.error("[Idempotency] backstop executor did not drain on shutdown, dropped={}", dropped);
     }
 
     @Override
@@ -56,9 +152,24 @@ public class DefaultIdempotencyTemplate implements IdempotencyTemplate {
         Instant expireAt = now.plus(request.ttl());
         Instant lockUntil = now.plus(request.lockTtl());
 
+        AcquireCommand command = new AcquireCommand(
+                request.tenantId(),
+                request.bizType(),
+                request.idemKey(),
+                request.requestHash(),
+                expireAt,
+                lockUntil
+        );
+
         String lockKey = buildLockKey(request);
         boolean locked = false;
         try {
+            if (fastStore != null) {
+                AcquireResult cached = lookupFastStore(command);
+                if (cached != null) {
+                    return handleAcquire(cached, request, command, resultType, supplier, now);
+                }
+            }
             locked = lock.tryLock(lockKey, request.lockTtl());
             if (!locked) {
                 // 未获取到锁时，先尝试快速重放或返回处理中
@@ -72,6 +183,7 @@ public class DefaultIdempotencyTemplate implements IdempotencyTemplate {
                         throw conflictException(request, existing);
                     }
                     if (existing.status() == IdemStatus.SUCCEEDED && existing.expireAt().isAfter(now)) {
+                        warmFastStore(existing);
                         metrics.recordReplay();
                         T value = deserializeResult(existing, resultType);
                         return new IdempotentResult<>(true, false, value);
@@ -87,37 +199,11 @@ public class DefaultIdempotencyTemplate implements IdempotencyTemplate {
                 // 走正常获取流程（可能是租约过期或记录不存在）
             }
 
-            AcquireCommand command = new AcquireCommand(
-                    request.tenantId(),
-                    request.bizType(),
-                    request.idemKey(),
-                    request.requestHash(),
-                    expireAt,
-                    lockUntil
-            );
-
             AcquireResult acquireResult = repository.tryAcquire(command);
-            metrics.recordAcquire(acquireResult.state());
-
-            return switch (acquireResult.state()) {
-                case ACQUIRED -> executeBusinessAndPersist(request, resultType, supplier, expireAt);
-                case REPLAY_SUCCEEDED -> {
-                    metrics.recordReplay();
-                    T value = deserializeResult(acquireResult.record(), resultType);
-                    yield new IdempotentResult<>(true, false, value);
-                }
-                case CONFLICT -> {
-                    metrics.recordConflict();
-                    throw conflictException(request, acquireResult.record());
-                }
-                case IN_PROGRESS, RETRYABLE -> {
-                    metrics.recordInProgress();
-                    if (!request.waitForCompletion()) {
-                        yield new IdempotentResult<>(false, true, null);
-                    }
-                    yield waitForCompletion(request, resultType, now);
-                }
-            };
+            if (acquireResult.state() == AcquireState.REPLAY_SUCCEEDED) {
+                warmFastStore(acquireResult.record());
+            }
+            return handleAcquire(acquireResult, request, command, resultType, supplier, now);
         } catch (IdempotencyConflictException | IdempotencyInProgressException e) {
             throw e;
         } catch (Exception e) {
@@ -129,6 +215,62 @@ public class DefaultIdempotencyTemplate implements IdempotencyTemplate {
         }
     }
 
+    /**
+     * 查询快速存储，未命中或异常时返回 null，由数据库获取执行权。
+     */
+    private AcquireResult lookupFastStore(AcquireCommand command) {
+        try {
+            return fastStore.lookup(command).orElse(null);
+        } catch (RuntimeException ex) {
+            log.warn("[Idempotency] fast store lookup failed, fallback to repository bizType={} idemKey={} message={}",
+                    command.bizType(), command.idemKey(), ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 用数据库中的成功记录回填快速存储，后续重放不再访问数据库；回填失败不影响本次结果。
+     */
+    private void warmFastStore(IdempotencyRecord record) {
+        if (fastStore == null || record == null || record.status() != IdemStatus.SUCCEEDED) {
+            return;
+        }
+        try {
+            fastStore.markSuccess(new MarkSuccessCommand(record.tenantId(), record.bizType(), record.idemKey(),
+                    record.requestHash(), record.resultRef(), record.resultJson(), record.expireAt()));
+        } catch (RuntimeException ex) {
+            log.debug("[Idempotency] fast store warm failed idemKey={} message={}", record.idemKey(), ex.getMessage());
+        }
+    }
+
+    private <T> IdempotentResult<T> handleAcquire(AcquireResult acquireResult,
+                                                  IdempotencyRequest request,
+                                                  AcquireCommand command,
+                                                  Class<T> resultType,
+                                                  Supplier<T> supplier,
+                                                  Instant now) {
+        metrics.recordAcquire(acquireResult.state());
+        return switch (acquireResult.state()) {
+            case ACQUIRED -> executeBusinessAndPersist(request, command, resultType, supplier);
+            case REPLAY_SUCCEEDED -> {
+                metrics.recordReplay();
+                T value = deserializeResult(acquireResult.record(), resultType);
+                yield new IdempotentResult<>(true, false, value);
+            }
+            case CONFLICT -> {
+                metrics.recordConflict();
+                throw conflictException(request, acquireResult.record());
+            }
+            case IN_PROGRESS, RETRYABLE -> {
+                metrics.recordInProgress();
+                if (!request.waitForCompletion()) {
+                    yield new IdempotentResult<>(false, true, null);
+                }
+                yield waitForCompletion(request, resultType, now);
+            }
+        };
+    }
+
     private String buildLockKey(IdempotencyRequest request) {
         return "idem:" + request.tenantId() + ":" + request.bizType() + ":" + request.idemKey();
     }
@@ -142,15 +284,16 @@ public class DefaultIdempotencyTemplate implements IdempotencyTemplate {
     }
 
     private <T> IdempotentResult<T> executeBusinessAndPersist(IdempotencyRequest request,
+                                                              AcquireCommand command,
                                                               Class<T> resultType,
-                                                              Supplier<T> supplier,
-                                                              Instant expireAt) {
+                                                              Supplier<T> supplier) {
+        Instant expireAt = command.expireAt();
         T value;
         try {
             value = supplier.get();
         } catch (RuntimeException ex) {
             // 业务异常：记录失败信息并抛出
-            repository.markFailed(new MarkFailedCommand(
+            persistFailed(new MarkFailedCommand(
                     request.tenantId(),
                     request.bizType(),
                     request.idemKey(),
@@ -161,7 +304,7 @@ public class DefaultIdempotencyTemplate implements IdempotencyTemplate {
             ));
             throw ex;
         } catch (Exception ex) {
-            repository.markFailed(new MarkFailedCommand(
+            persistFailed(new MarkFailedCommand(
                     request.tenantId(),
                     request.bizType(),
                     request.idemKey(),
@@ -174,7 +317,7 @@ public class DefaultIdempotencyTemplate implements IdempotencyTemplate {
         }
 
         ResultPayload payload = serializeResult(value);
-        repository.markSuccess(new MarkSuccessCommand(
+        persistSuccess(new MarkSuccessCommand(
                 request.tenantId(),
                 request.bizType(),
                 request.idemKey(),
@@ -186,6 +329,69 @@ public class DefaultIdempotencyTemplate implements IdempotencyTemplate {
         return new IdempotentResult<>(false, false, value);
     }
 
+    private void persistSuccess(MarkSuccessCommand command) {
+        if (!writeFastStore(() -> fastStore.markSuccess(command), command.idemKey())) {
+            repository.markSuccess(command);
+            return;
+        }
+        submitBackstop(command.bizType(), command.idemKey(), () -> repository.markSuccess(command));
+    }
+
+    private void persistFailed(MarkFailedCommand command) {
+        if (!writeFastStore(() -> fastStore.markFailed(command), command.idemKey())) {
+            repository.markFailed(command);
+            return;
+        }
+        submitBackstop(command.bizType(), command.idemKey(), () -> repository.markFailed(command));
+    }
+
+    /**
+     * 终态先写快速存储；未配置或写入失败时返回 false，由调用方同步写数据库。
+     */
+    private boolean writeFastStore(Runnable write, String idemKey) {
+        if (fastStore == null) {
+            return false;
+        }
+        try {
+            write.run();
+            return true;
+        } catch (RuntimeException ex) {
+            log.warn("[Idempotency] fast store write failed, write repository synchronously idemKey={} message={}",
+                    idemKey, ex.getMessage());
+            return false;
+        }
+    }
+
+    private void submitBackstop(String bizType, String idemKey, Runnable mark) {
+        try {
+            backstopExecutor.execute(() -> writeBackstop(bizType, idemKey, mark));
+        } catch (RejectedExecutionException ex) {
+            writeBackstop(bizType, idemKey, mark);
+        }
+    }
+
+    /**
+     * 补写数据库终态，失败按退避重试；重试耗尽时记录告警指标，数据库记录停留在处理中直至租约过期。
+     */
+    private void writeBackstop(String bizType, String idemKey, Runnable mark) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                mark.run();
+                return;
+            } catch (RuntimeException ex) {
+                if (attempt >= BACKSTOP_MAX_ATTEMPTS) {
+                    metrics.recordBackstopFailure();
+                    log.error("[Idempotency] repository backstop write failed after {} attempts bizType={} idemKey={}",
+                            attempt, bizType, idemKey, ex);
+                    return;
+                }
+                log.warn("[Idempotency] repository backstop write failed, retrying attempt={} bizType={} idemKey={} message={}",
+                        attempt, bizType, idemKey, ex.getMessage());
+                sleepQuietly(BACKSTOP_RETRY_BACKOFF_MILLIS * attempt);
+            }
+        }
+    }
+
     private record ResultPayload(String ref, String json) {
     }
 
@@ -213,24 +419,17 @@ public class DefaultIdempotencyTemplate implements IdempotencyTemplate {
     }
 
     private String extractRef(Object value) {
+        // 优先尝试 publicId()/getPublicId() 方法
+        Optional<Method> accessor = REF_ACCESSORS.get(value.getClass());
+        if (accessor.isEmpty()) {
+            return null;
+        }
         try {
-            // 优先尝试 publicId()/getPublicId() 方法
-            var clazz = value.getClass();
-            try {
-                var m = clazz.getMethod("publicId");
-                Object v = m.invoke(value);
-                return v != null ? v.toString() : null;
-            } catch (NoSuchMethodException ignored) {
-            }
-            try {
-                var m = clazz.getMethod("getPublicId");
-                Object v = m.invoke(value);
-                return v != null ? v.toString() : null;
-            } catch (NoSuchMethodException ignored) {
-            }
+            Object v = accessor.get().invoke(value);
+            return v != null ? v.toString() : null;
         } catch (Exception ignored) {
+            return null;
         }
-        return null;
     }
 
     private <T> IdempotentResult<T> waitForCompletion(IdempotencyRequest request,
@@ -243,8 +442,7 @@ public class DefaultIdempotencyTemplate implements IdempotencyTemplate {
         }
         Instant deadline = start.plus(waitMax);
         while (Instant.now(clock).isBefore(deadline)) {
-            Optional<IdempotencyRecord> recordOpt =
-                    repository.find(request.tenantId(), request.bizType(), request.idemKey());
+            Optional<IdempotencyRecord> recordOpt = findForWait(request);
             if (recordOpt.isEmpty()) {
                 // 记录不存在，视为处理中
                 sleepQuietly(50);
@@ -269,6 +467,23 @@ public class DefaultIdempotencyTemplate implements IdempotencyTemplate {
         return new IdempotentResult<>(false, true, null);
     }
 
+    /**
+     * 等待时优先读快速存储中的终态：数据库终态异步补写，可能晚于快速存储可见。
+     */
+    private Optional<IdempotencyRecord> findForWait(IdempotencyRequest request) {
+        if (fastStore != null) {
+            try {
+                Optional<IdempotencyRecord> cached = fastStore.find(request.tenantId(), request.bizType(), request.idemKey());
+                if (cached.isPresent() && cached.get().status() != IdemStatus.PROCESSING) {
+                    return cached;
+                }
+            } catch (RuntimeException ex) {
+                log.debug("[Idempotency] fast store find failed idemKey={} message={}", request.idemKey(), ex.getMessage());
+            }
+        }
+        return repository.find(request.tenantId(), request.bizType(), request.idemKey());
+    }
+
     private void sleepQuietly(long millis) {
         try {
             Thread.sleep(millis);
@@ -0,0 +1,41 @@
+package com.bluecone.app.core.idempotency.spi;
+
+import java.util.Optional;
+
+import com.bluecone.app.core.idempotency.domain.IdempotencyRecord;
+import com.bluecone.app.core.idempotency.spi.IdempotencyRepository.AcquireCommand;
+import com.bluecone.app.core.idempotency.spi.IdempotencyRepository.AcquireResult;
+import com.bluecone.app.core.idempotency.spi.IdempotencyRepository.MarkFailedCommand;
+import com.bluecone.app.core.idempotency.spi.IdempotencyRepository.MarkSuccessCommand;
+
+/**
+ * 幂等快速存储，通常由 Redis 实现，位于数据库之前拦截已知幂等键的重放与冲突。
+ *
+ * <p>快速存储只缓存数据库中已确定的结果，不负责获取执行权：键不存在（新请求、淘汰、故障切换）时
+ * 调用方必须回到数据库获取执行权，再用数据库结果回填快速存储。</p>
+ */
+public interface IdempotencyFastStore {
+
+    /**
+     * 按已缓存的记录判断能否直接返回。
+     *
+     * @param command 尝试获取命令
+     * @return 成功记录返回 REPLAY_SUCCEEDED，摘要不同返回 CONFLICT；未缓存或非终态成功时返回空，由数据库裁决
+     */
+    Optional<AcquireResult> lookup(AcquireCommand command);
+
+    /**
+     * 根据幂等键查询记录，用于等待处理中的请求完成。
+     */
+    Optional<IdempotencyRecord> find(long tenantId, String bizType, String idemKey);
+
+    /**
+     * 标记成功并缓存结果，键不存在时按本次结果创建。
+     */
+    void markSuccess(MarkSuccessCommand command);
+
+    /**
+     * 标记失败，键不存在时按本次结果创建。
+     */
+    void markFailed(MarkFailedCommand command);
+}
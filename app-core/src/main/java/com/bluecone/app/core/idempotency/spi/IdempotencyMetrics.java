@@ -15,6 +15,12 @@ public interface IdempotencyMetrics {
 
     void recordInProgress();
 
+    /**
+     * 快速存储模式下数据库补写重试耗尽，记录需要告警：快速存储丢失后该键可能被重复执行。
+     */
+    default void recordBackstopFailure() {
+    }
+
     static IdempotencyMetrics noop() {
         return new IdempotencyMetrics() {
             @Override
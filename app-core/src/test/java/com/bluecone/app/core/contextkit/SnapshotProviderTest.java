@@ -3,13 +3,24 @@ package com.bluecone.app.core.contextkit;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
- * SnapshotProvider 行为测试：缓存命中、版本失效重载、负缓存命中。
+ * SnapshotProvider 行为测试：缓存命中、版本失效重载、负缓存命中、并发合并回源、单次查询回填与批量加载。
  */
 class SnapshotProviderTest {
 
@@ -75,10 +86,115 @@ class SnapshotProviderTest {
         assertThat(repo.loadFullCalls.get()).isEqualTo(1);
     }
 
+    @Test
+    void concurrentMissesShouldShareOneLoad() throws Exception {
+        CountDownLatch loaderEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InMemoryRepo repo = new InMemoryRepo() {
+            @Override
+            public Optional<DummySnap> loadFull(SnapshotLoadKey key) {
+                loaderEntered.countDown();
+                await(release);
+                return super.loadFull(key);
+            }
+        };
+        repo.snapshot = new DummySnap(1L, 1L);
+        ContextCache cache = new CaffeineContextCache(1000);
+        VersionChecker vc = new VersionChecker(Duration.ofSeconds(2), 0.0d);
+        ContextKitProperties props = new ContextKitProperties();
+        SnapshotProvider<DummySnap> provider = new SnapshotProvider<>();
+        SnapshotLoadKey key = new SnapshotLoadKey(1L, "test", 1L);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<DummySnap>> futures = new ArrayList<>();
+            futures.add(pool.submit(() -> provider.getOrLoad(key, repo, cache, vc, new DummySerde(), props)));
+            assertThat(loaderEntered.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 7; i++) {
+                futures.add(pool.submit(() -> provider.getOrLoad(key, repo, cache, vc, new DummySerde(), props)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<DummySnap> future : futures) {
+                assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo(new DummySnap(1L, 1L));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(repo.loadFullCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void fillShouldUseCombinedLoadWithVersion() {
+        InMemoryRepo repo = new InMemoryRepo() {
+            @Override
+            public Optional<VersionedSnapshot<DummySnap>> loadFullWithVersion(SnapshotLoadKey key) {
+                return loadFull(key).map(snap -> new VersionedSnapshot<>(snap, snap.version()));
+            }
+        };
+        repo.snapshot = new DummySnap(1L, 7L);
+        ContextCache cache = new CaffeineContextCache(1000);
+        SnapshotProvider<DummySnap> provider = new SnapshotProvider<>();
+        SnapshotLoadKey key = new SnapshotLoadKey(1L, "test", 1L);
+
+        provider.getOrLoad(key, repo, cache, new VersionChecker(Duration.ofSeconds(2), 0.0d), new DummySerde(),
+                new ContextKitProperties());
+
+        assertThat(repo.loadVersionCalls.get()).isZero();
+        assertThat(cache.get(new CacheKey("test", "1:1")))
+                .get()
+                .isInstanceOfSatisfying(HitValue.class, hit -> assertThat(hit.version()).isEqualTo(7L));
+    }
+
+    @Test
+    void batchShouldHitEachTierOnce() {
+        BatchRepo repo = new BatchRepo();
+        repo.snapshots.put(1L, new DummySnap(1L, 1L));
+        repo.snapshots.put(2L, new DummySnap(2L, 1L));
+        repo.snapshots.put(3L, new DummySnap(3L, 1L));
+        ContextCache cache = new CaffeineContextCache(1000);
+        VersionChecker vc = new VersionChecker(Duration.ofSeconds(2), 1.0d);
+        ContextKitProperties props = new ContextKitProperties();
+        SnapshotProvider<DummySnap> provider = new SnapshotProvider<>();
+        SnapshotLoadKey k1 = new SnapshotLoadKey(1L, "test", 1L);
+        SnapshotLoadKey k2 = new SnapshotLoadKey(1L, "test", 2L);
+        SnapshotLoadKey k3 = new SnapshotLoadKey(1L, "test", 3L);
+        SnapshotLoadKey missing = new SnapshotLoadKey(1L, "test", 4L);
+
+        // k1、k2 预热；k2 在库中已升版本
+        provider.getOrLoadAll(List.of(k1, k2), repo, cache, vc, new DummySerde(), props);
+        repo.snapshots.put(2L, new DummySnap(2L, 2L));
+        repo.resetCounters();
+
+        Map<SnapshotLoadKey, DummySnap> result = provider.getOrLoadAll(List.of(k3, k1, missing, k2), repo, cache,
+                new VersionChecker(Duration.ofSeconds(2), 1.0d), new DummySerde(), props);
+
+        assertThat(result.keySet()).containsExactly(k3, k1, k2);
+        assertThat(result.get(k2).version()).isEqualTo(2L);
+        assertThat(repo.versionBatchCalls.get()).isEqualTo(1);
+        assertThat(repo.fullBatchCalls.get()).isEqualTo(1);
+        assertThat(repo.lastFullBatch).containsExactlyInAnyOrder(k3, missing, k2);
+
+        // 负缓存与新回填的条目不再回源
+        repo.resetCounters();
+        provider.getOrLoadAll(List.of(k1, k2, k3, missing), repo, cache, vc, new DummySerde(), props);
+        assertThat(repo.fullBatchCalls.get()).isZero();
+        assertThat(cache.get(new CacheKey("test", "1:4"))).get().isInstanceOf(NegativeValue.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private static class InMemoryRepo implements SnapshotRepository<DummySnap> {
 
         private final AtomicInteger loadFullCalls = new AtomicInteger();
-        private DummySnap snapshot;
+        private final AtomicInteger loadVersionCalls = new AtomicInteger();
+        private volatile DummySnap snapshot;
 
         @Override
         public Optional<DummySnap> loadFull(SnapshotLoadKey key) {
@@ -88,10 +204,51 @@ class SnapshotProviderTest {
 
         @Override
         public Optional<Long> loadVersion(SnapshotLoadKey key) {
+            loadVersionCalls.incrementAndGet();
             return Optional.ofNullable(snapshot).map(DummySnap::version);
         }
     }
 
+    private static class BatchRepo implements SnapshotRepository<DummySnap> {
+
+        private final Map<Long, DummySnap> snapshots = new ConcurrentHashMap<>();
+        private final AtomicInteger fullBatchCalls = new AtomicInteger();
+        private final AtomicInteger versionBatchCalls = new AtomicInteger();
+        private volatile List<SnapshotLoadKey> lastFullBatch = List.of();
+
+        @Override
+        public Optional<DummySnap> loadFull(SnapshotLoadKey key) {
+            return Optional.ofNullable(snapshots.get((Long) key.scopeId()));
+        }
+
+        @Override
+        public Optional<Long> loadVersion(SnapshotLoadKey key) {
+            return loadFull(key).map(DummySnap::version);
+        }
+
+        @Override
+        public Map<SnapshotLoadKey, VersionedSnapshot<DummySnap>> loadFullBatch(Collection<SnapshotLoadKey> keys) {
+            fullBatchCalls.incrementAndGet();
+            lastFullBatch = List.copyOf(keys);
+            Map<SnapshotLoadKey, VersionedSnapshot<DummySnap>> result = new HashMap<>();
+            keys.forEach(key -> loadFull(key).ifPresent(snap -> result.put(key, new VersionedSnapshot<>(snap, snap.version()))));
+            return result;
+        }
+
+        @Override
+        public Map<SnapshotLoadKey, Long> loadVersionBatch(Collection<SnapshotLoadKey> keys) {
+            versionBatchCalls.incrementAndGet();
+            Map<SnapshotLoadKey, Long> result = new HashMap<>();
+            keys.forEach(key -> loadVersion(key).ifPresent(version -> result.put(key, version)));
+            return result;
+        }
+
+        void resetCounters() {
+            fullBatchCalls.set(0);
+            versionBatchCalls.set(0);
+        }
+    }
+
     private static class DummySerde implements SnapshotSerde<DummySnap> {
 
         @Override
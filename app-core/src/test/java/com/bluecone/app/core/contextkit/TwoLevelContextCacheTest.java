@@ -0,0 +1,53 @@
+package com.bluecone.app.core.contextkit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * TwoLevelContextCache L2 命中回填 L1 测试。
+ */
+class TwoLevelContextCacheTest {
+
+    @Test
+    void l2HitShouldBackfillL1WithConfiguredTtl() {
+        RecordingCache l1 = new RecordingCache();
+        RecordingCache l2 = new RecordingCache();
+        ContextKitProperties props = new ContextKitProperties();
+        props.setL1Ttl(Duration.ofMinutes(3));
+        props.setNegativeTtl(Duration.ofSeconds(20));
+        TwoLevelContextCache cache = new TwoLevelContextCache(l1, l2, props);
+        CacheKey hitKey = new CacheKey("store:snap", "1:1");
+        CacheKey negativeKey = new CacheKey("store:snap", "1:2");
+        l2.put(hitKey, new HitValue<>("v", 1L), Duration.ofMinutes(30));
+        l2.put(negativeKey, new NegativeValue("NOT_FOUND"), Duration.ofMinutes(30));
+
+        assertThat(cache.get(hitKey)).isPresent();
+        assertThat(cache.get(negativeKey)).isPresent();
+
+        assertThat(l1.ttls).containsEntry(hitKey, Duration.ofMinutes(3)).containsEntry(negativeKey, Duration.ofSeconds(20));
+        assertThat(l1.get(hitKey)).contains(new HitValue<>("v", 1L));
+    }
+
+    private static class RecordingCache implements ContextCache {
+
+        private final Map<CacheKey, CacheValue> values = new HashMap<>();
+        private final Map<CacheKey, Duration> ttls = new HashMap<>();
+
+        @Override
+        public <T> Optional<CacheValue> get(CacheKey key) {
+            return Optional.ofNullable(values.get(key));
+        }
+
+        @Override
+        public void put(CacheKey key, CacheValue value, Duration ttl) {
+            values.put(key, value);
+            ttls.put(key, ttl);
+        }
+    }
+}
@@ -2,12 +2,16 @@ package com.bluecone.app.core.contextkit;
 
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
- * VersionChecker 窗口与采样测试。
+ * VersionChecker 窗口、采样、容量淘汰与内存占用测试。
  */
 class VersionCheckerTest {
 
@@ -23,5 +27,64 @@ class VersionCheckerTest {
         assertThat(first).isTrue();
         assertThat(second).isFalse();
     }
-}
 
+    @Test
+    void shouldCheckAgainAfterWindow() {
+        AtomicLong nanos = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+        VersionChecker checker = new VersionChecker(Duration.ofSeconds(2), 1.0d, 16, nanos::get);
+        CacheKey key = new CacheKey("store:snap", "t1:1");
+
+        checker.markChecked(key);
+        nanos.addAndGet(Duration.ofMillis(1999).toNanos());
+        assertThat(checker.shouldCheck(key)).isFalse();
+
+        nanos.addAndGet(Duration.ofMillis(1).toNanos());
+        assertThat(checker.shouldCheck(key)).isTrue();
+    }
+
+    @Test
+    void evictedKeyShouldFallBackToCheck() {
+        AtomicLong nanos = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+        VersionChecker checker = new VersionChecker(Duration.ofMinutes(1), 1.0d, 4, nanos::get);
+        CacheKey first = new CacheKey("store:snap", "t1:0");
+        checker.markChecked(first);
+
+        for (int i = 1; i <= 64; i++) {
+            nanos.incrementAndGet();
+            checker.markChecked(new CacheKey("store:snap", "t1:" + i));
+        }
+
+        assertThat(checker.capacity()).isEqualTo(4);
+        assertThat(checker.shouldCheck(first)).isTrue();
+    }
+
+    @Test
+    void heapShouldStayFlatOverTenMillionDistinctKeys() {
+        VersionChecker checker = new VersionChecker(Duration.ofSeconds(2), 1.0d);
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+        markRange(checker, 0, 1_000_000);
+        long afterWarmup = usedHeapAfterGc(memory);
+        markRange(checker, 1_000_000, 10_000_000);
+        long afterAll = usedHeapAfterGc(memory);
+
+        // 旧实现每个 key 约 150 字节常驻，9M 新 key 会增长 1GB 以上；定长表应基本不变
+        assertThat(afterAll - afterWarmup).isLessThan(32L * 1024 * 1024);
+    }
+
+    private static void markRange(VersionChecker checker, int fromInclusive, int toExclusive) {
+        for (int i = fromInclusive; i < toExclusive; i++) {
+            CacheKey key = new CacheKey("product:snap", "t" + (i & 1023) + ":" + i);
+            if (checker.shouldCheck(key)) {
+                checker.markChecked(key);
+            }
+        }
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,191 @@
+package com.bluecone.app.core.event.bus;
+
+import com.bluecone.app.core.event.consume.api.ConsumeOptions;
+import com.bluecone.app.core.event.consume.api.ConsumeResult;
+import com.bluecone.app.core.event.consume.api.EventEnvelope;
+import com.bluecone.app.core.event.consume.api.EventHandlerTemplate;
+import com.bluecone.app.core.tenant.TenantContext;
+import com.bluecone.app.id.core.Ulid128;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * InProcessEventBus 同步/异步投递单元测试。
+ */
+class InProcessEventBusTest {
+
+    /**
+     * 直接调用 handler 的模板，不做去重。
+     */
+    private static final EventHandlerTemplate DIRECT = (group, event, handler, options) -> {
+        try {
+            handler.handle(event);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        return new ConsumeResult(false, false, true, 0);
+    };
+
+    private static final ConsumeOptions OPTIONS = new ConsumeOptions(
+            Duration.ofSeconds(30), false, Duration.ZERO, 20, Duration.ofSeconds(1), Duration.ofMinutes(5));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InProcessEventBus bus = new InProcessEventBus(DIRECT, OPTIONS, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        bus.close();
+    }
+
+    @Test
+    void syncGroupRunsOnPublisherThread() {
+        List<Thread> threads = new ArrayList<>();
+        bus.register("SYNC", "ORDER_PAID", evt -> threads.add(Thread.currentThread()));
+
+        bus.publish(event(1, "o-1"));
+
+        assertEquals(List.of(Thread.currentThread()), threads);
+    }
+
+    @Test
+    void asyncGroupDoesNotBlockPublisherOnSlowHandler() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        bus.enableAsync("SLOW", AsyncGroupOptions.defaults(evt -> null));
+        bus.register("SLOW", "ORDER_PAID", evt -> {
+            release.await();
+            done.countDown();
+        });
+
+        long start = System.nanoTime();
+        bus.publish(event(1, "o-1"));
+        long elapsed = System.nanoTime() - start;
+
+        assertTrue(elapsed < TimeUnit.MILLISECONDS.toNanos(500));
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.get("bluecone_event_bus_lag_seconds").tag("group", "SLOW").timer().count());
+    }
+
+    @Test
+    void asyncGroupKeepsPublishOrderPerKey() throws Exception {
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(300);
+        bus.enableAsync("ORDERED", new AsyncGroupOptions(8, 512, Duration.ofSeconds(1),
+                evt -> evt.payloadJson()));
+        bus.register("ORDERED", "ORDER_PAID", evt -> {
+            seen.computeIfAbsent(evt.payloadJson(), k -> new CopyOnWriteArrayList<>())
+                    .add((int) evt.eventId().lsb());
+            done.countDown();
+        });
+
+        for (int i = 0; i < 300; i++) {
+            bus.publish(event(i, "o-" + (i % 3)));
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (List<Integer> sequence : seen.values()) {
+            List<Integer> sorted = new ArrayList<>(sequence);
+            sorted.sort(Integer::compare);
+            assertEquals(sorted, sequence);
+        }
+    }
+
+    @Test
+    void asyncGroupRejectsWhenQueueStaysFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        bus.enableAsync("TIGHT", new AsyncGroupOptions(1, 1, Duration.ofMillis(50), evt -> null));
+        bus.register("TIGHT", "ORDER_PAID", evt -> {
+            started.countDown();
+            release.await();
+        });
+
+        bus.publish(event(1, "o-1"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        bus.publish(event(2, "o-1"));
+
+        assertThrows(RejectedExecutionException.class, () -> bus.publish(event(3, "o-1")));
+        assertEquals(1, bus.pending("TIGHT"));
+        assertEquals(1.0, meterRegistry.get("bluecone_event_bus_rejected_total").tag("group", "TIGHT")
+                .counter().count());
+        release.countDown();
+    }
+
+    @Test
+    void rejectedGroupDoesNotStopOtherGroups() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch otherDone = new CountDownLatch(1);
+        bus.enableAsync("TIGHT", new AsyncGroupOptions(1, 1, Duration.ofMillis(50), evt -> null));
+        bus.enableAsync("OTHER", AsyncGroupOptions.defaults(evt -> null));
+        bus.register("TIGHT", "ORDER_PAID", evt -> {
+            started.countDown();
+            release.await();
+        });
+        bus.register("OTHER", "ORDER_PAID", evt -> {
+            if (evt.eventId().lsb() == 3) {
+                otherDone.countDown();
+            }
+        });
+
+        bus.publish(event(1, "o-1"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        bus.publish(event(2, "o-1"));
+
+        assertThrows(RejectedExecutionException.class, () -> bus.publish(event(3, "o-1")));
+        assertTrue(otherDone.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    void asyncGroupWaitsForCommitAndKeepsCallerContext() throws Exception {
+        List<String> seen = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        bus.enableAsync("AFTER_COMMIT", AsyncGroupOptions.defaults(evt -> null));
+        bus.register("AFTER_COMMIT", "ORDER_PAID", evt -> {
+            seen.add(TenantContext.getTenantId() + "/" + MDC.get("traceId"));
+            done.countDown();
+        });
+
+        TransactionSynchronizationManager.initSynchronization();
+        TenantContext.setTenantId("t-1");
+        MDC.put("traceId", "trace-1");
+        try {
+            bus.publish(event(1, "o-1"));
+            assertFalse(done.await(200, TimeUnit.MILLISECONDS));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            TenantContext.clear();
+            MDC.clear();
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("t-1/trace-1"), seen);
+    }
+
+    private static EventEnvelope event(long seq, String aggregateId) {
+        return new EventEnvelope(1L, new Ulid128(0L, seq), "ORDER_PAID", aggregateId, "{}", Instant.now());
+    }
+}
@@ -7,6 +7,8 @@ import com.bluecone.app.core.event.consume.api.EventConsumeFailedException;
 import com.bluecone.app.core.event.consume.api.EventEnvelope;
 import com.bluecone.app.core.event.consume.api.EventHandler;
 import com.bluecone.app.core.event.consume.application.DefaultEventHandlerTemplate;
+import com.bluecone.app.core.event.consume.spi.ConsumeCompletionNotifier;
+import com.bluecone.app.core.event.consume.spi.ConsumeCompletionNotifier.ConsumeCompletion;
 import com.bluecone.app.core.event.consume.spi.ConsumeMetrics;
 import com.bluecone.app.core.event.consume.spi.EventDedupRepository;
 import com.bluecone.app.id.core.Ulid128;
@@ -23,6 +25,11 @@ import java.time.ZoneOffset;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -457,4 +464,78 @@ class DefaultEventHandlerTemplateTest {
                 template.consume("ORDER", envelope, evt -> {
                 }, options));
     }
+
+    @Test
+    void waiterShouldWakeOnOwnerCompletionWithoutPolling() throws Exception {
+        AtomicInteger findCount = new AtomicInteger();
+        InMemoryRepo repo = new InMemoryRepo(FIXED_CLOCK) {
+            @Override
+            public Optional<ConsumeRecord> find(String consumerGroup, Ulid128 eventId) {
+                findCount.incrementAndGet();
+                return super.find(consumerGroup, eventId);
+            }
+        };
+        DefaultEventHandlerTemplate template = newTemplate(repo);
+        EventEnvelope envelope = new EventEnvelope(1L, new Ulid128(11L, 12L), "ORDER_CREATED", "{}", "{}",
+                Instant.now(FIXED_CLOCK));
+        CountDownLatch ownerStarted = new CountDownLatch(1);
+        CountDownLatch releaseOwner = new CountDownLatch(1);
+        CompletableFuture<ConsumeResult> owner = CompletableFuture.supplyAsync(() ->
+                template.consume("ORDER", envelope, evt -> {
+                    ownerStarted.countDown();
+                    releaseOwner.await();
+                }, defaultOptions()));
+        assertTrue(ownerStarted.await(5, TimeUnit.SECONDS));
+
+        ConsumeOptions waitOptions = new ConsumeOptions(Duration.ofSeconds(30), true, Duration.ofSeconds(10),
+                20, Duration.ofSeconds(1), Duration.ofMinutes(5));
+        CompletableFuture<ConsumeResult> waiter = CompletableFuture.supplyAsync(() ->
+                template.consume("ORDER", envelope, evt -> fail("waiter must not run the handler"), waitOptions));
+        // 等待方挂起前只回查一次
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (findCount.get() < 1 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        long released = System.nanoTime();
+        releaseOwner.countDown();
+
+        ConsumeResult result = waiter.get(5, TimeUnit.SECONDS);
+        assertTrue(owner.get(5, TimeUnit.SECONDS).succeeded());
+        assertTrue(result.replayed());
+        assertTrue(System.nanoTime() - released < TimeUnit.SECONDS.toNanos(2));
+        assertEquals(1, findCount.get());
+    }
+
+    @Test
+    void waiterShouldWakeOnRemoteCompletionSignal() throws Exception {
+        InMemoryRepo repo = new InMemoryRepo(FIXED_CLOCK);
+        AtomicReference<Consumer<ConsumeCompletion>> remote = new AtomicReference<>();
+        ConsumeCompletionNotifier notifier = new ConsumeCompletionNotifier() {
+            @Override
+            public void publish(ConsumeCompletion completion) {
+            }
+
+            @Override
+            public void subscribe(Consumer<ConsumeCompletion> listener) {
+                remote.set(listener);
+            }
+        };
+        DefaultEventHandlerTemplate template = new DefaultEventHandlerTemplate(repo, newTxManager(), FIXED_CLOCK,
+                ConsumeMetrics.noop(), notifier);
+        EventEnvelope envelope = new EventEnvelope(1L, new Ulid128(13L, 14L), "ORDER_CREATED", "{}", "{}",
+                Instant.now(FIXED_CLOCK));
+        // 其他节点持有消费权
+        repo.tryAcquire(new EventDedupRepository.AcquireConsumeCommand(1L, "ORDER", envelope.eventId(),
+                "ORDER_CREATED", Instant.now(FIXED_CLOCK), Instant.now(FIXED_CLOCK).plusSeconds(60)));
+        ConsumeOptions waitOptions = new ConsumeOptions(Duration.ofSeconds(30), true, Duration.ofSeconds(10),
+                20, Duration.ofSeconds(1), Duration.ofMinutes(5));
+
+        CompletableFuture<ConsumeResult> waiter = CompletableFuture.supplyAsync(() ->
+                template.consume("ORDER", envelope, evt -> fail("waiter must not run the handler"), waitOptions));
+        Thread.sleep(100);
+        remote.get().accept(new ConsumeCompletion("ORDER", envelope.eventId(), false));
+
+        Exception ex = assertThrows(Exception.class, () -> waiter.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(EventConsumeFailedException.class, ex.getCause());
+    }
 }
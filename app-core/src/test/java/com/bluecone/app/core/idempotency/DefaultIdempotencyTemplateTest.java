@@ -21,6 +21,7 @@ import com.bluecone.app.core.idempotency.api.IdempotentResult;
 import com.bluecone.app.core.idempotency.application.DefaultIdempotencyTemplate;
 import com.bluecone.app.core.idempotency.domain.IdemStatus;
 import com.bluecone.app.core.idempotency.domain.IdempotencyRecord;
+import com.bluecone.app.core.idempotency.spi.IdempotencyFastStore;
 import com.bluecone.app.core.idempotency.spi.IdempotencyLock;
 import com.bluecone.app.core.idempotency.spi.IdempotencyMetrics;
 import com.bluecone.app.core.idempotency.spi.IdempotencyRepository;
@@ -40,6 +41,91 @@ class DefaultIdempotencyTemplateTest {
                 new ObjectMapper(), FIXED_CLOCK);
     }
 
+    private DefaultIdempotencyTemplate newTemplate(InMemoryIdempotencyRepository repo, IdempotencyFastStore fastStore) {
+        return new DefaultIdempotencyTemplate(repo, IdempotencyLock.noop(), IdempotencyMetrics.noop(),
+                new ObjectMapper(), FIXED_CLOCK, fastStore, Runnable::run);
+    }
+
+    /**
+     * 内存版快速存储：只保存终态，按记录判断重放与冲突。
+     */
+    static class InMemoryFastStore implements IdempotencyFastStore {
+
+        private final Map<String, IdempotencyRecord> store = new ConcurrentHashMap<>();
+
+        private String key(long tenantId, String bizType, String idemKey) {
+            return tenantId + "|" + bizType + "|" + idemKey;
+        }
+
+        @Override
+        public Optional<IdempotencyRepository.AcquireResult> lookup(IdempotencyRepository.AcquireCommand command) {
+            IdempotencyRecord record = store.get(key(command.tenantId(), command.bizType(), command.idemKey()));
+            if (record == null) {
+                return Optional.empty();
+            }
+            if (!record.requestHash().equals(command.requestHash())) {
+                return Optional.of(new IdempotencyRepository.AcquireResult(
+                        IdempotencyRepository.AcquireState.CONFLICT, record));
+            }
+            if (record.status() == IdemStatus.SUCCEEDED) {
+                return Optional.of(new IdempotencyRepository.AcquireResult(
+                        IdempotencyRepository.AcquireState.REPLAY_SUCCEEDED, record));
+            }
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<IdempotencyRecord> find(long tenantId, String bizType, String idemKey) {
+            return Optional.ofNullable(store.get(key(tenantId, bizType, idemKey)));
+        }
+
+        @Override
+        public void markSuccess(IdempotencyRepository.MarkSuccessCommand command) {
+            store.put(key(command.tenantId(), command.bizType(), command.idemKey()), new IdempotencyRecord(
+                    null, command.tenantId(), command.bizType(), command.idemKey(), command.requestHash(),
+                    IdemStatus.SUCCEEDED, command.resultRef(), command.resultJson(), null, null,
+                    command.expireAt(), null, 0, null, null));
+        }
+
+        @Override
+        public void markFailed(IdempotencyRepository.MarkFailedCommand command) {
+            store.put(key(command.tenantId(), command.bizType(), command.idemKey()), new IdempotencyRecord(
+                    null, command.tenantId(), command.bizType(), command.idemKey(), command.requestHash(),
+                    IdemStatus.FAILED, null, null, command.errorCode(), command.errorMsg(),
+                    command.expireAt(), null, 0, null, null));
+        }
+    }
+
+    /**
+     * 记录访问次数的仓库，用于断言重放不访问数据库。
+     */
+    static class CountingRepository extends InMemoryIdempotencyRepository {
+
+        final AtomicInteger calls = new AtomicInteger();
+
+        CountingRepository(Clock clock) {
+            super(clock);
+        }
+
+        @Override
+        public Optional<IdempotencyRecord> find(long tenantId, String bizType, String idemKey) {
+            calls.incrementAndGet();
+            return super.find(tenantId, bizType, idemKey);
+        }
+
+        @Override
+        public AcquireResult tryAcquire(AcquireCommand command) {
+            calls.incrementAndGet();
+            return super.tryAcquire(command);
+        }
+
+        @Override
+        public void markSuccess(MarkSuccessCommand command) {
+            calls.incrementAndGet();
+            super.markSuccess(command);
+        }
+    }
+
     /**
      * 内存版幂等仓库实现，仅用于测试。
      */
@@ -262,5 +348,126 @@ class DefaultIdempotencyTemplateTest {
 
         assertEquals(1, counter.get(), "并发下 supplier 应只执行一次");
     }
-}
 
+    @Test
+    void fastStoreReplayShouldNotTouchRepository() {
+        CountingRepository repo = new CountingRepository(FIXED_CLOCK);
+        InMemoryFastStore fastStore = new InMemoryFastStore();
+        DefaultIdempotencyTemplate template = newTemplate(repo, fastStore);
+
+        IdempotencyRequest req = new IdempotencyRequest(
+                1L, "ORDER_CREATE", "key-4", "d".repeat(64),
+                Duration.ofHours(24), Duration.ofSeconds(30), false, null);
+        AtomicInteger counter = new AtomicInteger();
+
+        IdempotentResult<String> r1 = template.execute(req, String.class, () -> {
+            counter.incrementAndGet();
+            return "OK";
+        });
+        assertFalse(r1.replayed());
+        // 数据库由补写落盘：插入 + 标记成功
+        assertEquals(IdemStatus.SUCCEEDED, repo.find(1L, "ORDER_CREATE", "key-4").orElseThrow().status());
+        int repoCalls = repo.calls.get();
+
+        for (int i = 0; i < 3; i++) {
+            IdempotentResult<String> replay = template.execute(req, String.class, () -> {
+                counter.incrementAndGet();
+                return "OK-2";
+            });
+            assertTrue(replay.replayed());
+            assertEquals("OK", replay.value());
+        }
+        assertEquals(1, counter.get());
+        assertEquals(repoCalls, repo.calls.get(), "重放不应访问数据库");
+
+        IdempotencyRequest conflict = new IdempotencyRequest(
+                1L, "ORDER_CREATE", "key-4", "e".repeat(64),
+                Duration.ofHours(24), Duration.ofSeconds(30), false, null);
+        assertThrows(IdempotencyConflictException.class,
+                () -> template.execute(conflict, String.class, () -> "OK-3"));
+        assertEquals(repoCalls, repo.calls.get());
+    }
+
+    @Test
+    void closeShouldDrainQueuedBackstopWrites() {
+        InMemoryIdempotencyRepository repo = new InMemoryIdempotencyRepository(FIXED_CLOCK) {
+            @Override
+            public void markSuccess(MarkSuccessCommand command) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.markSuccess(command);
+            }
+        };
+        // 使用模板自建的补写线程池
+        DefaultIdempotencyTemplate template = new DefaultIdempotencyTemplate(repo, IdempotencyLock.noop(),
+                IdempotencyMetrics.noop(), new ObjectMapper(), FIXED_CLOCK, new InMemoryFastStore(), null);
+
+        for (int i = 0; i < 10; i++) {
+            template.execute(request("drain-" + i), String.class, () -> "OK");
+        }
+        template.close();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(IdemStatus.SUCCEEDED, repo.find(1L, "ORDER_CREATE", "drain-" + i).orElseThrow().status());
+        }
+        // 关闭后的补写由调用线程同步完成，不会被丢弃
+        template.execute(request("after-close"), String.class, () -> "OK");
+        assertEquals(IdemStatus.SUCCEEDED, repo.find(1L, "ORDER_CREATE", "after-close").orElseThrow().status());
+    }
+
+    private static IdempotencyRequest request(String idemKey) {
+        return new IdempotencyRequest(1L, "ORDER_CREATE", idemKey, "e".repeat(64),
+                Duration.ofHours(24), Duration.ofSeconds(30), false, null);
+    }
+
+    @Test
+    void fastStoreFailureShouldFallbackToRepository() {
+        InMemoryIdempotencyRepository repo = new InMemoryIdempotencyRepository(FIXED_CLOCK);
+        InMemoryFastStore broken = new InMemoryFastStore() {
+            @Override
+            public Optional<IdempotencyRepository.AcquireResult> lookup(IdempotencyRepository.AcquireCommand command) {
+                throw new IllegalStateException("redis down");
+            }
+        };
+        DefaultIdempotencyTemplate template = newTemplate(repo, broken);
+
+        IdempotencyRequest req = new IdempotencyRequest(
+                1L, "ORDER_CREATE", "key-5", "f".repeat(64),
+                Duration.ofHours(24), Duration.ofSeconds(30), false, null);
+
+        template.execute(req, String.class, () -> "OK");
+        IdempotentResult<String> replay = template.execute(req, String.class, () -> "OK-2");
+
+        assertTrue(replay.replayed());
+        assertEquals("OK", replay.value());
+    }
+
+    @Test
+    void fastStoreMissShouldAskRepositoryAndWarmFastStore() {
+        InMemoryIdempotencyRepository repo = new InMemoryIdempotencyRepository(FIXED_CLOCK);
+        IdempotencyRequest req = new IdempotencyRequest(
+                1L, "ORDER_CREATE", "key-6", "a".repeat(64),
+                Duration.ofHours(24), Duration.ofSeconds(30), false, null);
+        AtomicInteger counter = new AtomicInteger();
+        newTemplate(repo).execute(req, String.class, () -> {
+            counter.incrementAndGet();
+            return "OK";
+        });
+
+        // 快速存储为空，模拟发布、淘汰或故障切换后 Redis 丢失记录
+        InMemoryFastStore fastStore = new InMemoryFastStore();
+        DefaultIdempotencyTemplate template = newTemplate(repo, fastStore);
+        IdempotentResult<String> replay = template.execute(req, String.class, () -> {
+            counter.incrementAndGet();
+            return "OK-2";
+        });
+
+        assertTrue(replay.replayed());
+        assertEquals("OK", replay.value());
+        assertEquals(1, counter.get(), "快速存储未命中时不应重复执行业务");
+        assertEquals(IdemStatus.SUCCEEDED, fastStore.find(1L, "ORDER_CREATE", "key-6").orElseThrow().status());
+    }
+}
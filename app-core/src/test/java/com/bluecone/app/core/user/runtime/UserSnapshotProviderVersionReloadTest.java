@@ -89,6 +89,7 @@ class UserSnapshotProviderVersionReloadTest {
                 Map.of()
         );
 
+        when(repo.loadFullWithVersion(any(SnapshotLoadKey.class))).thenCallRealMethod();
         when(repo.loadFull(any(SnapshotLoadKey.class)))
                 .thenReturn(Optional.of(snapV1))
                 .thenReturn(Optional.of(snapV2));
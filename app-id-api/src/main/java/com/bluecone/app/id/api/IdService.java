@@ -1,6 +1,10 @@
 package com.bluecone.app.id.api;
 
 import com.bluecone.app.id.core.Ulid128;
+import com.bluecone.app.id.core.UlidBatch;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 统一 ID 门面接口，提供 ULID / Long ID / PublicId 能力。
@@ -35,6 +39,25 @@ public interface IdService {
      */
     byte[] nextUlidBytes();
 
+    /**
+     * 批量生成 ULID，实现应在一次同步内分配整批，避免逐个生成的开销。
+     *
+     * <p>默认实现逐个调用 {@link #nextUlid()}。</p>
+     *
+     * @param n 数量，必须大于等于 0
+     * @return ULID 批次，按下标单调递增
+     */
+    default UlidBatch nextUlids(int n) {
+        checkBatchSize(n);
+        long[] words = new long[n * 2];
+        for (int i = 0; i < n; i++) {
+            Ulid128 ulid = nextUlid();
+            words[i * 2] = ulid.msb();
+            words[i * 2 + 1] = ulid.lsb();
+        }
+        return UlidBatch.wrap(words);
+    }
+
     /**
      * 生成下一个 long 型 ID。
      * 
@@ -54,6 +77,26 @@ public interface IdService {
      */
     long nextLong(IdScope scope);
 
+    /**
+     * 批量生成 long 型 ID，实现应从号段缓冲或生成器状态中一次性分配。
+     *
+     * <p>默认实现逐个调用 {@link #nextLong(IdScope)}。</p>
+     *
+     * @param scope ID 作用域（SNOWFLAKE 策略下忽略）
+     * @param n 数量，必须大于等于 0
+     * @return 按分配顺序排列的 ID
+     * @throws UnsupportedOperationException 如果未启用 long ID 生成能力
+     * @throws IllegalStateException 如果号段分配失败（仅 SEGMENT 策略）
+     */
+    default long[] nextLongs(IdScope scope, int n) {
+        checkBatchSize(n);
+        long[] ids = new long[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = nextLong(scope);
+        }
+        return ids;
+    }
+
     /**
      * 生成下一个对外公开 ID（PublicId），格式为 "prefix_ulid"。
      * 
@@ -69,6 +112,22 @@ public interface IdService {
      */
     String nextPublicId(ResourceType type);
 
+    /**
+     * 批量生成对外公开 ID：一次分配整批 ULID 后批量编码。
+     *
+     * @param type 业务资源类型
+     * @param n 数量，必须大于等于 0
+     * @return 对外公开 ID 列表
+     */
+    default List<String> nextPublicIds(ResourceType type, int n) {
+        checkBatchSize(n);
+        List<String> ids = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            ids.add(nextPublicId(type));
+        }
+        return ids;
+    }
+
     /**
      * 校验 Public ID 的格式和类型是否合法。
      * 
@@ -84,4 +143,10 @@ public interface IdService {
      * @throws IllegalArgumentException 如果格式非法、类型不匹配或 ULID 非法
      */
     void validatePublicId(ResourceType expectedType, String publicId);
+
+    private static void checkBatchSize(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n 不能小于 0，当前值: " + n);
+        }
+    }
 }
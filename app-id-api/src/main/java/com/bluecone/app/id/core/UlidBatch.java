@@ -0,0 +1,93 @@
+package com.bluecone.app.id.core;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * 一批 ULID 的紧凑表示：按 [msb0, lsb0, msb1, lsb1, ...] 存放在一个 {@code long[]} 中，
+ * 批量生成时不为每个 ID 创建对象。
+ *
+ * <p>同一批次由生成器一次性分配，按下标顺序单调递增。</p>
+ */
+public final class UlidBatch {
+
+    private static final UlidBatch EMPTY = new UlidBatch(new long[0]);
+
+    private final long[] words;
+
+    private UlidBatch(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * 由交替排列的 msb/lsb 数组构造批次，数组由调用方移交，不再复制。
+     *
+     * @param words 长度为偶数的数组
+     * @return ULID 批次
+     */
+    public static UlidBatch wrap(long[] words) {
+        if (words == null || (words.length & 1) != 0) {
+            throw new IllegalArgumentException("words 长度必须为偶数");
+        }
+        return words.length == 0 ? EMPTY : new UlidBatch(words);
+    }
+
+    /**
+     * @return 空批次
+     */
+    public static UlidBatch empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return 批次中的 ULID 数量
+     */
+    public int size() {
+        return words.length >>> 1;
+    }
+
+    public long msb(int index) {
+        return words[checkIndex(index) << 1];
+    }
+
+    public long lsb(int index) {
+        return words[(checkIndex(index) << 1) + 1];
+    }
+
+    /**
+     * 取出第 index 个 ULID（此时才创建对象）。
+     *
+     * @param index 下标
+     * @return ULID
+     */
+    public Ulid128 get(int index) {
+        int base = checkIndex(index) << 1;
+        return new Ulid128(words[base], words[base + 1]);
+    }
+
+    /**
+     * 返回只读列表视图，元素按需创建。
+     *
+     * @return ULID 列表视图
+     */
+    public List<Ulid128> asList() {
+        return new AbstractList<>() {
+            @Override
+            public Ulid128 get(int index) {
+                return UlidBatch.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return UlidBatch.this.size();
+            }
+        };
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("index " + index + " 超出批次大小 " + size());
+        }
+        return index;
+    }
+}
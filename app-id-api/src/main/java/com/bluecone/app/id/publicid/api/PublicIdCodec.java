@@ -1,6 +1,10 @@
 package com.bluecone.app.id.publicid.api;
 
 import com.bluecone.app.id.core.Ulid128;
+import com.bluecone.app.id.core.UlidBatch;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * PublicId 编解码接口，用于在内部 ULID 与对外公开 ID 之间进行转换。
@@ -25,6 +29,23 @@ public interface PublicIdCodec {
      */
     PublicId encode(String type, byte[] ulidBytes16);
 
+    /**
+     * 批量编码同一业务类型的一批 ULID。
+     *
+     * <p>默认实现逐个调用 {@link #encode(String, Ulid128)}；实现可只校验一次类型并复用缓冲区。</p>
+     *
+     * @param type 业务类型前缀
+     * @param ids  ULID 批次
+     * @return 与批次顺序一致的公开 ID
+     */
+    default List<PublicId> encodeAll(String type, UlidBatch ids) {
+        List<PublicId> result = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            result.add(encode(type, ids.get(i)));
+        }
+        return result;
+    }
+
     /**
      * 将公开 ID 字符串解析为内部表示。
      *
@@ -6,8 +6,10 @@ import com.bluecone.app.id.internal.config.BlueconeIdProperties;
 import com.bluecone.app.id.internal.core.EnhancedIdService;
 import com.bluecone.app.id.internal.core.PublicIdFactory;
 import com.bluecone.app.id.internal.core.UlidIdGenerator;
+import com.bluecone.app.id.internal.metrics.SegmentMetrics;
 import com.bluecone.app.id.internal.segment.SegmentLongIdGenerator;
 import com.bluecone.app.id.segment.IdSegmentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectProvider;
@@ -61,7 +63,8 @@ public class IdSegmentAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean
     public SegmentLongIdGenerator segmentLongIdGenerator(IdSegmentRepository repository,
-                                                         ObjectProvider<BlueconeIdProperties> propsProvider) {
+                                                         ObjectProvider<BlueconeIdProperties> propsProvider,
+                                                         ObjectProvider<MeterRegistry> meterRegistryProvider) {
         BlueconeIdProperties props = propsProvider.getIfAvailable();
         
         // 检查是否满足启用条件
@@ -82,7 +85,8 @@ public class IdSegmentAutoConfiguration {
         }
         
         int step = segmentProps.getStep();
-        log.info("装配 SegmentLongIdGenerator（号段模式已显式开启），step={}", step);
+        log.info("装配 SegmentLongIdGenerator（号段模式已显式开启），step={}, maxStep={}, preloadRatio={}",
+                step, segmentProps.getMaxStep(), segmentProps.getPreloadRatio());
 
         // 初始化所有 scope（幂等操作）
         for (IdScope scope : IdScope.values()) {
@@ -93,7 +97,10 @@ public class IdSegmentAutoConfiguration {
             }
         }
 
-        return new SegmentLongIdGenerator(repository, step);
+        int minStep = segmentProps.getMinStep() > 0 ? segmentProps.getMinStep() : step;
+        SegmentMetrics metrics = SegmentMetrics.from(meterRegistryProvider.getIfAvailable(), "bluecone.id.segment");
+        return new SegmentLongIdGenerator(repository, step, minStep, segmentProps.getMaxStep(),
+                segmentProps.getPreloadRatio(), segmentProps.getSegmentDuration(), metrics);
     }
 
     /**
@@ -1,5 +1,7 @@
 package com.bluecone.app.id.internal.config;
 
+import java.time.Duration;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -486,6 +488,26 @@ public class BlueconeIdProperties {
          * </ul>
          */
         private int step = 1000;
+
+        /**
+         * 自适应步长下限，0 表示与 step 相同。
+         */
+        private int minStep = 0;
+
+        /**
+         * 自适应步长上限；号段消耗过快时步长翻倍，直至该值。与下限相同即关闭自适应。
+         */
+        private int maxStep = 100000;
+
+        /**
+         * 当前号段消耗到该比例时，后台预取下一号段（双缓冲）。
+         */
+        private double preloadRatio = 0.1d;
+
+        /**
+         * 号段目标消耗时长：短于该值步长翻倍，超过两倍步长减半。
+         */
+        private Duration segmentDuration = Duration.ofMinutes(15);
         
         public boolean isEnabled() {
             return enabled;
@@ -502,5 +524,37 @@ public class BlueconeIdProperties {
         public void setStep(int step) {
             this.step = step;
         }
+
+        public int getMinStep() {
+            return minStep;
+        }
+
+        public void setMinStep(int minStep) {
+            this.minStep = minStep;
+        }
+
+        public int getMaxStep() {
+            return maxStep;
+        }
+
+        public void setMaxStep(int maxStep) {
+            this.maxStep = maxStep;
+        }
+
+        public double getPreloadRatio() {
+            return preloadRatio;
+        }
+
+        public void setPreloadRatio(double preloadRatio) {
+            this.preloadRatio = preloadRatio;
+        }
+
+        public Duration getSegmentDuration() {
+            return segmentDuration;
+        }
+
+        public void setSegmentDuration(Duration segmentDuration) {
+            this.segmentDuration = segmentDuration;
+        }
     }
 }
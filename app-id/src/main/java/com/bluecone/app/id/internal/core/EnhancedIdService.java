@@ -4,11 +4,12 @@ import com.bluecone.app.id.api.IdScope;
 import com.bluecone.app.id.api.IdService;
 import com.bluecone.app.id.api.ResourceType;
 import com.bluecone.app.id.core.Ulid128;
+import com.bluecone.app.id.core.UlidBatch;
 import com.bluecone.app.id.internal.segment.SegmentLongIdGenerator;
-import com.bluecone.app.id.internal.core.UlidIdGenerator;
-import com.bluecone.app.id.internal.core.PublicIdFactory;
 import de.huxhorn.sulky.ulid.ULID;
 
+import java.util.List;
+
 /**
  * 增强版 ID 服务实现，支持 BlueCone ID v2 三层体系。
  * 
@@ -57,6 +58,11 @@ public class EnhancedIdService implements IdService {
         return new Ulid128(value.getMostSignificantBits(), value.getLeastSignificantBits());
     }
     
+    @Override
+    public UlidBatch nextUlids(int n) {
+        return ulidIdGenerator.nextBatch(n);
+    }
+    
     @Override
     public String nextUlidString() {
         return ulidIdGenerator.nextUlid();
@@ -72,12 +78,22 @@ public class EnhancedIdService implements IdService {
         return segmentLongIdGenerator.nextId(scope);
     }
     
+    @Override
+    public long[] nextLongs(IdScope scope, int n) {
+        return segmentLongIdGenerator.nextIds(scope, n);
+    }
+    
     @Override
     public String nextPublicId(ResourceType type) {
         Ulid128 ulid = nextUlid();
         return publicIdFactory.create(type, ulid);
     }
     
+    @Override
+    public List<String> nextPublicIds(ResourceType type, int n) {
+        return publicIdFactory.createAll(type, nextUlids(n));
+    }
+    
     @Override
     public void validatePublicId(ResourceType expectedType, String publicId) {
         publicIdFactory.validate(expectedType, publicId);
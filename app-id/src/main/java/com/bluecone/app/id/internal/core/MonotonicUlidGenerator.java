@@ -6,26 +6,53 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.LongSupplier;
 
 import com.bluecone.app.id.core.Ulid128;
+import com.bluecone.app.id.core.UlidBatch;
 
 /**
- * 基于无锁 CAS 的单调 ULID 生成器。
+ * 基于无锁 CAS 的单调 ULID 生成器（按线程分道）。
  *
  * <p>特性：</p>
  * <ul>
  *     <li>使用 {@link ThreadLocalRandom} 作为随机源；</li>
- *     <li>在同一毫秒内保证严格单调（按 msb/lsb 比较）；</li>
- *     <li>时钟回拨时退化为使用上一次时间戳，保持单调性。</li>
+ *     <li>状态拆分为 {@code lanes} 条独立的“道”，线程按 ID 哈希固定映射到一条道，
+ *     各道持有自己的随机尾部，CAS 只在同一道的线程间竞争；</li>
+ *     <li>道号编码在随机部分的低位，不同道之间不会碰撞，同一道内按 (msb, lsb) 严格单调；</li>
+ *     <li>跨道按毫秒时间戳前缀保持 k 有序（同一毫秒内不保证先后）；</li>
+ *     <li>时钟回拨时退化为使用本道上一次时间戳，保持单调性。</li>
  * </ul>
+ *
+ * <p>{@code lanes = 1} 时等价于全局单序：所有线程共享一个 CAS 状态，生成结果全局严格递增。</p>
  */
 public final class MonotonicUlidGenerator {
 
     private static final long TIMESTAMP_MASK = 0xFFFF_FFFFFFFFFFFFL; // 48 bits
 
+    private static final int MAX_LANES = 1024;
+
+    /**
+     * 默认道数：CPU 核心数 × 2 向上取 2 的幂，最多 64。
+     */
+    public static final int DEFAULT_LANES = Math.min(64,
+            Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1);
+
     private final LongSupplier nowMillis;
-    private final AtomicReference<Ulid128> last = new AtomicReference<>();
+    private final int laneBits;
+    private final long laneMask;
+    private final Lane[] lanes;
+
+    /**
+     * 单条道的状态；前后填充避免相邻道落在同一缓存行。
+     */
+    @SuppressWarnings("unused")
+    private static final class Lane {
+
+        long p01, p02, p03, p04, p05, p06, p07;
+        final AtomicReference<Ulid128> last = new AtomicReference<>();
+        long p11, p12, p13, p14, p15, p16, p17;
+    }
 
     /**
-     * 使用系统当前时间的默认构造器。
+     * 使用系统当前时间与默认道数的构造器。
      */
     public MonotonicUlidGenerator() {
         this(System::currentTimeMillis);
@@ -37,22 +64,50 @@ public final class MonotonicUlidGenerator {
      * @param nowMillis 当前时间提供者（毫秒）
      */
     public MonotonicUlidGenerator(LongSupplier nowMillis) {
+        this(nowMillis, DEFAULT_LANES);
+    }
+
+    /**
+     * 指定道数的构造器。
+     *
+     * @param nowMillis 当前时间提供者（毫秒）
+     * @param lanes     道数，向上取整为 2 的幂，范围 [1, 1024]；为 1 时全局单序
+     */
+    public MonotonicUlidGenerator(LongSupplier nowMillis, int lanes) {
         this.nowMillis = Objects.requireNonNull(nowMillis, "nowMillis 不能为空");
+        int fixedLanes = Math.max(1, Math.min(lanes, MAX_LANES));
+        this.laneBits = (fixedLanes == 1) ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(fixedLanes - 1);
+        this.laneMask = (1L << laneBits) - 1L;
+        this.lanes = new Lane[1 << laneBits];
+        for (int i = 0; i < this.lanes.length; i++) {
+            this.lanes[i] = new Lane();
+        }
     }
 
     /**
-     * 生成下一个 ULID 值对象，在同一毫秒内保证严格单调递增。
+     * 实际道数（2 的幂）。
+     *
+     * @return 道数
+     */
+    public int lanes() {
+        return lanes.length;
+    }
+
+    /**
+     * 生成下一个 ULID 值对象，在同一道、同一毫秒内保证严格单调递增。
      *
      * @return 下一个 ULID 值
      */
     public Ulid128 nextUlid() {
+        int laneIndex = laneIndex();
+        AtomicReference<Ulid128> last = lanes[laneIndex].last;
         while (true) {
             Ulid128 previous = last.get();
             long now = safeTimestamp(nowMillis.getAsLong());
 
             Ulid128 next;
             if (previous == null) {
-                next = randomUlid(now);
+                next = randomUlid(now, laneIndex);
             } else {
                 long prevMsb = previous.msb();
                 long prevLsb = previous.lsb();
@@ -66,7 +121,7 @@ public final class MonotonicUlidGenerator {
 
                 if (ts > prevTs) {
                     // 新毫秒，重新引导随机部分
-                    next = randomUlid(ts);
+                    next = randomUlid(ts, laneIndex);
                 } else {
                     // 同一毫秒内递增随机部分
                     next = increment(prevMsb, prevLsb);
@@ -79,6 +134,52 @@ public final class MonotonicUlidGenerator {
         }
     }
 
+    /**
+     * 批量生成 ULID：在本道上连续推进 n 次后一次 CAS 提交，整批严格递增。
+     *
+     * @param n 数量
+     * @return ULID 批次
+     */
+    public UlidBatch nextUlids(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n 不能小于 0，当前值: " + n);
+        }
+        if (n == 0) {
+            return UlidBatch.empty();
+        }
+        long[] words = new long[n * 2];
+        int laneIndex = laneIndex();
+        AtomicReference<Ulid128> last = lanes[laneIndex].last;
+        while (true) {
+            Ulid128 previous = last.get();
+            long now = safeTimestamp(nowMillis.getAsLong());
+            long msb;
+            long lsb;
+            if (previous == null || now > ((previous.msb() >>> 16) & TIMESTAMP_MASK)) {
+                Ulid128 first = randomUlid(now, laneIndex);
+                msb = first.msb();
+                lsb = first.lsb();
+            } else {
+                // 同一毫秒或时钟回拨：沿用上一次时间戳递增
+                Ulid128 first = increment(previous.msb(), previous.lsb());
+                msb = first.msb();
+                lsb = first.lsb();
+            }
+            words[0] = msb;
+            words[1] = lsb;
+            for (int i = 1; i < n; i++) {
+                Ulid128 next = increment(msb, lsb);
+                msb = next.msb();
+                lsb = next.lsb();
+                words[i * 2] = msb;
+                words[i * 2 + 1] = lsb;
+            }
+            if (last.compareAndSet(previous, new Ulid128(msb, lsb))) {
+                return UlidBatch.wrap(words);
+            }
+        }
+    }
+
     /**
      * 生成下一个 ULID 字符串表示（26 位）。
      *
@@ -88,6 +189,18 @@ public final class MonotonicUlidGenerator {
         return nextUlid().toString();
     }
 
+    /**
+     * 按线程 ID 哈希选择道，同一线程始终落在同一道上。
+     */
+    private int laneIndex() {
+        if (laneBits == 0) {
+            return 0;
+        }
+        long tid = Thread.currentThread().threadId();
+        int h = (int) (tid ^ (tid >>> 32)) * 0x9E3779B9;
+        return h >>> (Integer.SIZE - laneBits);
+    }
+
     private static long safeTimestamp(long epochMillis) {
         if (epochMillis < 0L) {
             return 0L;
@@ -95,22 +208,25 @@ public final class MonotonicUlidGenerator {
         return epochMillis & TIMESTAMP_MASK;
     }
 
-    private static Ulid128 randomUlid(long timestamp) {
+    private Ulid128 randomUlid(long timestamp, int laneIndex) {
         ThreadLocalRandom random = ThreadLocalRandom.current();
         long randomHigh = random.nextInt(1 << 16) & 0xFFFFL; // 16 bits
-        long randomLow = random.nextLong(); // 64 bits
+        // 低 laneBits 位固定为道号
+        long randomLow = (random.nextLong() & ~laneMask) | laneIndex; // 64 bits
 
         long msb = ((timestamp & TIMESTAMP_MASK) << 16) | randomHigh;
-        long lsb = randomLow;
-        return new Ulid128(msb, lsb);
+        return new Ulid128(msb, randomLow);
     }
 
-    private static Ulid128 increment(long msb, long lsb) {
+    /**
+     * 随机部分按 {@code 1 << laneBits} 递增，低位道号保持不变。
+     */
+    private Ulid128 increment(long msb, long lsb) {
         long timestamp = (msb >>> 16) & TIMESTAMP_MASK;
         long randomHigh = msb & 0xFFFFL;
-        long randomLow = lsb + 1L;
+        long randomLow = lsb + (1L << laneBits);
 
-        if (randomLow == 0L) {
+        if ((randomLow & ~laneMask) == 0L) {
             randomHigh = (randomHigh + 1L) & 0xFFFFL;
             if (randomHigh == 0L) {
                 // 随机部分全部溢出时，将时间戳推进 1ms，继续保持单调
@@ -122,4 +238,3 @@ public final class MonotonicUlidGenerator {
         return new Ulid128(newMsb, randomLow);
     }
 }
-
@@ -1,9 +1,13 @@
 package com.bluecone.app.id.internal.core;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 import com.bluecone.app.id.api.ResourceType;
 import com.bluecone.app.id.core.Ulid128;
+import com.bluecone.app.id.core.UlidBatch;
+import com.bluecone.app.id.publicid.api.PublicId;
 import com.bluecone.app.id.publicid.api.PublicIdCodec;
 
 /**
@@ -38,6 +42,28 @@ public final class PublicIdFactory {
         return codec.encode(type.prefix(), id).asString();
     }
     
+    /**
+     * 为同一资源类型的一批 ULID 批量生成对外公开 ID。
+     *
+     * @param type 资源类型
+     * @param ids  内部 ULID 批次
+     * @return 与批次顺序一致的公开 ID 字符串
+     */
+    public List<String> createAll(ResourceType type, UlidBatch ids) {
+        if (type == null) {
+            throw new IllegalArgumentException("ResourceType 不能为空");
+        }
+        if (ids == null) {
+            throw new IllegalArgumentException("UlidBatch 不能为空");
+        }
+        List<PublicId> encoded = codec.encodeAll(type.prefix(), ids);
+        List<String> result = new ArrayList<>(encoded.size());
+        for (PublicId publicId : encoded) {
+            result.add(publicId.asString());
+        }
+        return result;
+    }
+    
     /**
      * 校验 Public ID 的格式和类型是否合法。
      * 
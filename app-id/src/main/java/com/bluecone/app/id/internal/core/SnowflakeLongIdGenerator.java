@@ -63,55 +63,88 @@ public final class SnowflakeLongIdGenerator {
     public long nextId() {
         while (true) {
             long prev = lastTimeAndSeq.get();
-
-            long now = nowMillis.getAsLong();
-            long timestamp = Math.max(0L, now - epochMillis);
-            
-            // 时间戳溢出检查：超过 41 位范围时抛异常，不允许取模
-            if (timestamp > MAX_TIMESTAMP) {
-                throw new IllegalStateException(
-                        "时间戳超出 41 位范围（当前: " + timestamp + ", 最大: " + MAX_TIMESTAMP + "）。" +
-                        "请考虑调整 epochMillis 配置以延长有效期。");
+            long nextPacked = nextPacked(prev);
+            if (lastTimeAndSeq.compareAndSet(prev, nextPacked)) {
+                return assembleId(nextPacked >>> SEQUENCE_BITS, nextPacked & MAX_SEQUENCE);
             }
+        }
+    }
 
-            long prevTimestamp;
-            long prevSeq;
-            if (prev < 0L) {
-                prevTimestamp = -1L;
-                prevSeq = 0L;
-            } else {
-                prevTimestamp = prev >>> SEQUENCE_BITS;
-                prevSeq = prev & MAX_SEQUENCE;
+    /**
+     * 批量生成 ID：每次 CAS 预留当前毫秒内剩余的一段序列号，整批通常只需一次 CAS。
+     *
+     * @param n 数量
+     * @return 单调递增的 ID
+     * @throws IllegalStateException 如果时间戳超出 41 位范围（约 69 年后）
+     */
+    public long[] nextIds(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n 不能小于 0，当前值: " + n);
+        }
+        long[] ids = new long[n];
+        int filled = 0;
+        while (filled < n) {
+            long prev = lastTimeAndSeq.get();
+            long first = nextPacked(prev);
+            long timestamp = first >>> SEQUENCE_BITS;
+            long sequence = first & MAX_SEQUENCE;
+            int take = (int) Math.min(n - filled, MAX_SEQUENCE - sequence + 1L);
+            if (lastTimeAndSeq.compareAndSet(prev, first + take - 1L)) {
+                for (int i = 0; i < take; i++) {
+                    ids[filled++] = assembleId(timestamp, sequence + i);
+                }
             }
+        }
+        return ids;
+    }
 
-            // 时钟回拨处理：使用上一次时间戳，保证单调性，不产生重复 ID
-            if (prevTimestamp >= 0L && timestamp < prevTimestamp) {
-                timestamp = prevTimestamp;
-            }
+    /**
+     * 计算 prev 之后的下一个 (timestamp << SEQUENCE_BITS | sequence)。
+     */
+    private long nextPacked(long prev) {
+        long now = nowMillis.getAsLong();
+        long timestamp = Math.max(0L, now - epochMillis);
+
+        // 时间戳溢出检查：超过 41 位范围时抛异常，不允许取模
+        if (timestamp > MAX_TIMESTAMP) {
+            throw new IllegalStateException(
+                    "时间戳超出 41 位范围（当前: " + timestamp + ", 最大: " + MAX_TIMESTAMP + "）。" +
+                    "请考虑调整 epochMillis 配置以延长有效期。");
+        }
 
-            long sequence;
-            if (timestamp == prevTimestamp) {
-                sequence = prevSeq + 1L;
-                if (sequence > MAX_SEQUENCE) {
-                    // 同一毫秒内序列号溢出，推进时间戳 1ms
-                    timestamp = prevTimestamp + 1L;
-                    sequence = 0L;
-                    
-                    // 再次检查推进后的时间戳是否溢出
-                    if (timestamp > MAX_TIMESTAMP) {
-                        throw new IllegalStateException(
-                                "时间戳推进后超出 41 位范围（当前: " + timestamp + ", 最大: " + MAX_TIMESTAMP + "）。");
-                    }
-                }
-            } else {
+        long prevTimestamp;
+        long prevSeq;
+        if (prev < 0L) {
+            prevTimestamp = -1L;
+            prevSeq = 0L;
+        } else {
+            prevTimestamp = prev >>> SEQUENCE_BITS;
+            prevSeq = prev & MAX_SEQUENCE;
+        }
+
+        // 时钟回拨处理：使用上一次时间戳，保证单调性，不产生重复 ID
+        if (prevTimestamp >= 0L && timestamp < prevTimestamp) {
+            timestamp = prevTimestamp;
+        }
+
+        long sequence;
+        if (timestamp == prevTimestamp) {
+            sequence = prevSeq + 1L;
+            if (sequence > MAX_SEQUENCE) {
+                // 同一毫秒内序列号溢出，推进时间戳 1ms
+                timestamp = prevTimestamp + 1L;
                 sequence = 0L;
-            }
 
-            long nextPacked = (timestamp << SEQUENCE_BITS) | sequence;
-            if (lastTimeAndSeq.compareAndSet(prev, nextPacked)) {
-                return assembleId(timestamp, sequence);
+                // 再次检查推进后的时间戳是否溢出
+                if (timestamp > MAX_TIMESTAMP) {
+                    throw new IllegalStateException(
+                            "时间戳推进后超出 41 位范围（当前: " + timestamp + ", 最大: " + MAX_TIMESTAMP + "）。");
+                }
             }
+        } else {
+            sequence = 0L;
         }
+        return (timestamp << SEQUENCE_BITS) | sequence;
     }
 
     private long assembleId(long timestamp, long sequence) {
@@ -5,6 +5,7 @@ import java.time.Clock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import com.bluecone.app.id.core.ClockRollbackException;
+import com.bluecone.app.id.core.UlidBatch;
 import com.bluecone.app.id.internal.config.BlueconeIdProperties;
 import com.bluecone.app.id.internal.config.BlueconeIdProperties.Ulid.Rollback;
 import com.bluecone.app.id.internal.metrics.UlidMetrics;
@@ -121,6 +122,33 @@ public class UlidIdGenerator {
      * @return 下一个 ULID 值
      */
     public ULID.Value nextValue() {
+        long[] words = new long[2];
+        generate(words, 1);
+        return new ULID.Value(words[0], words[1]);
+    }
+
+    /**
+     * 批量生成 ULID：整批只获取一次分片锁，首个值按时间戳引导，其余在同一毫秒内递增。
+     *
+     * @param n 数量
+     * @return ULID 批次，按下标单调递增
+     */
+    public UlidBatch nextBatch(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n 不能小于 0，当前值: " + n);
+        }
+        if (n == 0) {
+            return UlidBatch.empty();
+        }
+        long[] words = new long[n * 2];
+        generate(words, n);
+        return UlidBatch.wrap(words);
+    }
+
+    /**
+     * 在选定分片上连续生成 count 个 ULID，按 [msb, lsb] 交替写入 out。
+     */
+    private void generate(long[] out, int count) {
         int idx = selectStripeIndex();
         State state = states[idx];
         long startNanos = System.nanoTime();
@@ -170,9 +198,16 @@ public class UlidIdGenerator {
                     } else {
                         incrementRandom(state, idx);
                     }
-                    ULID.Value value = new ULID.Value(state.lastMsb, state.lastLsb);
-                    metrics.recordGenerated(System.nanoTime() - startNanos);
-                    return value;
+                    out[0] = state.lastMsb;
+                    out[1] = state.lastLsb;
+                    // 批量生成时其余值在同一毫秒内递增
+                    for (int i = 1; i < count; i++) {
+                        incrementRandom(state, idx);
+                        out[i * 2] = state.lastMsb;
+                        out[i * 2 + 1] = state.lastLsb;
+                    }
+                    metrics.recordGenerated(System.nanoTime() - startNanos, count);
+                    return;
                 }
             } finally {
                 state.lock.unlock();
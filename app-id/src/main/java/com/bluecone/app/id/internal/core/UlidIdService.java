@@ -4,6 +4,9 @@ import com.bluecone.app.id.api.IdScope;
 import com.bluecone.app.id.api.IdService;
 import com.bluecone.app.id.api.ResourceType;
 import com.bluecone.app.id.core.Ulid128;
+import com.bluecone.app.id.core.UlidBatch;
+
+import java.util.List;
 
 import de.huxhorn.sulky.ulid.ULID;
 
@@ -73,6 +76,17 @@ public class UlidIdService implements IdService {
         return nextUlid().toBytes();
     }
 
+    /**
+     * 批量生成 ULID，整批只获取一次分片锁。
+     *
+     * @param n 数量
+     * @return ULID 批次
+     */
+    @Override
+    public UlidBatch nextUlids(int n) {
+        return ulidIdGenerator.nextBatch(n);
+    }
+
     /**
      * 基于 Snowflake 算法生成下一个 long 型 ID。
      *
@@ -104,6 +118,21 @@ public class UlidIdService implements IdService {
         return longIdGenerator.nextId();
     }
 
+    /**
+     * 基于 Snowflake 批量生成 long 型 ID，按毫秒预留整段序列号。
+     *
+     * @param scope ID 作用域（此实现忽略该参数）
+     * @param n 数量
+     * @return long 型 ID
+     */
+    @Override
+    public long[] nextLongs(IdScope scope, int n) {
+        if (longIdGenerator == null) {
+            throw new UnsupportedOperationException("Long ID generation is not supported by this IdService");
+        }
+        return longIdGenerator.nextIds(n);
+    }
+
     /**
      * 为给定资源类型生成对外公开 ID。
      *
@@ -119,6 +148,21 @@ public class UlidIdService implements IdService {
         return publicIdFactory.create(type, ulid);
     }
     
+    /**
+     * 为给定资源类型批量生成对外公开 ID。
+     *
+     * @param type 资源类型
+     * @param n 数量
+     * @return PublicId 字符串列表
+     */
+    @Override
+    public List<String> nextPublicIds(ResourceType type, int n) {
+        if (publicIdFactory == null) {
+            throw new UnsupportedOperationException("PublicId generation is not supported by this IdService");
+        }
+        return publicIdFactory.createAll(type, nextUlids(n));
+    }
+
     /**
      * 校验 Public ID 的格式和类型是否合法。
      *
@@ -0,0 +1,99 @@
+package com.bluecone.app.id.internal.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 号段模式指标采集封装，与 {@link UlidMetrics} 一致，生成器内部不直接依赖 Micrometer。
+ */
+public class SegmentMetrics {
+
+    private final MeterRegistry registry;
+    private final String prefix;
+
+    private SegmentMetrics(MeterRegistry registry, String prefix) {
+        this.registry = registry;
+        this.prefix = prefix;
+    }
+
+    /**
+     * 返回一个空实现，所有记录操作均为 no-op。
+     *
+     * @return 无指标实现
+     */
+    public static SegmentMetrics noop() {
+        return new SegmentMetrics(null, null);
+    }
+
+    /**
+     * 基于给定的 MeterRegistry 创建指标封装。
+     *
+     * @param registry 指标注册中心
+     * @param prefix   指标名前缀，例如 {@code bluecone.id.segment}
+     * @return 指标封装
+     */
+    public static SegmentMetrics from(MeterRegistry registry, String prefix) {
+        if (registry == null) {
+            return noop();
+        }
+        return new SegmentMetrics(registry, prefix);
+    }
+
+    /**
+     * 记录一次调用线程因号段未就绪而阻塞的时长。
+     *
+     * @param scope     作用域
+     * @param waitNanos 等待耗时（纳秒）
+     */
+    public void recordWait(String scope, long waitNanos) {
+        if (registry == null) {
+            return;
+        }
+        Timer.builder(prefix + ".wait")
+                .description("号段耗尽后调用线程等待新号段的耗时")
+                .tag("scope", scope)
+                .register(registry)
+                .record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一次号段申请。
+     *
+     * @param scope   作用域
+     * @param async   是否为后台预加载
+     * @param success 是否成功
+     */
+    public void recordFetch(String scope, boolean async, boolean success) {
+        if (registry == null) {
+            return;
+        }
+        Counter.builder(prefix + ".fetch.total")
+                .description("号段申请次数")
+                .tag("scope", scope)
+                .tag("mode", async ? "preload" : "sync")
+                .tag("result", success ? "success" : "failure")
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * 记录调整后的号段步长。
+     *
+     * @param scope 作用域
+     * @param step  新步长
+     */
+    public void recordStep(String scope, int step) {
+        if (registry == null) {
+            return;
+        }
+        DistributionSummary.builder(prefix + ".step")
+                .description("号段申请步长")
+                .tag("scope", scope)
+                .register(registry)
+                .record(step);
+    }
+}
@@ -114,8 +114,18 @@ public class UlidMetrics {
      * @param durationNanos 生成耗时（纳秒）
      */
     public void recordGenerated(long durationNanos) {
+        recordGenerated(durationNanos, 1);
+    }
+
+    /**
+     * 记录一次批量生成：计数按生成个数累加，耗时按整批记录一次。
+     *
+     * @param durationNanos 生成耗时（纳秒）
+     * @param count         本次生成的 ULID 个数
+     */
+    public void recordGenerated(long durationNanos, int count) {
         if (generatedCounter != null) {
-            generatedCounter.increment();
+            generatedCounter.increment(count);
         }
         if (generateTimer != null) {
             generateTimer.record(durationNanos, TimeUnit.NANOSECONDS);
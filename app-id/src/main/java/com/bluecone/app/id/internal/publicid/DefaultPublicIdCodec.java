@@ -1,12 +1,15 @@
 package com.bluecone.app.id.internal.publicid;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.regex.Pattern;
 
 import com.bluecone.app.id.internal.config.BlueconeIdProperties;
 import com.bluecone.app.id.core.Ulid128;
+import com.bluecone.app.id.core.UlidBatch;
 import com.bluecone.app.id.publicid.api.DecodedPublicId;
 import com.bluecone.app.id.publicid.api.PublicId;
 import com.bluecone.app.id.publicid.api.PublicIdCodec;
@@ -61,6 +64,44 @@ public class DefaultPublicIdCodec implements PublicIdCodec {
         return encode(type, id);
     }
 
+    /**
+     * 类型与分隔符只校验一次，逐个编码载荷并复用同一个 StringBuilder。
+     */
+    @Override
+    public List<PublicId> encodeAll(String type, UlidBatch ids) {
+        validateType(type);
+        if (ids == null) {
+            throw new IllegalArgumentException("ULID 批次不能为空");
+        }
+        String separator = props.getSeparator();
+        if (separator == null || separator.isEmpty()) {
+            throw new IllegalStateException("PublicId 分隔符不能为空，请检查配置 bluecone.id.public-id.separator");
+        }
+        boolean base62 = props.getFormat() == BlueconeIdProperties.PublicId.Format.BASE62_128;
+        boolean lowerCase = props.isLowerCase();
+        boolean checksum = props.isChecksumEnabled();
+        List<PublicId> result = new ArrayList<>(ids.size());
+        StringBuilder sb = new StringBuilder(type.length() + separator.length() * 2 + 30);
+        for (int i = 0; i < ids.size(); i++) {
+            Ulid128 id = ids.get(i);
+            String payload;
+            if (base62) {
+                payload = Base62.encodeFixed16(id.toBytes());
+            } else {
+                String ulid = id.toString();
+                payload = lowerCase ? ulid.toLowerCase(Locale.ROOT) : ulid;
+            }
+            sb.setLength(0);
+            sb.append(type).append(separator).append(payload);
+            if (checksum) {
+                int crc = Crc8.of(sb.toString().getBytes(StandardCharsets.UTF_8));
+                sb.append(separator).append(Base32Crockford.encodeByteTo2Chars(crc));
+            }
+            result.add(new PublicId(type, sb.toString()));
+        }
+        return result;
+    }
+
     @Override
     public DecodedPublicId decode(String publicId) {
         if (publicId == null || publicId.isBlank()) {
@@ -1,73 +1,148 @@
 package com.bluecone.app.id.internal.segment;
 
 import com.bluecone.app.id.api.IdScope;
+import com.bluecone.app.id.internal.metrics.SegmentMetrics;
 import com.bluecone.app.id.segment.IdSegmentRepository;
 import com.bluecone.app.id.segment.SegmentRange;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 基于号段模式的 long 型 ID 生成器。
- * 
+ *
  * <p>核心特性：
  * <ul>
  *   <li>本地缓存：每个 scope 缓存一段 ID 范围，快速分配无需访问数据库</li>
- *   <li>并发安全：使用 AtomicLong 保证快路径无锁，号段耗尽时加锁申请新段</li>
- *   <li>高性能：单机 QPS 可达 10 万+</li>
+ *   <li>双缓冲：当前号段消耗到 {@code preloadRatio} 时，后台异步预取下一号段，切换时无需等待数据库</li>
+ *   <li>自适应步长：号段消耗时长短于 {@code segmentDuration} 时步长翻倍，超过两倍时减半，限定在 [minStep, maxStep]</li>
  *   <li>无时钟依赖：避免 Snowflake 的时钟回拨问题</li>
  * </ul>
- * 
+ *
  * <p>线程安全性：
  * <ul>
- *   <li>快路径（号段未耗尽）：无锁，使用 AtomicLong.incrementAndGet()</li>
- *   <li>慢路径（号段耗尽）：加锁申请新号段，避免重复申请</li>
+ *   <li>快路径（号段未耗尽）：无锁，使用 AtomicLong.getAndIncrement()</li>
+ *   <li>慢路径（号段耗尽）：加锁切换到预取号段；预取未完成时等待，未发起预取时同步申请</li>
+ *   <li>同一 scope 同时最多只有一个号段申请在进行，号段按申请顺序消费，ID 连续无跳号</li>
  * </ul>
  */
 public class SegmentLongIdGenerator {
-    
+
     private static final Logger log = LoggerFactory.getLogger(SegmentLongIdGenerator.class);
-    
+
+    /**
+     * 默认预取阈值：当前号段消耗 10% 后开始预取下一号段。
+     */
+    public static final double DEFAULT_PRELOAD_RATIO = 0.1d;
+
+    /**
+     * 默认号段目标消耗时长，用于自适应步长。
+     */
+    public static final Duration DEFAULT_SEGMENT_DURATION = Duration.ofMinutes(15);
+
     /**
      * ID 号段仓储，用于从数据库申请新号段
      */
     private final IdSegmentRepository repository;
-    
+
     /**
-     * 号段步长（每次申请的 ID 数量）
+     * 初始号段步长（每次申请的 ID 数量）
      */
     private final int step;
-    
+
+    /**
+     * 自适应步长下限与上限
+     */
+    private final int minStep;
+    private final int maxStep;
+
+    /**
+     * 触发预取的已消耗比例
+     */
+    private final double preloadRatio;
+
+    /**
+     * 号段目标消耗时长（纳秒）
+     */
+    private final long segmentDurationNanos;
+
+    private final SegmentMetrics metrics;
+
+    /**
+     * 预取执行器（虚拟线程，每次预取一个任务）
+     */
+    private final Executor preloadExecutor;
+
     /**
      * 每个 scope 对应的号段缓存
      */
     private final ConcurrentHashMap<IdScope, SegmentBuffer> buffers = new ConcurrentHashMap<>();
-    
+
     /**
-     * 构造函数。
-     * 
+     * 构造函数，固定步长、默认预取阈值、无指标。
+     *
      * @param repository 号段仓储实现
      * @param step 号段步长（建议 1000）
      */
     public SegmentLongIdGenerator(IdSegmentRepository repository, int step) {
+        this(repository, step, step, step, DEFAULT_PRELOAD_RATIO, DEFAULT_SEGMENT_DURATION, SegmentMetrics.noop());
+    }
+
+    /**
+     * 构造函数。
+     *
+     * @param repository 号段仓储实现
+     * @param step 初始号段步长
+     * @param minStep 自适应步长下限（大于 step 时按 step 处理）
+     * @param maxStep 自适应步长上限（小于 step 时按 step 处理）；与下限相同即关闭自适应
+     * @param preloadRatio 当前号段消耗到该比例时开始预取，取值 (0, 1)
+     * @param segmentDuration 号段目标消耗时长
+     * @param metrics 指标封装
+     */
+    public SegmentLongIdGenerator(IdSegmentRepository repository,
+                                  int step,
+                                  int minStep,
+                                  int maxStep,
+                                  double preloadRatio,
+                                  Duration segmentDuration,
+                                  SegmentMetrics metrics) {
         if (repository == null) {
             throw new IllegalArgumentException("repository 不能为 null");
         }
         if (step <= 0) {
             throw new IllegalArgumentException("step 必须大于 0，当前值: " + step);
         }
+        if (preloadRatio <= 0d || preloadRatio >= 1d) {
+            throw new IllegalArgumentException("preloadRatio 必须在 (0, 1) 之间，当前值: " + preloadRatio);
+        }
+        if (segmentDuration == null || segmentDuration.isNegative() || segmentDuration.isZero()) {
+            throw new IllegalArgumentException("segmentDuration 必须大于 0，当前值: " + segmentDuration);
+        }
         this.repository = repository;
         this.step = step;
-        log.info("SegmentLongIdGenerator 初始化完成，step={}", step);
+        this.minStep = Math.max(1, Math.min(minStep, step));
+        this.maxStep = Math.max(maxStep, step);
+        this.preloadRatio = preloadRatio;
+        this.segmentDurationNanos = segmentDuration.toNanos();
+        this.metrics = (metrics != null ? metrics : SegmentMetrics.noop());
+        this.preloadExecutor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("id-segment-preload-", 0).factory());
+        log.info("SegmentLongIdGenerator 初始化完成，step={}, minStep={}, maxStep={}, preloadRatio={}, segmentDuration={}",
+                step, this.minStep, this.maxStep, preloadRatio, segmentDuration);
     }
-    
+
     /**
      * 生成下一个 long 型 ID。
-     * 
+     *
      * @param scope 作用域
      * @return 下一个 ID
      * @throws IllegalStateException 如果号段分配失败
@@ -76,102 +151,263 @@ public class SegmentLongIdGenerator {
         if (scope == null) {
             throw new IllegalArgumentException("scope 不能为 null");
         }
-        
+
         // 获取或创建 scope 对应的 buffer
-        SegmentBuffer buffer = buffers.computeIfAbsent(scope, k -> new SegmentBuffer(scope));
-        
-        // 快路径：尝试从当前号段分配 ID
-        long id = buffer.tryAllocate();
-        if (id > 0) {
-            return id;
-        }
-        
-        // 慢路径：号段耗尽，加锁申请新号段
-        return buffer.allocateWithNewSegment();
+        return buffers.computeIfAbsent(scope, SegmentBuffer::new).nextId();
+    }
+
+    /**
+     * 批量生成 long 型 ID：在当前号段上一次 getAndAdd 取走整段区间，号段不足时切换后继续。
+     *
+     * @param scope 作用域
+     * @param n 数量
+     * @return 按分配顺序排列的 ID（同一 scope 内连续递增，跨号段时可能不连续）
+     * @throws IllegalStateException 如果号段分配失败
+     */
+    public long[] nextIds(IdScope scope, int n) {
+        if (scope == null) {
+            throw new IllegalArgumentException("scope 不能为 null");
+        }
+        if (n < 0) {
+            throw new IllegalArgumentException("n 不能小于 0，当前值: " + n);
+        }
+        return buffers.computeIfAbsent(scope, SegmentBuffer::new).nextIds(n);
+    }
+
+    /**
+     * 返回指定 scope 下一次申请号段将使用的步长。
+     *
+     * @param scope 作用域
+     * @return 当前步长，尚未申请过号段时返回初始步长
+     */
+    public int currentStep(IdScope scope) {
+        SegmentBuffer buffer = buffers.get(scope);
+        return buffer != null ? buffer.currentStep : step;
+    }
+
+    /**
+     * 单个号段：[start, end]，cursor 为下一个待分配的 ID。
+     */
+    private static final class Segment {
+
+        /**
+         * 初始空号段：首次分配即触发申请。
+         */
+        static final Segment EMPTY = new Segment(1L, 0L, 0L);
+
+        final long start;
+        final long end;
+        /**
+         * 分配到该 ID 起触发预取
+         */
+        final long preloadFrom;
+        final AtomicLong cursor;
+
+        Segment(long start, long end, long preloadFrom) {
+            this.start = start;
+            this.end = end;
+            this.preloadFrom = preloadFrom;
+            this.cursor = new AtomicLong(start);
+        }
+
+        static Segment of(SegmentRange range, double preloadRatio) {
+            long preloadFrom = range.startInclusive() + (long) (range.size() * preloadRatio);
+            return new Segment(range.startInclusive(), range.endInclusive(), preloadFrom);
+        }
     }
-    
+
     /**
-     * 号段缓冲区，每个 scope 对应一个。
+     * 号段缓冲区，每个 scope 对应一个，持有当前号段与预取好的下一号段。
      */
     private class SegmentBuffer {
-        
+
         private final IdScope scope;
-        
+        private final String scopeTag;
+
+        /**
+         * 当前号段
+         */
+        private volatile Segment current = Segment.EMPTY;
+
         /**
-         * 当前号段的游标（下一个待分配的 ID）
+         * 预取完成、尚未启用的下一号段
          */
-        private final AtomicLong cursor = new AtomicLong(0);
-        
+        private volatile Segment next;
+
+        /**
+         * 是否有号段申请在进行（预取或同步申请），保证同一时刻只申请一个号段
+         */
+        private final AtomicBoolean loading = new AtomicBoolean();
+
         /**
-         * 当前号段的结束位置（包含）
+         * 下一次申请使用的步长
          */
-        private volatile long end = 0;
-        
+        private volatile int currentStep = step;
+
+        /**
+         * 上一次申请号段的时间，仅在持有 loading 时读写
+         */
+        private long lastFetchNanos;
+
         /**
-         * 申请新号段时的锁（避免并发重复申请）
+         * 号段切换锁及预取完成通知
          */
-        private final Lock lock = new ReentrantLock();
-        
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition loaded = lock.newCondition();
+
         SegmentBuffer(IdScope scope) {
             this.scope = scope;
+            this.scopeTag = scope.name();
         }
-        
-        /**
-         * 尝试从当前号段分配 ID（快路径，无锁）。
-         * 
-         * @return 分配的 ID，如果号段已耗尽返回 -1
-         */
-        long tryAllocate() {
-            long current = cursor.get();
-            if (current > end) {
-                return -1; // 号段已耗尽
+
+        long nextId() {
+            while (true) {
+                Segment segment = current;
+                long id = segment.cursor.getAndIncrement();
+                if (id <= segment.end) {
+                    if (id >= segment.preloadFrom) {
+                        maybePreload(segment);
+                    }
+                    return id;
+                }
+                switchSegment(segment);
+            }
+        }
+
+        long[] nextIds(int n) {
+            long[] ids = new long[n];
+            int filled = 0;
+            while (filled < n) {
+                Segment segment = current;
+                int want = n - filled;
+                long first = segment.cursor.getAndAdd(want);
+                if (first <= segment.end) {
+                    long last = Math.min(segment.end, first + want - 1);
+                    for (long id = first; id <= last; id++) {
+                        ids[filled++] = id;
+                    }
+                    if (last >= segment.preloadFrom) {
+                        maybePreload(segment);
+                    }
+                }
+                if (filled < n) {
+                    switchSegment(segment);
+                }
+            }
+            return ids;
+        }
+
+        private void maybePreload(Segment segment) {
+            if (next != null || segment != current || !loading.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                preloadExecutor.execute(this::preload);
+            } catch (RejectedExecutionException ex) {
+                loading.set(false);
+            }
+        }
+
+        private void preload() {
+            Segment fetched = null;
+            try {
+                fetched = fetch(true);
+            } catch (IllegalStateException ex) {
+                // 已记录日志；号段耗尽时由同步路径重试
             }
-            
-            // 使用 CAS 分配 ID
-            long next = cursor.incrementAndGet();
-            if (next <= end) {
-                return next;
+            lock.lock();
+            try {
+                if (fetched != null) {
+                    next = fetched;
+                }
+                loading.set(false);
+                loaded.signalAll();
+            } finally {
+                lock.unlock();
             }
-            
-            return -1; // 号段已耗尽
         }
-        
+
         /**
-         * 申请新号段并分配 ID（慢路径，加锁）。
-         * 
-         * @return 分配的 ID
+         * 当前号段耗尽（慢路径，加锁）：优先启用预取号段，预取进行中则等待，否则同步申请。
+         *
+         * @param exhausted 调用方观察到耗尽的号段
          * @throws IllegalStateException 如果号段分配失败
          */
-        long allocateWithNewSegment() {
+        private void switchSegment(Segment exhausted) {
+            long waitStart = 0L;
             lock.lock();
             try {
-                // 双重检查：可能其他线程已经申请了新号段
-                long id = tryAllocate();
-                if (id > 0) {
-                    return id;
+                while (current == exhausted) {
+                    Segment ready = next;
+                    if (ready != null) {
+                        next = null;
+                        current = ready;
+                        break;
+                    }
+                    if (waitStart == 0L) {
+                        waitStart = System.nanoTime();
+                    }
+                    if (loading.compareAndSet(false, true)) {
+                        try {
+                            current = fetch(false);
+                        } finally {
+                            loading.set(false);
+                        }
+                        break;
+                    }
+                    loaded.await();
                 }
-                
-                // 从数据库申请新号段
-                log.debug("号段耗尽，为 scope={} 申请新号段，step={}", scope, step);
-                SegmentRange range = repository.nextRange(scope, step);
-                
-                // 更新本地缓存：设置 cursor 为 startInclusive - 1，这样下次 incrementAndGet() 会返回 startInclusive
-                cursor.set(range.startInclusive() - 1);
-                end = range.endInclusive();
-                
-                log.info("成功申请新号段: scope={}, range=[{}, {}], size={}", 
-                         scope, range.startInclusive(), range.endInclusive(), range.size());
-                
-                // 分配第一个 ID：incrementAndGet() 会先递增（变为 startInclusive），然后返回
-                return cursor.incrementAndGet();
-                
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("等待号段被中断: scope=" + scope, ex);
+            } finally {
+                lock.unlock();
+                if (waitStart != 0L) {
+                    metrics.recordWait(scopeTag, System.nanoTime() - waitStart);
+                }
+            }
+        }
+
+        /**
+         * 从数据库申请新号段，调用方须持有 loading。
+         */
+        private Segment fetch(boolean async) {
+            int fetchStep = adjustStep();
+            log.debug("为 scope={} 申请新号段，step={}, preload={}", scope, fetchStep, async);
+            try {
+                SegmentRange range = repository.nextRange(scope, fetchStep);
+                metrics.recordFetch(scopeTag, async, true);
+                log.info("成功申请新号段: scope={}, range=[{}, {}], size={}, preload={}",
+                         scope, range.startInclusive(), range.endInclusive(), range.size(), async);
+                return Segment.of(range, preloadRatio);
             } catch (Exception e) {
+                metrics.recordFetch(scopeTag, async, false);
                 log.error("申请号段失败: scope={}", scope, e);
                 throw new IllegalStateException("申请号段失败: scope=" + scope, e);
-            } finally {
-                lock.unlock();
             }
         }
+
+        /**
+         * 按两次申请的间隔调整步长：短于目标时长翻倍，超过两倍目标时长减半。
+         */
+        private int adjustStep() {
+            long now = System.nanoTime();
+            int adjusted = currentStep;
+            if (lastFetchNanos != 0L && minStep < maxStep) {
+                long elapsed = now - lastFetchNanos;
+                if (elapsed < segmentDurationNanos) {
+                    adjusted = (int) Math.min((long) adjusted * 2, maxStep);
+                } else if (elapsed >= segmentDurationNanos * 2) {
+                    adjusted = Math.max(adjusted / 2, minStep);
+                }
+                if (adjusted != currentStep) {
+                    log.info("号段步长调整: scope={}, {} -> {}, elapsedMs={}", scope, currentStep, adjusted, elapsed / 1_000_000);
+                    currentStep = adjusted;
+                    metrics.recordStep(scopeTag, adjusted);
+                }
+            }
+            lastFetchNanos = now;
+            return adjusted;
+        }
     }
 }
-
@@ -12,6 +12,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -27,6 +28,7 @@ import static org.assertj.core.api.Assertions.*;
  *   <li>Long ID 生成：唯一性、单调性</li>
  *   <li>Public ID 生成：格式正确（prefix_ulid）</li>
  *   <li>Public ID 校验：格式、类型、ULID 合法性</li>
+ *   <li>批量分配：nextLongs / nextUlids / nextPublicIds</li>
  * </ul>
  */
 @DisplayName("EnhancedIdService 功能测试")
@@ -163,6 +165,36 @@ class EnhancedIdServiceTest {
         assertThat(publicIds).hasSize(10000);
     }
     
+    @Test
+    @DisplayName("批量分配 Long ID - 跨号段连续且与单个分配衔接")
+    void testNextLongs() {
+        long first = idService.nextLong(IdScope.ORDER);
+        long[] batch = idService.nextLongs(IdScope.ORDER, 2500);
+        long after = idService.nextLong(IdScope.ORDER);
+        
+        assertThat(batch).hasSize(2500);
+        for (int i = 0; i < batch.length; i++) {
+            assertThat(batch[i]).isEqualTo(first + 1 + i);
+        }
+        assertThat(after).isEqualTo(first + 2501);
+        assertThat(idService.nextLongs(IdScope.ORDER, 0)).isEmpty();
+    }
+    
+    @Test
+    @DisplayName("批量生成 ULID 与 Public ID - 单调且编码一致")
+    void testNextUlidsAndPublicIds() {
+        UlidBatch batch = idService.nextUlids(1000);
+        
+        assertThat(batch.size()).isEqualTo(1000);
+        for (int i = 1; i < batch.size(); i++) {
+            assertThat(batch.get(i).toString()).isGreaterThan(batch.get(i - 1).toString());
+        }
+        
+        List<String> publicIds = idService.nextPublicIds(ResourceType.SKU, 500);
+        assertThat(publicIds).hasSize(500).doesNotHaveDuplicates();
+        assertThat(publicIds).allMatch(publicId -> publicId.matches("^sku_[0-9a-hjkmnp-tv-z]{26}$"));
+    }
+    
     /**
      * 内存模拟的 ID 号段仓储（线程安全）。
      */
@@ -0,0 +1,61 @@
+package com.bluecone.app.id.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import com.bluecone.app.id.internal.core.MonotonicUlidGenerator;
+
+/**
+ * MonotonicUlidGenerator 吞吐对比：{@code lanes=1} 即原先的全局单 CAS 实现，{@code lanes=64} 为分道实现。
+ *
+ * <p>{@link #main(String[])} 依次以 1、2、4、8、16、32、64 线程运行；
+ * 也可通过 {@code java -cp <test-classpath> org.openjdk.jmh.Main MonotonicUlidBenchmark -t <threads>} 单独指定。</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MonotonicUlidBenchmark {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+
+    @Param({"1", "64"})
+    public int lanes;
+
+    private MonotonicUlidGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = new MonotonicUlidGenerator(System::currentTimeMillis, lanes);
+    }
+
+    @Benchmark
+    public Ulid128 nextUlid() {
+        return generator.nextUlid();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREAD_COUNTS) {
+            new Runner(new OptionsBuilder()
+                    .include(MonotonicUlidBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+}
@@ -3,12 +3,22 @@ package com.bluecone.app.id.core;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.jupiter.api.Test;
 
+import com.bluecone.app.id.internal.core.MonotonicUlidGenerator;
+
 /**
  * MonotonicUlidGenerator 行为测试。
  */
@@ -56,5 +66,89 @@ class MonotonicUlidGeneratorTest {
         }
         assertEquals(n, seen.size());
     }
+
+    /**
+     * 批量生成与单个生成交替调用，整体仍严格递增。
+     */
+    @Test
+    void batchShouldContinueMonotonicSequence() {
+        MonotonicUlidGenerator generator = new MonotonicUlidGenerator(() -> 1_000L);
+
+        Ulid128 prev = generator.nextUlid();
+        UlidBatch batch = generator.nextUlids(5_000);
+        assertEquals(5_000, batch.size());
+        for (Ulid128 current : batch.asList()) {
+            assertTrue(compare(prev, current) < 0, "批量 ULID 应严格递增");
+            prev = current;
+        }
+        assertTrue(compare(prev, generator.nextUlid()) < 0, "批量之后的 ULID 应继续递增");
+    }
+
+    /**
+     * 压力测试：64 个线程同时起跑、固定时钟（强制同毫秒内递增），多轮重复；
+     * 全部结果不重复，且每个线程观察到的序列严格递增。
+     */
+    @Test
+    void concurrentLanesShouldStayUniqueAndMonotonicPerThread() throws Exception {
+        int threads = 64;
+        int perThread = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 5; round++) {
+                MonotonicUlidGenerator generator = new MonotonicUlidGenerator(() -> 1_000L, 8);
+                Set<Ulid128> all = ConcurrentHashMap.newKeySet(threads * perThread * 2);
+                CyclicBarrier start = new CyclicBarrier(threads);
+                List<Future<Boolean>> futures = new ArrayList<>(threads);
+                for (int t = 0; t < threads; t++) {
+                    futures.add(pool.submit(() -> {
+                        start.await();
+                        Ulid128 prev = null;
+                        boolean monotonic = true;
+                        for (int i = 0; i < perThread; i++) {
+                            Ulid128 current = generator.nextUlid();
+                            monotonic &= prev == null || compare(prev, current) < 0;
+                            all.add(current);
+                            prev = current;
+                        }
+                        return monotonic;
+                    }));
+                }
+                for (Future<Boolean> future : futures) {
+                    assertTrue(future.get(30, TimeUnit.SECONDS), "同一线程内 ULID 应严格递增");
+                }
+                assertEquals(threads * perThread, all.size(), "并发生成的 ULID 不应重复");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 跨道仍按毫秒 k 有序：后一毫秒生成的值一定大于前一毫秒的任意值。
+     */
+    @Test
+    void lanesShouldBeSortableByMillisecond() throws Exception {
+        AtomicLong clock = new AtomicLong(1_000L);
+        MonotonicUlidGenerator generator = new MonotonicUlidGenerator(clock::get, 16);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Ulid128>> earlier = new ArrayList<>();
+            for (int t = 0; t < 16; t++) {
+                earlier.add(pool.submit(generator::nextUlid));
+            }
+            Ulid128 maxEarlier = null;
+            for (Future<Ulid128> future : earlier) {
+                Ulid128 value = future.get(5, TimeUnit.SECONDS);
+                if (maxEarlier == null || compare(value, maxEarlier) > 0) {
+                    maxEarlier = value;
+                }
+            }
+            clock.set(1_001L);
+            Ulid128 later = pool.submit(generator::nextUlid).get(5, TimeUnit.SECONDS);
+            assertTrue(compare(maxEarlier, later) < 0, "后一毫秒的 ULID 应大于前一毫秒");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
 }
 
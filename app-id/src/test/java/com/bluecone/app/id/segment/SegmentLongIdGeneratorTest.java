@@ -1,19 +1,26 @@
 package com.bluecone.app.id.segment;
 
 import com.bluecone.app.id.api.IdScope;
+import com.bluecone.app.id.internal.metrics.SegmentMetrics;
 import com.bluecone.app.id.internal.segment.SegmentLongIdGenerator;
 import com.bluecone.app.id.segment.IdSegmentRepository;
 import com.bluecone.app.id.segment.SegmentRange;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
@@ -28,6 +35,7 @@ import static org.assertj.core.api.Assertions.*;
  *   <li>单调性：同一 scope 内 ID 单调递增（允许不连续）</li>
  *   <li>并发安全：多线程并发生成无异常</li>
  *   <li>边界正确性：号段切换时无跳号/漏号</li>
+ *   <li>双缓冲预取、自适应步长与等待指标</li>
  * </ul>
  */
 @DisplayName("SegmentLongIdGenerator 并发测试")
@@ -230,6 +238,79 @@ class SegmentLongIdGeneratorTest {
         }
     }
     
+    @Test
+    @DisplayName("双缓冲 - 消耗到阈值后后台预取下一号段")
+    void testPreloadNextSegment() throws InterruptedException {
+        CountingRepository repo = new CountingRepository();
+        SegmentLongIdGenerator gen = new SegmentLongIdGenerator(repo, 100, 100, 100, 0.2d,
+                Duration.ofMinutes(15), SegmentMetrics.noop());
+        
+        // 消耗 [1, 20]，第 21 个 ID 达到 20% 阈值
+        for (int i = 0; i < 21; i++) {
+            gen.nextId(IdScope.ORDER);
+        }
+        
+        long deadline = System.currentTimeMillis() + 5000;
+        while (repo.calls.get() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(repo.calls.get()).isEqualTo(2);
+        
+        // 切换到预取号段后仍连续
+        for (long expected = 22; expected <= 200; expected++) {
+            assertThat(gen.nextId(IdScope.ORDER)).isEqualTo(expected);
+        }
+    }
+    
+    @Test
+    @DisplayName("自适应步长 - 消耗过快时翻倍直至上限")
+    void testAdaptiveStepGrowsToMax() {
+        CountingRepository repo = new CountingRepository();
+        SegmentLongIdGenerator gen = new SegmentLongIdGenerator(repo, 10, 10, 80, 0.5d,
+                Duration.ofHours(1), SegmentMetrics.noop());
+        
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 2000; i++) {
+            ids.add(gen.nextId(IdScope.USER));
+        }
+        
+        assertThat(gen.currentStep(IdScope.USER)).isEqualTo(80);
+        assertThat(repo.steps).contains(10, 20, 40, 80);
+        assertThat(ids).hasSize(2000);
+        assertThat(ids.stream().mapToLong(Long::longValue).max().orElseThrow()).isEqualTo(2000L);
+    }
+    
+    @Test
+    @DisplayName("号段等待耗时指标")
+    void testSegmentWaitMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SegmentLongIdGenerator gen = new SegmentLongIdGenerator(new CountingRepository(), 10, 10, 10, 0.5d,
+                Duration.ofMinutes(15), SegmentMetrics.from(registry, "bluecone.id.segment"));
+        
+        gen.nextId(IdScope.STORE);
+        
+        Timer wait = registry.find("bluecone.id.segment.wait").tag("scope", "STORE").timer();
+        assertThat(wait).isNotNull();
+        assertThat(wait.count()).isEqualTo(1);
+        assertThat(registry.find("bluecone.id.segment.fetch.total").tag("mode", "sync").counter().count()).isEqualTo(1.0d);
+    }
+    
+    /**
+     * 记录调用次数与步长的内存仓储。
+     */
+    private static class CountingRepository extends InMemoryIdSegmentRepository {
+        
+        private final AtomicInteger calls = new AtomicInteger();
+        private final List<Integer> steps = new CopyOnWriteArrayList<>();
+        
+        @Override
+        public synchronized SegmentRange nextRange(IdScope scope, int step) {
+            calls.incrementAndGet();
+            steps.add(step);
+            return super.nextRange(scope, step);
+        }
+    }
+    
     /**
      * 内存模拟的 ID 号段仓储（线程安全）。
      */
@@ -0,0 +1,106 @@
+package com.bluecone.app.id.segment;
+
+import com.bluecone.app.id.api.IdScope;
+import com.bluecone.app.id.internal.metrics.SegmentMetrics;
+import com.bluecone.app.id.internal.segment.SegmentLongIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * SegmentLongIdGenerator#nextId 在 1 / 8 / 32 线程下的延迟分布。
+ *
+ * <p>仓储为内存实现，每次申请号段按 {@code rttMicros} 模拟一次数据库往返；{@code preloadRatio}
+ * 取 0.99 时接近“耗尽才申请”的旧行为，可与默认 0.1 对比号段切换处的尾延迟。
+ * 运行方式：在 IDE 中执行 {@link #main(String[])}，或 {@code java -cp <test-classpath> ...SegmentNextIdBenchmark}。</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SegmentNextIdBenchmark {
+
+    @Param({"0.1", "0.99"})
+    public double preloadRatio;
+
+    @Param({"1000"})
+    public int step;
+
+    @Param({"2000"})
+    public long rttMicros;
+
+    private SegmentLongIdGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = new SegmentLongIdGenerator(new SimulatedRepository(TimeUnit.MICROSECONDS.toNanos(rttMicros)),
+                step, step, step * 100, preloadRatio, Duration.ofSeconds(1), SegmentMetrics.noop());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long nextIdThreads1() {
+        return generator.nextId(IdScope.ORDER);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long nextIdThreads8() {
+        return generator.nextId(IdScope.ORDER);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public long nextIdThreads32() {
+        return generator.nextId(IdScope.ORDER);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SegmentNextIdBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * 每次申请号段都付出一次 RTT 的内存版仓储。
+     */
+    static final class SimulatedRepository implements IdSegmentRepository {
+
+        private final ConcurrentHashMap<IdScope, AtomicLong> maxIds = new ConcurrentHashMap<>();
+        private final long rttNanos;
+
+        SimulatedRepository(long rttNanos) {
+            this.rttNanos = rttNanos;
+        }
+
+        @Override
+        public SegmentRange nextRange(IdScope scope, int step) {
+            LockSupport.parkNanos(rttNanos);
+            long end = maxIds.computeIfAbsent(scope, k -> new AtomicLong()).addAndGet(step);
+            return new SegmentRange(end - step + 1, end);
+        }
+
+        @Override
+        public void initScopeIfAbsent(IdScope scope, long initialMaxId, int defaultStep) {
+            maxIds.putIfAbsent(scope, new AtomicLong(initialMaxId));
+        }
+    }
+}
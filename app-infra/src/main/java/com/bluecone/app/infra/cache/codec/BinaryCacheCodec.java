@@ -0,0 +1,137 @@
+package com.bluecone.app.infra.cache.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 紧凑二进制编解码器：Smile（二进制 JSON）编码，超过阈值再做 LZ4 压缩。
+ *
+ * <p>格式：{@code [0xBC magic][version][flags][rawLength(4B, 仅压缩时)][body]}。
+ * 魔数 0xBC 不是合法的 UTF-8 首字节，因此不会与存量 JSON 文本冲突。</p>
+ */
+public class BinaryCacheCodec implements CacheCodec {
+
+    public static final String NAME = "binary";
+
+    static final byte MAGIC = (byte) 0xBC;
+    static final byte VERSION = 1;
+    static final byte FLAG_LZ4 = 0x01;
+    private static final int HEADER_LENGTH = 3;
+    private static final int RAW_LENGTH_BYTES = 4;
+
+    private final ObjectMapper smileMapper;
+    private final int compressThresholdBytes;
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    /**
+     * 使用与 redisObjectMapper 一致的配置（Java 时间类型、忽略未知字段）构建 Smile mapper。
+     */
+    public BinaryCacheCodec(int compressThresholdBytes) {
+        this(SmileMapper.builder()
+                .addModule(new JavaTimeModule())
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .build(), compressThresholdBytes);
+    }
+
+    /**
+     * @param smileMapper            基于 {@link SmileFactory} 的 mapper
+     * @param compressThresholdBytes Smile 编码后超过该字节数才压缩
+     */
+    public BinaryCacheCodec(ObjectMapper smileMapper, int compressThresholdBytes) {
+        if (!(smileMapper.getFactory() instanceof SmileFactory)) {
+            throw new IllegalArgumentException("BinaryCacheCodec requires a Smile-backed ObjectMapper");
+        }
+        this.smileMapper = smileMapper;
+        this.compressThresholdBytes = compressThresholdBytes;
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.fastDecompressor();
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        byte[] body = smileMapper.writeValueAsBytes(value);
+        if (body.length < compressThresholdBytes) {
+            return plain(body);
+        }
+        int maxLength = compressor.maxCompressedLength(body.length);
+        byte[] out = new byte[HEADER_LENGTH + RAW_LENGTH_BYTES + maxLength];
+        writeHeader(out, FLAG_LZ4);
+        writeInt(out, HEADER_LENGTH, body.length);
+        int compressedLength = compressor.compress(body, 0, body.length, out, HEADER_LENGTH + RAW_LENGTH_BYTES, maxLength);
+        int total = HEADER_LENGTH + RAW_LENGTH_BYTES + compressedLength;
+        if (total >= HEADER_LENGTH + body.length) {
+            // 压缩无收益时退回未压缩格式
+            return plain(body);
+        }
+        return Arrays.copyOf(out, total);
+    }
+
+    @Override
+    public <T> T decode(byte[] payload, Class<T> type) throws IOException {
+        if (!hasHeader(payload)) {
+            throw new IOException("binary cache payload header missing");
+        }
+        if (payload[1] != VERSION) {
+            throw new IOException("unsupported binary cache payload version: " + payload[1]);
+        }
+        if ((payload[2] & FLAG_LZ4) == 0) {
+            return smileMapper.readValue(payload, HEADER_LENGTH, payload.length - HEADER_LENGTH, type);
+        }
+        int rawLength = readInt(payload, HEADER_LENGTH);
+        byte[] body = new byte[rawLength];
+        decompressor.decompress(payload, HEADER_LENGTH + RAW_LENGTH_BYTES, body, 0, rawLength);
+        return smileMapper.readValue(body, type);
+    }
+
+    @Override
+    public boolean supports(byte[] payload) {
+        return hasHeader(payload);
+    }
+
+    static boolean hasHeader(byte[] payload) {
+        return payload != null && payload.length >= HEADER_LENGTH && payload[0] == MAGIC;
+    }
+
+    private static byte[] plain(byte[] body) {
+        byte[] out = new byte[HEADER_LENGTH + body.length];
+        writeHeader(out, (byte) 0);
+        System.arraycopy(body, 0, out, HEADER_LENGTH, body.length);
+        return out;
+    }
+
+    private static void writeHeader(byte[] out, byte flags) {
+        out[0] = MAGIC;
+        out[1] = VERSION;
+        out[2] = flags;
+    }
+
+    private static void writeInt(byte[] dest, int offset, int value) {
+        dest[offset] = (byte) (value >>> 24);
+        dest[offset + 1] = (byte) (value >>> 16);
+        dest[offset + 2] = (byte) (value >>> 8);
+        dest[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] src, int offset) {
+        return ((src[offset] & 0xFF) << 24)
+                | ((src[offset + 1] & 0xFF) << 16)
+                | ((src[offset + 2] & 0xFF) << 8)
+                | (src[offset + 3] & 0xFF);
+    }
+}
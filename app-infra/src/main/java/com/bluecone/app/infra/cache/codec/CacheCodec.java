@@ -0,0 +1,26 @@
+package com.bluecone.app.infra.cache.codec;
+
+import java.io.IOException;
+
+/**
+ * L2 缓存值编解码 SPI：决定对象写入 Redis 的字节格式。
+ *
+ * <p>多种格式可以在同一个 Redis 中共存，读取时由 {@link #supports(byte[])} 按格式头选择解码器，
+ * 便于灰度切换写入格式。</p>
+ */
+public interface CacheCodec {
+
+    /**
+     * 格式名称，用于配置与日志。
+     */
+    String name();
+
+    byte[] encode(Object value) throws IOException;
+
+    <T> T decode(byte[] payload, Class<T> type) throws IOException;
+
+    /**
+     * 判断字节是否由当前编解码器写入。
+     */
+    boolean supports(byte[] payload);
+}
@@ -0,0 +1,42 @@
+package com.bluecone.app.infra.cache.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * 兼容历史数据的 JSON 编解码器：UTF-8 JSON 文本，无格式头。
+ */
+public class JsonCacheCodec implements CacheCodec {
+
+    public static final String NAME = "json";
+
+    private final ObjectMapper objectMapper;
+
+    public JsonCacheCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        return objectMapper.writeValueAsBytes(value);
+    }
+
+    @Override
+    public <T> T decode(byte[] payload, Class<T> type) throws IOException {
+        return objectMapper.readValue(payload, type);
+    }
+
+    /**
+     * 任何不带二进制魔数的内容都按 JSON 处理，保证存量数据可读。
+     */
+    @Override
+    public boolean supports(byte[] payload) {
+        return !BinaryCacheCodec.hasHeader(payload);
+    }
+}
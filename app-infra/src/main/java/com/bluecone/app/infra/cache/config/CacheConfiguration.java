@@ -1,5 +1,8 @@
 package com.bluecone.app.infra.cache.config;
 
+import com.bluecone.app.infra.cache.codec.BinaryCacheCodec;
+import com.bluecone.app.infra.cache.codec.CacheCodec;
+import com.bluecone.app.infra.cache.codec.JsonCacheCodec;
 import com.bluecone.app.infra.cache.consistency.ConsistencyBus;
 import com.bluecone.app.infra.cache.consistency.RedisConsistencyBus;
 import com.bluecone.app.infra.cache.consistency.NoopConsistencyBus;
@@ -9,8 +12,11 @@ import com.bluecone.app.infra.cache.core.L1CacheStore;
 import com.bluecone.app.infra.cache.core.L2CacheStore;
 import com.bluecone.app.infra.cache.core.NoopCacheStore;
 import com.bluecone.app.infra.cache.facade.CacheClient;
+import com.bluecone.app.infra.cache.hotkey.HotKeyDetector;
 import com.bluecone.app.infra.cache.profile.CacheProfileRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -19,6 +25,14 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.data.redis.core.StringRedisTemplate;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * 缓存核心 Bean 定义，按“三层模型”装配。
  */
@@ -32,8 +46,17 @@ public class CacheConfiguration {
 
     @ConditionalOnProperty(value = "bluecone.cache.l2.enabled", havingValue = "true", matchIfMissing = true)
     @Bean(name = "l2CacheStoreBean")
-    public L2CacheStore l2CacheStore(StringRedisTemplate stringRedisTemplate, @Qualifier("redisObjectMapper") ObjectMapper objectMapper) {
-        return new L2CacheStore(stringRedisTemplate, objectMapper);
+    public L2CacheStore l2CacheStore(StringRedisTemplate stringRedisTemplate,
+                                     @Qualifier("redisObjectMapper") ObjectMapper objectMapper,
+                                     @Value("${bluecone.cache.l2.codec:json}") String codec,
+                                     @Value("${bluecone.cache.l2.compress-threshold-bytes:512}") int compressThresholdBytes) {
+        // 两种格式始终可读，codec 只决定新写入的格式，便于灰度切换与回滚
+        CacheCodec json = new JsonCacheCodec(objectMapper);
+        CacheCodec binary = new BinaryCacheCodec(compressThresholdBytes);
+        if (BinaryCacheCodec.NAME.equalsIgnoreCase(codec)) {
+            return new L2CacheStore(stringRedisTemplate, binary, List.of(json));
+        }
+        return new L2CacheStore(stringRedisTemplate, json, List.of(binary));
     }
 
     @ConditionalOnMissingBean(name = "l2CacheStoreBean")
@@ -44,8 +67,15 @@ public class CacheConfiguration {
 
     @Bean
     @ConditionalOnProperty(value = "bluecone.cache.consistency.redis.enabled", havingValue = "true", matchIfMissing = true)
-    public ConsistencyBus consistencyBus(StringRedisTemplate stringRedisTemplate, @Qualifier("redisObjectMapper") ObjectMapper objectMapper) {
-        return new RedisConsistencyBus(stringRedisTemplate, objectMapper);
+    public ConsistencyBus consistencyBus(StringRedisTemplate stringRedisTemplate,
+                                         @Qualifier("redisObjectMapper") ObjectMapper objectMapper,
+                                         @Value("${bluecone.cache.consistency.batch-window-ms:5}") long batchWindowMs,
+                                         @Value("${bluecone.cache.consistency.max-batch-keys:1000}") int maxBatchKeys,
+                                         @Value("${bluecone.cache.consistency.compress-threshold-bytes:1024}") int compressThresholdBytes,
+                                         @Value("${bluecone.cache.consistency.format:json}") String format) {
+        // 接收端两种格式都认，format 只决定发布格式；全部节点升级后再切到 frame
+        return new RedisConsistencyBus(stringRedisTemplate, objectMapper,
+                Duration.ofMillis(batchWindowMs), maxBatchKeys, compressThresholdBytes, "frame".equalsIgnoreCase(format));
     }
 
     @Bean
@@ -57,12 +87,42 @@ public class CacheConfiguration {
     @Bean
     public CacheEngine cacheEngine(L1CacheStore l1CacheStore,
                                    @Qualifier("l2CacheStoreBean") CacheStore l2CacheStore,
-                                   ConsistencyBus consistencyBus) {
-        return new CacheEngine(l1CacheStore, l2CacheStore, consistencyBus);
+                                   ConsistencyBus consistencyBus,
+                                   ObjectProvider<MeterRegistry> meterRegistryProvider,
+                                   @Value("${bluecone.cache.refresh.threads:2}") int refreshThreads,
+                                   @Value("${bluecone.cache.refresh.queue-capacity:1024}") int refreshQueueCapacity,
+                                   @Value("${bluecone.cache.hotkey.enabled:false}") boolean hotKeyEnabled,
+                                   @Value("${bluecone.cache.hotkey.top-k:64}") int hotKeyTopK,
+                                   @Value("${bluecone.cache.hotkey.threshold:200}") long hotKeyThreshold,
+                                   @Value("${bluecone.cache.hotkey.window-seconds:10}") long hotKeyWindowSeconds) {
+        // 默认关闭：开启后每次读取都要更新 sketch，只在确有热点的场景按需打开
+        HotKeyDetector hotKeyDetector = hotKeyEnabled
+                ? new HotKeyDetector(hotKeyTopK, hotKeyThreshold, Duration.ofSeconds(hotKeyWindowSeconds))
+                : null;
+        return new CacheEngine(l1CacheStore, l2CacheStore, consistencyBus,
+                meterRegistryProvider.getIfAvailable(), newRefreshExecutor(refreshThreads, refreshQueueCapacity), hotKeyDetector);
     }
 
     @Bean
     public CacheClient cacheClient(CacheEngine cacheEngine, CacheProfileRegistry cacheProfileRegistry) {
         return new CacheClient(cacheEngine, cacheProfileRegistry);
     }
+
+    /**
+     * stale-while-revalidate 的后台刷新线程池；有界队列，饱和时直接放弃刷新并继续返回旧值。
+     * 不注册为 Bean，避免顶掉 Spring Boot 默认的 applicationTaskExecutor。
+     */
+    private static ExecutorService newRefreshExecutor(int threads, int queueCapacity) {
+        AtomicInteger seq = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "cache-refresh-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
 }
@@ -1,15 +1,28 @@
 package com.bluecone.app.infra.cache.consistency;
 
 import com.bluecone.app.infra.cache.core.CacheKey;
+import com.bluecone.app.infra.cache.core.CacheNamespace;
 
+import java.util.Collection;
 import java.util.function.Consumer;
 
 /**
  * 一致性总线抽象，屏蔽 pub/sub 细节。
+ *
+ * <p>实现可以把多次发布合并为一个批次再广播；接收方按 {@link InvalidationBatch} 整批应用。</p>
  */
 public interface ConsistencyBus {
 
     void publishInvalidation(CacheKey key, String reason);
 
-    void registerInvalidationListener(Consumer<CacheKey> listener);
+    default void publishInvalidation(Collection<CacheKey> keys, String reason) {
+        keys.forEach(key -> publishInvalidation(key, reason));
+    }
+
+    /**
+     * 广播整租户/整领域失效。
+     */
+    void publishNamespaceInvalidation(CacheNamespace namespace, String reason);
+
+    void registerInvalidationListener(Consumer<InvalidationBatch> listener);
 }
@@ -0,0 +1,29 @@
+package com.bluecone.app.infra.cache.consistency;
+
+import com.bluecone.app.infra.cache.core.CacheKey;
+import com.bluecone.app.infra.cache.core.CacheNamespace;
+
+import java.util.List;
+
+/**
+ * 一次广播携带的失效集合：精确 key + 命名空间通配。
+ */
+public record InvalidationBatch(List<CacheKey> keys, List<CacheNamespace> namespaces) {
+
+    public InvalidationBatch {
+        keys = List.copyOf(keys);
+        namespaces = List.copyOf(namespaces);
+    }
+
+    public static InvalidationBatch ofKeys(List<CacheKey> keys) {
+        return new InvalidationBatch(keys, List.of());
+    }
+
+    public boolean isEmpty() {
+        return keys.isEmpty() && namespaces.isEmpty();
+    }
+
+    public int size() {
+        return keys.size() + namespaces.size();
+    }
+}
@@ -0,0 +1,145 @@
+package com.bluecone.app.infra.cache.consistency;
+
+import com.bluecone.app.infra.cache.core.CacheKey;
+import com.bluecone.app.infra.cache.core.CacheNamespace;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 失效批次的二进制帧编解码。
+ *
+ * <pre>
+ * [0xBD][version][flags] ( [rawLength:int][lz4 body] | [body] )
+ * body = nsCount:int { tenant:utf hasDomain:bool [domain:utf] }
+ *        groupCount:int { tenant:utf domain:utf keyCount:int { bizId:utf hasVersion:bool [version:utf] } }
+ * </pre>
+ *
+ * <p>key 按 tenant/domain 分组，同组内只写一次前缀；body 超过阈值且压缩有收益时使用 LZ4。</p>
+ */
+final class InvalidationFrameCodec {
+
+    static final byte MAGIC = (byte) 0xBD;
+    static final byte VERSION = 1;
+    static final byte FLAG_LZ4 = 0x01;
+    private static final int HEADER_LENGTH = 3;
+
+    private final int compressThresholdBytes;
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    InvalidationFrameCodec(int compressThresholdBytes) {
+        this.compressThresholdBytes = compressThresholdBytes;
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.fastDecompressor();
+    }
+
+    static boolean isFrame(byte[] payload) {
+        return payload != null && payload.length >= HEADER_LENGTH && payload[0] == MAGIC;
+    }
+
+    byte[] encode(InvalidationBatch batch) throws IOException {
+        byte[] body = writeBody(batch);
+        if (body.length >= compressThresholdBytes) {
+            byte[] compressed = compressor.compress(body);
+            if (compressed.length + Integer.BYTES < body.length) {
+                ByteBuffer frame = ByteBuffer.allocate(HEADER_LENGTH + Integer.BYTES + compressed.length);
+                frame.put(MAGIC).put(VERSION).put(FLAG_LZ4).putInt(body.length).put(compressed);
+                return frame.array();
+            }
+        }
+        byte[] frame = new byte[HEADER_LENGTH + body.length];
+        frame[0] = MAGIC;
+        frame[1] = VERSION;
+        frame[2] = 0;
+        System.arraycopy(body, 0, frame, HEADER_LENGTH, body.length);
+        return frame;
+    }
+
+    InvalidationBatch decode(byte[] frame) throws IOException {
+        if (!isFrame(frame)) {
+            throw new IOException("not an invalidation frame");
+        }
+        if (frame[1] != VERSION) {
+            throw new IOException("unsupported invalidation frame version " + frame[1]);
+        }
+        byte[] body;
+        if ((frame[2] & FLAG_LZ4) != 0) {
+            ByteBuffer buffer = ByteBuffer.wrap(frame, HEADER_LENGTH, frame.length - HEADER_LENGTH);
+            int rawLength = buffer.getInt();
+            body = decompressor.decompress(frame, HEADER_LENGTH + Integer.BYTES, rawLength);
+        } else {
+            body = new byte[frame.length - HEADER_LENGTH];
+            System.arraycopy(frame, HEADER_LENGTH, body, 0, body.length);
+        }
+        return readBody(body);
+    }
+
+    private byte[] writeBody(InvalidationBatch batch) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + batch.size() * 16);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(batch.namespaces().size());
+        for (CacheNamespace namespace : batch.namespaces()) {
+            out.writeUTF(namespace.tenantId());
+            out.writeBoolean(namespace.domain() != null);
+            if (namespace.domain() != null) {
+                out.writeUTF(namespace.domain());
+            }
+        }
+        Map<CacheNamespace, List<CacheKey>> groups = new LinkedHashMap<>();
+        for (CacheKey key : batch.keys()) {
+            groups.computeIfAbsent(CacheNamespace.of(key.getTenantId(), key.getDomain()), ignored -> new ArrayList<>()).add(key);
+        }
+        out.writeInt(groups.size());
+        for (Map.Entry<CacheNamespace, List<CacheKey>> group : groups.entrySet()) {
+            out.writeUTF(group.getKey().tenantId());
+            out.writeUTF(group.getKey().domain());
+            out.writeInt(group.getValue().size());
+            for (CacheKey key : group.getValue()) {
+                out.writeUTF(key.getBizId());
+                String version = key.getVersion().orElse(null);
+                out.writeBoolean(version != null);
+                if (version != null) {
+                    out.writeUTF(version);
+                }
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private InvalidationBatch readBody(byte[] body) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        int namespaceCount = in.readInt();
+        List<CacheNamespace> namespaces = new ArrayList<>(namespaceCount);
+        for (int i = 0; i < namespaceCount; i++) {
+            String tenantId = in.readUTF();
+            String domain = in.readBoolean() ? in.readUTF() : null;
+            namespaces.add(new CacheNamespace(tenantId, domain));
+        }
+        int groupCount = in.readInt();
+        List<CacheKey> keys = new ArrayList<>();
+        for (int g = 0; g < groupCount; g++) {
+            String tenantId = in.readUTF();
+            String domain = in.readUTF();
+            int keyCount = in.readInt();
+            for (int i = 0; i < keyCount; i++) {
+                CacheKey key = CacheKey.generic(tenantId, domain, in.readUTF());
+                keys.add(in.readBoolean() ? key.withVersion(in.readUTF()) : key);
+            }
+        }
+        return new InvalidationBatch(keys, namespaces);
+    }
+}
@@ -1,6 +1,7 @@
 package com.bluecone.app.infra.cache.consistency;
 
 import com.bluecone.app.infra.cache.core.CacheKey;
+import com.bluecone.app.infra.cache.core.CacheNamespace;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,7 +20,12 @@ public class NoopConsistencyBus implements ConsistencyBus {
     }
 
     @Override
-    public void registerInvalidationListener(Consumer<CacheKey> listener) {
+    public void publishNamespaceInvalidation(CacheNamespace namespace, String reason) {
+        log.debug("consistency.bus.noop publish ignored namespace={} reason={}", namespace, reason);
+    }
+
+    @Override
+    public void registerInvalidationListener(Consumer<InvalidationBatch> listener) {
         // 单机模式无需注册远程事件
     }
 }
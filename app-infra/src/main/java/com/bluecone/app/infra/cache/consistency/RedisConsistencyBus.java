@@ -1,7 +1,7 @@
 package com.bluecone.app.infra.cache.consistency;
 
 import com.bluecone.app.infra.cache.core.CacheKey;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.bluecone.app.infra.cache.core.CacheNamespace;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,49 +9,117 @@ import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.data.redis.connection.Message;
 import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.listener.ChannelTopic;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.util.Assert;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 /**
  * Redis Pub/Sub 实现的一致性总线，关注“失效事件”的单一语义。
+ *
+ * <p>发布端做微批：失效 key 先入队，在 {@code batchWindow} 内聚合后以一个二进制帧广播
+ * （见 {@link InvalidationFrameCodec}），每帧最多 {@code maxBatchKeys} 条；命名空间通配同样随帧下发。
+ * 接收端始终兼容帧与旧版逐条 JSON 消息；发布端默认仍按旧版 JSON 逐条发送 key，
+ * 待全部节点升级后再开启 {@code publishFrames}，便于滚动发布与回滚。</p>
  */
 public class RedisConsistencyBus implements ConsistencyBus, InitializingBean, DisposableBean {
 
     private static final Logger log = LoggerFactory.getLogger(RedisConsistencyBus.class);
     private static final String CHANNEL = "bluecone:cache:invalidate";
+    private static final byte[] CHANNEL_BYTES = CHANNEL.getBytes(StandardCharsets.UTF_8);
+    private static final Duration DEFAULT_BATCH_WINDOW = Duration.ofMillis(5);
+    private static final int DEFAULT_MAX_BATCH_KEYS = 1000;
+    private static final int DEFAULT_COMPRESS_THRESHOLD_BYTES = 1024;
 
     private final StringRedisTemplate redisTemplate;
     private final ObjectMapper objectMapper;
     private final RedisMessageListenerContainer listenerContainer;
-    private final List<Consumer<CacheKey>> listeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<InvalidationBatch>> listeners = new CopyOnWriteArrayList<>();
+    private final InvalidationFrameCodec frameCodec;
+    private final long batchWindowNanos;
+    private final int maxBatchKeys;
+    private final boolean publishFrames;
+    private final Queue<CacheKey> pendingKeys = new ConcurrentLinkedQueue<>();
+    private final Queue<CacheNamespace> pendingNamespaces = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler;
 
     public RedisConsistencyBus(StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+        this(redisTemplate, objectMapper, DEFAULT_BATCH_WINDOW, DEFAULT_MAX_BATCH_KEYS, DEFAULT_COMPRESS_THRESHOLD_BYTES, false);
+    }
+
+    /**
+     * @param batchWindow            聚合窗口，为 0 时每次发布立即发送
+     * @param maxBatchKeys           单帧最多携带的 key/命名空间数
+     * @param compressThresholdBytes 帧体超过该字节数时尝试 LZ4 压缩
+     * @param publishFrames          是否以二进制帧发布 key 失效；false 时按旧版 JSON 逐条发送
+     */
+    public RedisConsistencyBus(StringRedisTemplate redisTemplate,
+                               ObjectMapper objectMapper,
+                               Duration batchWindow,
+                               int maxBatchKeys,
+                               int compressThresholdBytes,
+                               boolean publishFrames) {
+        Assert.isTrue(maxBatchKeys > 0, "maxBatchKeys must be positive");
         this.redisTemplate = redisTemplate;
         this.objectMapper = objectMapper;
+        this.frameCodec = new InvalidationFrameCodec(compressThresholdBytes);
+        this.batchWindowNanos = batchWindow.toNanos();
+        this.maxBatchKeys = maxBatchKeys;
+        this.publishFrames = publishFrames;
         this.listenerContainer = new RedisMessageListenerContainer();
         Assert.notNull(redisTemplate.getConnectionFactory(), "RedisConnectionFactory must not be null");
         this.listenerContainer.setConnectionFactory(redisTemplate.getConnectionFactory());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cache-inval-batcher");
+            t.setDaemon(true);
+            return t;
+        });
     }
 
     @Override
     public void publishInvalidation(CacheKey key, String reason) {
-        InvalidationMessage message = InvalidationMessage.from(key, reason);
-        try {
-            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(message));
-        } catch (JsonProcessingException ex) {
-            log.warn("consistency.publish failed, key={}, message={}", key, ex.getMessage());
+        pendingKeys.add(key);
+        log.debug("consistency.publish queued key={} reason={}", key, reason);
+        requestFlush();
+    }
+
+    @Override
+    public void publishInvalidation(Collection<CacheKey> keys, String reason) {
+        if (keys.isEmpty()) {
+            return;
         }
+        pendingKeys.addAll(keys);
+        log.debug("consistency.publish queued keys={} reason={}", keys.size(), reason);
+        requestFlush();
     }
 
     @Override
-    public void registerInvalidationListener(Consumer<CacheKey> listener) {
+    public void publishNamespaceInvalidation(CacheNamespace namespace, String reason) {
+        pendingNamespaces.add(namespace);
+        log.debug("consistency.publish queued namespace={} reason={}", namespace, reason);
+        requestFlush();
+    }
+
+    @Override
+    public void registerInvalidationListener(Consumer<InvalidationBatch> listener) {
         listeners.add(listener);
     }
 
@@ -61,24 +129,116 @@ public class RedisConsistencyBus implements ConsistencyBus, InitializingBean, Di
         listenerContainer.addMessageListener(adapter, new ChannelTopic(CHANNEL));
         listenerContainer.afterPropertiesSet();
         listenerContainer.start();
-        log.info("consistency.bus redis listener started on channel={}", CHANNEL);
+        log.info("consistency.bus redis listener started on channel={}, batchWindowMs={}, maxBatchKeys={}, publishFrames={}",
+                CHANNEL, TimeUnit.NANOSECONDS.toMillis(batchWindowNanos), maxBatchKeys, publishFrames);
     }
 
     @Override
     public void destroy() {
+        scheduler.shutdownNow();
+        flush();
         listenerContainer.stop();
     }
 
+    private void requestFlush() {
+        if (batchWindowNanos <= 0) {
+            flush();
+            return;
+        }
+        if (!flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduler.schedule(this::flush, batchWindowNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException ex) {
+            // 关闭过程中直接在调用线程发送
+            flush();
+        }
+    }
+
+    /**
+     * 取出当前队列中的全部失效项，按 maxBatchKeys 切帧发送。
+     */
+    private void flush() {
+        flushScheduled.set(false);
+        while (true) {
+            List<CacheNamespace> namespaces = new ArrayList<>();
+            List<CacheKey> keys = new ArrayList<>();
+            CacheNamespace namespace;
+            while (namespaces.size() < maxBatchKeys && (namespace = pendingNamespaces.poll()) != null) {
+                namespaces.add(namespace);
+            }
+            CacheKey key;
+            while (namespaces.size() + keys.size() < maxBatchKeys && (key = pendingKeys.poll()) != null) {
+                keys.add(key);
+            }
+            if (keys.isEmpty() && namespaces.isEmpty()) {
+                return;
+            }
+            send(new InvalidationBatch(keys, namespaces));
+        }
+    }
+
+    private void send(InvalidationBatch batch) {
+        if (publishFrames) {
+            sendFrame(batch);
+            return;
+        }
+        for (CacheKey key : batch.keys()) {
+            sendLegacy(key);
+        }
+        // 旧版消息没有命名空间通配的表示，旧节点本就不支持，仍以帧发送
+        if (!batch.namespaces().isEmpty()) {
+            sendFrame(new InvalidationBatch(List.of(), batch.namespaces()));
+        }
+    }
+
+    private void sendLegacy(CacheKey key) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(InvalidationMessage.from(key, null)));
+        } catch (IOException | RuntimeException ex) {
+            log.warn("consistency.publish failed, key={}, message={}", key, ex.getMessage());
+        }
+    }
+
+    private void sendFrame(InvalidationBatch batch) {
+        try {
+            byte[] frame = frameCodec.encode(batch);
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(CHANNEL_BYTES, frame));
+            log.debug("consistency.publish frame keys={} namespaces={} bytes={}",
+                    batch.keys().size(), batch.namespaces().size(), frame.length);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("consistency.publish failed, keys={}, namespaces={}, message={}",
+                    batch.keys().size(), batch.namespaces().size(), ex.getMessage());
+        }
+    }
+
     private void onMessage(Message message, byte[] pattern) {
+        InvalidationBatch batch;
         try {
-            InvalidationMessage payload = objectMapper.readValue(message.getBody(), InvalidationMessage.class);
-            CacheKey key = payload.toCacheKey();
-            listeners.forEach(listener -> listener.accept(key));
-        } catch (IOException ex) {
+            byte[] body = message.getBody();
+            if (InvalidationFrameCodec.isFrame(body)) {
+                batch = frameCodec.decode(body);
+            } else {
+                InvalidationMessage payload = objectMapper.readValue(body, InvalidationMessage.class);
+                batch = InvalidationBatch.ofKeys(List.of(payload.toCacheKey()));
+            }
+        } catch (IOException | RuntimeException ex) {
             log.warn("consistency.bus decode failed: {}", ex.getMessage());
+            return;
+        }
+        for (Consumer<InvalidationBatch> listener : listeners) {
+            try {
+                listener.accept(batch);
+            } catch (RuntimeException ex) {
+                log.warn("consistency.bus listener failed, size={}, message={}", batch.size(), ex.getMessage());
+            }
         }
     }
 
+    /**
+     * 旧版逐条 JSON 消息，用于兼容滚动发布期间未升级的节点。
+     */
     private record InvalidationMessage(String tenantId, String domain, String bizId, String version, String reason) {
         static InvalidationMessage from(CacheKey key, String reason) {
             return new InvalidationMessage(key.getTenantId(), key.getDomain(), key.getBizId(), key.getVersion().orElse(null), reason);
@@ -1,57 +1,205 @@
 package com.bluecone.app.infra.cache.core;
 
+import com.bluecone.app.core.tenant.TenantContext;
 import com.bluecone.app.infra.cache.consistency.ConsistencyBus;
+import com.bluecone.app.infra.cache.consistency.InvalidationBatch;
+import com.bluecone.app.infra.cache.hotkey.HotKey;
+import com.bluecone.app.infra.cache.hotkey.HotKeyDetector;
 import com.bluecone.app.infra.cache.profile.CacheProfile;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
  * 多级缓存内核：聚合 L1/L2 + 一致性总线，统一调度读取、回写和失效。
+ *
+ * <p>同一 key 的并发回源会被合并（single-flight），只有一个线程执行 loader，其余线程等待其结果；
+ * 开启 stale-while-revalidate 的 Profile 在过期后先返回旧值，并仅触发一次后台刷新；
+ * 开启 refresh-ahead 的 Profile 在 L1 命中但临近过期时提前异步刷新，消除过期瞬间的回源尖刺。
+ * 后台刷新跳过 L2 直接调用 loader 并回写 L2/L1，否则 L2 中同样临近过期的旧值会以完整 TTL 重新写入 L1。</p>
+ *
+ * <p>配置 {@link HotKeyDetector} 后，运行时识别出的热点 key 额外驻留在独立的本地热点层：
+ * 不受 L1 容量淘汰影响，存活过半即提前刷新，降级或失效时移出。晋升（或失效后首次访问）时热点层为空，
+ * 若 L1 命中则当即跳过 L2 回源写入热点层（有刷新线程池时异步），不依赖之后某次 L1 未命中才顺带写入。</p>
  */
 public class CacheEngine {
 
     private static final Logger log = LoggerFactory.getLogger(CacheEngine.class);
+    private static final String METRIC_COALESCED = "bluecone.cache.load.coalesced";
+    private static final String METRIC_STALE_SERVED = "bluecone.cache.stale.served";
+    private static final String METRIC_REFRESH_AHEAD = "bluecone.cache.refresh.ahead";
+    private static final String METRIC_HOT_HIT = "bluecone.cache.hotkey.hit";
+    private static final String METRIC_HOT_SIZE = "bluecone.cache.hotkey.size";
+    private static final double HOT_REFRESH_AHEAD_RATIO = 0.5d;
 
     private final CacheStore l1;
     private final CacheStore l2;
     private final ConsistencyBus consistencyBus;
+    private final MeterRegistry meterRegistry;
+    private final Executor refreshExecutor;
+    private final HotKeyDetector hotKeyDetector;
+    private final CacheStore hotTier;
+    private final ConcurrentHashMap<CacheKey, CompletableFuture<Object>> inFlightLoads = new ConcurrentHashMap<>();
+    private final Set<CacheKey> refreshingKeys = ConcurrentHashMap.newKeySet();
 
     public CacheEngine(CacheStore l1, CacheStore l2, ConsistencyBus consistencyBus) {
+        this(l1, l2, consistencyBus, null, null);
+    }
+
+    public CacheEngine(CacheStore l1,
+                       CacheStore l2,
+                       ConsistencyBus consistencyBus,
+                       MeterRegistry meterRegistry,
+                       Executor refreshExecutor) {
+        this(l1, l2, consistencyBus, meterRegistry, refreshExecutor, null);
+    }
+
+    /**
+     * @param hotKeyDetector 为 null 时不做热点探测
+     */
+    public CacheEngine(CacheStore l1,
+                       CacheStore l2,
+                       ConsistencyBus consistencyBus,
+                       MeterRegistry meterRegistry,
+                       Executor refreshExecutor,
+                       HotKeyDetector hotKeyDetector) {
         this.l1 = l1;
         this.l2 = l2;
         this.consistencyBus = consistencyBus;
+        this.meterRegistry = meterRegistry;
+        this.refreshExecutor = refreshExecutor;
+        this.hotKeyDetector = hotKeyDetector;
+        if (hotKeyDetector != null) {
+            // 热点层容量留一倍余量，容纳晋升/降级交替期间的条目
+            this.hotTier = new L1CacheStore(hotKeyDetector.topK() * 2L);
+            hotKeyDetector.registerDemotionListener(key -> {
+                hotTier.evict(key);
+                log.debug("cache.hotkey.demoted key={}", key);
+            });
+            if (meterRegistry != null) {
+                meterRegistry.gauge(METRIC_HOT_SIZE, hotKeyDetector, HotKeyDetector::size);
+            }
+        } else {
+            this.hotTier = null;
+        }
         this.consistencyBus.registerInvalidationListener(this::handleRemoteInvalidation);
     }
 
     public <T> T get(CacheKey key, Class<T> type, Supplier<T> loader, CacheProfile profile) {
+        boolean unpinnedHot = false;
+        if (hotKeyDetector != null && hotKeyDetector.record(key)) {
+            Optional<T> pinned = getPinned(key, type, loader, profile);
+            if (pinned.isPresent()) {
+                return unwrap(pinned.get());
+            }
+            unpinnedHot = true;
+        }
+
         Optional<T> l1Value = l1.get(key, type);
+        if (unpinnedHot && l1Value.isPresent()) {
+            // 刚晋升或失效后热点层为空：L1 命中不会再回源，需当即回源填充热点层
+            log.debug("cache.hotkey.pin key={} profile={}", key, profile.name());
+            if (refreshExecutor == null) {
+                return loadCoalesced(key, type, loader, profile, true);
+            }
+            scheduleRefresh(key, type, loader, profile);
+            return unwrap(l1Value.get());
+        }
         if (l1Value.isPresent()) {
             log.debug("cache.l1.hit key={} profile={}", key, profile.name());
+            if (profile.refreshAhead() && refreshExecutor != null
+                    && l1.shouldRefreshAhead(key, profile.refreshAheadRatio(), profile.earlyExpirationBeta())) {
+                log.debug("cache.l1.refresh-ahead key={} profile={}", key, profile.name());
+                recordRefreshAhead(profile);
+                scheduleRefresh(key, type, loader, profile);
+            }
             return unwrap(l1Value.get());
         }
 
-        Optional<T> l2Value = l2.get(key, type);
-        if (l2Value.isPresent()) {
-            log.debug("cache.l2.hit key={} profile={}", key, profile.name());
-            Object storeValue = l2Value.get();
-            l1.put(key, storeValue, l1Ttl(profile));
-            return unwrap(storeValue);
+        if (profile.staleWhileRevalidate() && refreshExecutor != null) {
+            Optional<T> staleValue = l1.getStale(key, type);
+            if (staleValue.isPresent()) {
+                log.debug("cache.l1.stale key={} profile={}", key, profile.name());
+                recordStaleServed(profile);
+                scheduleRefresh(key, type, loader, profile);
+                return unwrap(staleValue.get());
+            }
         }
 
-        T loaded = loader.get();
-        Object storeValue = toStoreValue(loaded, profile);
-        if (storeValue != null) {
-            if (profile.strongConsistency()) {
-                l2.put(key, storeValue, profile.ttl());
+        return loadCoalesced(key, type, loader, profile, false);
+    }
+
+    /**
+     * 批量读取：L1 批量命中 → L2 一次 MGET → bulkLoader 仅调用一次加载剩余 key → L2 一次 pipeline 回写。
+     *
+     * <p>返回的 Map 按入参顺序排列，只包含非 null 值；批量路径不参与 single-flight 与陈旧读。</p>
+     */
+    public <T> Map<CacheKey, T> getAll(Collection<CacheKey> keys,
+                                       Class<T> type,
+                                       Function<Set<CacheKey>, Map<CacheKey, T>> bulkLoader,
+                                       CacheProfile profile) {
+        if (keys == null || keys.isEmpty()) {
+            return Map.of();
+        }
+        Set<CacheKey> missing = new LinkedHashSet<>(keys);
+        Map<CacheKey, Object> found = new LinkedHashMap<>(missing.size());
+
+        Map<CacheKey, T> l1Hits = l1.getAll(missing, type);
+        found.putAll(l1Hits);
+        missing.removeAll(l1Hits.keySet());
+
+        if (!missing.isEmpty()) {
+            Map<CacheKey, T> l2Hits = l2.getAll(missing, type);
+            l2Hits.forEach((key, storeValue) -> putL1(key, storeValue, profile));
+            found.putAll(l2Hits);
+            missing.removeAll(l2Hits.keySet());
+            log.debug("cache.batch.l2 profile={} requested={} hit={}", profile.name(), keys.size(), l2Hits.size());
+        }
+
+        if (!missing.isEmpty()) {
+            Map<CacheKey, T> loaded = bulkLoader.apply(Collections.unmodifiableSet(missing));
+            Map<CacheKey, Object> toStore = new LinkedHashMap<>(missing.size());
+            for (CacheKey key : missing) {
+                Object storeValue = toStoreValue(loaded == null ? null : loaded.get(key), profile);
+                if (storeValue != null) {
+                    toStore.put(key, storeValue);
+                }
             }
-            l1.put(key, storeValue, l1Ttl(profile));
-            log.debug("cache.populate key={} profile={} from=loader", key, profile.name());
+            if (!toStore.isEmpty()) {
+                if (profile.strongConsistency()) {
+                    l2.putAll(toStore, profile.ttl());
+                }
+                toStore.forEach((key, storeValue) -> putL1(key, storeValue, profile));
+                found.putAll(toStore);
+            }
+            log.debug("cache.batch.populate profile={} missing={} loaded={}", profile.name(), missing.size(), toStore.size());
         }
-        return loaded;
+
+        Map<CacheKey, T> result = new LinkedHashMap<>(found.size());
+        for (CacheKey key : keys) {
+            T value = unwrap(found.get(key));
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
     }
 
     public void put(CacheKey key, Object value, CacheProfile profile) {
@@ -62,12 +210,12 @@ public class CacheEngine {
         if (profile.strongConsistency()) {
             l2.put(key, storeValue, profile.ttl());
         }
-        l1.put(key, storeValue, l1Ttl(profile));
+        putL1(key, storeValue, profile);
         log.debug("cache.put key={} profile={}", key, profile.name());
     }
 
     public void evict(CacheKey key, CacheProfile profile) {
-        l1.evict(key);
+        evictLocal(key);
         l2.evict(key);
         consistencyBus.publishInvalidation(key, "EXPLICIT_EVICT");
         if (profile.strongConsistency()) {
@@ -77,6 +225,194 @@ public class CacheEngine {
         }
     }
 
+    /**
+     * 批量失效：L1 一次 invalidateAll、L2 一次多 key DEL，广播合并为一个批次。
+     */
+    public void evictAll(Collection<CacheKey> keys, CacheProfile profile) {
+        if (keys == null || keys.isEmpty()) {
+            return;
+        }
+        evictLocal(keys);
+        l2.evictAll(keys);
+        consistencyBus.publishInvalidation(keys, "EXPLICIT_EVICT");
+        log.debug("cache.evict.batch size={} profile={}", keys.size(), profile.name());
+    }
+
+    /**
+     * 整租户/整领域失效：本地按前缀清理，L2 走 SCAN，其他节点收到一条通配消息即可。
+     */
+    public void evictNamespace(CacheNamespace namespace) {
+        evictLocal(namespace);
+        l2.evictNamespace(namespace);
+        consistencyBus.publishNamespaceInvalidation(namespace, "NAMESPACE_EVICT");
+        log.debug("cache.evict.namespace namespace={}", namespace);
+    }
+
+    /**
+     * 当前识别出的热点 key，按访问量降序；未开启探测时为空。
+     */
+    public List<HotKey> hotKeys() {
+        return hotKeyDetector == null ? List.of() : hotKeyDetector.hotKeys();
+    }
+
+    /**
+     * 从热点层读取：新鲜值存活过半即提前刷新；过期但仍在陈旧窗口内时先返回旧值并刷新。
+     */
+    private <T> Optional<T> getPinned(CacheKey key, Class<T> type, Supplier<T> loader, CacheProfile profile) {
+        Optional<T> fresh = hotTier.get(key, type);
+        if (fresh.isPresent()) {
+            if (refreshExecutor != null && hotTier.shouldRefreshAhead(key, HOT_REFRESH_AHEAD_RATIO, 0d)) {
+                scheduleRefresh(key, type, loader, profile);
+            }
+            recordHotHit(profile);
+            return fresh;
+        }
+        if (refreshExecutor != null) {
+            Optional<T> stale = hotTier.getStale(key, type);
+            if (stale.isPresent()) {
+                scheduleRefresh(key, type, loader, profile);
+                recordHotHit(profile);
+                return stale;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * 同一 key 仅允许一个线程穿透 L2/loader，其余线程挂在同一个 future 上等待结果。
+     *
+     * @param bypassL2 后台刷新时为 true，不读 L2，直接回源
+     */
+    private <T> T loadCoalesced(CacheKey key, Class<T> type, Supplier<T> loader, CacheProfile profile,
+                                boolean bypassL2) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlightLoads.putIfAbsent(key, flight);
+        if (existing != null) {
+            log.debug("cache.load.coalesced key={} profile={}", key, profile.name());
+            recordCoalesced(profile);
+            return awaitFlight(existing);
+        }
+        try {
+            T loaded = loadThrough(key, type, loader, profile, bypassL2);
+            flight.complete(loaded);
+            return loaded;
+        } catch (RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlightLoads.remove(key, flight);
+        }
+    }
+
+    private <T> T loadThrough(CacheKey key, Class<T> type, Supplier<T> loader, CacheProfile profile,
+                              boolean bypassL2) {
+        long startNanos = System.nanoTime();
+        Optional<T> l2Value = bypassL2 ? Optional.empty() : l2.get(key, type);
+        if (l2Value.isPresent()) {
+            log.debug("cache.l2.hit key={} profile={}", key, profile.name());
+            Object storeValue = l2Value.get();
+            putL1(key, storeValue, profile, System.nanoTime() - startNanos);
+            return unwrap(storeValue);
+        }
+
+        T loaded = loader.get();
+        Object storeValue = toStoreValue(loaded, profile);
+        if (storeValue != null) {
+            if (profile.strongConsistency()) {
+                l2.put(key, storeValue, profile.ttl());
+            }
+            putL1(key, storeValue, profile, System.nanoTime() - startNanos);
+            log.debug("cache.populate key={} profile={} from=loader", key, profile.name());
+        }
+        return loaded;
+    }
+
+    /**
+     * 后台刷新：同一 key 同时最多排队一个刷新任务，线程池饱和时放弃本次刷新，继续返回旧值。
+     * 刷新总是回源，重置 L1 新鲜度的同时重写 L2，避免把 L2 中的旧值续期。
+     * 调用线程的租户上下文会带到刷新线程，保证 loader 内的租户 SQL 拦截照常生效。
+     */
+    private <T> void scheduleRefresh(CacheKey key, Class<T> type, Supplier<T> loader, CacheProfile profile) {
+        if (!refreshingKeys.add(key)) {
+            return;
+        }
+        String tenantId = TenantContext.getTenantId();
+        try {
+            refreshExecutor.execute(() -> {
+                String previousTenantId = TenantContext.getTenantId();
+                TenantContext.setTenantId(tenantId);
+                try {
+                    loadCoalesced(key, type, loader, profile, true);
+                    log.debug("cache.refresh.done key={} profile={}", key, profile.name());
+                } catch (RuntimeException ex) {
+                    log.warn("cache.refresh.failed key={} profile={} message={}", key, profile.name(), ex.getMessage());
+                } finally {
+                    if (previousTenantId == null) {
+                        TenantContext.clear();
+                    } else {
+                        TenantContext.setTenantId(previousTenantId);
+                    }
+                    refreshingKeys.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            refreshingKeys.remove(key);
+            log.debug("cache.refresh.rejected key={} profile={}", key, profile.name());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T awaitFlight(CompletableFuture<Object> flight) {
+        try {
+            return (T) flight.join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+
+    private void putL1(CacheKey key, Object storeValue, CacheProfile profile) {
+        putL1(key, storeValue, profile, 0L);
+    }
+
+    /**
+     * 写入 L1，热点 key 同时刷新热点层：晋升后的首次回源与后台刷新都经由这里更新热点层。
+     */
+    private void putL1(CacheKey key, Object storeValue, CacheProfile profile, long loadCostNanos) {
+        Duration staleTtl = profile.staleWhileRevalidate() ? profile.staleTtl() : Duration.ZERO;
+        l1.put(key, storeValue, l1Ttl(profile), staleTtl, loadCostNanos);
+        if (hotTier != null && hotKeyDetector.isHot(key)) {
+            hotTier.put(key, storeValue, l1Ttl(profile), staleTtl, loadCostNanos);
+        }
+    }
+
+    private void evictLocal(CacheKey key) {
+        l1.evict(key);
+        if (hotTier != null) {
+            hotTier.evict(key);
+        }
+    }
+
+    private void evictLocal(Collection<CacheKey> keys) {
+        l1.evictAll(keys);
+        if (hotTier != null) {
+            hotTier.evictAll(keys);
+        }
+    }
+
+    private void evictLocal(CacheNamespace namespace) {
+        l1.evictNamespace(namespace);
+        if (hotTier != null) {
+            hotTier.evictNamespace(namespace);
+        }
+    }
+
     private Duration l1Ttl(CacheProfile profile) {
         if (profile.hotKey()) {
             return profile.ttl().plus(profile.ttl().dividedBy(2));
@@ -99,8 +435,35 @@ public class CacheEngine {
         return (T) cached;
     }
 
-    private void handleRemoteInvalidation(CacheKey key) {
-        l1.evict(key);
-        log.debug("cache.l1.invalidated key={} source=bus", key);
+    private void recordCoalesced(CacheProfile profile) {
+        if (meterRegistry != null) {
+            meterRegistry.counter(METRIC_COALESCED, "profile", profile.name().name()).increment();
+        }
+    }
+
+    private void recordStaleServed(CacheProfile profile) {
+        if (meterRegistry != null) {
+            meterRegistry.counter(METRIC_STALE_SERVED, "profile", profile.name().name()).increment();
+        }
+    }
+
+    private void recordHotHit(CacheProfile profile) {
+        if (meterRegistry != null) {
+            meterRegistry.counter(METRIC_HOT_HIT, "profile", profile.name().name()).increment();
+        }
+    }
+
+    private void recordRefreshAhead(CacheProfile profile) {
+        if (meterRegistry != null) {
+            meterRegistry.counter(METRIC_REFRESH_AHEAD, "profile", profile.name().name()).increment();
+        }
+    }
+
+    private void handleRemoteInvalidation(InvalidationBatch batch) {
+        if (!batch.keys().isEmpty()) {
+            evictLocal(batch.keys());
+        }
+        batch.namespaces().forEach(this::evictLocal);
+        log.debug("cache.l1.invalidated keys={} namespaces={} source=bus", batch.keys().size(), batch.namespaces().size());
     }
 }
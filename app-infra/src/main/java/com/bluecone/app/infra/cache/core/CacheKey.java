@@ -8,7 +8,7 @@ import java.util.Optional;
  */
 public final class CacheKey {
 
-    private static final String PREFIX = "bluecone";
+    static final String PREFIX = "bluecone";
 
     private final String tenantId;
     private final String domain;
@@ -0,0 +1,42 @@
+package com.bluecone.app.infra.cache.core;
+
+import java.util.Objects;
+
+/**
+ * 缓存命名空间：租户 + 可选领域，用于整租户/整领域的通配失效。
+ *
+ * @param tenantId 租户 ID，必填
+ * @param domain   领域，null 表示该租户下全部领域
+ */
+public record CacheNamespace(String tenantId, String domain) {
+
+    public CacheNamespace {
+        Objects.requireNonNull(tenantId, "tenantId");
+    }
+
+    public static CacheNamespace tenant(String tenantId) {
+        return new CacheNamespace(tenantId, null);
+    }
+
+    public static CacheNamespace of(String tenantId, String domain) {
+        return new CacheNamespace(tenantId, domain);
+    }
+
+    public boolean matches(CacheKey key) {
+        return tenantId.equals(key.getTenantId()) && (domain == null || domain.equals(key.getDomain()));
+    }
+
+    /**
+     * 与 {@link CacheKey#toRedisKey()} 对应的 SCAN MATCH 模式。
+     */
+    public String toRedisPattern() {
+        return domain == null
+                ? String.join(":", CacheKey.PREFIX, tenantId, "*")
+                : String.join(":", CacheKey.PREFIX, tenantId, domain, "*");
+    }
+
+    @Override
+    public String toString() {
+        return domain == null ? tenantId + ":*" : tenantId + ":" + domain + ":*";
+    }
+}
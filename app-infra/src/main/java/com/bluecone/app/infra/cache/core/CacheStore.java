@@ -1,6 +1,9 @@
 package com.bluecone.app.infra.cache.core;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -13,4 +16,65 @@ public interface CacheStore {
     void put(CacheKey key, Object value, Duration ttl);
 
     void evict(CacheKey key);
+
+    /**
+     * 批量失效；默认逐个 evict。
+     */
+    default void evictAll(Collection<CacheKey> keys) {
+        keys.forEach(this::evict);
+    }
+
+    /**
+     * 失效某个租户/领域下的全部条目；不支持的实现忽略。
+     */
+    default void evictNamespace(CacheNamespace namespace) {
+        // no-op by default
+    }
+
+    /**
+     * 写入并在 ttl 到期后额外保留 staleTtl 的“陈旧窗口”，供 stale-while-revalidate 读取。
+     * 默认实现忽略陈旧窗口。
+     */
+    default void put(CacheKey key, Object value, Duration ttl, Duration staleTtl) {
+        put(key, value, ttl);
+    }
+
+    /**
+     * 在 {@link #put(CacheKey, Object, Duration, Duration)} 基础上附带本次回源耗时，供提前刷新算法使用。
+     */
+    default void put(CacheKey key, Object value, Duration ttl, Duration staleTtl, long loadCostNanos) {
+        put(key, value, ttl, staleTtl);
+    }
+
+    /**
+     * 命中的条目是否应在过期前提前刷新；不支持的实现返回 false。
+     */
+    default boolean shouldRefreshAhead(CacheKey key, double refreshAheadRatio, double earlyExpirationBeta) {
+        return false;
+    }
+
+    /**
+     * 读取已过期但仍处于陈旧窗口内的值；不支持陈旧读的实现返回空。
+     */
+    default <T> Optional<T> getStale(CacheKey key, Class<T> type) {
+        return Optional.empty();
+    }
+
+    /**
+     * 批量读取，返回命中的 key → 值；默认逐个 get，远端实现应覆盖为一次往返。
+     */
+    default <T> Map<CacheKey, T> getAll(Collection<CacheKey> keys, Class<T> type) {
+        Map<CacheKey, T> result = new LinkedHashMap<>();
+        for (CacheKey key : keys) {
+            get(key, type).ifPresent(value -> result.put(key, value));
+        }
+        return result;
+    }
+
+    /**
+     * 批量写入同一 TTL 的值；默认逐个 put，远端实现应覆盖为一次往返。
+     */
+    default void putAll(Map<CacheKey, ?> values, Duration ttl) {
+        values.forEach((key, value) -> put(key, value, ttl));
+    }
 }
@@ -2,43 +2,112 @@ package com.bluecone.app.infra.cache.core;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
 
 import java.time.Duration;
-import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Caffeine 封装的 L1 缓存，偏向低延迟热点保护。
+ *
+ * <p>每个条目的物理过期由 Caffeine {@link Expiry} 按 ttl + 陈旧窗口计算；
+ * 条目内记录写入时间与回源耗时，用于判断“新鲜度”以及提前刷新（refresh-ahead / XFetch）。</p>
  */
 public class L1CacheStore implements CacheStore {
 
     private final Cache<CacheKey, CacheEntry> cache;
+    private final Ticker ticker;
 
     public L1CacheStore(long maximumSize) {
+        this(maximumSize, Ticker.systemTicker());
+    }
+
+    L1CacheStore(long maximumSize, Ticker ticker) {
+        this.ticker = ticker;
         this.cache = Caffeine.newBuilder()
                 .maximumSize(maximumSize)
-                // 兜底过期，真正 TTL 由 CacheEntry 控制，避免遗留条目
-                .expireAfterWrite(30, TimeUnit.MINUTES)
+                .expireAfter(new EntryExpiry())
+                .ticker(ticker)
                 .build();
     }
 
     @Override
     public <T> Optional<T> get(CacheKey key, Class<T> type) {
         CacheEntry entry = cache.getIfPresent(key);
-        if (entry == null) {
+        if (entry == null || !entry.isFresh(ticker.read())) {
             return Optional.empty();
         }
-        if (entry.isExpired()) {
-            cache.invalidate(key);
+        return entry.value().asType(type);
+    }
+
+    @Override
+    public <T> Optional<T> getStale(CacheKey key, Class<T> type) {
+        // Caffeine 已按 ttl + 陈旧窗口淘汰，能取到即在窗口内
+        CacheEntry entry = cache.getIfPresent(key);
+        if (entry == null) {
             return Optional.empty();
         }
         return entry.value().asType(type);
     }
 
+    @Override
+    public <T> Map<CacheKey, T> getAll(Collection<CacheKey> keys, Class<T> type) {
+        Map<CacheKey, CacheEntry> entries = cache.getAllPresent(keys);
+        Map<CacheKey, T> result = new LinkedHashMap<>(entries.size());
+        long now = ticker.read();
+        entries.forEach((key, entry) -> {
+            if (entry.isFresh(now)) {
+                entry.value().asType(type).ifPresent(value -> result.put(key, value));
+            }
+        });
+        return result;
+    }
+
     @Override
     public void put(CacheKey key, Object value, Duration ttl) {
-        cache.put(key, new CacheEntry(CacheValueWrapper.of(value), ttl));
+        put(key, value, ttl, Duration.ZERO, 0L);
+    }
+
+    @Override
+    public void put(CacheKey key, Object value, Duration ttl, Duration staleTtl) {
+        put(key, value, ttl, staleTtl, 0L);
+    }
+
+    @Override
+    public void put(CacheKey key, Object value, Duration ttl, Duration staleTtl, long loadCostNanos) {
+        cache.put(key, new CacheEntry(CacheValueWrapper.of(value), ticker.read(), ttl.toNanos(), staleTtl.toNanos(), loadCostNanos));
+    }
+
+    /**
+     * 判断仍新鲜的条目是否应提前刷新：
+     * <ul>
+     *     <li>refresh-ahead：已存活时间达到 ttl × refreshAheadRatio；</li>
+     *     <li>XFetch：{@code now + loadCost × beta × (-ln(rand)) >= 过期时刻}，回源越慢越早触发，且在多个节点间自然错峰。</li>
+     * </ul>
+     */
+    @Override
+    public boolean shouldRefreshAhead(CacheKey key, double refreshAheadRatio, double earlyExpirationBeta) {
+        CacheEntry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            return false;
+        }
+        long now = ticker.read();
+        if (!entry.isFresh(now)) {
+            return false;
+        }
+        if (refreshAheadRatio > 0 && now - entry.writeNanos() >= (long) (entry.ttlNanos() * refreshAheadRatio)) {
+            return true;
+        }
+        if (earlyExpirationBeta > 0 && entry.loadCostNanos() > 0) {
+            double gap = entry.loadCostNanos() * earlyExpirationBeta * -Math.log(ThreadLocalRandom.current().nextDouble());
+            return now + gap >= entry.freshUntilNanos();
+        }
+        return false;
     }
 
     @Override
@@ -46,13 +115,46 @@ public class L1CacheStore implements CacheStore {
         cache.invalidate(key);
     }
 
-    private record CacheEntry(CacheValueWrapper value, Instant expireAt) {
-        CacheEntry(CacheValueWrapper value, Duration ttl) {
-            this(value, Instant.now().plus(ttl));
+    @Override
+    public void evictAll(Collection<CacheKey> keys) {
+        cache.invalidateAll(keys);
+    }
+
+    @Override
+    public void evictNamespace(CacheNamespace namespace) {
+        cache.asMap().keySet().removeIf(namespace::matches);
+    }
+
+    private record CacheEntry(CacheValueWrapper value, long writeNanos, long ttlNanos, long staleNanos, long loadCostNanos) {
+
+        long freshUntilNanos() {
+            return writeNanos + ttlNanos;
+        }
+
+        boolean isFresh(long now) {
+            return now - writeNanos < ttlNanos;
+        }
+
+        long lifetimeNanos() {
+            return ttlNanos + staleNanos;
+        }
+    }
+
+    private static final class EntryExpiry implements Expiry<CacheKey, CacheEntry> {
+
+        @Override
+        public long expireAfterCreate(CacheKey key, CacheEntry entry, long currentTime) {
+            return entry.lifetimeNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(CacheKey key, CacheEntry entry, long currentTime, long currentDuration) {
+            return entry.lifetimeNanos();
         }
 
-        boolean isExpired() {
-            return Instant.now().isAfter(expireAt);
+        @Override
+        public long expireAfterRead(CacheKey key, CacheEntry entry, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 }
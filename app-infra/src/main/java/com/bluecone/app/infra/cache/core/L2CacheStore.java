@@ -1,68 +1,209 @@
 package com.bluecone.app.infra.cache.core;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.bluecone.app.infra.cache.codec.CacheCodec;
+import com.bluecone.app.infra.cache.codec.JsonCacheCodec;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * Redis 封装的 L2 缓存，负责跨节点共享。
+ *
+ * <p>值的字节格式由 {@link CacheCodec} 决定：写入只用 writeCodec，读取按格式头在全部 codec 中选择，
+ * 因此 JSON 与二进制条目可以在灰度期间共存。</p>
  */
 public class L2CacheStore implements CacheStore {
 
     private static final Logger log = LoggerFactory.getLogger(L2CacheStore.class);
-    private static final String NULL_MARKER = "NULL";
+    private static final byte[] NULL_MARKER = "NULL".getBytes(StandardCharsets.UTF_8);
+    private static final int SCAN_BATCH_SIZE = 500;
 
     private final StringRedisTemplate redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final RedisSerializer<String> keySerializer;
+    private final CacheCodec writeCodec;
+    private final List<CacheCodec> readCodecs;
 
     public L2CacheStore(StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+        this(redisTemplate, new JsonCacheCodec(objectMapper), List.of());
+    }
+
+    /**
+     * @param writeCodec  新写入使用的编解码器
+     * @param extraCodecs 额外可读的历史格式（writeCodec 总是可读）
+     */
+    public L2CacheStore(StringRedisTemplate redisTemplate, CacheCodec writeCodec, List<CacheCodec> extraCodecs) {
         this.redisTemplate = redisTemplate;
-        this.objectMapper = objectMapper;
+        this.keySerializer = redisTemplate.getStringSerializer();
+        this.writeCodec = writeCodec;
+        List<CacheCodec> codecs = new ArrayList<>();
+        codecs.add(writeCodec);
+        codecs.addAll(extraCodecs);
+        this.readCodecs = List.copyOf(codecs);
     }
 
     @Override
     public <T> Optional<T> get(CacheKey key, Class<T> type) {
-        String payload = redisTemplate.opsForValue().get(key.toRedisKey());
-        if (payload == null) {
-            return Optional.empty();
+        byte[] rawKey = rawKey(key);
+        byte[] payload = redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.stringCommands().get(rawKey));
+        return decode(key, payload, type);
+    }
+
+    /**
+     * 一次 MGET 读取全部 key，避免 N 次往返。
+     */
+    @Override
+    public <T> Map<CacheKey, T> getAll(Collection<CacheKey> keys, Class<T> type) {
+        if (keys.isEmpty()) {
+            return Map.of();
         }
-        if (NULL_MARKER.equals(payload)) {
-            @SuppressWarnings("unchecked")
-            T nullValue = (T) NullValue.INSTANCE;
-            return Optional.of(nullValue);
+        List<CacheKey> orderedKeys = new ArrayList<>(keys);
+        byte[][] rawKeys = orderedKeys.stream().map(this::rawKey).toArray(byte[][]::new);
+        List<byte[]> payloads = redisTemplate.execute((RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(rawKeys));
+        Map<CacheKey, T> result = new LinkedHashMap<>();
+        if (payloads == null) {
+            return result;
         }
-        try {
-            return Optional.ofNullable(objectMapper.readValue(payload, type));
-        } catch (JsonProcessingException ex) {
-            log.warn("L2 cache decode failed, key={}, message={}", key, ex.getMessage());
-            evict(key);
-            return Optional.empty();
+        for (int i = 0; i < orderedKeys.size(); i++) {
+            CacheKey key = orderedKeys.get(i);
+            decode(key, payloads.get(i), type).ifPresent(value -> result.put(key, value));
         }
+        return result;
     }
 
     @Override
     public void put(CacheKey key, Object value, Duration ttl) {
-        String payload;
-        if (value instanceof NullValue) {
-            payload = NULL_MARKER;
-        } else {
-            try {
-                payload = objectMapper.writeValueAsString(value);
-            } catch (JsonProcessingException ex) {
-                log.warn("L2 cache encode failed, skip put. key={}, message={}", key, ex.getMessage());
-                return;
+        byte[] payload = encode(key, value);
+        if (payload == null) {
+            return;
+        }
+        byte[] rawKey = rawKey(key);
+        Expiration expiration = Expiration.from(ttl);
+        redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.stringCommands()
+                .set(rawKey, payload, expiration, RedisStringCommands.SetOption.upsert()));
+    }
+
+    /**
+     * 通过 pipeline 批量 SET ... PX，整批只占一次网络往返。
+     */
+    @Override
+    public void putAll(Map<CacheKey, ?> values, Duration ttl) {
+        Map<byte[], byte[]> payloads = new LinkedHashMap<>(values.size());
+        values.forEach((key, value) -> {
+            byte[] payload = encode(key, value);
+            if (payload != null) {
+                payloads.put(rawKey(key), payload);
             }
+        });
+        if (payloads.isEmpty()) {
+            return;
         }
-        redisTemplate.opsForValue().set(key.toRedisKey(), payload, ttl);
+        Expiration expiration = Expiration.from(ttl);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            payloads.forEach((rawKey, payload) -> connection.stringCommands()
+                    .set(rawKey, payload, expiration, RedisStringCommands.SetOption.upsert()));
+            return null;
+        });
     }
 
     @Override
     public void evict(CacheKey key) {
         redisTemplate.delete(key.toRedisKey());
     }
+
+    @Override
+    public void evictAll(Collection<CacheKey> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        redisTemplate.delete(keys.stream().map(CacheKey::toRedisKey).toList());
+    }
+
+    /**
+     * SCAN MATCH + UNLINK 分批删除整个命名空间，避免 KEYS 阻塞 Redis。
+     */
+    @Override
+    public void evictNamespace(CacheNamespace namespace) {
+        ScanOptions options = ScanOptions.scanOptions().match(namespace.toRedisPattern()).count(SCAN_BATCH_SIZE).build();
+        List<String> batch = new ArrayList<>(SCAN_BATCH_SIZE);
+        long removed = 0;
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() >= SCAN_BATCH_SIZE) {
+                    removed += unlink(batch);
+                }
+            }
+        }
+        removed += unlink(batch);
+        log.debug("L2 cache namespace evicted, namespace={}, removed={}", namespace, removed);
+    }
+
+    private long unlink(List<String> redisKeys) {
+        if (redisKeys.isEmpty()) {
+            return 0;
+        }
+        Long removed = redisTemplate.unlink(redisKeys);
+        redisKeys.clear();
+        return removed == null ? 0 : removed;
+    }
+
+    private byte[] rawKey(CacheKey key) {
+        return keySerializer.serialize(key.toRedisKey());
+    }
+
+    private <T> Optional<T> decode(CacheKey key, byte[] payload, Class<T> type) {
+        if (payload == null) {
+            return Optional.empty();
+        }
+        if (Arrays.equals(NULL_MARKER, payload)) {
+            @SuppressWarnings("unchecked")
+            T nullValue = (T) NullValue.INSTANCE;
+            return Optional.of(nullValue);
+        }
+        for (CacheCodec codec : readCodecs) {
+            if (!codec.supports(payload)) {
+                continue;
+            }
+            try {
+                return Optional.ofNullable(codec.decode(payload, type));
+            } catch (IOException | RuntimeException ex) {
+                log.warn("L2 cache decode failed, key={}, codec={}, message={}", key, codec.name(), ex.getMessage());
+                evict(key);
+                return Optional.empty();
+            }
+        }
+        log.warn("L2 cache payload format unsupported, key={}", key);
+        evict(key);
+        return Optional.empty();
+    }
+
+    private byte[] encode(CacheKey key, Object value) {
+        if (value instanceof NullValue) {
+            return NULL_MARKER;
+        }
+        try {
+            return writeCodec.encode(value);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("L2 cache encode failed, skip put. key={}, codec={}, message={}", key, writeCodec.name(), ex.getMessage());
+            return null;
+        }
+    }
 }
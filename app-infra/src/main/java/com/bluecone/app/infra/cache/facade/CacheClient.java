@@ -2,11 +2,15 @@ package com.bluecone.app.infra.cache.facade;
 
 import com.bluecone.app.infra.cache.core.CacheEngine;
 import com.bluecone.app.infra.cache.core.CacheKey;
+import com.bluecone.app.infra.cache.core.CacheNamespace;
 import com.bluecone.app.infra.cache.profile.CacheProfile;
 import com.bluecone.app.infra.cache.profile.CacheProfileName;
 import com.bluecone.app.infra.cache.profile.CacheProfileRegistry;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -33,8 +37,25 @@ public class CacheClient {
         return cacheEngine.get(key, type, loader, profile);
     }
 
+    public <T> Map<CacheKey, T> getAll(CacheProfileName profileName,
+                                       Collection<CacheKey> keys,
+                                       Class<T> type,
+                                       Function<Set<CacheKey>, Map<CacheKey, T>> bulkLoader) {
+        CacheProfile profile = profileRegistry.getProfile(Objects.requireNonNull(profileName));
+        return cacheEngine.getAll(keys, type, bulkLoader, profile);
+    }
+
     public void evict(CacheProfileName profileName, CacheKey key) {
         CacheProfile profile = profileRegistry.getProfile(Objects.requireNonNull(profileName));
         cacheEngine.evict(key, profile);
     }
+
+    public void evictAll(CacheProfileName profileName, Collection<CacheKey> keys) {
+        CacheProfile profile = profileRegistry.getProfile(Objects.requireNonNull(profileName));
+        cacheEngine.evictAll(keys, profile);
+    }
+
+    public void evictNamespace(CacheNamespace namespace) {
+        cacheEngine.evictNamespace(Objects.requireNonNull(namespace));
+    }
 }
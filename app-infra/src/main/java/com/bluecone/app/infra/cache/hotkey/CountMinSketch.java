@@ -0,0 +1,74 @@
+package com.bluecone.app.infra.cache.hotkey;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 并发 Count-Min Sketch：depth 行 × width 列计数器，估计值取各行最小值，只会高估不会低估。
+ *
+ * <p>行哈希采用 Kirsch-Mitzenmacher 双哈希 {@code h1 + i * h2}；{@link #halve()} 用于按窗口衰减，
+ * 让历史热点逐步退场。</p>
+ */
+final class CountMinSketch {
+
+    private final int depth;
+    private final int widthMask;
+    private final AtomicLongArray counters;
+
+    /**
+     * @param width 每行计数器数量，向上取整为 2 的幂
+     * @param depth 行数（独立哈希个数）
+     */
+    CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("width and depth must be positive");
+        }
+        int roundedWidth = Integer.highestOneBit(Math.max(width - 1, 1)) << 1;
+        this.depth = depth;
+        this.widthMask = roundedWidth - 1;
+        this.counters = new AtomicLongArray(roundedWidth * depth);
+    }
+
+    /**
+     * 计数 +1 并返回累加后的估计值。
+     */
+    long incrementAndEstimate(Object item) {
+        int h1 = spread(item.hashCode());
+        int h2 = spread(h1 * 0x9E3779B9) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            long count = counters.incrementAndGet(index(i, h1 + i * h2));
+            estimate = Math.min(estimate, count);
+        }
+        return estimate;
+    }
+
+    long estimate(Object item) {
+        int h1 = spread(item.hashCode());
+        int h2 = spread(h1 * 0x9E3779B9) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            estimate = Math.min(estimate, counters.get(index(i, h1 + i * h2)));
+        }
+        return estimate;
+    }
+
+    /**
+     * 全部计数减半；与并发自增之间不加锁，误差在统计意义上可以接受。
+     */
+    void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, counters.get(i) >>> 1);
+        }
+    }
+
+    private int index(int row, int hash) {
+        return row * (widthMask + 1) + (hash & widthMask);
+    }
+
+    private static int spread(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h;
+    }
+}
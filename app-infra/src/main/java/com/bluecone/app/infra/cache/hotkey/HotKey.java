@@ -0,0 +1,10 @@
+package com.bluecone.app.infra.cache.hotkey;
+
+/**
+ * 热点 key 快照。
+ *
+ * @param key      Redis 规范的缓存键
+ * @param estimate 当前窗口（含衰减后的历史）访问次数估计
+ */
+public record HotKey(String key, long estimate) {
+}
@@ -0,0 +1,155 @@
+package com.bluecone.app.infra.cache.hotkey;
+
+import com.bluecone.app.infra.cache.core.CacheKey;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * 运行时热点探测：Count-Min Sketch 计数 + 有界 top-K 候选集。
+ *
+ * <p>每次访问先在 sketch 上计数，估计值达到 {@code threshold} 且高于当前 top-K 最小值时晋升为热点；
+ * 每过一个窗口 sketch 整体减半，估计值跌破 threshold/2 的热点被降级并通知监听方。
+ * 热点的估计值不会低于 threshold/2，长尾 key 只更新 sketch，不触碰热点表。
+ * 衰减由访问线程顺带触发，不额外占用调度线程。</p>
+ */
+public class HotKeyDetector {
+
+    private static final int DEFAULT_SKETCH_DEPTH = 4;
+
+    private final CountMinSketch sketch;
+    private final int topK;
+    private final long threshold;
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong windowStart;
+    private final Map<CacheKey, Long> hotKeys = new ConcurrentHashMap<>();
+    private final List<Consumer<CacheKey>> demotionListeners = new CopyOnWriteArrayList<>();
+    private volatile long admissionFloor;
+
+    /**
+     * @param topK      同时保留的热点数量上限
+     * @param threshold 一个窗口内晋升为热点所需的最少访问次数
+     * @param window    衰减窗口
+     */
+    public HotKeyDetector(int topK, long threshold, Duration window) {
+        this(topK, threshold, window, System::nanoTime);
+    }
+
+    HotKeyDetector(int topK, long threshold, Duration window, LongSupplier nanoClock) {
+        if (topK <= 0 || threshold <= 0) {
+            throw new IllegalArgumentException("topK and threshold must be positive");
+        }
+        // 宽度取 top-K 的 64 倍（至少 1024），热点之外的长尾碰撞误差远小于 threshold
+        this.sketch = new CountMinSketch(Math.max(1024, topK * 64), DEFAULT_SKETCH_DEPTH);
+        this.topK = topK;
+        this.threshold = threshold;
+        this.windowNanos = window.toNanos();
+        this.nanoClock = nanoClock;
+        this.windowStart = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * 记录一次访问，返回该 key 当前是否为热点。
+     */
+    public boolean record(CacheKey key) {
+        maybeDecay();
+        long estimate = sketch.incrementAndEstimate(key);
+        if (estimate < threshold / 2) {
+            return false;
+        }
+        if (hotKeys.computeIfPresent(key, (k, previous) -> estimate) != null) {
+            return true;
+        }
+        if (estimate < threshold || (hotKeys.size() >= topK && estimate <= admissionFloor)) {
+            return false;
+        }
+        return admit(key, estimate);
+    }
+
+    public boolean isHot(CacheKey key) {
+        return hotKeys.containsKey(key);
+    }
+
+    public int size() {
+        return hotKeys.size();
+    }
+
+    public int topK() {
+        return topK;
+    }
+
+    /**
+     * 按估计访问量降序返回当前热点。
+     */
+    public List<HotKey> hotKeys() {
+        List<HotKey> snapshot = new ArrayList<>(hotKeys.size());
+        hotKeys.forEach((key, estimate) -> snapshot.add(new HotKey(key.toRedisKey(), estimate)));
+        snapshot.sort(Comparator.comparingLong(HotKey::estimate).reversed());
+        return snapshot;
+    }
+
+    public void registerDemotionListener(Consumer<CacheKey> listener) {
+        demotionListeners.add(listener);
+    }
+
+    private synchronized boolean admit(CacheKey key, long estimate) {
+        if (hotKeys.containsKey(key)) {
+            return true;
+        }
+        if (hotKeys.size() >= topK) {
+            Map.Entry<CacheKey, Long> coldest = null;
+            for (Map.Entry<CacheKey, Long> entry : hotKeys.entrySet()) {
+                if (coldest == null || entry.getValue() < coldest.getValue()) {
+                    coldest = entry;
+                }
+            }
+            if (coldest != null && coldest.getValue() >= estimate) {
+                admissionFloor = coldest.getValue();
+                return false;
+            }
+            if (coldest != null) {
+                admissionFloor = coldest.getValue();
+                demote(coldest.getKey());
+            }
+        }
+        hotKeys.put(key, estimate);
+        return true;
+    }
+
+    private void maybeDecay() {
+        long now = nanoClock.getAsLong();
+        long start = windowStart.get();
+        if (now - start < windowNanos || !windowStart.compareAndSet(start, now)) {
+            return;
+        }
+        sketch.halve();
+        synchronized (this) {
+            long floor = Long.MAX_VALUE;
+            for (CacheKey key : new ArrayList<>(hotKeys.keySet())) {
+                long estimate = sketch.estimate(key);
+                if (estimate < threshold / 2) {
+                    demote(key);
+                } else {
+                    hotKeys.put(key, estimate);
+                    floor = Math.min(floor, estimate);
+                }
+            }
+            admissionFloor = floor == Long.MAX_VALUE ? 0 : floor;
+        }
+    }
+
+    private void demote(CacheKey key) {
+        if (hotKeys.remove(key) != null) {
+            demotionListeners.forEach(listener -> listener.accept(key));
+        }
+    }
+}
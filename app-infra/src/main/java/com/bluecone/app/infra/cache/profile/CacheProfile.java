@@ -14,6 +14,10 @@ public final class CacheProfile {
     private final boolean cacheNull;
     private final boolean strongConsistency;
     private final boolean hotKey;
+    private final boolean staleWhileRevalidate;
+    private final Duration staleTtl;
+    private final double refreshAheadRatio;
+    private final double earlyExpirationBeta;
 
     private CacheProfile(Builder builder) {
         this.name = Objects.requireNonNull(builder.name);
@@ -22,6 +26,10 @@ public final class CacheProfile {
         this.cacheNull = builder.cacheNull;
         this.strongConsistency = builder.strongConsistency;
         this.hotKey = builder.hotKey;
+        this.staleWhileRevalidate = builder.staleWhileRevalidate;
+        this.staleTtl = Objects.requireNonNull(builder.staleTtl);
+        this.refreshAheadRatio = builder.refreshAheadRatio;
+        this.earlyExpirationBeta = builder.earlyExpirationBeta;
     }
 
     public static Builder builder(CacheProfileName name) {
@@ -52,6 +60,36 @@ public final class CacheProfile {
         return hotKey;
     }
 
+    /**
+     * 过期后在 staleTtl 窗口内先返回旧值，同时仅触发一次后台刷新。
+     * <p>后台刷新在独立线程执行 loader：租户上下文会被传递，其它 ThreadLocal 不会。</p>
+     */
+    public boolean staleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    public Duration staleTtl() {
+        return staleTtl;
+    }
+
+    /**
+     * L1 命中时，条目存活超过 ttl × ratio 即异步刷新；0 表示关闭。
+     */
+    public double refreshAheadRatio() {
+        return refreshAheadRatio;
+    }
+
+    /**
+     * XFetch 概率提前过期的 beta 系数，越大越早刷新；0 表示关闭。
+     */
+    public double earlyExpirationBeta() {
+        return earlyExpirationBeta;
+    }
+
+    public boolean refreshAhead() {
+        return refreshAheadRatio > 0 || earlyExpirationBeta > 0;
+    }
+
     public static final class Builder {
         private final CacheProfileName name;
         private String domain;
@@ -59,6 +97,10 @@ public final class CacheProfile {
         private boolean cacheNull;
         private boolean strongConsistency = true;
         private boolean hotKey;
+        private boolean staleWhileRevalidate;
+        private Duration staleTtl = Duration.ofSeconds(30);
+        private double refreshAheadRatio;
+        private double earlyExpirationBeta;
 
         private Builder(CacheProfileName name) {
             this.name = name;
@@ -90,6 +132,26 @@ public final class CacheProfile {
             return this;
         }
 
+        public Builder staleWhileRevalidate(boolean staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+            return this;
+        }
+
+        public Builder staleTtl(Duration staleTtl) {
+            this.staleTtl = staleTtl;
+            return this;
+        }
+
+        public Builder refreshAheadRatio(double refreshAheadRatio) {
+            this.refreshAheadRatio = refreshAheadRatio;
+            return this;
+        }
+
+        public Builder earlyExpirationBeta(double earlyExpirationBeta) {
+            this.earlyExpirationBeta = earlyExpirationBeta;
+            return this;
+        }
+
         public CacheProfile build() {
             return new CacheProfile(this);
         }
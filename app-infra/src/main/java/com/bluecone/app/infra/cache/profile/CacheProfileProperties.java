@@ -25,12 +25,21 @@ public class CacheProfileProperties {
         this.profiles = profiles;
     }
 
-    public record ProfileOverride(Long ttlSeconds, Boolean cacheNull, Boolean strongConsistency, Boolean hotKey) {
+    public record ProfileOverride(Long ttlSeconds, Boolean cacheNull, Boolean strongConsistency, Boolean hotKey,
+                                  Boolean staleWhileRevalidate, Long staleTtlSeconds,
+                                  Double refreshAheadRatio, Double earlyExpirationBeta) {
         Duration ttlOrNull() {
             if (ttlSeconds == null) {
                 return null;
             }
             return Duration.ofSeconds(ttlSeconds);
         }
+
+        Duration staleTtlOrNull() {
+            if (staleTtlSeconds == null) {
+                return null;
+            }
+            return Duration.ofSeconds(staleTtlSeconds);
+        }
     }
 }
@@ -63,6 +63,8 @@ public class CacheProfileRegistry {
                 .ttl(Duration.ofMinutes(5))
                 .cacheNull(false)
                 .strongConsistency(true)
+                .refreshAheadRatio(0.8d)
+                .earlyExpirationBeta(1.0d)
                 .build());
 
         registry.put(CacheProfileName.STORE_BASE, CacheProfile.builder(CacheProfileName.STORE_BASE)
@@ -70,6 +72,8 @@ public class CacheProfileRegistry {
                 .ttl(Duration.ofMinutes(3))
                 .cacheNull(true)
                 .strongConsistency(true)
+                .refreshAheadRatio(0.8d)
+                .earlyExpirationBeta(1.0d)
                 .build());
 
         registry.put(CacheProfileName.STORE_SNAPSHOT, CacheProfile.builder(CacheProfileName.STORE_SNAPSHOT)
@@ -77,6 +81,8 @@ public class CacheProfileRegistry {
                 .ttl(Duration.ofMinutes(2))
                 .cacheNull(true)
                 .strongConsistency(true)
+                .refreshAheadRatio(0.8d)
+                .earlyExpirationBeta(1.0d)
                 .build());
 
         registry.put(CacheProfileName.INVENTORY_STOCK, CacheProfile.builder(CacheProfileName.INVENTORY_STOCK)
@@ -99,7 +105,11 @@ public class CacheProfileRegistry {
                     .ttl(existing.ttl())
                     .cacheNull(existing.cacheNull())
                     .strongConsistency(existing.strongConsistency())
-                    .hotKey(existing.hotKey());
+                    .hotKey(existing.hotKey())
+                    .staleWhileRevalidate(existing.staleWhileRevalidate())
+                    .staleTtl(existing.staleTtl())
+                    .refreshAheadRatio(existing.refreshAheadRatio())
+                    .earlyExpirationBeta(existing.earlyExpirationBeta());
             if (override.ttlOrNull() != null) {
                 builder.ttl(override.ttlOrNull());
             }
@@ -112,10 +122,23 @@ public class CacheProfileRegistry {
             if (override.hotKey() != null) {
                 builder.hotKey(override.hotKey());
             }
+            if (override.staleWhileRevalidate() != null) {
+                builder.staleWhileRevalidate(override.staleWhileRevalidate());
+            }
+            if (override.staleTtlOrNull() != null) {
+                builder.staleTtl(override.staleTtlOrNull());
+            }
+            if (override.refreshAheadRatio() != null) {
+                builder.refreshAheadRatio(override.refreshAheadRatio());
+            }
+            if (override.earlyExpirationBeta() != null) {
+                builder.earlyExpirationBeta(override.earlyExpirationBeta());
+            }
             CacheProfile updated = builder.build();
             registry.put(name, updated);
-            log.info("cache.profile.override name={} ttl={} cacheNull={} strongConsistency={} hotKey={}",
-                    name, updated.ttl(), updated.cacheNull(), updated.strongConsistency(), updated.hotKey());
+            log.info("cache.profile.override name={} ttl={} cacheNull={} strongConsistency={} hotKey={} staleWhileRevalidate={} staleTtl={} refreshAheadRatio={} earlyExpirationBeta={}",
+                    name, updated.ttl(), updated.cacheNull(), updated.strongConsistency(), updated.hotKey(),
+                    updated.staleWhileRevalidate(), updated.staleTtl(), updated.refreshAheadRatio(), updated.earlyExpirationBeta());
         });
     }
 
@@ -4,13 +4,24 @@ import com.bluecone.app.core.contextkit.CacheKey;
 import com.bluecone.app.core.contextkit.CacheValue;
 import com.bluecone.app.core.contextkit.ContextCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * 基于 Redis 的通用上下文缓存实现（L2，可选）。
+ *
+ * <p>批量读取使用一次 MGET，批量写入使用 pipeline，整批各只占一次网络往返。</p>
  */
 public class RedisContextCache implements ContextCache {
 
@@ -25,17 +36,25 @@ public class RedisContextCache implements ContextCache {
     @Override
     public <T> Optional<CacheValue> get(CacheKey key) {
         String payload = redisTemplate.opsForValue().get(toRedisKey(key));
-        if (payload == null) {
-            return Optional.empty();
+        return decode(key, payload);
+    }
+
+    @Override
+    public Map<CacheKey, CacheValue> getAll(Collection<CacheKey> keys) {
+        if (keys.isEmpty()) {
+            return Map.of();
         }
-        try {
-            CacheValue value = objectMapper.readValue(payload, CacheValue.class);
-            return Optional.ofNullable(value);
-        } catch (Exception ex) {
-            // 解析失败直接删除，避免污染
-            redisTemplate.delete(toRedisKey(key));
-            return Optional.empty();
+        List<CacheKey> orderedKeys = new ArrayList<>(keys);
+        List<String> payloads = redisTemplate.opsForValue().multiGet(orderedKeys.stream().map(this::toRedisKey).toList());
+        Map<CacheKey, CacheValue> result = new LinkedHashMap<>();
+        if (payloads == null) {
+            return result;
         }
+        for (int i = 0; i < orderedKeys.size(); i++) {
+            CacheKey key = orderedKeys.get(i);
+            decode(key, payloads.get(i)).ifPresent(value -> result.put(key, value));
+        }
+        return result;
     }
 
     @Override
@@ -48,13 +67,48 @@ public class RedisContextCache implements ContextCache {
         }
     }
 
+    @Override
+    public void putAll(Map<CacheKey, CacheValue> values, Duration ttl) {
+        RedisSerializer<String> serializer = redisTemplate.getStringSerializer();
+        Map<byte[], byte[]> payloads = new LinkedHashMap<>(values.size());
+        values.forEach((key, value) -> {
+            try {
+                payloads.put(serializer.serialize(toRedisKey(key)), serializer.serialize(objectMapper.writeValueAsString(value)));
+            } catch (Exception ex) {
+                // 序列化失败时跳过该条
+            }
+        });
+        if (payloads.isEmpty()) {
+            return;
+        }
+        Expiration expiration = Expiration.from(ttl);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            payloads.forEach((rawKey, rawValue) -> connection.stringCommands()
+                    .set(rawKey, rawValue, expiration, RedisStringCommands.SetOption.upsert()));
+            return null;
+        });
+    }
+
     @Override
     public void invalidate(CacheKey key) {
         redisTemplate.delete(toRedisKey(key));
     }
 
+    private Optional<CacheValue> decode(CacheKey key, String payload) {
+        if (payload == null) {
+            return Optional.empty();
+        }
+        try {
+            CacheValue value = objectMapper.readValue(payload, CacheValue.class);
+            return Optional.ofNullable(value);
+        } catch (Exception ex) {
+            // 解析失败直接删除，避免污染
+            redisTemplate.delete(toRedisKey(key));
+            return Optional.empty();
+        }
+    }
+
     private String toRedisKey(CacheKey key) {
         return key.namespace() + ":" + key.key();
     }
 }
-
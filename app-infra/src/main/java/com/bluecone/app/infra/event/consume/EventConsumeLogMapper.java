@@ -1,10 +1,12 @@
 package com.bluecone.app.infra.event.consume;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -60,4 +62,42 @@ public interface EventConsumeLogMapper extends BaseMapper<EventConsumeLogPO> {
     List<EventConsumeLogPO> selectByEventIds(@Param("tenantId") Long tenantId,
                                              @Param("eventIds") List<String> eventIds,
                                              @Param("limit") int limit);
+    
+    /**
+     * 批量查询已成功消费的事件ID（批量幂等检查）
+     * 
+     * @param consumerName 消费者名称
+     * @param eventIds 事件ID列表
+     * @return 已成功消费的事件ID
+     */
+    @Select("<script>" +
+            "SELECT event_id FROM bc_event_consume_log " +
+            "WHERE consumer_name = #{consumerName} " +
+            "AND status = 'SUCCESS' " +
+            "AND event_id IN " +
+            "<foreach item='item' collection='eventIds' open='(' separator=',' close=')'>" +
+            "#{item}" +
+            "</foreach>" +
+            "</script>")
+    List<String> selectConsumedEventIds(@Param("consumerName") String consumerName,
+                                        @Param("eventIds") Collection<String> eventIds);
+    
+    /**
+     * 多行写入消费成功日志；已有同一 consumer_name + event_id 的记录（如失败记录）更新为成功
+     * 
+     * @param logs 消费日志列表
+     * @return 受影响行数
+     */
+    @Insert("<script>" +
+            "INSERT INTO bc_event_consume_log " +
+            "(tenant_id, consumer_name, event_id, event_type, status, idempotency_key, consume_result, " +
+            "consumed_at, created_at, updated_at) VALUES " +
+            "<foreach item='l' collection='logs' separator=','>" +
+            "(#{l.tenantId}, #{l.consumerName}, #{l.eventId}, #{l.eventType}, #{l.status}, #{l.idempotencyKey}, " +
+            "#{l.consumeResult}, #{l.consumedAt}, #{l.createdAt}, #{l.updatedAt})" +
+            "</foreach>" +
+            " ON DUPLICATE KEY UPDATE status = VALUES(status), idempotency_key = VALUES(idempotency_key), " +
+            "consume_result = VALUES(consume_result), error_message = NULL, consumed_at = VALUES(consumed_at)" +
+            "</script>")
+    int insertSuccessBatch(@Param("logs") List<EventConsumeLogPO> logs);
 }
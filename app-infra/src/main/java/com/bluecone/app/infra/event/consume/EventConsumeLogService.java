@@ -8,6 +8,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * 事件消费日志服务
@@ -62,6 +66,31 @@ public class EventConsumeLogService {
     @Transactional(rollbackFor = Exception.class)
     public void recordSuccess(String consumerName, String eventId, String eventType, 
                               Long tenantId, String idempotencyKey, Object result) {
+        consumeLogMapper.insert(successLog(consumerName, eventId, eventType, tenantId, idempotencyKey, result));
+        
+        this.log.info("Event consume success recorded: consumer={}, eventId={}, eventType={}, idempotencyKey={}", 
+                consumerName, eventId, eventType, idempotencyKey);
+    }
+    
+    /**
+     * 批量检查事件是否已被消费，一次查询代替逐条 {@link #isConsumed}
+     * 
+     * @param consumerName 消费者名称
+     * @param eventIds 事件ID列表
+     * @return 已成功消费的事件ID
+     */
+    public Set<String> findConsumedEventIds(String consumerName, Collection<String> eventIds) {
+        if (eventIds == null || eventIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(consumeLogMapper.selectConsumedEventIds(consumerName, eventIds));
+    }
+    
+    /**
+     * 构建一条消费成功日志（不落库），配合 {@link #recordSuccessBatch} 批量写入
+     */
+    public EventConsumeLogPO successLog(String consumerName, String eventId, String eventType,
+                                        Long tenantId, String idempotencyKey, Object result) {
         EventConsumeLogPO log = new EventConsumeLogPO();
         log.setConsumerName(consumerName);
         log.setEventId(eventId);
@@ -69,7 +98,6 @@ public class EventConsumeLogService {
         log.setTenantId(tenantId);
         log.setIdempotencyKey(idempotencyKey);
         log.setStatus("SUCCESS");
-        
         if (result != null) {
             try {
                 log.setConsumeResult(objectMapper.writeValueAsString(result));
@@ -77,15 +105,26 @@ public class EventConsumeLogService {
                 log.setConsumeResult(result.toString());
             }
         }
-        
-        log.setConsumedAt(LocalDateTime.now());
-        log.setCreatedAt(LocalDateTime.now());
-        log.setUpdatedAt(LocalDateTime.now());
-        
-        consumeLogMapper.insert(log);
-        
-        this.log.info("Event consume success recorded: consumer={}, eventId={}, eventType={}, idempotencyKey={}", 
-                consumerName, eventId, eventType, idempotencyKey);
+        LocalDateTime now = LocalDateTime.now();
+        log.setConsumedAt(now);
+        log.setCreatedAt(now);
+        log.setUpdatedAt(now);
+        return log;
+    }
+    
+    /**
+     * 批量记录消费成功（单条多行 INSERT）
+     * 
+     * @param logs 由 {@link #successLog} 构建的日志
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void recordSuccessBatch(List<EventConsumeLogPO> logs) {
+        if (logs == null || logs.isEmpty()) {
+            return;
+        }
+        consumeLogMapper.insertSuccessBatch(logs);
+        this.log.info("Event consume success recorded in batch: consumer={}, count={}",
+                logs.get(0).getConsumerName(), logs.size());
     }
     
     /**
@@ -0,0 +1,159 @@
+package com.bluecone.app.infra.event.consume;
+
+import com.bluecone.app.core.event.consume.spi.ConsumeCompletionNotifier;
+import com.bluecone.app.id.core.Ulid128;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 基于 Redis Pub/Sub 的消费完成通知：持有者标记成功/失败后广播，其他节点上的等待方立即返回。
+ *
+ * <p>等待方挂起时先广播一条等待登记，各节点在内存中记下“有远端节点在等这个事件”及其截止时间；
+ * 完成时只有命中登记才发送完成广播，绝大多数无人等待的完成不产生任何 Redis 调用。</p>
+ *
+ * <p>消息格式为 {@code W|instanceId|msb|lsb|waitMillis|consumerGroup}（等待登记）与
+ * {@code D|instanceId|msb|lsb|succeeded|consumerGroup}（完成），consumerGroup 放在末尾以容纳分隔符。
+ * 收到自己发出的消息时忽略（本地已由登记表唤醒）。未配置 Redis 时不广播。</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "bluecone.eventing.consume", name = "completion-notify-enabled",
+        havingValue = "true", matchIfMissing = true)
+public class RedisConsumeCompletionNotifier implements ConsumeCompletionNotifier, InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisConsumeCompletionNotifier.class);
+    private static final String CHANNEL = "bluecone:event-consume:completed";
+    private static final String AWAITING = "W";
+    private static final String DONE = "D";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final List<Consumer<ConsumeCompletion>> listeners = new CopyOnWriteArrayList<>();
+    /**
+     * 远端等待登记，值为本地 nanoTime 截止时间
+     */
+    private final ConcurrentHashMap<Key, Long> remoteWaiters = new ConcurrentHashMap<>();
+    private RedisMessageListenerContainer listenerContainer;
+
+    public RedisConsumeCompletionNotifier(ObjectProvider<StringRedisTemplate> redisTemplate) {
+        this.redisTemplate = redisTemplate.getIfAvailable();
+    }
+
+    @Override
+    public void publish(ConsumeCompletion completion) {
+        Long deadline = remoteWaiters.remove(new Key(completion.consumerGroup(), completion.eventId()));
+        if (redisTemplate == null || deadline == null || deadline - System.nanoTime() < 0) {
+            return;
+        }
+        send(encode(DONE, completion.consumerGroup(), completion.eventId(), String.valueOf(completion.succeeded())));
+    }
+
+    @Override
+    public void awaiting(String consumerGroup, Ulid128 eventId, Duration waitMax) {
+        if (redisTemplate == null) {
+            return;
+        }
+        send(encode(AWAITING, consumerGroup, eventId, String.valueOf(waitMax.toMillis())));
+    }
+
+    @Override
+    public void subscribe(Consumer<ConsumeCompletion> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (redisTemplate == null || redisTemplate.getConnectionFactory() == null) {
+            log.info("[ConsumeNotify] redis not available, local wakeup only");
+            return;
+        }
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisTemplate.getConnectionFactory());
+        listenerContainer.addMessageListener((message, pattern) ->
+                onMessage(new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(CHANNEL));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+        log.info("[ConsumeNotify] redis listener started on channel={}", CHANNEL);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
+    void onMessage(String body) {
+        String[] parts = body.split("\\|", 6);
+        if (parts.length != 6 || instanceId.equals(parts[1])) {
+            return;
+        }
+        Key key;
+        long waitMillis = 0L;
+        try {
+            key = new Key(parts[5], new Ulid128(Long.parseLong(parts[2]), Long.parseLong(parts[3])));
+            if (AWAITING.equals(parts[0])) {
+                waitMillis = Long.parseLong(parts[4]);
+            }
+        } catch (NumberFormatException ex) {
+            log.warn("[ConsumeNotify] malformed message={}", body);
+            return;
+        }
+        if (AWAITING.equals(parts[0])) {
+            long now = System.nanoTime();
+            remoteWaiters.values().removeIf(deadline -> deadline - now < 0);
+            remoteWaiters.merge(key, now + Duration.ofMillis(waitMillis).toNanos(), Math::max);
+            return;
+        }
+        if (!DONE.equals(parts[0])) {
+            return;
+        }
+        ConsumeCompletion completion = new ConsumeCompletion(key.consumerGroup(), key.eventId(),
+                Boolean.parseBoolean(parts[4]));
+        for (Consumer<ConsumeCompletion> listener : listeners) {
+            try {
+                listener.accept(completion);
+            } catch (RuntimeException ex) {
+                log.warn("[ConsumeNotify] listener failed message={}", ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 当前记录的远端等待数，供测试与诊断使用。
+     */
+    int remoteWaiterCount() {
+        return remoteWaiters.size();
+    }
+
+    private void send(String message) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, message);
+        } catch (RuntimeException ex) {
+            // 广播失败不影响正确性，等待方超时后回查消费表
+            log.warn("[ConsumeNotify] broadcast failed message={} error={}", message, ex.getMessage());
+        }
+    }
+
+    private String encode(String kind, String consumerGroup, Ulid128 eventId, String value) {
+        return kind + "|" + instanceId + "|" + eventId.msb() + "|" + eventId.lsb() + "|" + value + "|" + consumerGroup;
+    }
+
+    private record Key(String consumerGroup, Ulid128 eventId) {
+    }
+}
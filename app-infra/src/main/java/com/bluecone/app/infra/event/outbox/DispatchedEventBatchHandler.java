@@ -0,0 +1,30 @@
+package com.bluecone.app.infra.event.outbox;
+
+import java.util.List;
+
+/**
+ * 支持批量消费的 Outbox 事件处理器
+ * 由 InProcessEventDispatcher 按块调用，每块一个事务；实现方应在 handleBatch 内批量做幂等检查与消费日志写入
+ *
+ * 与 @EventListener 二选一：实现本接口的消费者不应再监听 DispatchedEvent
+ */
+public interface DispatchedEventBatchHandler {
+
+    /**
+     * 消费者名称（对应 bc_event_consume_log.consumer_name）
+     */
+    String consumerName();
+
+    /**
+     * 是否处理该事件类型
+     */
+    boolean supports(String eventType);
+
+    /**
+     * 在同一事务内处理一组事件，任一事件失败即抛出
+     * 抛出后整块回滚，分发器会逐条重试以定位失败事件
+     *
+     * @param events 事件列表，同一聚合根的事件保持投递顺序
+     */
+    void handleBatch(List<DispatchedEvent> events) throws Exception;
+}
@@ -3,66 +3,174 @@ package com.bluecone.app.infra.event.outbox;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * 进程内事件分发器
  * 将 Outbox 事件转换为 Spring ApplicationEvent 并发布到消费者
+ *
+ * 实现 {@link DispatchedEventBatchHandler} 的消费者按块批量调用（每块一个事务），
+ * 其余消费者仍通过 @EventListener 逐条接收
  */
 @Slf4j
 @Component
 public class InProcessEventDispatcher {
-    
+
+    /**
+     * 批量处理器单个事务处理的事件数上限
+     */
+    private static final int BATCH_CHUNK_SIZE = 100;
+
     private final ApplicationEventPublisher eventPublisher;
     private final ObjectMapper objectMapper;
+    private final ObjectProvider<DispatchedEventBatchHandler> batchHandlers;
+    private final ObjectProvider<PlatformTransactionManager> transactionManager;
 
     public InProcessEventDispatcher(ApplicationEventPublisher eventPublisher,
-                                   @Qualifier("redisObjectMapper") ObjectMapper objectMapper) {
+                                   @Qualifier("redisObjectMapper") ObjectMapper objectMapper,
+                                   ObjectProvider<DispatchedEventBatchHandler> batchHandlers,
+                                   ObjectProvider<PlatformTransactionManager> transactionManager) {
         this.eventPublisher = eventPublisher;
         this.objectMapper = objectMapper;
+        this.batchHandlers = batchHandlers;
+        this.transactionManager = transactionManager;
     }
-    
+
     /**
      * 分发事件到消费者
-     * 
+     *
      * @param eventPO Outbox 事件持久化对象
      */
     public void dispatch(OutboxEventPO eventPO) {
         try {
-            // 解析事件载荷和元数据
-            Map<String, Object> payload = parsePayload(eventPO.getEventPayload());
-            Map<String, Object> metadata = parseMetadata(eventPO.getEventMetadata());
-            
-            // 创建事件包装器
-            DispatchedEvent event = DispatchedEvent.builder()
-                    .eventId(eventPO.getEventId())
-                    .eventType(eventPO.getEventType())
-                    .aggregateType(eventPO.getAggregateType())
-                    .aggregateId(eventPO.getAggregateId())
-                    .tenantId(eventPO.getTenantId())
-                    .storeId(eventPO.getStoreId())
-                    .payload(payload)
-                    .metadata(metadata)
-                    .build();
-            
+            DispatchedEvent event = toDispatchedEvent(eventPO);
+
+            for (DispatchedEventBatchHandler handler : batchHandlers.orderedStream().toList()) {
+                if (handler.supports(event.getEventType())) {
+                    runInTx(handler, List.of(event));
+                }
+            }
+
             // 发布到 Spring 事件总线
             eventPublisher.publishEvent(event);
-            
-            log.info("Event dispatched: eventId={}, eventType={}, aggregateType={}, aggregateId={}", 
+
+            log.info("Event dispatched: eventId={}, eventType={}, aggregateType={}, aggregateId={}",
                     eventPO.getEventId(), eventPO.getEventType(), eventPO.getAggregateType(), eventPO.getAggregateId());
-            
+
         } catch (Exception e) {
-            log.error("Failed to dispatch event: eventId={}, eventType={}", 
+            log.error("Failed to dispatch event: eventId={}, eventType={}",
                     eventPO.getEventId(), eventPO.getEventType(), e);
             throw new RuntimeException("Failed to dispatch event: " + eventPO.getEventId(), e);
         }
     }
-    
+
+    /**
+     * 批量分发事件：批量处理器按块各一个事务处理，块失败时逐条重试定位失败事件；
+     * 之后再逐条发布给 @EventListener 消费者
+     *
+     * @param eventPOs Outbox 事件持久化对象列表
+     * @return 失败事件的主键 ID 与异常，未包含的视为成功
+     */
+    public Map<Long, Exception> dispatchBatch(List<OutboxEventPO> eventPOs) {
+        Map<Long, Exception> failures = new LinkedHashMap<>();
+        Map<Long, DispatchedEvent> events = new LinkedHashMap<>();
+        // DispatchedEvent 为 @Data，内容相同的事件 equals 相等，必须按引用映射回主键
+        Map<DispatchedEvent, Long> ids = new IdentityHashMap<>();
+        for (OutboxEventPO eventPO : eventPOs) {
+            DispatchedEvent event = toDispatchedEvent(eventPO);
+            events.put(eventPO.getId(), event);
+            ids.put(event, eventPO.getId());
+        }
+
+        for (DispatchedEventBatchHandler handler : batchHandlers.orderedStream().toList()) {
+            List<DispatchedEvent> supported = new ArrayList<>();
+            for (Map.Entry<Long, DispatchedEvent> entry : events.entrySet()) {
+                if (!failures.containsKey(entry.getKey()) && handler.supports(entry.getValue().getEventType())) {
+                    supported.add(entry.getValue());
+                }
+            }
+            for (int from = 0; from < supported.size(); from += BATCH_CHUNK_SIZE) {
+                List<DispatchedEvent> chunk = supported.subList(from, Math.min(supported.size(), from + BATCH_CHUNK_SIZE));
+                try {
+                    runInTx(handler, chunk);
+                } catch (Exception chunkError) {
+                    log.warn("Batch consume failed, retrying one by one: consumer={}, size={}, error={}",
+                            handler.consumerName(), chunk.size(), chunkError.getMessage());
+                    for (DispatchedEvent event : chunk) {
+                        try {
+                            runInTx(handler, List.of(event));
+                        } catch (Exception e) {
+                            failures.putIfAbsent(ids.get(event), e);
+                        }
+                    }
+                }
+            }
+        }
+
+        for (Map.Entry<Long, DispatchedEvent> entry : events.entrySet()) {
+            if (failures.containsKey(entry.getKey())) {
+                continue;
+            }
+            DispatchedEvent event = entry.getValue();
+            try {
+                eventPublisher.publishEvent(event);
+            } catch (Exception e) {
+                failures.put(entry.getKey(), e);
+            }
+        }
+        log.info("Events dispatched in batch: total={}, failed={}", events.size(), failures.size());
+        return failures;
+    }
+
+    private void runInTx(DispatchedEventBatchHandler handler, List<DispatchedEvent> events) throws Exception {
+        PlatformTransactionManager txManager = transactionManager.getIfAvailable();
+        if (txManager == null) {
+            handler.handleBatch(events);
+            return;
+        }
+        try {
+            new TransactionTemplate(txManager).executeWithoutResult(status -> {
+                try {
+                    handler.handleBatch(events);
+                } catch (Exception e) {
+                    throw new BatchHandlerException(e);
+                }
+            });
+        } catch (BatchHandlerException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    private DispatchedEvent toDispatchedEvent(OutboxEventPO eventPO) {
+        // 解析事件载荷和元数据
+        Map<String, Object> payload = parsePayload(eventPO.getEventPayload());
+        Map<String, Object> metadata = parseMetadata(eventPO.getEventMetadata());
+
+        // 创建事件包装器
+        return DispatchedEvent.builder()
+                .eventId(eventPO.getEventId())
+                .eventType(eventPO.getEventType())
+                .aggregateType(eventPO.getAggregateType())
+                .aggregateId(eventPO.getAggregateId())
+                .tenantId(eventPO.getTenantId())
+                .storeId(eventPO.getStoreId())
+                .payload(payload)
+                .metadata(metadata)
+                .build();
+    }
+
     private Map<String, Object> parsePayload(String payloadJson) {
         if (payloadJson == null || payloadJson.isEmpty()) {
             return new HashMap<>();
@@ -74,7 +182,7 @@ public class InProcessEventDispatcher {
             return new HashMap<>();
         }
     }
-    
+
     private Map<String, Object> parseMetadata(String metadataJson) {
         if (metadataJson == null || metadataJson.isEmpty()) {
             return new HashMap<>();
@@ -86,4 +194,13 @@ public class InProcessEventDispatcher {
             return new HashMap<>();
         }
     }
+
+    /**
+     * 把受检异常带出 TransactionTemplate 的回调
+     */
+    private static final class BatchHandlerException extends RuntimeException {
+        BatchHandlerException(Exception cause) {
+            super(cause);
+        }
+    }
 }
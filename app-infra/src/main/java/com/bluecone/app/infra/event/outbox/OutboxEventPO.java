@@ -74,6 +74,16 @@ public class OutboxEventPO {
      */
     private LocalDateTime nextRetryAt;
     
+    /**
+     * 认领令牌，非空表示已被某个节点的某一轮中继认领
+     */
+    private String lockOwner;
+    
+    /**
+     * 认领租约到期时间，过期后允许其他节点重新认领
+     */
+    private LocalDateTime leaseUntil;
+    
     /**
      * 最后一次错误信息
      */
@@ -1,6 +1,7 @@
 package com.bluecone.app.infra.event.outbox;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.bluecone.app.core.event.outbox.OutboxEvent;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -156,6 +158,112 @@ public class OutboxEventService {
         outboxEventMapper.updateById(po);
     }
     
+    /**
+     * 原子认领一批到期事件：单条 UPDATE 将未被认领或租约已过期的行写上本轮令牌与租约
+     * 
+     * <p>认领不看聚合键，同一聚合的事件顺序只在本批次内成立，跨批次、跨节点为尽力而为</p>
+     * 
+     * @return 本轮认领到的行数
+     */
+    public int claimDueEvents(LocalDateTime now, String lockOwner, LocalDateTime leaseUntil, int limit) {
+        LambdaUpdateWrapper<OutboxEventPO> wrapper = new LambdaUpdateWrapper<>();
+        wrapper.in(OutboxEventPO::getStatus, "NEW", "FAILED")
+                .le(OutboxEventPO::getNextRetryAt, now)
+                .and(w -> w.isNull(OutboxEventPO::getLeaseUntil)
+                        .or()
+                        .lt(OutboxEventPO::getLeaseUntil, now))
+                .set(OutboxEventPO::getLockOwner, lockOwner)
+                .set(OutboxEventPO::getLeaseUntil, leaseUntil)
+                .last("order by next_retry_at, id limit " + limit);
+        return outboxEventMapper.update(null, wrapper);
+    }
+    
+    /**
+     * 按认领令牌取回本轮认领的事件，按到期时间与 ID 排序
+     */
+    public List<OutboxEventPO> findClaimed(String lockOwner) {
+        LambdaQueryWrapper<OutboxEventPO> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(OutboxEventPO::getLockOwner, lockOwner)
+                .orderByAsc(OutboxEventPO::getNextRetryAt)
+                .orderByAsc(OutboxEventPO::getId);
+        return outboxEventMapper.selectList(wrapper);
+    }
+    
+    /**
+     * 批量标记为已投递并释放租约，只更新令牌仍属于自己的行
+     * 
+     * @return 实际更新的行数
+     */
+    public int markSentBatch(Collection<Long> ids, String lockOwner) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LambdaUpdateWrapper<OutboxEventPO> wrapper = new LambdaUpdateWrapper<>();
+        wrapper.in(OutboxEventPO::getId, ids)
+                .eq(OutboxEventPO::getLockOwner, lockOwner)
+                .set(OutboxEventPO::getStatus, "SENT")
+                .set(OutboxEventPO::getSentAt, now)
+                .set(OutboxEventPO::getUpdatedAt, now)
+                .set(OutboxEventPO::getLockOwner, null)
+                .set(OutboxEventPO::getLeaseUntil, null);
+        return outboxEventMapper.update(null, wrapper);
+    }
+    
+    /**
+     * 批量标记为失败（或 DEAD）并释放租约，调用方按 (retryCount, nextRetryAt, dead) 分组后每组一次 UPDATE
+     * 
+     * @return 实际更新的行数
+     */
+    public int markFailedBatch(Collection<Long> ids, String lockOwner, int retryCount,
+                               LocalDateTime nextRetryAt, boolean dead, String errorMsg) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        LambdaUpdateWrapper<OutboxEventPO> wrapper = new LambdaUpdateWrapper<>();
+        wrapper.in(OutboxEventPO::getId, ids)
+                .eq(OutboxEventPO::getLockOwner, lockOwner)
+                .set(OutboxEventPO::getStatus, dead ? "DEAD" : "FAILED")
+                .set(OutboxEventPO::getRetryCount, retryCount)
+                .set(OutboxEventPO::getNextRetryAt, nextRetryAt)
+                .set(OutboxEventPO::getLastError, errorMsg)
+                .set(OutboxEventPO::getUpdatedAt, LocalDateTime.now())
+                .set(OutboxEventPO::getLockOwner, null)
+                .set(OutboxEventPO::getLeaseUntil, null);
+        return outboxEventMapper.update(null, wrapper);
+    }
+    
+    /**
+     * 释放租约并推迟到 notBefore 再认领，不改变状态与重试次数，只更新令牌仍属于自己的行
+     * 
+     * @return 实际更新的行数
+     */
+    public int deferBatch(Collection<Long> ids, String lockOwner, LocalDateTime notBefore) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        LambdaUpdateWrapper<OutboxEventPO> wrapper = new LambdaUpdateWrapper<>();
+        wrapper.in(OutboxEventPO::getId, ids)
+                .eq(OutboxEventPO::getLockOwner, lockOwner)
+                .set(OutboxEventPO::getNextRetryAt, notBefore)
+                .set(OutboxEventPO::getUpdatedAt, LocalDateTime.now())
+                .set(OutboxEventPO::getLockOwner, null)
+                .set(OutboxEventPO::getLeaseUntil, null);
+        return outboxEventMapper.update(null, wrapper);
+    }
+    
+    /**
+     * 延长令牌持有行的租约
+     * 
+     * @return 实际更新的行数
+     */
+    public int renewLease(String lockOwner, LocalDateTime leaseUntil) {
+        LambdaUpdateWrapper<OutboxEventPO> wrapper = new LambdaUpdateWrapper<>();
+        wrapper.eq(OutboxEventPO::getLockOwner, lockOwner)
+                .set(OutboxEventPO::getLeaseUntil, leaseUntil);
+        return outboxEventMapper.update(null, wrapper);
+    }
+    
     /**
      * 查询指定聚合根的所有事件
      * 
@@ -0,0 +1,129 @@
+package com.bluecone.app.infra.event.outbox;
+
+import com.bluecone.app.infra.outbox.relay.OutboxRelayEngine;
+import com.bluecone.app.infra.outbox.relay.OutboxTableAdapter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * bc_outbox_event 中继适配器
+ * 由 {@link OutboxRelayEngine} 统一认领与批量回写，投递到 InProcessEventDispatcher
+ *
+ * 重试规则沿用原发布任务：指数退避 2^retryCount 秒，达到行上的 max_retry_count 后标记为 DEAD
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxEventTableAdapter implements OutboxTableAdapter<OutboxEventPO> {
+
+    private static final int DEFAULT_MAX_RETRY_COUNT = 10;
+    /**
+     * 退避指数上限，避免 2^n 溢出
+     */
+    private static final int MAX_BACKOFF_EXPONENT = 20;
+
+    private final OutboxEventService outboxEventService;
+    private final InProcessEventDispatcher eventDispatcher;
+
+    @Override
+    public String table() {
+        return "bc_outbox_event";
+    }
+
+    @Override
+    public int claim(LocalDateTime now, String lockOwner, LocalDateTime leaseUntil, int limit) {
+        return outboxEventService.claimDueEvents(now, lockOwner, leaseUntil, limit);
+    }
+
+    @Override
+    public List<OutboxEventPO> findClaimed(String lockOwner) {
+        return outboxEventService.findClaimed(lockOwner);
+    }
+
+    @Override
+    public Long id(OutboxEventPO event) {
+        return event.getId();
+    }
+
+    /**
+     * 同一聚合根的事件在一次认领批次内按顺序投递（跨批次、跨节点为尽力而为）
+     */
+    @Override
+    public String partitionKey(OutboxEventPO event) {
+        return event.getAggregateType() + ":" + event.getAggregateId();
+    }
+
+    @Override
+    public int retryCount(OutboxEventPO event) {
+        return event.getRetryCount() == null ? 0 : event.getRetryCount();
+    }
+
+    @Override
+    public LocalDateTime createdAt(OutboxEventPO event) {
+        return event.getCreatedAt();
+    }
+
+    @Override
+    public void deliver(OutboxEventPO event) {
+        eventDispatcher.dispatch(event);
+    }
+
+    /**
+     * 批量处理器（积分、优惠券等）按块一个事务消费，见 {@link DispatchedEventBatchHandler}
+     */
+    @Override
+    public boolean supportsBatchDelivery() {
+        return true;
+    }
+
+    @Override
+    public Map<Long, Exception> deliverBatch(List<OutboxEventPO> events) {
+        return eventDispatcher.dispatchBatch(events);
+    }
+
+    @Override
+    public boolean shouldGiveUp(OutboxEventPO event, int nextRetry, Exception error) {
+        int maxRetryCount = event.getMaxRetryCount() == null ? DEFAULT_MAX_RETRY_COUNT : event.getMaxRetryCount();
+        return nextRetry >= maxRetryCount;
+    }
+
+    @Override
+    public Duration nextDelay(int retryCount) {
+        return Duration.ofSeconds(1L << Math.min(Math.max(retryCount, 0), MAX_BACKOFF_EXPONENT));
+    }
+
+    @Override
+    public int markDone(List<Long> ids, String lockOwner) {
+        return outboxEventService.markSentBatch(ids, lockOwner);
+    }
+
+    @Override
+    public int markFailed(List<Long> ids, String lockOwner, int retryCount, LocalDateTime nextRetryAt,
+                          boolean dead, String lastError) {
+        return outboxEventService.markFailedBatch(ids, lockOwner, retryCount, nextRetryAt, dead, lastError);
+    }
+
+    @Override
+    public int defer(List<Long> ids, String lockOwner, LocalDateTime notBefore) {
+        return outboxEventService.deferBatch(ids, lockOwner, notBefore);
+    }
+
+    @Override
+    public int renewLease(String lockOwner, LocalDateTime leaseUntil) {
+        return outboxEventService.renewLease(lockOwner, leaseUntil);
+    }
+
+    @Override
+    public void onFailed(OutboxEventPO event, Exception error, int retryCount, LocalDateTime nextRetryAt, boolean dead) {
+        if (dead) {
+            log.warn("Outbox event marked as DEAD after {} retries: eventId={}, eventType={}",
+                    retryCount, event.getEventId(), event.getEventType());
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.bluecone.app.infra.idempotency;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import com.bluecone.app.core.idempotency.domain.IdemStatus;
+import com.bluecone.app.core.idempotency.domain.IdempotencyRecord;
+import com.bluecone.app.core.idempotency.spi.IdempotencyFastStore;
+import com.bluecone.app.core.idempotency.spi.IdempotencyRepository.AcquireCommand;
+import com.bluecone.app.core.idempotency.spi.IdempotencyRepository.AcquireResult;
+import com.bluecone.app.core.idempotency.spi.IdempotencyRepository.AcquireState;
+import com.bluecone.app.core.idempotency.spi.IdempotencyRepository.MarkFailedCommand;
+import com.bluecone.app.core.idempotency.spi.IdempotencyRepository.MarkSuccessCommand;
+import com.bluecone.app.infra.redis.core.RedisKeyBuilder;
+import com.bluecone.app.infra.redis.core.RedisKeyNamespace;
+import com.bluecone.app.infra.redis.core.RedisOps;
+
+/**
+ * 基于 Redis Hash 的幂等结果缓存，拦截已知幂等键的重放与冲突。
+ *
+ * <p>Hash 字段：h 请求摘要、s 状态（1 成功 / 2 失败）、r 结果引用、j 结果 JSON；键过期时间与幂等记录 expireAt 一致。
+ * 只保存数据库已确定的终态，不做占位：键不存在时由模板回到数据库获取执行权。
+ * 脚本返回值中可空字段以 "=" 前缀表示存在，空串表示 null，避免 Lua 数组中的 nil 截断返回列表。</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "bluecone.idempotency.fast-store", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RedisIdempotencyFastStore implements IdempotencyFastStore {
+
+    /**
+     * 查询记录：不存在返回空列表，否则返回 hash, status, ref, json。
+     */
+    static final RedisScript<List> FIND = new DefaultRedisScript<>("""
+            local cur = redis.call('HMGET', KEYS[1], 'h', 's', 'r', 'j')
+            if not cur[1] then return {} end
+            return {cur[1], cur[2] or '0', cur[3] and ('=' .. cur[3]) or '', cur[4] and ('=' .. cur[4]) or ''}
+            """, List.class);
+
+    /**
+     * 写入终态：摘要不同则忽略；键已丢失（淘汰或故障切换）时按本次结果重建。ARGV: hash, status, ref, json, ttlMillis。
+     */
+    static final RedisScript<Long> FINISH = new DefaultRedisScript<>("""
+            local h = redis.call('HGET', KEYS[1], 'h')
+            if h and h ~= ARGV[1] then return 0 end
+            redis.call('HDEL', KEYS[1], 'r', 'j')
+            redis.call('HSET', KEYS[1], 'h', ARGV[1], 's', ARGV[2])
+            if ARGV[3] ~= '' then redis.call('HSET', KEYS[1], 'r', string.sub(ARGV[3], 2)) end
+            if ARGV[4] ~= '' then redis.call('HSET', KEYS[1], 'j', string.sub(ARGV[4], 2)) end
+            redis.call('PEXPIRE', KEYS[1], ARGV[5])
+            return 1
+            """, Long.class);
+
+    private final RedisOps redisOps;
+    private final RedisKeyBuilder keyBuilder;
+    private final Clock clock;
+
+    @Autowired
+    public RedisIdempotencyFastStore(RedisOps redisOps, RedisKeyBuilder keyBuilder) {
+        this(redisOps, keyBuilder, Clock.systemUTC());
+    }
+
+    public RedisIdempotencyFastStore(RedisOps redisOps, RedisKeyBuilder keyBuilder, Clock clock) {
+        this.redisOps = redisOps;
+        this.keyBuilder = keyBuilder;
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<AcquireResult> lookup(AcquireCommand command) {
+        Optional<IdempotencyRecord> cached = find(command.tenantId(), command.bizType(), command.idemKey());
+        if (cached.isEmpty()) {
+            return Optional.empty();
+        }
+        IdempotencyRecord record = cached.get();
+        if (!command.requestHash().equals(record.requestHash())) {
+            return Optional.of(new AcquireResult(AcquireState.CONFLICT, record));
+        }
+        if (record.status() == IdemStatus.SUCCEEDED) {
+            return Optional.of(new AcquireResult(AcquireState.REPLAY_SUCCEEDED, record));
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(long tenantId, String bizType, String idemKey) {
+        List<?> reply = redisOps.eval(FIND, List.of(key(tenantId, bizType, idemKey)));
+        if (reply == null || reply.size() < 4) {
+            return Optional.empty();
+        }
+        return Optional.of(toRecord(tenantId, bizType, idemKey, String.valueOf(reply.get(0)),
+                fromCode(String.valueOf(reply.get(1))), decode(reply.get(2)), decode(reply.get(3))));
+    }
+
+    @Override
+    public void markSuccess(MarkSuccessCommand command) {
+        finish(command.tenantId(), command.bizType(), command.idemKey(), command.requestHash(), "1",
+                command.resultRef(), command.resultJson(), command.expireAt());
+    }
+
+    @Override
+    public void markFailed(MarkFailedCommand command) {
+        finish(command.tenantId(), command.bizType(), command.idemKey(), command.requestHash(), "2",
+                null, null, command.expireAt());
+    }
+
+    private void finish(long tenantId, String bizType, String idemKey, String hash, String status,
+                        String ref, String json, Instant expireAt) {
+        redisOps.eval(FINISH, List.of(key(tenantId, bizType, idemKey)),
+                hash, status, encode(ref), encode(json), String.valueOf(ttlMillis(expireAt, clock.millis())));
+    }
+
+    private String key(long tenantId, String bizType, String idemKey) {
+        return keyBuilder.buildForGlobal(RedisKeyNamespace.IDEMPOTENT, "tpl", String.valueOf(tenantId), bizType, idemKey);
+    }
+
+    private static long ttlMillis(Instant expireAt, long now) {
+        return Math.max(1, expireAt.toEpochMilli() - now);
+    }
+
+    private static String encode(String value) {
+        return value == null ? "" : "=" + value;
+    }
+
+    private static String decode(Object value) {
+        String text = value == null ? "" : String.valueOf(value);
+        return text.isEmpty() ? null : text.substring(1);
+    }
+
+    private static IdemStatus fromCode(String code) {
+        return switch (code) {
+            case "1" -> IdemStatus.SUCCEEDED;
+            case "2" -> IdemStatus.FAILED;
+            default -> IdemStatus.PROCESSING;
+        };
+    }
+
+    private static IdempotencyRecord toRecord(long tenantId, String bizType, String idemKey, String hash,
+                                              IdemStatus status, String ref, String json) {
+        return new IdempotencyRecord(null, tenantId, bizType, idemKey, hash, status, ref, json,
+                null, null, null, null, 0, null, null);
+    }
+}
@@ -7,6 +7,7 @@ import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -18,6 +19,9 @@ import java.util.concurrent.atomic.AtomicLong;
  * - Counter: outbox_events_retry_total (by retry count)
  * - Gauge: outbox_events_pending_count (pending events in queue)
  * - Timer: outbox_dispatch_duration_seconds (dispatch latency)
+ * - Relay (tagged by table): outbox_relay_claimed_total, outbox_relay_delivered_total,
+ *   outbox_relay_failed_total (dead=true/false), outbox_relay_round_duration_seconds,
+ *   outbox_relay_lag_seconds (created -> delivered)
  */
 @Slf4j
 @Component
@@ -150,4 +154,75 @@ public class OutboxMetrics {
     public void stopDispatchTimer(Timer.Sample sample) {
         sample.stop(dispatchTimer);
     }
+
+    /**
+     * Record messages claimed by the relay in one round
+     */
+    public void recordRelayClaimed(String table, int count) {
+        if (count <= 0) {
+            return;
+        }
+        Counter.builder("outbox_relay_claimed_total")
+                .description("Total number of outbox rows claimed by the relay")
+                .tag("table", table)
+                .register(registry)
+                .increment(count);
+    }
+
+    /**
+     * Record messages delivered by the relay in one round
+     */
+    public void recordRelayDelivered(String table, int count) {
+        if (count <= 0) {
+            return;
+        }
+        Counter.builder("outbox_relay_delivered_total")
+                .description("Total number of outbox rows delivered by the relay")
+                .tag("table", table)
+                .register(registry)
+                .increment(count);
+    }
+
+    /**
+     * Record messages that failed in one round (dead=true when moved to dead letter)
+     */
+    public void recordRelayFailed(String table, boolean dead, int count) {
+        if (count <= 0) {
+            return;
+        }
+        Counter.builder("outbox_relay_failed_total")
+                .description("Total number of outbox rows that failed in the relay")
+                .tag("table", table)
+                .tag("dead", String.valueOf(dead))
+                .register(registry)
+                .increment(count);
+    }
+
+    /**
+     * Record time from row creation to delivery
+     */
+    public void recordRelayLag(String table, Duration lag) {
+        Timer.builder("outbox_relay_lag_seconds")
+                .description("Time from outbox row creation to delivery")
+                .tag("table", table)
+                .register(registry)
+                .record(lag.isNegative() ? Duration.ZERO : lag);
+    }
+
+    /**
+     * Start timing one relay round
+     */
+    public Timer.Sample startRelayTimer() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Stop timing one relay round
+     */
+    public void stopRelayTimer(Timer.Sample sample, String table) {
+        sample.stop(Timer.builder("outbox_relay_round_duration_seconds")
+                .description("Time taken by one relay round (claim, deliver, flush)")
+                .tag("table", table)
+                .register(registry));
+    }
 }
@@ -5,16 +5,19 @@ import com.bluecone.app.core.event.DomainEventPublisher;
 import com.bluecone.app.infra.outbox.core.DefaultEventSerializer;
 import com.bluecone.app.infra.outbox.core.EventConsumptionTracker;
 import com.bluecone.app.infra.outbox.core.EventSerializer;
+import com.bluecone.app.infra.outbox.core.OutboxWakeupBus;
 import com.bluecone.app.infra.outbox.core.RedisEventConsumptionTracker;
 import com.bluecone.app.infra.outbox.core.RetryPolicy;
 import com.bluecone.app.infra.outbox.core.SimpleExponentialBackoffRetryPolicy;
 import com.bluecone.app.infra.outbox.core.TransactionalOutboxEventPublisher;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -44,6 +47,17 @@ public class OutboxConfiguration {
         return tracker;
     }
 
+    /**
+     * 提交后唤醒总线；关闭唤醒或无 Redis 时只保留本地信号。
+     */
+    @Bean
+    @ConditionalOnMissingBean(OutboxWakeupBus.class)
+    public OutboxWakeupBus outboxWakeupBus(final OutboxProperties properties,
+                                           final ObjectProvider<StringRedisTemplate> redisTemplate) {
+        StringRedisTemplate template = properties.isWakeupEnabled() ? redisTemplate.getIfAvailable() : null;
+        return new OutboxWakeupBus(template, properties.getWakeupChannel());
+    }
+
     /**
      * 生产/准生产：事务 Outbox 写库，高可靠异步投递。
      */
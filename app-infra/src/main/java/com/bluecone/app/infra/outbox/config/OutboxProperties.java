@@ -45,6 +45,51 @@ public class OutboxProperties {
      */
     private int consumptionDedupDays = 7;
 
+    /**
+     * 认领租约时长（秒），需大于单批投递的最长耗时。
+     */
+    private long claimLeaseSeconds = 60;
+
+    /**
+     * 单节点并行投递的分区数上限（虚拟线程）。
+     */
+    private int dispatchConcurrency = 16;
+
+    /**
+     * 是否启用提交后唤醒投递（本地信号 + Redis 广播）；关闭时退回 publishCron 定时扫描。
+     */
+    private boolean wakeupEnabled = true;
+
+    /**
+     * 唤醒广播使用的 Redis 频道。
+     */
+    private String wakeupChannel = "bluecone:outbox:wakeup";
+
+    /**
+     * 兜底轮询的最短间隔（毫秒），有消息时回落到该值。
+     */
+    private long pollMinIntervalMillis = 200L;
+
+    /**
+     * 兜底轮询的最长间隔（毫秒），空轮询时按 2 倍退避直至该值。
+     */
+    private long pollMaxIntervalMillis = 10_000L;
+
+    /**
+     * 清理时是否将终态消息搬迁到历史表 bc_outbox_message_history；关闭时直接删除。
+     */
+    private boolean archiveEnabled = true;
+
+    /**
+     * 清理/归档每批处理的行数。
+     */
+    private int cleanBatchSize = 500;
+
+    /**
+     * 归档前保证历史表从当月起至少预建的月度分区数，不足时从 p_max 拆出。
+     */
+    private int archivePartitionMonthsAhead = 3;
+
     public boolean isEnabled() {
         return enabled;
     }
@@ -140,4 +185,76 @@ public class OutboxProperties {
     public void setConsumptionDedupDays(final int consumptionDedupDays) {
         this.consumptionDedupDays = consumptionDedupDays;
     }
+
+    public long getClaimLeaseSeconds() {
+        return claimLeaseSeconds;
+    }
+
+    public void setClaimLeaseSeconds(final long claimLeaseSeconds) {
+        this.claimLeaseSeconds = claimLeaseSeconds;
+    }
+
+    public int getDispatchConcurrency() {
+        return dispatchConcurrency;
+    }
+
+    public void setDispatchConcurrency(final int dispatchConcurrency) {
+        this.dispatchConcurrency = dispatchConcurrency;
+    }
+
+    public boolean isWakeupEnabled() {
+        return wakeupEnabled;
+    }
+
+    public void setWakeupEnabled(final boolean wakeupEnabled) {
+        this.wakeupEnabled = wakeupEnabled;
+    }
+
+    public String getWakeupChannel() {
+        return wakeupChannel;
+    }
+
+    public void setWakeupChannel(final String wakeupChannel) {
+        this.wakeupChannel = wakeupChannel;
+    }
+
+    public long getPollMinIntervalMillis() {
+        return pollMinIntervalMillis;
+    }
+
+    public void setPollMinIntervalMillis(final long pollMinIntervalMillis) {
+        this.pollMinIntervalMillis = pollMinIntervalMillis;
+    }
+
+    public long getPollMaxIntervalMillis() {
+        return pollMaxIntervalMillis;
+    }
+
+    public void setPollMaxIntervalMillis(final long pollMaxIntervalMillis) {
+        this.pollMaxIntervalMillis = pollMaxIntervalMillis;
+    }
+
+    public boolean isArchiveEnabled() {
+        return archiveEnabled;
+    }
+
+    public void setArchiveEnabled(final boolean archiveEnabled) {
+        this.archiveEnabled = archiveEnabled;
+    }
+
+    public int getCleanBatchSize() {
+        return cleanBatchSize;
+    }
+
+    public void setCleanBatchSize(final int cleanBatchSize) {
+        this.cleanBatchSize = cleanBatchSize;
+    }
+
+    public int getArchivePartitionMonthsAhead() {
+        return archivePartitionMonthsAhead;
+    }
+
+    public void setArchivePartitionMonthsAhead(final int archivePartitionMonthsAhead) {
+        this.archivePartitionMonthsAhead = archivePartitionMonthsAhead;
+    }
 }
@@ -0,0 +1,110 @@
+package com.bluecone.app.infra.outbox.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Outbox 提交后唤醒总线：事务提交后立即通知本节点的投递循环，并经 Redis Pub/Sub 广播给其他节点。
+ *
+ * <p>广播在虚拟线程上异步发送，不阻塞提交线程；发送中再有提交只合并为一次广播。
+ * 收到自己发出的广播时忽略（本地已唤醒）。未配置 Redis 时仅做本地唤醒。</p>
+ */
+public class OutboxWakeupBus implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxWakeupBus.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean broadcastPending = new AtomicBoolean();
+    private RedisMessageListenerContainer listenerContainer;
+
+    /**
+     * @param redisTemplate 为 null 时只做本地唤醒
+     * @param channel       广播频道
+     */
+    public OutboxWakeupBus(final StringRedisTemplate redisTemplate, final String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    /**
+     * 注册唤醒回调（通常是投递循环），回调须快速返回。
+     */
+    public void register(final Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Outbox 写入已提交：唤醒本地投递循环并广播给其他节点。
+     */
+    public void notifyCommitted() {
+        fireLocal();
+        if (redisTemplate == null || !broadcastPending.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("outbox-wakeup-broadcast").start(this::broadcast);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (redisTemplate == null || redisTemplate.getConnectionFactory() == null) {
+            log.info("[OutboxWakeup] redis not available, local wakeup only");
+            return;
+        }
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisTemplate.getConnectionFactory());
+        listenerContainer.addMessageListener(this::onMessage, new ChannelTopic(channel));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+        log.info("[OutboxWakeup] redis listener started on channel={}", channel);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
+    private void broadcast() {
+        broadcastPending.set(false);
+        try {
+            redisTemplate.convertAndSend(channel, instanceId);
+        } catch (RuntimeException ex) {
+            // 广播失败不影响正确性，其他节点由兜底轮询拾取
+            log.warn("[OutboxWakeup] broadcast failed channel={} message={}", channel, ex.getMessage());
+        }
+    }
+
+    private void onMessage(final Message message, final byte[] pattern) {
+        String sender = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (instanceId.equals(sender)) {
+            return;
+        }
+        fireLocal();
+    }
+
+    private void fireLocal() {
+        for (Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException ex) {
+                log.warn("[OutboxWakeup] listener failed message={}", ex.getMessage());
+            }
+        }
+    }
+}
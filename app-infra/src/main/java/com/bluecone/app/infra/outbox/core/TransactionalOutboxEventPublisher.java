@@ -11,10 +11,13 @@ import com.bluecone.app.infra.outbox.core.EventSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Map;
 import java.util.Objects;
@@ -24,6 +27,9 @@ import java.util.Objects;
  *
 + * <p>业务侧只依赖 {@link DomainEventPublisher}，无需感知 Outbox/重试/投递细节。
  * 数据提交后由调度器异步分发，实现高可靠事件发布。</p>
+ *
+ * <p>配置了 {@link OutboxWakeupBus} 时在事务提交后发出唤醒信号，投递循环立即拾取新行，
+ * 无需等待下一次轮询。</p>
  */
 @Component
 @Primary
@@ -34,11 +40,20 @@ public class TransactionalOutboxEventPublisher implements DomainEventPublisher {
 
     private final OutboxStoreService outboxStoreService;
     private final EventSerializer eventSerializer;
+    private final OutboxWakeupBus wakeupBus;
 
     public TransactionalOutboxEventPublisher(final OutboxStoreService outboxStoreService,
                                              final EventSerializer eventSerializer) {
+        this(outboxStoreService, eventSerializer, null);
+    }
+
+    @Autowired
+    public TransactionalOutboxEventPublisher(final OutboxStoreService outboxStoreService,
+                                             final EventSerializer eventSerializer,
+                                             final OutboxWakeupBus wakeupBus) {
         this.outboxStoreService = outboxStoreService;
         this.eventSerializer = eventSerializer;
+        this.wakeupBus = wakeupBus;
     }
 
     @Override
@@ -53,6 +68,35 @@ public class TransactionalOutboxEventPublisher implements DomainEventPublisher {
         OutboxMessageEntity entity = outboxStoreService.persist(event, payload, headers);
         log.info("[OutboxTx] staged eventType={} eventId={} eventKey={} tenantId={}",
                 event.getEventType(), event.getEventId(), entity.getEventKey(), entity.getTenantId());
+        signalAfterCommit();
+    }
+
+    /**
+     * 事务提交后唤醒投递；同一事务内多次发布只注册一次回调。
+     */
+    private void signalAfterCommit() {
+        if (wakeupBus == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            wakeupBus.notifyCommitted();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(wakeupBus)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(wakeupBus, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                wakeupBus.notifyCommitted();
+            }
+
+            @Override
+            public void afterCompletion(final int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(wakeupBus);
+            }
+        });
     }
 
     private Map<String, String> buildHeaders(final DomainEvent event) {
@@ -36,6 +36,16 @@ public class OutboxMessageEntity {
 
     private LocalDateTime nextRetryAt;
 
+    /**
+     * 认领令牌，非空表示已被某个节点的某一轮投递认领。
+     */
+    private String lockOwner;
+
+    /**
+     * 认领租约到期时间，过期后允许其他节点重新认领。
+     */
+    private LocalDateTime leaseUntil;
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
@@ -112,6 +122,22 @@ public class OutboxMessageEntity {
         this.nextRetryAt = nextRetryAt;
     }
 
+    public String getLockOwner() {
+        return lockOwner;
+    }
+
+    public void setLockOwner(final String lockOwner) {
+        this.lockOwner = lockOwner;
+    }
+
+    public LocalDateTime getLeaseUntil() {
+        return leaseUntil;
+    }
+
+    public void setLeaseUntil(final LocalDateTime leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
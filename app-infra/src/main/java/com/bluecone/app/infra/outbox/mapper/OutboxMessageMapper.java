@@ -1,13 +1,46 @@
-// File: app-infra/src/main/java/com/bluecone/app/infra/outbox/mapper/OutboxMessageMapper.java
 package com.bluecone.app.infra.outbox.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.bluecone.app.infra.outbox.entity.OutboxMessageEntity;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
 
 /**
  * MyBatis-Plus Mapper，用于 Outbox 表的 CRUD。
  */
 @Mapper
 public interface OutboxMessageMapper extends BaseMapper<OutboxMessageEntity> {
+
+    /**
+     * 将指定消息整行复制到历史表（bc_outbox_message_history）。不忽略冲突：搬迁与删除同事务，
+     * 主键冲突说明出现了重复归档，应让本批回滚而不是静默吞掉（INSERT IGNORE 还会吞掉分区缺失等错误）。
+     */
+    @Insert("<script>" +
+            "INSERT INTO bc_outbox_message_history " +
+            "(id, event_type, event_key, payload, headers, tenant_id, status, retry_count, created_at, updated_at, archived_at) " +
+            "SELECT id, event_type, event_key, payload, headers, tenant_id, status, retry_count, created_at, updated_at, NOW() " +
+            "FROM bc_outbox_message WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int copyToHistory(@Param("ids") List<Long> ids);
+
+    /**
+     * 历史表当前的分区名。
+     */
+    @Select("SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'bc_outbox_message_history' " +
+            "AND PARTITION_NAME IS NOT NULL ORDER BY PARTITION_ORDINAL_POSITION")
+    List<String> listHistoryPartitions();
+
+    /**
+     * 从 p_max 中拆出新的月度分区；partitions 为内部生成的分区定义列表，不接受外部输入。
+     */
+    @Update("ALTER TABLE bc_outbox_message_history REORGANIZE PARTITION p_max INTO " +
+            "(${partitions}, PARTITION p_max VALUES LESS THAN (MAXVALUE))")
+    void addHistoryPartitions(@Param("partitions") String partitions);
 }
@@ -0,0 +1,216 @@
+package com.bluecone.app.infra.outbox.relay;
+
+import com.bluecone.app.core.event.DomainEvent;
+import com.bluecone.app.core.event.EventHandler;
+import com.bluecone.app.infra.outbox.core.EventConsumptionTracker;
+import com.bluecone.app.infra.outbox.core.EventSerializer;
+import com.bluecone.app.infra.outbox.core.OutboxMetricsRecorder;
+import com.bluecone.app.infra.outbox.core.RetryPolicy;
+import com.bluecone.app.infra.outbox.entity.OutboxMessageEntity;
+import com.bluecone.app.infra.outbox.entity.OutboxMessageStatus;
+import com.bluecone.app.infra.outbox.repository.OutboxMessageRepository;
+import com.bluecone.app.infra.outbox.router.OutboxEventRouter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code bc_outbox_message} 适配器：反序列化领域事件后经 {@link OutboxEventRouter} 投递给应用内处理器。
+ *
+ * <p>不持久化中间状态（如 PUBLISHED/PROCESSING），进程在投递与回写之间崩溃时消息在租约到期后重投，
+ * 由 {@link EventConsumptionTracker} 去重。</p>
+ */
+@Component
+public class OutboxMessageTableAdapter implements OutboxTableAdapter<OutboxMessageEntity> {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxMessageTableAdapter.class);
+    private static final String HEADER_AGGREGATE_TYPE = "aggregateType";
+    private static final String HEADER_AGGREGATE_ID = "aggregateId";
+    private static final List<OutboxMessageStatus> DUE_STATUSES =
+            List.of(OutboxMessageStatus.NEW, OutboxMessageStatus.FAILED);
+
+    private final OutboxMessageRepository repository;
+    private final EventSerializer serializer;
+    private final OutboxEventRouter router;
+    private final RetryPolicy retryPolicy;
+    private final ObjectMapper objectMapper;
+    private final EventConsumptionTracker consumptionTracker;
+    private final OutboxMetricsRecorder metricsRecorder;
+
+    public OutboxMessageTableAdapter(final OutboxMessageRepository repository,
+                                     final EventSerializer serializer,
+                                     final OutboxEventRouter router,
+                                     final RetryPolicy retryPolicy,
+                                     final ObjectMapper objectMapper,
+                                     final EventConsumptionTracker consumptionTracker,
+                                     final OutboxMetricsRecorder metricsRecorder) {
+        this.repository = repository;
+        this.serializer = serializer;
+        this.router = router;
+        this.retryPolicy = retryPolicy;
+        this.objectMapper = objectMapper;
+        this.consumptionTracker = consumptionTracker;
+        this.metricsRecorder = metricsRecorder;
+    }
+
+    @Override
+    public String table() {
+        return "bc_outbox_message";
+    }
+
+    @Override
+    public int claim(final LocalDateTime now, final String lockOwner, final LocalDateTime leaseUntil, final int limit) {
+        return repository.claimDueMessages(DUE_STATUSES, now, lockOwner, leaseUntil, limit);
+    }
+
+    @Override
+    public List<OutboxMessageEntity> findClaimed(final String lockOwner) {
+        return repository.findClaimed(lockOwner);
+    }
+
+    @Override
+    public Long id(final OutboxMessageEntity message) {
+        return message.getId();
+    }
+
+    /**
+     * 按 headers 中的聚合类型与聚合 ID 分区，同一聚合的事件串行投递；
+     * event_key 唯一（默认即事件 ID），不能作为分区键。缺少聚合信息的消息单独成区。
+     */
+    @Override
+    public String partitionKey(final OutboxMessageEntity message) {
+        Map<String, String> headers;
+        try {
+            headers = deserializeHeaders(message);
+        } catch (IllegalStateException ex) {
+            return null;
+        }
+        String aggregateType = headers.get(HEADER_AGGREGATE_TYPE);
+        String aggregateId = headers.get(HEADER_AGGREGATE_ID);
+        if (aggregateType == null || aggregateId == null) {
+            return null;
+        }
+        return aggregateType + ":" + aggregateId;
+    }
+
+    @Override
+    public int retryCount(final OutboxMessageEntity message) {
+        return message.getRetryCount() == null ? 0 : message.getRetryCount();
+    }
+
+    @Override
+    public LocalDateTime createdAt(final OutboxMessageEntity message) {
+        return message.getCreatedAt();
+    }
+
+    @Override
+    public void deliver(final OutboxMessageEntity message) {
+        Map<String, String> headers = deserializeHeaders(message);
+        DomainEvent event = serializer.deserialize(message.getPayload(), headers);
+
+        String traceId = headers.get("traceId");
+        if (traceId != null) {
+            MDC.put("traceId", traceId);
+        }
+        try {
+            for (EventHandler<?> handler : router.route(event)) {
+                if (consumptionTracker != null) {
+                    boolean first = consumptionTracker.tryMarkProcessing(handler.getClass().getSimpleName(), event.getEventId());
+                    if (!first) {
+                        continue;
+                    }
+                }
+                invokeHandler(handler, event);
+            }
+            log.info("[Outbox] delivered eventType={} eventKey={} outboxId={}", message.getEventType(), message.getEventKey(), message.getId());
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    @Override
+    public boolean shouldGiveUp(final OutboxMessageEntity message, final int nextRetry, final Exception error) {
+        return retryPolicy.shouldGiveUp(nextRetry, error);
+    }
+
+    @Override
+    public Duration nextDelay(final int retryCount) {
+        return retryPolicy.nextDelay(retryCount);
+    }
+
+    @Override
+    public int markDone(final List<Long> ids, final String lockOwner) {
+        return repository.markDoneBatch(ids, lockOwner);
+    }
+
+    /**
+     * bc_outbox_message 没有错误列，错误详情由 onFailed 的日志与死信回调记录。
+     */
+    @Override
+    public boolean recordsLastError() {
+        return false;
+    }
+
+    @Override
+    public int markFailed(final List<Long> ids, final String lockOwner, final int retryCount,
+                          final LocalDateTime nextRetryAt, final boolean dead, final String lastError) {
+        return repository.markFailedBatch(ids, lockOwner, retryCount, nextRetryAt, dead);
+    }
+
+    @Override
+    public int defer(final List<Long> ids, final String lockOwner, final LocalDateTime notBefore) {
+        return repository.deferBatch(ids, lockOwner, notBefore);
+    }
+
+    @Override
+    public int renewLease(final String lockOwner, final LocalDateTime leaseUntil) {
+        return repository.renewLease(lockOwner, leaseUntil);
+    }
+
+    @Override
+    public void onDelivered(final OutboxMessageEntity message) {
+        message.setStatus(OutboxMessageStatus.DONE);
+        message.setNextRetryAt(null);
+        message.setLockOwner(null);
+        message.setLeaseUntil(null);
+        metricsRecorder.onPublishedSuccess(message);
+    }
+
+    @Override
+    public void onFailed(final OutboxMessageEntity message, final Exception error, final int retryCount,
+                         final LocalDateTime nextRetryAt, final boolean dead) {
+        message.setRetryCount(retryCount);
+        message.setNextRetryAt(nextRetryAt);
+        message.setStatus(dead ? OutboxMessageStatus.DEAD : OutboxMessageStatus.FAILED);
+        message.setLockOwner(null);
+        message.setLeaseUntil(null);
+        if (dead) {
+            metricsRecorder.onDeadLetter(message, error);
+        } else {
+            metricsRecorder.onPublishedFailure(message, error);
+        }
+    }
+
+    private Map<String, String> deserializeHeaders(final OutboxMessageEntity message) {
+        try {
+            return objectMapper.readValue(message.getHeaders(), new TypeReference<Map<String, String>>() {
+            });
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to deserialize outbox headers for id=" + message.getId(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E extends DomainEvent> void invokeHandler(final EventHandler<?> handler, final DomainEvent event) {
+        EventHandler<E> typed = (EventHandler<E>) handler;
+        typed.handle((E) event);
+    }
+}
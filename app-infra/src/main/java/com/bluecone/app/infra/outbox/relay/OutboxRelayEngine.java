@@ -0,0 +1,390 @@
+package com.bluecone.app.infra.outbox.relay;
+
+import com.bluecone.app.infra.observability.metrics.OutboxMetrics;
+import com.bluecone.app.infra.outbox.config.OutboxProperties;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 统一的 Outbox 中继引擎：所有 Outbox 表由同一个扫描入口按轮次依次认领、投递、回写。
+ *
+ * <p>每张表每轮先以“实例 ID + 轮次”为令牌原子认领一批到期消息（带租约），只处理自己认领到的行；
+ * 认领的消息按分区键分区，分区之间在虚拟线程上并行投递，同一分区内按到期顺序串行，
+ * 所有表共享 {@code bluecone.outbox.dispatch-concurrency} 个并行分区。支持批量投递的表改为按波次投递：
+ * 每波取各分区的下一条消息整体交给适配器，由消费端在一个事务里批量去重、处理与记账。</p>
+ *
+ * <p>分区内某条消息失败后，该分区本轮停止投递，其后的消息不计重试、推迟到失败消息的下次重试时间再认领。
+ * 投递期间按租约的三分之一周期续租，长轮次不会被其他节点重复认领。</p>
+ *
+ * <p>顺序是尽力而为：只在一次认领的批次内成立。认领按 {@code next_retry_at, id} 逐行取，不看分区键，
+ * 多个节点同时认领可能把同一聚合的消息分到不同批次并行投递；前序消息失败等待重试期间，
+ * 之后新写入的同聚合消息也会被正常认领投递。严格有序的消费方须自行按版本号或事件时间判断。</p>
+ *
+ * <p>投递结果先在内存中汇总，整批结束后一次性回写：成功的按 {@code id IN (...)} 一条 UPDATE，
+ * 失败的按（重试次数, 是否死信）分组各一条 UPDATE。回写前进程崩溃时消息会在租约到期后重投，
+ * 由消费端去重。</p>
+ */
+@Component
+public class OutboxRelayEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelayEngine.class);
+    /**
+     * 单条批量 UPDATE 的 IN 列表上限。
+     */
+    private static final int STATUS_UPDATE_CHUNK = 500;
+    private static final int ERROR_SUMMARY_MAX_LENGTH = 512;
+
+    private final List<OutboxTableAdapter<?>> adapters;
+    private final OutboxProperties properties;
+    private final OutboxMetrics metrics;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong claimSequence = new AtomicLong();
+    private final ExecutorService dispatchExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("outbox-dispatch-", 0).factory());
+    private final ScheduledExecutorService leaseRenewer =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("outbox-lease-renew-", 0).factory());
+    private final Semaphore permits;
+
+    public OutboxRelayEngine(final List<OutboxTableAdapter<?>> adapters,
+                             final OutboxProperties properties,
+                             final OutboxMetrics metrics) {
+        this.adapters = List.copyOf(adapters);
+        this.properties = properties;
+        this.metrics = metrics;
+        this.permits = new Semaphore(Math.max(1, properties.getDispatchConcurrency()));
+    }
+
+    /**
+     * 依次中继所有已注册的 Outbox 表；某张表失败不影响其他表，全部执行后再抛出首个异常。
+     *
+     * @return 各表本轮认领数的最大值，等于批大小说明仍有积压
+     */
+    public int relayAll() {
+        int maxClaimed = 0;
+        RuntimeException firstError = null;
+        for (OutboxTableAdapter<?> adapter : adapters) {
+            try {
+                maxClaimed = Math.max(maxClaimed, relay(adapter));
+            } catch (RuntimeException ex) {
+                log.error("[OutboxRelay] relay failed table={}", adapter.table(), ex);
+                if (firstError == null) {
+                    firstError = ex;
+                }
+            }
+        }
+        if (firstError != null) {
+            throw firstError;
+        }
+        return maxClaimed;
+    }
+
+    /**
+     * 认领并投递指定表的一批到期消息。
+     *
+     * @return 本轮认领到的消息数
+     */
+    public <M> int relay(final OutboxTableAdapter<M> adapter) {
+        String lockOwner = instanceId + ":" + claimSequence.incrementAndGet();
+        LocalDateTime now = LocalDateTime.now();
+        int claimed = adapter.claim(now, lockOwner, now.plusSeconds(properties.getClaimLeaseSeconds()),
+                properties.getDispatchBatchSize());
+        if (claimed <= 0) {
+            return 0;
+        }
+        Timer.Sample sample = metrics.startRelayTimer();
+        List<M> due = adapter.findClaimed(lockOwner);
+        metrics.recordRelayClaimed(adapter.table(), due.size());
+        log.debug("[OutboxRelay] claimed {} messages table={} lockOwner={}", due.size(), adapter.table(), lockOwner);
+
+        Map<String, List<M>> partitions = partition(adapter, due);
+        BatchOutcome<M> outcome = new BatchOutcome<>();
+        ScheduledFuture<?> renewal = scheduleLeaseRenewal(adapter, lockOwner);
+        try {
+            deliver(adapter, partitions, outcome);
+        } finally {
+            renewal.cancel(false);
+        }
+        flush(adapter, lockOwner, outcome);
+        metrics.stopRelayTimer(sample, adapter.table());
+        return due.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatchExecutor.shutdownNow();
+        leaseRenewer.shutdownNow();
+    }
+
+    private <M> void deliver(final OutboxTableAdapter<M> adapter,
+                             final Map<String, List<M>> partitions,
+                             final BatchOutcome<M> outcome) {
+        if (adapter.supportsBatchDelivery()) {
+            deliverInWaves(adapter, partitions, outcome);
+        } else if (partitions.size() == 1 || properties.getDispatchConcurrency() <= 1) {
+            partitions.values().forEach(partition -> deliverPartition(adapter, partition, outcome));
+        } else {
+            List<Future<?>> futures = new ArrayList<>(partitions.size());
+            for (List<M> partition : partitions.values()) {
+                permits.acquireUninterruptibly();
+                futures.add(dispatchExecutor.submit(() -> {
+                    try {
+                        deliverPartition(adapter, partition, outcome);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            awaitAll(futures);
+        }
+    }
+
+    /**
+     * 按租约的三分之一周期续租本轮令牌持有的行；续租失败只记录日志，租约到期后由其他节点重投并去重。
+     */
+    private <M> ScheduledFuture<?> scheduleLeaseRenewal(final OutboxTableAdapter<M> adapter, final String lockOwner) {
+        long leaseSeconds = Math.max(1L, properties.getClaimLeaseSeconds());
+        long periodMillis = Math.max(1L, TimeUnit.SECONDS.toMillis(leaseSeconds) / 3);
+        return leaseRenewer.scheduleAtFixedRate(() -> {
+            try {
+                int renewed = adapter.renewLease(lockOwner, LocalDateTime.now().plusSeconds(leaseSeconds));
+                log.debug("[OutboxRelay] lease renewed table={} lockOwner={} rows={}", adapter.table(), lockOwner, renewed);
+            } catch (RuntimeException ex) {
+                log.warn("[OutboxRelay] lease renewal failed table={} lockOwner={} message={}",
+                        adapter.table(), lockOwner, ex.getMessage());
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 按分区键分区，保持认领顺序；缺少分区键的消息各自成区。
+     */
+    private <M> Map<String, List<M>> partition(final OutboxTableAdapter<M> adapter, final List<M> messages) {
+        Map<String, List<M>> partitions = new LinkedHashMap<>();
+        for (M message : messages) {
+            String key = adapter.partitionKey(message);
+            partitions.computeIfAbsent(key != null ? key : "#" + adapter.id(message), k -> new ArrayList<>())
+                    .add(message);
+        }
+        return partitions;
+    }
+
+    private <M> void deliverPartition(final OutboxTableAdapter<M> adapter,
+                                      final List<M> partition,
+                                      final BatchOutcome<M> outcome) {
+        for (int i = 0; i < partition.size(); i++) {
+            M message = partition.get(i);
+            try {
+                adapter.deliver(message);
+                outcome.done.add(message);
+            } catch (Exception ex) {
+                Failure<M> failure = recordFailure(adapter, message, ex, outcome);
+                deferRest(partition, i + 1, failure, outcome);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 批量投递：第 k 波由各分区的第 k 条消息组成，波次串行执行，分区内顺序与逐条投递一致；
+     * 分区在某一波失败后不再参与后续波次。
+     */
+    private <M> void deliverInWaves(final OutboxTableAdapter<M> adapter,
+                                    final Map<String, List<M>> partitions,
+                                    final BatchOutcome<M> outcome) {
+        Set<List<M>> blocked = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int wave = 0; ; wave++) {
+            List<M> batch = new ArrayList<>();
+            List<List<M>> sources = new ArrayList<>();
+            for (List<M> partition : partitions.values()) {
+                if (wave < partition.size() && !blocked.contains(partition)) {
+                    batch.add(partition.get(wave));
+                    sources.add(partition);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            Map<Long, Exception> failures;
+            try {
+                failures = adapter.deliverBatch(batch);
+            } catch (RuntimeException ex) {
+                failures = new LinkedHashMap<>();
+                for (M message : batch) {
+                    failures.put(adapter.id(message), ex);
+                }
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                M message = batch.get(i);
+                Exception error = failures.get(adapter.id(message));
+                if (error == null) {
+                    outcome.done.add(message);
+                } else {
+                    Failure<M> failure = recordFailure(adapter, message, error, outcome);
+                    blocked.add(sources.get(i));
+                    deferRest(sources.get(i), wave + 1, failure, outcome);
+                }
+            }
+        }
+    }
+
+    private <M> Failure<M> recordFailure(final OutboxTableAdapter<M> adapter, final M message,
+                                         final Exception ex, final BatchOutcome<M> outcome) {
+        int nextRetry = adapter.retryCount(message) + 1;
+        boolean dead = adapter.shouldGiveUp(message, nextRetry, ex);
+        Failure<M> failure = new Failure<>(message, ex, nextRetry, dead);
+        outcome.failed.add(failure);
+        log.error("[OutboxRelay] dispatch failed table={} id={} retry={} dead={}",
+                adapter.table(), adapter.id(message), nextRetry, dead, ex);
+        return failure;
+    }
+
+    /**
+     * 分区从 from 起的剩余消息本轮不投递，挂到阻塞它们的失败消息上，回写时推迟到同一时间再认领。
+     */
+    private <M> void deferRest(final List<M> partition, final int from, final Failure<M> blocker,
+                               final BatchOutcome<M> outcome) {
+        for (int i = from; i < partition.size(); i++) {
+            outcome.deferred.add(new Deferred<>(partition.get(i), blocker));
+        }
+    }
+
+    private void awaitAll(final List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.error("[OutboxRelay] dispatch partition failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * 整批回写投递结果：成功的按 ID 分块一次 UPDATE，失败的按（重试次数, 是否死信）分组各一次 UPDATE。
+     * ID 排序后再更新，多节点并发回写时加锁顺序一致。
+     */
+    private <M> void flush(final OutboxTableAdapter<M> adapter, final String lockOwner, final BatchOutcome<M> outcome) {
+        String table = adapter.table();
+        List<M> done = new ArrayList<>(outcome.done);
+        List<Long> doneIds = done.stream().map(adapter::id).sorted().toList();
+        for (List<Long> chunk : chunkIds(doneIds)) {
+            adapter.markDone(chunk, lockOwner);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (M message : done) {
+            adapter.onDelivered(message);
+            LocalDateTime createdAt = adapter.createdAt(message);
+            if (createdAt != null) {
+                metrics.recordRelayLag(table, Duration.between(createdAt, now));
+            }
+        }
+        metrics.recordRelayDelivered(table, done.size());
+
+        Map<FailureGroup, List<Failure<M>>> groups = new TreeMap<>();
+        for (Failure<M> failure : outcome.failed) {
+            // 有错误列的表按错误摘要再分组，保证每行记录的是自己的错误；同类错误通常集中，分组数仍远小于行数
+            String lastError = adapter.recordsLastError() ? summarize(failure.error()) : "";
+            groups.computeIfAbsent(new FailureGroup(failure.retryCount(), failure.dead(), lastError),
+                    k -> new ArrayList<>()).add(failure);
+        }
+        for (Map.Entry<FailureGroup, List<Failure<M>>> entry : groups.entrySet()) {
+            FailureGroup group = entry.getKey();
+            List<Failure<M>> failures = entry.getValue();
+            LocalDateTime nextRetryAt = group.dead() ? null : now.plus(adapter.nextDelay(group.retryCount()));
+            List<Long> ids = failures.stream().map(f -> adapter.id(f.message())).sorted().toList();
+            for (List<Long> chunk : chunkIds(ids)) {
+                adapter.markFailed(chunk, lockOwner, group.retryCount(), nextRetryAt, group.dead(), group.lastError());
+            }
+            for (Failure<M> failure : failures) {
+                adapter.onFailed(failure.message(), failure.error(), group.retryCount(), nextRetryAt, group.dead());
+            }
+            metrics.recordRelayFailed(table, group.dead(), failures.size());
+        }
+
+        // 被阻塞的消息与阻塞它的失败消息同时到期；失败消息转死信时不再阻塞，立即可认领
+        Map<LocalDateTime, List<Long>> deferred = new TreeMap<>();
+        for (Deferred<M> item : outcome.deferred) {
+            Failure<M> blocker = item.blocker();
+            LocalDateTime notBefore = blocker.dead() ? now : now.plus(adapter.nextDelay(blocker.retryCount()));
+            deferred.computeIfAbsent(notBefore, k -> new ArrayList<>()).add(adapter.id(item.message()));
+        }
+        for (Map.Entry<LocalDateTime, List<Long>> entry : deferred.entrySet()) {
+            List<Long> ids = entry.getValue().stream().sorted().toList();
+            for (List<Long> chunk : chunkIds(ids)) {
+                adapter.defer(chunk, lockOwner, entry.getKey());
+            }
+        }
+        if (!outcome.deferred.isEmpty()) {
+            log.debug("[OutboxRelay] deferred {} messages behind failed partitions table={}", outcome.deferred.size(), table);
+        }
+    }
+
+    private static String summarize(final Exception error) {
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        return message.length() > ERROR_SUMMARY_MAX_LENGTH ? message.substring(0, ERROR_SUMMARY_MAX_LENGTH) : message;
+    }
+
+    private static List<List<Long>> chunkIds(final List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += STATUS_UPDATE_CHUNK) {
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + STATUS_UPDATE_CHUNK)));
+        }
+        return chunks;
+    }
+
+    /**
+     * 单轮投递结果，分区线程并发写入。
+     */
+    private static final class BatchOutcome<M> {
+        private final Queue<M> done = new ConcurrentLinkedQueue<>();
+        private final Queue<Failure<M>> failed = new ConcurrentLinkedQueue<>();
+        private final Queue<Deferred<M>> deferred = new ConcurrentLinkedQueue<>();
+    }
+
+    private record Failure<M>(M message, Exception error, int retryCount, boolean dead) {
+    }
+
+    private record Deferred<M>(M message, Failure<M> blocker) {
+    }
+
+    private record FailureGroup(int retryCount, boolean dead, String lastError) implements Comparable<FailureGroup> {
+        @Override
+        public int compareTo(final FailureGroup other) {
+            int byRetry = Integer.compare(retryCount, other.retryCount);
+            if (byRetry != 0) {
+                return byRetry;
+            }
+            int byDead = Boolean.compare(dead, other.dead);
+            return byDead != 0 ? byDead : lastError.compareTo(other.lastError);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.bluecone.app.infra.outbox.relay;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outbox 表适配器：{@link OutboxRelayEngine} 通过它认领、投递并回写某一张 Outbox 表的消息。
+ *
+ * <p>引擎负责认领令牌、分区并行、失败分组与批量回写，适配器只描述“这张表怎么读写、消息怎么投递”。
+ * 实现须保证 {@link #claim} 是原子的（单条 UPDATE 写令牌与租约），回写时只更新令牌仍属于自己的行。</p>
+ *
+ * @param <M> 行对象类型
+ */
+public interface OutboxTableAdapter<M> {
+
+    /**
+     * 表名，用作日志与指标标签。
+     */
+    String table();
+
+    /**
+     * 原子认领一批到期消息，写上令牌与租约。
+     *
+     * @return 本轮认领到的行数
+     */
+    int claim(LocalDateTime now, String lockOwner, LocalDateTime leaseUntil, int limit);
+
+    /**
+     * 按令牌取回本轮认领的消息，须按到期顺序排序。
+     */
+    List<M> findClaimed(String lockOwner);
+
+    Long id(M message);
+
+    /**
+     * 分区键：本轮认领批次内同一分区串行投递、保持顺序，通常取聚合类型与聚合 ID；返回 null 时该消息单独成区。
+     * 跨批次、跨节点不保证顺序，见 {@link OutboxRelayEngine}。
+     */
+    String partitionKey(M message);
+
+    int retryCount(M message);
+
+    /**
+     * 消息创建时间，用于投递延迟指标；未知时返回 null。
+     */
+    default LocalDateTime createdAt(M message) {
+        return null;
+    }
+
+    /**
+     * 投递单条消息，抛出异常即视为失败。
+     */
+    void deliver(M message) throws Exception;
+
+    /**
+     * 是否支持批量投递；支持时引擎按“波次”调用 {@link #deliverBatch}，
+     * 每波取各分区的下一条消息，分区内顺序不变。
+     */
+    default boolean supportsBatchDelivery() {
+        return false;
+    }
+
+    /**
+     * 表中是否有错误列；有时失败回写按错误摘要分组，每行写入自己的错误，否则不拆分回写。
+     */
+    default boolean recordsLastError() {
+        return true;
+    }
+
+    /**
+     * 批量投递一波消息，同一波内没有同分区的两条消息。
+     *
+     * @return 失败消息的 ID 与异常，未包含的视为成功
+     */
+    default Map<Long, Exception> deliverBatch(List<M> messages) {
+        Map<Long, Exception> failures = new LinkedHashMap<>();
+        for (M message : messages) {
+            try {
+                deliver(message);
+            } catch (Exception ex) {
+                failures.put(id(message), ex);
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * 第 nextRetry 次失败后是否转为死信。
+     */
+    boolean shouldGiveUp(M message, int nextRetry, Exception error);
+
+    /**
+     * 第 retryCount 次失败后的重试间隔。
+     */
+    Duration nextDelay(int retryCount);
+
+    /**
+     * 批量标记投递成功并释放租约。
+     *
+     * @return 实际更新的行数
+     */
+    int markDone(List<Long> ids, String lockOwner);
+
+    /**
+     * 批量标记投递失败并释放租约，同组消息的重试次数、下次重试时间、死信标记与错误摘要都相同。
+     *
+     * @param lastError 组内每条消息共同的错误摘要；{@link #recordsLastError()} 为 false 时为空串
+     * @return 实际更新的行数
+     */
+    int markFailed(List<Long> ids, String lockOwner, int retryCount, LocalDateTime nextRetryAt,
+                   boolean dead, String lastError);
+
+    /**
+     * 释放租约但不计重试：同分区前序消息失败时，其后的消息推迟到 notBefore 再被认领。
+     *
+     * @return 实际更新的行数
+     */
+    int defer(List<Long> ids, String lockOwner, LocalDateTime notBefore);
+
+    /**
+     * 延长令牌仍属于自己的行的租约，长轮次投递期间由引擎周期调用。
+     *
+     * @return 实际更新的行数
+     */
+    int renewLease(String lockOwner, LocalDateTime leaseUntil);
+
+    /**
+     * 回写成功后的回调，用于同步内存状态或业务指标。
+     */
+    default void onDelivered(M message) {
+    }
+
+    /**
+     * 回写失败后的回调。
+     */
+    default void onFailed(M message, Exception error, int retryCount, LocalDateTime nextRetryAt, boolean dead) {
+    }
+}
@@ -8,9 +8,15 @@ import com.bluecone.app.infra.outbox.entity.OutboxMessageEntity;
 import com.bluecone.app.infra.outbox.entity.OutboxMessageStatus;
 import com.bluecone.app.infra.outbox.mapper.OutboxMessageMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 
@@ -20,6 +26,8 @@ import java.util.Objects;
 @Repository
 public class OutboxMessageRepository {
 
+    private static final DateTimeFormatter HISTORY_PARTITION_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
     private final OutboxMessageMapper mapper;
 
     public OutboxMessageRepository(final OutboxMessageMapper mapper) {
@@ -45,37 +53,209 @@ public class OutboxMessageRepository {
         return mapper.selectList(wrapper);
     }
 
-    public boolean markDone(final Long id) {
+    /**
+     * 原子认领一批到期消息：单条 UPDATE 将未被认领或租约已过期的行写上本轮令牌与租约。
+     *
+     * <p>UPDATE 走当前读，并发节点在同一行上排队后会重新判断租约条件，因此同一行只会被一个令牌认领。
+     * 认领结果通过 {@link #findClaimed(String)} 按令牌取回。</p>
+     *
+     * <p>认领不看 event_key：同一 key 的消息可能被不同节点分批认领，也可能越过等待重试的前序消息，顺序只在批次内成立。</p>
+     *
+     * @return 本轮认领到的行数
+     */
+    public int claimDueMessages(final List<OutboxMessageStatus> statuses,
+                                final LocalDateTime now,
+                                final String lockOwner,
+                                final LocalDateTime leaseUntil,
+                                final int limit) {
+        LambdaUpdateWrapper<OutboxMessageEntity> wrapper = new LambdaUpdateWrapper<>();
+        wrapper.in(OutboxMessageEntity::getStatus, statuses)
+                .and(w -> w.isNull(OutboxMessageEntity::getNextRetryAt)
+                        .or()
+                        .le(OutboxMessageEntity::getNextRetryAt, now))
+                .and(w -> w.isNull(OutboxMessageEntity::getLeaseUntil)
+                        .or()
+                        .lt(OutboxMessageEntity::getLeaseUntil, now))
+                .set(OutboxMessageEntity::getLockOwner, lockOwner)
+                .set(OutboxMessageEntity::getLeaseUntil, leaseUntil)
+                .last("order by next_retry_at, id limit " + limit);
+        return mapper.update(null, wrapper);
+    }
+
+    /**
+     * 按认领令牌取回本轮认领的消息，按到期时间与 ID 排序。
+     */
+    public List<OutboxMessageEntity> findClaimed(final String lockOwner) {
+        LambdaQueryWrapper<OutboxMessageEntity> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(OutboxMessageEntity::getLockOwner, lockOwner)
+                .orderByAsc(OutboxMessageEntity::getNextRetryAt)
+                .orderByAsc(OutboxMessageEntity::getId);
+        return mapper.selectList(wrapper);
+    }
+
+    /**
+     * 标记投递成功并释放租约；lockOwner 非空时仅在令牌仍属于自己时生效。
+     */
+    public boolean markDone(final Long id, final String lockOwner) {
         LambdaUpdateWrapper<OutboxMessageEntity> wrapper = new LambdaUpdateWrapper<>();
         wrapper.eq(OutboxMessageEntity::getId, id)
+                .eq(lockOwner != null, OutboxMessageEntity::getLockOwner, lockOwner)
                 .set(OutboxMessageEntity::getStatus, OutboxMessageStatus.DONE)
-                .set(OutboxMessageEntity::getNextRetryAt, null);
+                .set(OutboxMessageEntity::getNextRetryAt, null)
+                .set(OutboxMessageEntity::getLockOwner, null)
+                .set(OutboxMessageEntity::getLeaseUntil, null);
         return mapper.update(null, wrapper) > 0;
     }
 
+    /**
+     * 标记投递失败并释放租约；lockOwner 非空时仅在令牌仍属于自己时生效。
+     */
     public boolean markFailed(final Long id,
+                              final String lockOwner,
                               final int retryCount,
                               final LocalDateTime nextRetryAt,
                               final boolean dead) {
         LambdaUpdateWrapper<OutboxMessageEntity> wrapper = new LambdaUpdateWrapper<>();
         wrapper.eq(OutboxMessageEntity::getId, id)
+                .eq(lockOwner != null, OutboxMessageEntity::getLockOwner, lockOwner)
                 .set(OutboxMessageEntity::getStatus, dead ? OutboxMessageStatus.DEAD : OutboxMessageStatus.FAILED)
                 .set(OutboxMessageEntity::getRetryCount, retryCount)
-                .set(OutboxMessageEntity::getNextRetryAt, nextRetryAt);
+                .set(OutboxMessageEntity::getNextRetryAt, nextRetryAt)
+                .set(OutboxMessageEntity::getLockOwner, null)
+                .set(OutboxMessageEntity::getLeaseUntil, null);
         return mapper.update(null, wrapper) > 0;
     }
 
+    /**
+     * 批量标记投递成功并释放租约（单条 {@code WHERE id IN (...)}）；lockOwner 非空时只更新仍属于自己的行。
+     *
+     * @return 实际更新的行数
+     */
+    public int markDoneBatch(final Collection<Long> ids, final String lockOwner) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        LambdaUpdateWrapper<OutboxMessageEntity> wrapper = new LambdaUpdateWrapper<>();
+        wrapper.in(OutboxMessageEntity::getId, ids)
+                .eq(lockOwner != null, OutboxMessageEntity::getLockOwner, lockOwner)
+                .set(OutboxMessageEntity::getStatus, OutboxMessageStatus.DONE)
+                .set(OutboxMessageEntity::getNextRetryAt, null)
+                .set(OutboxMessageEntity::getLockOwner, null)
+                .set(OutboxMessageEntity::getLeaseUntil, null);
+        return mapper.update(null, wrapper);
+    }
+
+    /**
+     * 批量标记投递失败并释放租约，调用方按 (retryCount, nextRetryAt, dead) 分组后每组一次 UPDATE。
+     *
+     * @return 实际更新的行数
+     */
+    public int markFailedBatch(final Collection<Long> ids,
+                               final String lockOwner,
+                               final int retryCount,
+                               final LocalDateTime nextRetryAt,
+                               final boolean dead) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        LambdaUpdateWrapper<OutboxMessageEntity> wrapper = new LambdaUpdateWrapper<>();
+        wrapper.in(OutboxMessageEntity::getId, ids)
+                .eq(lockOwner != null, OutboxMessageEntity::getLockOwner, lockOwner)
+                .set(OutboxMessageEntity::getStatus, dead ? OutboxMessageStatus.DEAD : OutboxMessageStatus.FAILED)
+                .set(OutboxMessageEntity::getRetryCount, retryCount)
+                .set(OutboxMessageEntity::getNextRetryAt, nextRetryAt)
+                .set(OutboxMessageEntity::getLockOwner, null)
+                .set(OutboxMessageEntity::getLeaseUntil, null);
+        return mapper.update(null, wrapper);
+    }
+
+    /**
+     * 释放租约并推迟到 notBefore 再认领，不改变状态与重试次数；只更新令牌仍属于自己的行。
+     *
+     * @return 实际更新的行数
+     */
+    public int deferBatch(final Collection<Long> ids, final String lockOwner, final LocalDateTime notBefore) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        LambdaUpdateWrapper<OutboxMessageEntity> wrapper = new LambdaUpdateWrapper<>();
+        wrapper.in(OutboxMessageEntity::getId, ids)
+                .eq(OutboxMessageEntity::getLockOwner, lockOwner)
+                .set(OutboxMessageEntity::getNextRetryAt, notBefore)
+                .set(OutboxMessageEntity::getLockOwner, null)
+                .set(OutboxMessageEntity::getLeaseUntil, null);
+        return mapper.update(null, wrapper);
+    }
+
+    /**
+     * 延长令牌持有行的租约。
+     *
+     * @return 实际更新的行数
+     */
+    public int renewLease(final String lockOwner, final LocalDateTime leaseUntil) {
+        LambdaUpdateWrapper<OutboxMessageEntity> wrapper = new LambdaUpdateWrapper<>();
+        wrapper.eq(OutboxMessageEntity::getLockOwner, lockOwner)
+                .set(OutboxMessageEntity::getLeaseUntil, leaseUntil);
+        return mapper.update(null, wrapper);
+    }
+
+    /**
+     * 将一批早于 beforeTime 的终态消息搬迁到历史表：INSERT ... SELECT 后按 ID 批量删除，同一事务内完成。
+     * 选取时对行加锁并跳过已被锁定的行，多节点同时归档时各自搬迁不同的行，不会重复写入历史表。
+     *
+     * @return 本批搬迁的行数，小于 batchSize 表示已无更多
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public int archiveOldMessages(final List<OutboxMessageStatus> statuses,
+                                  final LocalDateTime beforeTime,
+                                  final int batchSize) {
+        LambdaQueryWrapper<OutboxMessageEntity> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(OutboxMessageEntity::getId)
+                .in(OutboxMessageEntity::getStatus, statuses)
+                .lt(OutboxMessageEntity::getUpdatedAt, beforeTime)
+                .orderByAsc(OutboxMessageEntity::getId)
+                .last("limit " + batchSize + " FOR UPDATE SKIP LOCKED");
+        List<Long> ids = mapper.selectList(wrapper).stream().map(OutboxMessageEntity::getId).toList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        mapper.copyToHistory(ids);
+        return mapper.deleteBatchIds(ids);
+    }
+
+    /**
+     * 保证历史表从当前月起至少还有 monthsAhead 个月的独立分区，不足时从 p_max 拆出。
+     *
+     * @return 新增的分区数
+     */
+    public int ensureHistoryPartitions(final YearMonth current, final int monthsAhead) {
+        List<String> existing = mapper.listHistoryPartitions();
+        YearMonth last = existing.stream()
+                .filter(name -> name.matches("p\\d{6}"))
+                .map(name -> YearMonth.parse(name.substring(1), HISTORY_PARTITION_FORMAT))
+                .max(Comparator.naturalOrder())
+                .orElse(current.minusMonths(1));
+        List<String> definitions = new ArrayList<>();
+        for (YearMonth month = last.plusMonths(1); !month.isAfter(current.plusMonths(monthsAhead));
+             month = month.plusMonths(1)) {
+            definitions.add("PARTITION p" + month.format(HISTORY_PARTITION_FORMAT)
+                    + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "')");
+        }
+        if (!definitions.isEmpty()) {
+            mapper.addHistoryPartitions(String.join(", ", definitions));
+        }
+        return definitions.size();
+    }
+
     public int cleanOldMessages(final List<OutboxMessageStatus> statuses, final LocalDateTime beforeTime, final int batchSize) {
         Page<OutboxMessageEntity> page = new Page<>(1, batchSize);
         LambdaQueryWrapper<OutboxMessageEntity> wrapper = new LambdaQueryWrapper<>();
         wrapper.in(OutboxMessageEntity::getStatus, statuses)
                 .lt(OutboxMessageEntity::getUpdatedAt, beforeTime);
-        List<OutboxMessageEntity> list = mapper.selectPage(page, wrapper).getRecords();
-        int deleted = 0;
-        for (OutboxMessageEntity entity : list) {
-            deleted += mapper.deleteById(entity.getId());
-        }
-        return deleted;
+        List<Long> ids = mapper.selectPage(page, wrapper).getRecords().stream()
+                .map(OutboxMessageEntity::getId)
+                .toList();
+        return ids.isEmpty() ? 0 : mapper.deleteBatchIds(ids);
     }
 
     public Page<OutboxMessageEntity> pageQuery(final int pageNum,
@@ -110,7 +290,9 @@ public class OutboxMessageRepository {
         LambdaUpdateWrapper<OutboxMessageEntity> wrapper = new LambdaUpdateWrapper<>();
         wrapper.eq(OutboxMessageEntity::getId, id)
                 .set(OutboxMessageEntity::getStatus, OutboxMessageStatus.DEAD)
-                .set(OutboxMessageEntity::getNextRetryAt, null);
+                .set(OutboxMessageEntity::getNextRetryAt, null)
+                .set(OutboxMessageEntity::getLockOwner, null)
+                .set(OutboxMessageEntity::getLeaseUntil, null);
         return mapper.update(null, wrapper) > 0;
     }
 
@@ -118,7 +300,9 @@ public class OutboxMessageRepository {
         LambdaUpdateWrapper<OutboxMessageEntity> wrapper = new LambdaUpdateWrapper<>();
         wrapper.eq(OutboxMessageEntity::getId, id)
                 .set(OutboxMessageEntity::getStatus, OutboxMessageStatus.NEW)
-                .set(OutboxMessageEntity::getNextRetryAt, LocalDateTime.now());
+                .set(OutboxMessageEntity::getNextRetryAt, LocalDateTime.now())
+                .set(OutboxMessageEntity::getLockOwner, null)
+                .set(OutboxMessageEntity::getLeaseUntil, null);
         if (!incrementRetry) {
             wrapper.set(OutboxMessageEntity::getRetryCount, 0);
         } else {
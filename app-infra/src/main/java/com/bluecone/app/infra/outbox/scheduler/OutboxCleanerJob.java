@@ -10,15 +10,24 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 
 /**
  * 清理过期的 DONE / DEAD 消息，保持表规模可控。
+ *
+ * <p>默认按批搬迁到分区历史表（见 {@link OutboxMessageRepository#archiveOldMessages}），
+ * 历史数据通过删除分区淘汰；{@code bluecone.outbox.archive-enabled=false} 时按批直接删除。
+ * 归档前先补齐未来几个月的历史分区，避免新数据全部落入 p_max。</p>
  */
 @Component
 public class OutboxCleanerJob {
 
     private static final Logger log = LoggerFactory.getLogger(OutboxCleanerJob.class);
+    /**
+     * 单次任务最多处理的批数，防止积压过多时长时间占用连接。
+     */
+    private static final int MAX_ROUNDS = 200;
 
     private final OutboxMessageRepository repository;
     private final OutboxProperties properties;
@@ -35,9 +44,37 @@ public class OutboxCleanerJob {
             return;
         }
         LocalDateTime before = LocalDateTime.now().minusDays(properties.getCleanRetentionDays());
-        int deleted = repository.cleanOldMessages(List.of(OutboxMessageStatus.DONE, OutboxMessageStatus.DEAD), before, 500);
-        if (deleted > 0) {
-            log.info("[OutboxCleaner] deleted {} messages before {}", deleted, before);
+        List<OutboxMessageStatus> statuses = List.of(OutboxMessageStatus.DONE, OutboxMessageStatus.DEAD);
+        int batchSize = Math.max(1, properties.getCleanBatchSize());
+        if (properties.isArchiveEnabled()) {
+            ensureHistoryPartitions();
+        }
+        int total = 0;
+        for (int round = 0; round < MAX_ROUNDS; round++) {
+            int moved = properties.isArchiveEnabled()
+                    ? repository.archiveOldMessages(statuses, before, batchSize)
+                    : repository.cleanOldMessages(statuses, before, batchSize);
+            total += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("[OutboxCleaner] {} {} messages before {}",
+                    properties.isArchiveEnabled() ? "archived" : "deleted", total, before);
+        }
+    }
+
+    private void ensureHistoryPartitions() {
+        try {
+            int added = repository.ensureHistoryPartitions(YearMonth.now(),
+                    Math.max(0, properties.getArchivePartitionMonthsAhead()));
+            if (added > 0) {
+                log.info("[OutboxCleaner] added {} history partitions", added);
+            }
+        } catch (RuntimeException ex) {
+            // 分区维护失败不影响归档，新数据暂时落入 p_max，下次任务再补
+            log.warn("[OutboxCleaner] history partition maintenance failed message={}", ex.getMessage());
         }
     }
 }
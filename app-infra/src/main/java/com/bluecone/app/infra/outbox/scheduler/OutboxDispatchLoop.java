@@ -0,0 +1,102 @@
+package com.bluecone.app.infra.outbox.scheduler;
+
+import com.bluecone.app.infra.outbox.config.OutboxProperties;
+import com.bluecone.app.infra.outbox.core.OutboxWakeupBus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbox 投递循环：提交后唤醒立即投递，空闲时自适应退避轮询兜底。
+ *
+ * <ul>
+ *     <li>收到 {@link OutboxWakeupBus} 信号（本节点提交或其他节点广播）时立即执行一轮；</li>
+ *     <li>一轮认领满批说明仍有积压，直接进入下一轮；</li>
+ *     <li>空轮询时等待间隔按 2 倍从 pollMinIntervalMillis 退避到 pollMaxIntervalMillis，
+ *     有消息或被唤醒后回落到最短间隔。</li>
+ * </ul>
+ *
+ * <p>仅在 {@code bluecone.outbox.wakeup-enabled=true} 时启动，否则由 {@link OutboxPublisherJob} 的 cron 驱动。</p>
+ */
+@Component
+public class OutboxDispatchLoop {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatchLoop.class);
+
+    private final OutboxPublisherJob publisherJob;
+    private final OutboxWakeupBus wakeupBus;
+    private final OutboxProperties properties;
+    private final Semaphore wakeups = new Semaphore(0);
+    private volatile boolean running;
+    private Thread worker;
+
+    public OutboxDispatchLoop(final OutboxPublisherJob publisherJob,
+                              final OutboxWakeupBus wakeupBus,
+                              final OutboxProperties properties) {
+        this.publisherJob = publisherJob;
+        this.wakeupBus = wakeupBus;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled() || !properties.isWakeupEnabled()) {
+            log.info("[OutboxLoop] wakeup disabled, falling back to publish cron");
+            return;
+        }
+        running = true;
+        wakeupBus.register(this::wakeup);
+        worker = Thread.ofPlatform().daemon().name("outbox-dispatch-loop").start(this::runLoop);
+        log.info("[OutboxLoop] started minIntervalMs={} maxIntervalMs={}",
+                properties.getPollMinIntervalMillis(), properties.getPollMaxIntervalMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * 请求立即执行一轮投递；投递进行中收到的信号会在本轮结束后再触发一轮。
+     */
+    public void wakeup() {
+        wakeups.release();
+    }
+
+    private void runLoop() {
+        long minInterval = Math.max(1L, properties.getPollMinIntervalMillis());
+        long maxInterval = Math.max(minInterval, properties.getPollMaxIntervalMillis());
+        long interval = minInterval;
+        while (running) {
+            wakeups.drainPermits();
+            int claimed;
+            try {
+                claimed = publisherJob.dispatchOnce();
+            } catch (Exception ex) {
+                // dispatchOnce 已记录日志与指标，这里按空轮询退避
+                claimed = 0;
+            }
+            if (claimed >= properties.getDispatchBatchSize()) {
+                interval = minInterval;
+                continue;
+            }
+            interval = claimed > 0 ? minInterval : Math.min(interval * 2, maxInterval);
+            try {
+                if (wakeups.tryAcquire(interval, TimeUnit.MILLISECONDS)) {
+                    interval = minInterval;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
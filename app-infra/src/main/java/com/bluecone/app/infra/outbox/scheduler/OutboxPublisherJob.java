@@ -3,7 +3,7 @@ package com.bluecone.app.infra.outbox.scheduler;
 
 import com.bluecone.app.infra.observability.metrics.JobMetrics;
 import com.bluecone.app.infra.outbox.config.OutboxProperties;
-import com.bluecone.app.infra.outbox.service.OutboxDispatchService;
+import com.bluecone.app.infra.outbox.relay.OutboxRelayEngine;
 import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,7 +11,10 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 /**
- * 定时扫描 Outbox，发布待投递事件。
+ * 定时扫描 Outbox，发布待投递事件；一轮经 {@link OutboxRelayEngine#relayAll()} 覆盖所有 Outbox 表。
+ *
+ * <p>启用提交后唤醒（{@code bluecone.outbox.wakeup-enabled}）时由 {@link OutboxDispatchLoop} 驱动投递，
+ * cron 入口不再执行，仅作为关闭唤醒时的退路。</p>
  */
 @Component("legacyOutboxPublisherJob")
 public class OutboxPublisherJob {
@@ -19,29 +22,38 @@ public class OutboxPublisherJob {
     private static final Logger log = LoggerFactory.getLogger(OutboxPublisherJob.class);
     private static final String JOB_NAME = "outbox_publisher";
 
-    private final OutboxDispatchService dispatchService;
+    private final OutboxRelayEngine relayEngine;
     private final OutboxProperties properties;
     private final JobMetrics jobMetrics;
 
-    public OutboxPublisherJob(final OutboxDispatchService dispatchService,
+    public OutboxPublisherJob(final OutboxRelayEngine relayEngine,
                               final OutboxProperties properties,
                               final JobMetrics jobMetrics) {
-        this.dispatchService = dispatchService;
+        this.relayEngine = relayEngine;
         this.properties = properties;
         this.jobMetrics = jobMetrics;
     }
 
     @Scheduled(cron = "${bluecone.outbox.publish-cron:0/10 * * * * ?}")
     public void publish() {
-        if (!properties.isEnabled()) {
+        if (!properties.isEnabled() || properties.isWakeupEnabled()) {
             return;
         }
-        
+        dispatchOnce();
+    }
+
+    /**
+     * 执行一轮投递并记录任务指标。
+     *
+     * @return 各表本轮认领数的最大值
+     */
+    public int dispatchOnce() {
         Timer.Sample sample = jobMetrics.startExecutionTimer();
         try {
             log.debug("[OutboxJob] start dispatching due messages");
-            dispatchService.dispatchDueMessages();
+            int claimed = relayEngine.relayAll();
             jobMetrics.recordExecutionSuccess(JOB_NAME);
+            return claimed;
         } catch (Exception e) {
             jobMetrics.recordExecutionFailure(JOB_NAME);
             log.error("[OutboxJob] failed to dispatch messages", e);
@@ -14,6 +14,7 @@ import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
@@ -367,6 +368,19 @@ public class RedisOps {
         executeVoid("ZREM", key, () -> redisTemplate.opsForZSet().remove(key, values));
     }
 
+    /**
+     * 执行 Lua 脚本，键与参数均按字符串序列化，用于需要原子“比较再修改”的场景（租约续期、锁释放、限流等）。
+     *
+     * @param script 脚本，建议定义为常量以复用 SHA
+     * @param keys   KEYS 列表
+     * @param args   ARGV 列表
+     * @return 脚本返回值
+     */
+    public <T> T eval(RedisScript<T> script, List<String> keys, String... args) {
+        String firstKey = keys.isEmpty() ? null : keys.get(0);
+        return execute("EVALSHA", firstKey, () -> stringRedisTemplate.execute(script, keys, (Object[]) args));
+    }
+
     private void executeVoid(String operation, String key, Runnable runnable) {
         execute(operation, key, () -> {
             runnable.run();
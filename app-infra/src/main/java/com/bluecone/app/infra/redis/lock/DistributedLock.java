@@ -6,12 +6,12 @@ package com.bluecone.app.infra.redis.lock;
 public interface DistributedLock {
 
     /**
-     * 尝试在指定时间内获取分布式锁。
+     * 尝试在指定时间内获取分布式锁；同一 ownerId 可重入，需对应次数的 unlock 才真正释放。
      *
      * @param bizKey      业务键（未拼环境、租户前缀）
      * @param ownerId     持有者标识，用于防止误删他人锁
      * @param waitTimeMs  等待获取锁的最长时间，毫秒
-     * @param leaseTimeMs 锁租约时间，毫秒，到期自动释放
+     * @param leaseTimeMs 锁租约时间，毫秒，到期自动释放；小于等于 0 时由看门狗在持有期间自动续期
      * @return 成功获取返回 true，否则 false
      */
     boolean tryLock(String bizKey, String ownerId, long waitTimeMs, long leaseTimeMs);
@@ -23,6 +23,16 @@ public class LockProperties {
      */
     private long defaultLeaseTimeMs = 3000;
 
+    /**
+     * 看门狗模式（租约时长 ≤ 0）下的锁过期时间（毫秒），持有期间每 1/3 续期一次。
+     */
+    private long watchdogTimeoutMs = 30000;
+
+    /**
+     * 等待者单次阻塞上限（毫秒），兜底 Pub/Sub 通知丢失或订阅尚未生效。
+     */
+    private long maxWaitSliceMs = 1000;
+
     public boolean isEnabled() {
         return enabled;
     }
@@ -46,4 +56,20 @@ public class LockProperties {
     public void setDefaultLeaseTimeMs(long defaultLeaseTimeMs) {
         this.defaultLeaseTimeMs = defaultLeaseTimeMs;
     }
+
+    public long getWatchdogTimeoutMs() {
+        return watchdogTimeoutMs;
+    }
+
+    public void setWatchdogTimeoutMs(long watchdogTimeoutMs) {
+        this.watchdogTimeoutMs = watchdogTimeoutMs;
+    }
+
+    public long getMaxWaitSliceMs() {
+        return maxWaitSliceMs;
+    }
+
+    public void setMaxWaitSliceMs(long maxWaitSliceMs) {
+        this.maxWaitSliceMs = maxWaitSliceMs;
+    }
 }
@@ -0,0 +1,159 @@
+package com.bluecone.app.infra.redis.lock;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * 锁释放唤醒：每个有等待者的锁键对应一个本地条件变量，并按需订阅该锁的 Redis 释放频道。
+ *
+ * <p>本 JVM 内释放直接唤醒，其他节点释放经 Redis Pub/Sub 唤醒；最后一个等待者离开时退订。
+ * 使用 {@link ReentrantLock} 而非 synchronized，虚拟线程等待时不占用载体线程。</p>
+ */
+class LockWakeups {
+
+    private static final Logger log = LoggerFactory.getLogger(LockWakeups.class);
+    private static final String CHANNEL_SUFFIX = ":released";
+
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private volatile RedisMessageListenerContainer container;
+
+    /**
+     * 绑定 Redis 监听容器，为 null 时仅本地唤醒。
+     */
+    void attach(RedisMessageListenerContainer container) {
+        this.container = container;
+    }
+
+    static String channelOf(String redisKey) {
+        return redisKey + CHANNEL_SUFFIX;
+    }
+
+    /**
+     * 登记为该锁键的等待者，使用完毕须关闭。
+     */
+    Waiter subscribe(String redisKey) {
+        Channel channel = channels.compute(redisKey, (key, existing) -> {
+            Channel current = existing != null ? existing : new Channel();
+            if (current.waiters++ == 0) {
+                listen(current, key);
+            }
+            return current;
+        });
+        return new Waiter(redisKey, channel);
+    }
+
+    /**
+     * 唤醒该锁键上的全部等待者。
+     */
+    void signal(String redisKey) {
+        Channel channel = channels.get(redisKey);
+        if (channel != null) {
+            channel.signal();
+        }
+    }
+
+    int channelCount() {
+        return channels.size();
+    }
+
+    private void listen(Channel channel, String redisKey) {
+        RedisMessageListenerContainer current = container;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.addMessageListener(channel.listener, new ChannelTopic(channelOf(redisKey)));
+        } catch (RuntimeException ex) {
+            // 订阅失败时退化为按锁剩余租约定时重试
+            log.warn("[Lock] subscribe release channel failed key={} message={}", redisKey, ex.getMessage());
+        }
+    }
+
+    private void unlisten(Channel channel, String redisKey) {
+        RedisMessageListenerContainer current = container;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.removeMessageListener(channel.listener, new ChannelTopic(channelOf(redisKey)));
+        } catch (RuntimeException ex) {
+            log.warn("[Lock] unsubscribe release channel failed key={} message={}", redisKey, ex.getMessage());
+        }
+    }
+
+    /**
+     * 单个等待者的句柄：先取 generation，再尝试加锁，失败后以该 generation 等待，避免丢失其间的唤醒。
+     */
+    final class Waiter implements AutoCloseable {
+
+        private final String redisKey;
+        private final Channel channel;
+
+        private Waiter(String redisKey, Channel channel) {
+            this.redisKey = redisKey;
+            this.channel = channel;
+        }
+
+        long generation() {
+            return channel.generation;
+        }
+
+        /**
+         * 等待到 generation 变化或超时。
+         */
+        void await(long generation, long timeoutMs) throws InterruptedException {
+            channel.await(generation, timeoutMs);
+        }
+
+        @Override
+        public void close() {
+            channels.compute(redisKey, (key, current) -> {
+                if (current == null || --current.waiters > 0) {
+                    return current;
+                }
+                unlisten(current, key);
+                return null;
+            });
+        }
+    }
+
+    private static final class Channel {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition released = lock.newCondition();
+        private final MessageListener listener = (message, pattern) -> signal();
+        private volatile long generation;
+        private int waiters;
+
+        private void signal() {
+            lock.lock();
+            try {
+                generation++;
+                released.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void await(long expected, long timeoutMs) throws InterruptedException {
+            lock.lock();
+            try {
+                long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+                while (generation == expected && nanos > 0) {
+                    nanos = released.awaitNanos(nanos);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -1,9 +1,23 @@
 package com.bluecone.app.infra.redis.lock;
 
-import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
@@ -12,48 +26,128 @@ import com.bluecone.app.infra.redis.core.RedisKeyNamespace;
 import com.bluecone.app.infra.redis.core.RedisOps;
 
 /**
- * 基于 Redis 的分布式锁实现，使用 SETNX + 过期时间实现互斥。
+ * 基于 Redis 的分布式锁实现，锁值为持有者标识，加锁、续期、解锁均为比较持有者后执行的 Lua 脚本。
  * <p>设计要点：所有 Redis 访问均通过 RedisOps，Key 统一使用 RedisKeyBuilder 规范化。</p>
+ * <ul>
+ *     <li>可重入：同一 ownerId 重复加锁只把租约延长到 max(剩余租约, 本次租约)，本地计数归零时才删除。</li>
+ *     <li>看门狗：租约 ≤ 0 时按 watchdogTimeoutMs 加锁，持有期间每 1/3 续期，续期失败视为丢锁。</li>
+ *     <li>等待：不再固定间隔轮询，而是阻塞在锁键的本地条件变量上，由本地解锁或 Redis 释放频道唤醒；
+ *     单次阻塞不超过锁剩余租约与 maxWaitSliceMs，兜底通知丢失。</li>
+ * </ul>
  */
 @Component
-public class RedisDistributedLock implements DistributedLock {
+public class RedisDistributedLock implements DistributedLock, InitializingBean, DisposableBean {
 
     private static final Logger log = LoggerFactory.getLogger(RedisDistributedLock.class);
-    private static final long RETRY_INTERVAL_MS = 50L;
+
+    /**
+     * 加锁：空闲则 SET PX，本人持有则把租约延长到不短于本次 lease（不会缩短外层持有的租约），均返回 0；
+     * 他人持有返回剩余毫秒数（无过期时间返回 -1）。
+     */
+    private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>("""
+            local current = redis.call('GET', KEYS[1])
+            if current == false then
+              redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+              return 0
+            end
+            if current == ARGV[1] then
+              local remaining = redis.call('PTTL', KEYS[1])
+              if remaining >= 0 and remaining < tonumber(ARGV[2]) then
+                redis.call('PEXPIRE', KEYS[1], ARGV[2])
+              end
+              return 0
+            end
+            local ttl = redis.call('PTTL', KEYS[1])
+            if ttl <= 0 then return -1 end
+            return ttl
+            """, Long.class);
+
+    private static final RedisScript<Long> RENEW = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    /**
+     * 解锁：比较持有者后删除并发布释放通知。
+     */
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              redis.call('DEL', KEYS[1])
+              redis.call('PUBLISH', ARGV[2], '1')
+              return 1
+            end
+            return 0
+            """, Long.class);
 
     private final RedisOps redisOps;
     private final RedisKeyBuilder keyBuilder;
+    private final LockProperties properties;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final LockWakeups wakeups = new LockWakeups();
+    private final Map<String, Holding> holdings = new ConcurrentHashMap<>();
+    private ScheduledExecutorService watchdog;
+    private RedisMessageListenerContainer listenerContainer;
 
-    public RedisDistributedLock(RedisOps redisOps, RedisKeyBuilder keyBuilder) {
+    public RedisDistributedLock(RedisOps redisOps,
+                                RedisKeyBuilder keyBuilder,
+                                LockProperties properties,
+                                ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                                ObjectProvider<MeterRegistry> meterRegistryProvider) {
         this.redisOps = redisOps;
         this.keyBuilder = keyBuilder;
+        this.properties = properties;
+        this.redisTemplate = redisTemplateProvider.getIfAvailable();
+        this.meterRegistry = meterRegistryProvider.getIfAvailable();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        watchdog = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("redis-lock-watchdog").factory());
+        long period = Math.max(1, properties.getWatchdogTimeoutMs() / 3);
+        watchdog.scheduleWithFixedDelay(this::renewWatched, period, period, TimeUnit.MILLISECONDS);
+        if (redisTemplate == null || redisTemplate.getConnectionFactory() == null) {
+            log.info("[Lock] redis listener not available, waiters rely on lease timeout");
+            return;
+        }
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisTemplate.getConnectionFactory());
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+        wakeups.attach(listenerContainer);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+        }
+        wakeups.attach(null);
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
     }
 
     @Override
     public boolean tryLock(String bizKey, String ownerId, long waitTimeMs, long leaseTimeMs) {
         Assert.hasText(bizKey, "bizKey must not be blank");
         Assert.hasText(ownerId, "ownerId must not be blank");
-        if (leaseTimeMs <= 0) {
-            throw new IllegalArgumentException("leaseTimeMs must be positive");
-        }
         String redisKey = keyBuilder.build(RedisKeyNamespace.LOCK, bizKey);
-        long deadline = waitTimeMs > 0 ? System.currentTimeMillis() + waitTimeMs : 0L;
-        Duration leaseDuration = Duration.ofMillis(leaseTimeMs);
-        do {
-            Boolean success = redisOps.setIfAbsent(redisKey, ownerId, leaseDuration);
-            if (Boolean.TRUE.equals(success)) {
-                return true;
-            }
-            if (waitTimeMs <= 0) {
-                break;
-            }
-            long remaining = deadline - System.currentTimeMillis();
-            if (remaining <= 0) {
-                break;
-            }
-            sleepQuietly(Math.min(RETRY_INTERVAL_MS, remaining));
-        } while (true);
-        return false;
+        boolean watched = leaseTimeMs <= 0;
+        long leaseMs = watched ? properties.getWatchdogTimeoutMs() : leaseTimeMs;
+        long start = System.nanoTime();
+        long ttl = acquire(redisKey, ownerId, leaseMs);
+        if (ttl == 0) {
+            onAcquired(redisKey, ownerId, watched);
+            return true;
+        }
+        count("bluecone_lock_contended_total", bizKey);
+        boolean acquired = waitTimeMs > 0 && await(redisKey, ownerId, leaseMs, start + TimeUnit.MILLISECONDS.toNanos(waitTimeMs));
+        if (acquired) {
+            onAcquired(redisKey, ownerId, watched);
+        }
+        recordWait(bizKey, acquired, System.nanoTime() - start);
+        return acquired;
     }
 
     @Override
@@ -61,19 +155,131 @@ public class RedisDistributedLock implements DistributedLock {
         Assert.hasText(bizKey, "bizKey must not be blank");
         Assert.hasText(ownerId, "ownerId must not be blank");
         String redisKey = keyBuilder.build(RedisKeyNamespace.LOCK, bizKey);
-        String value = redisOps.getString(redisKey);
-        if (ownerId.equals(value)) {
-            redisOps.delete(redisKey);
-        } else if (value != null) {
-            log.debug("skip unlock because ownerId mismatch, key={}, ownerId={}, current={}", redisKey, ownerId, value);
+        boolean[] reentered = new boolean[1];
+        holdings.computeIfPresent(redisKey, (key, holding) -> {
+            if (!holding.ownerId.equals(ownerId)) {
+                return holding;
+            }
+            if (--holding.count > 0) {
+                reentered[0] = true;
+                return holding;
+            }
+            return null;
+        });
+        if (reentered[0]) {
+            return;
+        }
+        Long released = redisOps.eval(RELEASE, List.of(redisKey), ownerId, LockWakeups.channelOf(redisKey));
+        if (released != null && released > 0) {
+            wakeups.signal(redisKey);
+        } else {
+            log.debug("skip unlock because ownerId mismatch or lock expired, key={}, ownerId={}", redisKey, ownerId);
         }
     }
 
-    private void sleepQuietly(long millis) {
-        try {
-            Thread.sleep(millis);
+    /**
+     * 当前由看门狗续期的锁数量。
+     */
+    int watchedCount() {
+        return (int) holdings.values().stream().filter(holding -> holding.watched).count();
+    }
+
+    private long acquire(String redisKey, String ownerId, long leaseMs) {
+        Long ttl = redisOps.eval(ACQUIRE, List.of(redisKey), ownerId, String.valueOf(leaseMs));
+        return ttl == null ? -1 : ttl;
+    }
+
+    private boolean await(String redisKey, String ownerId, long leaseMs, long deadlineNanos) {
+        try (LockWakeups.Waiter waiter = wakeups.subscribe(redisKey)) {
+            while (true) {
+                long generation = waiter.generation();
+                long ttl = acquire(redisKey, ownerId, leaseMs);
+                if (ttl == 0) {
+                    return true;
+                }
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+                if (remainingMs <= 0) {
+                    return false;
+                }
+                long slice = Math.min(remainingMs, properties.getMaxWaitSliceMs());
+                if (ttl > 0) {
+                    slice = Math.min(slice, ttl);
+                }
+                waiter.await(generation, Math.max(1, slice));
+            }
         } catch (InterruptedException ex) {
             Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void onAcquired(String redisKey, String ownerId, boolean watched) {
+        holdings.compute(redisKey, (key, holding) -> {
+            if (holding != null && holding.ownerId.equals(ownerId)) {
+                holding.count++;
+                holding.watched |= watched;
+                return holding;
+            }
+            return new Holding(ownerId, watched);
+        });
+    }
+
+    private void renewWatched() {
+        for (Map.Entry<String, Holding> entry : holdings.entrySet()) {
+            Holding holding = entry.getValue();
+            if (!holding.watched) {
+                continue;
+            }
+            try {
+                Long renewed = redisOps.eval(RENEW, List.of(entry.getKey()), holding.ownerId,
+                        String.valueOf(properties.getWatchdogTimeoutMs()));
+                if (renewed == null || renewed == 0) {
+                    holdings.remove(entry.getKey(), holding);
+                    if (meterRegistry != null) {
+                        meterRegistry.counter("bluecone_lock_lost_total").increment();
+                    }
+                    log.warn("[Lock] watchdog renew failed, lock lost key={} ownerId={}", entry.getKey(), holding.ownerId);
+                }
+            } catch (RuntimeException ex) {
+                // 下一轮重试，租约剩余 2/3 足以覆盖短暂抖动
+                log.warn("[Lock] watchdog renew error key={} message={}", entry.getKey(), ex.getMessage());
+            }
+        }
+    }
+
+    private void count(String name, String bizKey) {
+        if (meterRegistry != null) {
+            meterRegistry.counter(name, "lock", lockName(bizKey)).increment();
+        }
+    }
+
+    private void recordWait(String bizKey, boolean acquired, long nanos) {
+        if (meterRegistry != null) {
+            Timer.builder("bluecone_lock_wait_seconds")
+                    .tag("lock", lockName(bizKey))
+                    .tag("outcome", acquired ? "acquired" : "timeout")
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 指标标签取业务键去掉最后一段后的前缀（如 inventory:sku-1 → inventory），避免按实例 ID 爆炸。
+     */
+    static String lockName(String bizKey) {
+        int separator = bizKey.lastIndexOf(':');
+        return separator > 0 ? bizKey.substring(0, separator) : bizKey;
+    }
+
+    private static final class Holding {
+
+        private final String ownerId;
+        private int count = 1;
+        private volatile boolean watched;
+
+        private Holding(String ownerId, boolean watched) {
+            this.ownerId = ownerId;
+            this.watched = watched;
         }
     }
 }
@@ -26,7 +26,7 @@ public @interface DistributedLock {
     long waitTime() default -1L;
 
     /**
-     * 租约时长，默认使用全局配置。
+     * 租约时长，默认使用全局配置；设为 0 时由看门狗在方法执行期间自动续期。
      */
     long leaseTime() default -1L;
 
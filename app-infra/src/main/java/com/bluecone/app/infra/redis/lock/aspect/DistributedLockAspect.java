@@ -20,6 +20,8 @@ import com.bluecone.app.infra.redis.support.SpelExpressionEvaluator;
 /**
  * 分布式锁切面：在方法执行前获取锁，执行完成后释放。
  * <p>设计要点：统一使用 SpEL 生成业务 key，所有 Redis 访问委托给 DistributedLock 实现。</p>
+ * <p>持有者标识为「进程实例 + 线程」，同一线程内嵌套调用相同 key 的加锁方法会重入而不是等待自己超时；
+ * 跨线程（含异步任务）不共享持有关系。</p>
  */
 @Aspect
 @Component
@@ -27,6 +29,7 @@ import com.bluecone.app.infra.redis.support.SpelExpressionEvaluator;
 public class DistributedLockAspect {
 
     private static final String DEFAULT_LOCK_ERROR_MESSAGE = "Failed to acquire distributed lock";
+    private static final String INSTANCE_ID = UUID.randomUUID().toString();
 
     private final LockProperties properties;
     private final DistributedLock distributedLock;
@@ -90,6 +93,6 @@ public class DistributedLockAspect {
     }
 
     private String buildOwnerId() {
-        return "node-" + UUID.randomUUID() + "-thread-" + Thread.currentThread().getId();
+        return "node-" + INSTANCE_ID + "-thread-" + Thread.currentThread().threadId();
     }
 }
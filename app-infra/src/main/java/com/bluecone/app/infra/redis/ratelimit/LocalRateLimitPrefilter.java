@@ -0,0 +1,56 @@
+package com.bluecone.app.infra.redis.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 本地限流预过滤：记录 Redis 已判定超限的键及其最早可重试时间，期间同一进程内的请求直接拒绝，
+ * 不再访问 Redis，减轻攻击或重试风暴下的 Redis 压力。
+ *
+ * <p>只缓存 Redis 给出的拒绝结论且不超过其重试时间，因此不会比 Redis 更严格。
+ * 键数量超过上限时先清理已过期条目，仍超限则不再记录新键。</p>
+ */
+class LocalRateLimitPrefilter {
+
+    private final int maxKeys;
+    private final Map<String, Long> blockedUntil = new ConcurrentHashMap<>();
+
+    LocalRateLimitPrefilter(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * @return true 表示该键仍处于本地拒绝期
+     */
+    boolean isBlocked(String key, long nowMillis) {
+        Long until = blockedUntil.get(key);
+        if (until == null) {
+            return false;
+        }
+        if (until > nowMillis) {
+            return true;
+        }
+        blockedUntil.remove(key, until);
+        return false;
+    }
+
+    /**
+     * 记录 Redis 的拒绝结论。
+     */
+    void block(String key, long untilMillis, long nowMillis) {
+        if (untilMillis <= nowMillis) {
+            return;
+        }
+        if (blockedUntil.size() >= maxKeys && !blockedUntil.containsKey(key)) {
+            blockedUntil.values().removeIf(until -> until <= nowMillis);
+            if (blockedUntil.size() >= maxKeys) {
+                return;
+            }
+        }
+        blockedUntil.merge(key, untilMillis, Math::max);
+    }
+
+    int size() {
+        return blockedUntil.size();
+    }
+}
@@ -0,0 +1,24 @@
+package com.bluecone.app.infra.redis.ratelimit;
+
+/**
+ * 限流算法。
+ */
+public enum RateLimitAlgorithm {
+    /**
+     * 固定窗口计数，实现最简单，窗口边界处最多放过 2 倍流量。
+     */
+    FIXED_WINDOW,
+    /**
+     * 滑动窗口计数：按上一窗口计数的剩余占比加权估算，平滑窗口边界突发。
+     */
+    SLIDING_WINDOW,
+    /**
+     * GCRA 令牌桶：按 windowSeconds / limit 匀速放行，允许 limit 次突发。
+     */
+    TOKEN_BUCKET,
+    /**
+     * 固定窗口 + 本地令牌租约：节点按批从 Redis 预留配额后本地消费，适合高 QPS 键；
+     * 只会少放不会多放，误差见 {@code bluecone.rate-limit.lease-tolerance}。
+     */
+    LEASED_WINDOW
+}
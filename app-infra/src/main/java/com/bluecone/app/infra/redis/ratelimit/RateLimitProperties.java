@@ -23,6 +23,31 @@ public class RateLimitProperties {
      */
     private int defaultWindowSeconds = 60;
 
+    /**
+     * 是否启用本地预过滤：Redis 判定超限后，在其给出的重试时间内本进程直接拒绝同一键。
+     */
+    private boolean localPrefilterEnabled = true;
+
+    /**
+     * 本地预过滤最多记录的键数量。
+     */
+    private int localPrefilterMaxKeys = 10000;
+
+    /**
+     * 租约模式下每批预留配额占 limit 的比例，也是单节点最多占住的未用配额比例。
+     */
+    private double leaseTolerance = 0.02;
+
+    /**
+     * 租约模式下单批配额的最长持有时间（毫秒），到期后未用配额归还 Redis。
+     */
+    private long leaseTtlMillis = 1000;
+
+    /**
+     * 租约模式最多跟踪的键数量，超出后新键逐次向 Redis 预留。
+     */
+    private int leaseMaxKeys = 1000;
+
     public boolean isEnabled() {
         return enabled;
     }
@@ -46,4 +71,44 @@ public class RateLimitProperties {
     public void setDefaultWindowSeconds(int defaultWindowSeconds) {
         this.defaultWindowSeconds = defaultWindowSeconds;
     }
+
+    public boolean isLocalPrefilterEnabled() {
+        return localPrefilterEnabled;
+    }
+
+    public void setLocalPrefilterEnabled(boolean localPrefilterEnabled) {
+        this.localPrefilterEnabled = localPrefilterEnabled;
+    }
+
+    public int getLocalPrefilterMaxKeys() {
+        return localPrefilterMaxKeys;
+    }
+
+    public void setLocalPrefilterMaxKeys(int localPrefilterMaxKeys) {
+        this.localPrefilterMaxKeys = localPrefilterMaxKeys;
+    }
+
+    public double getLeaseTolerance() {
+        return leaseTolerance;
+    }
+
+    public void setLeaseTolerance(double leaseTolerance) {
+        this.leaseTolerance = leaseTolerance;
+    }
+
+    public long getLeaseTtlMillis() {
+        return leaseTtlMillis;
+    }
+
+    public void setLeaseTtlMillis(long leaseTtlMillis) {
+        this.leaseTtlMillis = leaseTtlMillis;
+    }
+
+    public int getLeaseMaxKeys() {
+        return leaseMaxKeys;
+    }
+
+    public void setLeaseMaxKeys(int leaseMaxKeys) {
+        this.leaseMaxKeys = leaseMaxKeys;
+    }
 }
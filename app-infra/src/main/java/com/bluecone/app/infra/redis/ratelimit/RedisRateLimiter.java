@@ -1,7 +1,14 @@
 package com.bluecone.app.infra.redis.ratelimit;
 
-import java.time.Duration;
+import java.util.List;
+import java.util.function.LongSupplier;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
@@ -10,21 +17,113 @@ import com.bluecone.app.infra.redis.core.RedisKeyNamespace;
 import com.bluecone.app.infra.redis.core.RedisOps;
 
 /**
- * 基于 Redis 的固定窗口限流器，使用 INCR + EXPIRE 实现。
+ * 基于 Redis 的限流器，支持固定窗口、滑动窗口与 GCRA 令牌桶，每种算法均为一次 Lua 调用完成判定与计数；
+ * 租约模式按批预留固定窗口配额后本地消费，见 {@link TokenLeasePool}。
+ *
+ * <p>脚本在拒绝时返回最早可重试的毫秒数，开启本地预过滤后，该时间内同一键的请求在进程内直接拒绝。
+ * 时间取自调用方时钟，各节点需保持时钟同步。</p>
  */
 @Component
 public class RedisRateLimiter {
 
+    /**
+     * 固定窗口：INCR 与首次 PEXPIRE 合并为一次调用，键在窗口结束时过期，拒绝时返回距窗口结束的毫秒数。
+     * ARGV: limit, untilWindowEndMillis。
+     */
+    private static final RedisScript<Long> FIXED_WINDOW = new DefaultRedisScript<>("""
+            local count = redis.call('INCR', KEYS[1])
+            if count == 1 then redis.call('PEXPIRE', KEYS[1], ARGV[2]) end
+            if count <= tonumber(ARGV[1]) then return 0 end
+            return tonumber(ARGV[2])
+            """, Long.class);
+
+    /**
+     * 滑动窗口计数：哈希中保存当前窗口序号 b、当前计数 c、上一窗口计数 p。ARGV: nowMillis, windowMillis, limit。
+     */
+    private static final RedisScript<Long> SLIDING_WINDOW = new DefaultRedisScript<>("""
+            local now = tonumber(ARGV[1])
+            local window = tonumber(ARGV[2])
+            local limit = tonumber(ARGV[3])
+            local bucket = math.floor(now / window)
+            local data = redis.call('HMGET', KEYS[1], 'b', 'c', 'p')
+            local b = tonumber(data[1])
+            local c = tonumber(data[2]) or 0
+            local p = tonumber(data[3]) or 0
+            if b == nil then
+              c = 0
+              p = 0
+            elseif b > bucket then
+              bucket = b
+            elseif b == bucket - 1 then
+              p = c
+              c = 0
+            elseif b < bucket - 1 then
+              p = 0
+              c = 0
+            end
+            local elapsed = math.max(now - bucket * window, 0)
+            if p * (1 - elapsed / window) + c + 1 <= limit then
+              redis.call('HSET', KEYS[1], 'b', bucket, 'c', c + 1, 'p', p)
+              redis.call('PEXPIRE', KEYS[1], window * 2)
+              return 0
+            end
+            local untilRotate = window - elapsed
+            local remaining = limit - c - 1
+            if remaining < 0 or p == 0 then return math.max(1, math.ceil(untilRotate)) end
+            local wait = window * (1 - remaining / p) - elapsed
+            return math.max(1, math.ceil(math.min(wait, untilRotate)))
+            """, Long.class);
+
+    /**
+     * GCRA：保存理论到达时间 TAT，匀速间隔 window / limit，容忍 limit 次突发。ARGV: nowMillis, windowMillis, limit。
+     */
+    private static final RedisScript<Long> TOKEN_BUCKET = new DefaultRedisScript<>("""
+            local now = tonumber(ARGV[1])
+            local window = tonumber(ARGV[2])
+            local interval = window / tonumber(ARGV[3])
+            local tat = tonumber(redis.call('GET', KEYS[1]))
+            if tat == nil or tat < now then tat = now end
+            local newTat = tat + interval
+            local wait = newTat - now - window
+            if wait > 0 then return math.max(1, math.ceil(wait)) end
+            redis.call('SET', KEYS[1], string.format('%.3f', newTat), 'PX', math.max(1, math.ceil(newTat - now)))
+            return 0
+            """, Long.class);
+
     private final RedisOps redisOps;
     private final RedisKeyBuilder keyBuilder;
+    private final RateLimitProperties properties;
+    private final LocalRateLimitPrefilter prefilter;
+    private final TokenLeasePool leasePool;
+    private final LongSupplier clock;
+    private final Counter localRejectedCounter;
+
+    public RedisRateLimiter(RedisOps redisOps,
+                            RedisKeyBuilder keyBuilder,
+                            RateLimitProperties properties,
+                            ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this(redisOps, keyBuilder, properties, meterRegistryProvider.getIfAvailable(), System::currentTimeMillis);
+    }
 
-    public RedisRateLimiter(RedisOps redisOps, RedisKeyBuilder keyBuilder) {
+    RedisRateLimiter(RedisOps redisOps,
+                     RedisKeyBuilder keyBuilder,
+                     RateLimitProperties properties,
+                     MeterRegistry meterRegistry,
+                     LongSupplier clock) {
         this.redisOps = redisOps;
         this.keyBuilder = keyBuilder;
+        this.properties = properties;
+        this.clock = clock;
+        this.prefilter = new LocalRateLimitPrefilter(properties.getLocalPrefilterMaxKeys());
+        this.leasePool = new TokenLeasePool(redisOps, clock, properties.getLeaseTolerance(),
+                properties.getLeaseTtlMillis(), properties.getLeaseMaxKeys());
+        this.localRejectedCounter = meterRegistry != null
+                ? meterRegistry.counter("bluecone_rate_limit_local_rejected_total")
+                : null;
     }
 
     /**
-     * 尝试在限流窗口内获取一次调用配额。
+     * 尝试在固定窗口内获取一次调用配额。
      *
      * @param bizKey         业务键（未含环境、租户前缀）
      * @param limit          最大次数
@@ -32,24 +131,88 @@ public class RedisRateLimiter {
      * @return true 表示允许，false 表示被限流
      */
     public boolean tryAcquire(String bizKey, int limit, int windowSeconds) {
+        return tryAcquire(bizKey, limit, windowSeconds, RateLimitAlgorithm.FIXED_WINDOW);
+    }
+
+    /**
+     * 按指定算法尝试获取一次调用配额。
+     *
+     * @param bizKey        业务键（未含环境、租户前缀）
+     * @param limit         窗口内最大次数（令牌桶为突发容量）
+     * @param windowSeconds 窗口秒数（令牌桶按 windowSeconds / limit 匀速补充）
+     * @param algorithm     限流算法
+     * @return true 表示允许，false 表示被限流
+     */
+    public boolean tryAcquire(String bizKey, int limit, int windowSeconds, RateLimitAlgorithm algorithm) {
         Assert.hasText(bizKey, "bizKey must not be blank");
+        Assert.notNull(algorithm, "algorithm must not be null");
         if (limit <= 0) {
             throw new IllegalArgumentException("limit must be positive");
         }
         if (windowSeconds <= 0) {
             throw new IllegalArgumentException("windowSeconds must be positive");
         }
-        long bucketStart = currentBucketStart(windowSeconds);
-        String redisKey = keyBuilder.build(RedisKeyNamespace.RATE_LIMIT, bizKey, String.valueOf(bucketStart));
-        Long count = redisOps.incr(redisKey, 1);
-        if (count != null && count == 1) {
-            redisOps.expire(redisKey, Duration.ofSeconds(windowSeconds));
+        long now = clock.getAsLong();
+        long windowMillis = windowSeconds * 1000L;
+        String baseKey = switch (algorithm) {
+            case FIXED_WINDOW -> keyBuilder.build(RedisKeyNamespace.RATE_LIMIT, bizKey);
+            case SLIDING_WINDOW -> keyBuilder.build(RedisKeyNamespace.RATE_LIMIT, bizKey, "sw");
+            case TOKEN_BUCKET -> keyBuilder.build(RedisKeyNamespace.RATE_LIMIT, bizKey, "tb");
+            case LEASED_WINDOW -> keyBuilder.build(RedisKeyNamespace.RATE_LIMIT, bizKey, "ls");
+        };
+        String filterKey = algorithm.name() + ":" + baseKey;
+        if (properties.isLocalPrefilterEnabled() && prefilter.isBlocked(filterKey, now)) {
+            if (localRejectedCounter != null) {
+                localRejectedCounter.increment();
+            }
+            return false;
+        }
+        Long retryAfter = switch (algorithm) {
+            case FIXED_WINDOW -> {
+                long bucketStart = bucketStart(now, windowSeconds);
+                yield redisOps.eval(FIXED_WINDOW, List.of(baseKey + ":" + bucketStart),
+                        String.valueOf(limit), String.valueOf(untilWindowEnd(bucketStart, windowMillis, now)));
+            }
+            case SLIDING_WINDOW -> redisOps.eval(SLIDING_WINDOW, List.of(baseKey),
+                    String.valueOf(now), String.valueOf(windowMillis), String.valueOf(limit));
+            case TOKEN_BUCKET -> redisOps.eval(TOKEN_BUCKET, List.of(baseKey),
+                    String.valueOf(now), String.valueOf(windowMillis), String.valueOf(limit));
+            case LEASED_WINDOW -> {
+                long bucketStart = bucketStart(now, windowSeconds);
+                yield leasePool.tryAcquire(baseKey, baseKey + ":" + bucketStart, limit,
+                        bucketStart * 1000 + windowMillis, now);
+            }
+        };
+        if (retryAfter == null) {
+            return false;
         }
-        return count != null && count <= limit;
+        if (retryAfter <= 0) {
+            return true;
+        }
+        if (properties.isLocalPrefilterEnabled()) {
+            prefilter.block(filterKey, now + retryAfter, now);
+        }
+        return false;
+    }
+
+    /**
+     * 归还租约模式下未用完的配额。
+     */
+    @PreDestroy
+    public void close() {
+        leasePool.close();
+    }
+
+    /**
+     * 距当前固定窗口结束的毫秒数，至少为 1。窗口键中已带窗口序号，不能用键的 PTTL 推算：
+     * 键由窗口内首个请求创建，剩余 TTL 会比窗口实际剩余时间长。
+     */
+    static long untilWindowEnd(long bucketStart, long windowMillis, long nowMillis) {
+        return Math.max(1, bucketStart * 1000 + windowMillis - nowMillis);
     }
 
-    private long currentBucketStart(int windowSeconds) {
-        long currentSeconds = System.currentTimeMillis() / 1000;
+    private static long bucketStart(long nowMillis, int windowSeconds) {
+        long currentSeconds = nowMillis / 1000;
         return currentSeconds / windowSeconds * windowSeconds;
     }
 }
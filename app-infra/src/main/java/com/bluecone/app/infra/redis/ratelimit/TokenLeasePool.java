@@ -0,0 +1,242 @@
+package com.bluecone.app.infra.redis.ratelimit;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import com.bluecone.app.infra.redis.core.RedisOps;
+
+/**
+ * 本地令牌租约：按固定窗口一次性从 Redis 预留一批配额（不超过窗口剩余量），本节点用原子计数逐个消费，
+ * 用完再预留下一批，单请求的 Redis 调用次数降为约 1 / 批大小。
+ *
+ * <p>租约到期（leaseTtl 或窗口结束，取较早者）后由后台清理把未用完的配额归还 Redis，供其他节点使用。
+ * Redis 侧总发放量不超过 limit，因此不会多放；误差只在少放一侧，每个节点最多占住一批未用配额。
+ * 跟踪的键数超过上限时新键退化为逐次预留 1 个配额。</p>
+ */
+class TokenLeasePool {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenLeasePool.class);
+
+    /**
+     * 预留配额：返回实际发放数量，窗口已满时返回负的距窗口结束毫秒数；键在窗口结束时过期。
+     * ARGV: block, limit, untilWindowEndMillis。
+     */
+    static final RedisScript<Long> RESERVE = new DefaultRedisScript<>("""
+            local used = tonumber(redis.call('GET', KEYS[1]) or '0')
+            local grant = math.min(tonumber(ARGV[1]), tonumber(ARGV[2]) - used)
+            if grant <= 0 then return -tonumber(ARGV[3]) end
+            redis.call('INCRBY', KEYS[1], grant)
+            if used == 0 then redis.call('PEXPIRE', KEYS[1], ARGV[3]) end
+            return grant
+            """, Long.class);
+
+    /**
+     * 归还未用配额，窗口键已过期时忽略。ARGV: count。
+     */
+    static final RedisScript<Long> RELEASE = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then return redis.call('DECRBY', KEYS[1], ARGV[1]) end
+            return 0
+            """, Long.class);
+
+    private final RedisOps redisOps;
+    private final LongSupplier clock;
+    private final double tolerance;
+    private final long leaseTtlMillis;
+    private final int maxKeys;
+    private final Map<String, Holder> holders = new ConcurrentHashMap<>();
+    private volatile ScheduledExecutorService sweeper;
+
+    /**
+     * @param tolerance      每批配额占 limit 的比例
+     * @param leaseTtlMillis 单批租约最长持有时间
+     * @param maxKeys        最多跟踪的限流键数量
+     */
+    TokenLeasePool(RedisOps redisOps, LongSupplier clock, double tolerance, long leaseTtlMillis, int maxKeys) {
+        this.redisOps = redisOps;
+        this.clock = clock;
+        this.tolerance = tolerance;
+        this.leaseTtlMillis = leaseTtlMillis;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * 尝试消费一个配额。
+     *
+     * @param baseKey      限流键（不含窗口序号）
+     * @param windowKey    当前窗口的 Redis 键
+     * @param windowEnd    当前窗口结束时间
+     * @return 0 表示允许，大于 0 表示被拒绝及最早可重试的毫秒数
+     */
+    long tryAcquire(String baseKey, String windowKey, int limit, long windowEnd, long now) {
+        Holder holder = holders.get(baseKey);
+        if (holder != null) {
+            Lease lease = holder.current;
+            if (lease != null && lease.usable(windowKey, now) && lease.take()) {
+                return 0;
+            }
+        } else if (holders.size() >= maxKeys) {
+            long granted = reserve(windowKey, 1, limit, windowEnd, now);
+            return granted > 0 ? 0 : Math.max(1, -granted);
+        }
+        while (true) {
+            holder = holders.computeIfAbsent(baseKey, k -> new Holder());
+            synchronized (holder) {
+                if (holder.removed) {
+                    continue;
+                }
+                Lease lease = holder.current;
+                if (lease != null && lease.usable(windowKey, now) && lease.take()) {
+                    return 0;
+                }
+                if (lease != null) {
+                    holder.current = null;
+                    giveBack(lease, now);
+                }
+                long granted = reserve(windowKey, blockSize(limit), limit, windowEnd, now);
+                if (granted <= 0) {
+                    return Math.max(1, -granted);
+                }
+                holder.current = new Lease(windowKey, Math.min(now + leaseTtlMillis, windowEnd), windowEnd,
+                        (int) granted - 1);
+                ensureSweeper();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 归还已到期租约的未用配额，并移除空闲键。
+     */
+    void releaseExpired(long now) {
+        sweep(now, false);
+    }
+
+    /**
+     * 停止清理并归还全部未用配额。
+     */
+    void close() {
+        ScheduledExecutorService current = sweeper;
+        if (current != null) {
+            current.shutdownNow();
+        }
+        sweep(clock.getAsLong(), true);
+    }
+
+    private void sweep(long now, boolean all) {
+        for (Map.Entry<String, Holder> entry : holders.entrySet()) {
+            Holder holder = entry.getValue();
+            synchronized (holder) {
+                Lease lease = holder.current;
+                if (!all && lease != null && now < lease.expiresAt) {
+                    continue;
+                }
+                if (lease != null) {
+                    holder.current = null;
+                    giveBack(lease, now);
+                }
+                holder.removed = true;
+                holders.remove(entry.getKey(), holder);
+            }
+        }
+    }
+
+    int blockSize(int limit) {
+        return Math.max(1, (int) (limit * tolerance));
+    }
+
+    int trackedKeys() {
+        return holders.size();
+    }
+
+    private long reserve(String windowKey, int block, int limit, long windowEnd, long now) {
+        Long granted = redisOps.eval(RESERVE, List.of(windowKey),
+                String.valueOf(block), String.valueOf(limit), String.valueOf(Math.max(1, windowEnd - now)));
+        return granted == null ? -1 : granted;
+    }
+
+    private void giveBack(Lease lease, long now) {
+        int unused = lease.drain();
+        if (unused <= 0 || now >= lease.windowEnd) {
+            return;
+        }
+        try {
+            redisOps.eval(RELEASE, List.of(lease.windowKey), String.valueOf(unused));
+        } catch (RuntimeException ex) {
+            // 归还失败只会让本窗口少放行，不影响正确性
+            log.warn("[RateLimit] lease release failed key={} unused={} message={}",
+                    lease.windowKey, unused, ex.getMessage());
+        }
+    }
+
+    private void ensureSweeper() {
+        if (sweeper != null) {
+            return;
+        }
+        synchronized (this) {
+            if (sweeper != null) {
+                return;
+            }
+            ScheduledExecutorService created = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofVirtual().name("rate-limit-lease-sweeper").factory());
+            long period = Math.max(1, leaseTtlMillis / 2);
+            created.scheduleWithFixedDelay(() -> {
+                try {
+                    releaseExpired(clock.getAsLong());
+                } catch (RuntimeException ex) {
+                    log.warn("[RateLimit] lease sweep failed message={}", ex.getMessage());
+                }
+            }, period, period, TimeUnit.MILLISECONDS);
+            sweeper = created;
+        }
+    }
+
+    private static final class Holder {
+        private volatile Lease current;
+        private boolean removed;
+    }
+
+    private static final class Lease {
+
+        private final String windowKey;
+        private final long expiresAt;
+        private final long windowEnd;
+        private final AtomicInteger remaining;
+
+        private Lease(String windowKey, long expiresAt, long windowEnd, int remaining) {
+            this.windowKey = windowKey;
+            this.expiresAt = expiresAt;
+            this.windowEnd = windowEnd;
+            this.remaining = new AtomicInteger(remaining);
+        }
+
+        private boolean usable(String key, long now) {
+            return now < expiresAt && windowKey.equals(key);
+        }
+
+        private boolean take() {
+            int current;
+            do {
+                current = remaining.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!remaining.compareAndSet(current, current - 1));
+            return true;
+        }
+
+        private int drain() {
+            return remaining.getAndSet(0);
+        }
+    }
+}
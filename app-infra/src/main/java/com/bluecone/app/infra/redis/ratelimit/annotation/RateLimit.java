@@ -6,6 +6,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+import com.bluecone.app.infra.redis.ratelimit.RateLimitAlgorithm;
 import com.bluecone.app.infra.redis.ratelimit.RateLimitStrategy;
 
 /**
@@ -31,6 +32,11 @@ public @interface RateLimit {
      */
     int windowSeconds() default -1;
 
+    /**
+     * 限流算法。
+     */
+    RateLimitAlgorithm algorithm() default RateLimitAlgorithm.FIXED_WINDOW;
+
     /**
      * 限流触发策略。
      */
@@ -52,7 +52,7 @@ public class RateLimitAspect {
         String bizKey = keyResolver.resolve(rateLimit.key(), context);
         int limit = rateLimit.limit() > -1 ? rateLimit.limit() : properties.getDefaultLimit();
         int windowSeconds = rateLimit.windowSeconds() > -1 ? rateLimit.windowSeconds() : properties.getDefaultWindowSeconds();
-        boolean allowed = redisRateLimiter.tryAcquire(bizKey, limit, windowSeconds);
+        boolean allowed = redisRateLimiter.tryAcquire(bizKey, limit, windowSeconds, rateLimit.algorithm());
         if (allowed) {
             return joinPoint.proceed();
         }
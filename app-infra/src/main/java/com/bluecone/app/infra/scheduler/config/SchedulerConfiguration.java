@@ -1,17 +1,25 @@
 package com.bluecone.app.infra.scheduler.config;
 
+import java.time.Duration;
+import java.util.UUID;
+
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
 
 import com.bluecone.app.infra.redis.core.RedisKeyBuilder;
+import com.bluecone.app.infra.redis.core.RedisKeyNamespace;
 import com.bluecone.app.infra.redis.core.RedisOps;
 import com.bluecone.app.infra.scheduler.core.ExecutionPipeline;
 import com.bluecone.app.infra.scheduler.core.ExecutionSandbox;
 import com.bluecone.app.infra.scheduler.core.JobRegistry;
+import com.bluecone.app.infra.scheduler.dispatcher.RedisLeaderLease;
+import com.bluecone.app.infra.scheduler.dispatcher.SchedulerJobChangeBus;
 import com.bluecone.app.infra.scheduler.dispatcher.SchedulerLoop;
 import com.bluecone.app.infra.scheduler.queue.SchedulerQueueWorker;
 import com.bluecone.app.infra.scheduler.runner.SchedulerExecutor;
@@ -59,14 +67,25 @@ public class SchedulerConfiguration {
         return new SchedulerQueueWorker(redisOps, schedulerExecutor, properties, objectMapper);
     }
 
+    @Bean
+    public SchedulerJobChangeBus schedulerJobChangeBus(ObjectProvider<StringRedisTemplate> redisTemplate,
+                                                       SchedulerProperties properties) {
+        return new SchedulerJobChangeBus(redisTemplate.getIfAvailable(), properties.getJobChangeChannel());
+    }
+
     @Bean
     @ConditionalOnProperty(prefix = "bluecone.scheduler", name = "enabled", havingValue = "true", matchIfMissing = true)
     public SchedulerLoop schedulerLoop(JobDefinitionService jobDefinitionService,
                                        com.bluecone.app.infra.scheduler.queue.SchedulerQueuePublisher publisher,
                                        SchedulerProperties properties,
                                        RedisOps redisOps,
-                                       RedisKeyBuilder redisKeyBuilder) {
-        return new SchedulerLoop(jobDefinitionService, publisher, properties, redisOps, redisKeyBuilder);
+                                       RedisKeyBuilder redisKeyBuilder,
+                                       SchedulerJobChangeBus schedulerJobChangeBus) {
+        RedisLeaderLease lease = new RedisLeaderLease(redisOps,
+                redisKeyBuilder.buildForGlobal(RedisKeyNamespace.LOCK, "scheduler", "leader"),
+                UUID.randomUUID().toString(),
+                Duration.ofSeconds(properties.getLeaderLeaseSeconds()));
+        return new SchedulerLoop(jobDefinitionService, publisher, properties, lease, schedulerJobChangeBus);
     }
 
     @Bean
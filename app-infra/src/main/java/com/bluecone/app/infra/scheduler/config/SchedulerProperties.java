@@ -14,10 +14,35 @@ public class SchedulerProperties {
     private boolean enabled = true;
 
     /**
-     * 心跳周期（秒）。
+     * 非主节点尝试接管主节点租约的周期（秒）。
      */
     private int loopIntervalSeconds = 3;
 
+    /**
+     * 时间轮底层每格时长（毫秒），即主节点的推进周期。
+     */
+    private long wheelTickMillis = 1000;
+
+    /**
+     * 时间轮每层格数。
+     */
+    private int wheelSize = 64;
+
+    /**
+     * 主节点租约时长（秒），主节点每 1/3 租约续期一次。
+     */
+    private int leaderLeaseSeconds = 15;
+
+    /**
+     * 主节点全量同步任务定义的周期（秒），兜底丢失的变更通知。
+     */
+    private int resyncSeconds = 300;
+
+    /**
+     * 任务定义变更通知的 Redis 频道。
+     */
+    private String jobChangeChannel = "bluecone:scheduler:job-changed";
+
     /**
      * Worker 线程数。
      */
@@ -44,6 +69,46 @@ public class SchedulerProperties {
         this.loopIntervalSeconds = loopIntervalSeconds;
     }
 
+    public long getWheelTickMillis() {
+        return wheelTickMillis;
+    }
+
+    public void setWheelTickMillis(long wheelTickMillis) {
+        this.wheelTickMillis = wheelTickMillis;
+    }
+
+    public int getWheelSize() {
+        return wheelSize;
+    }
+
+    public void setWheelSize(int wheelSize) {
+        this.wheelSize = wheelSize;
+    }
+
+    public int getLeaderLeaseSeconds() {
+        return leaderLeaseSeconds;
+    }
+
+    public void setLeaderLeaseSeconds(int leaderLeaseSeconds) {
+        this.leaderLeaseSeconds = leaderLeaseSeconds;
+    }
+
+    public int getResyncSeconds() {
+        return resyncSeconds;
+    }
+
+    public void setResyncSeconds(int resyncSeconds) {
+        this.resyncSeconds = resyncSeconds;
+    }
+
+    public String getJobChangeChannel() {
+        return jobChangeChannel;
+    }
+
+    public void setJobChangeChannel(String jobChangeChannel) {
+        this.jobChangeChannel = jobChangeChannel;
+    }
+
     public int getWorkerThreads() {
         return workerThreads;
     }
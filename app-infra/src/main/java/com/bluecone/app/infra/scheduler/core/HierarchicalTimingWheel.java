@@ -0,0 +1,156 @@
+package com.bluecone.app.infra.scheduler.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 分层时间轮：第一层每格 tickMillis，共 wheelSize 格；超出本层跨度的条目放入上一层（每格为下层总跨度），
+ * 上层格子到期时把条目降级回底层重新定位。
+ *
+ * <p>插入与取出到期条目均为 O(1)（不计推进跨越的空格数）。非线程安全，须由同一线程驱动。
+ * 条目取消采用标记方式，到期时丢弃已取消条目。</p>
+ *
+ * @param <T> 条目负载类型
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final Level<T> root;
+    private int size;
+
+    /**
+     * @param tickMillis 底层每格时长
+     * @param wheelSize  每层格数
+     * @param startMillis 起始时间
+     */
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 1) {
+            throw new IllegalArgumentException("tickMillis must be positive and wheelSize greater than 1");
+        }
+        this.root = new Level<>(tickMillis, wheelSize, startMillis);
+    }
+
+    /**
+     * 放入一个条目；已到期的条目直接加入 expired 由调用方立即处理。
+     *
+     * @return 条目句柄，可用于取消
+     */
+    public Timeout<T> schedule(T payload, long deadlineMillis, List<T> expired) {
+        Timeout<T> timeout = new Timeout<>(payload, deadlineMillis);
+        if (!root.add(timeout)) {
+            expired.add(payload);
+            return timeout;
+        }
+        size++;
+        return timeout;
+    }
+
+    /**
+     * 推进时钟到 nowMillis，返回期间到期的条目（按格子顺序）。
+     */
+    public List<T> advance(long nowMillis) {
+        List<Timeout<T>> due = new ArrayList<>();
+        root.advance(nowMillis, due, root);
+        List<T> payloads = new ArrayList<>(due.size());
+        for (Timeout<T> timeout : due) {
+            size--;
+            if (!timeout.cancelled) {
+                payloads.add(timeout.payload);
+            }
+        }
+        return payloads;
+    }
+
+    /**
+     * 当前轮上的条目数（含已取消但尚未到期的）。
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 已调度条目的句柄。
+     */
+    public static final class Timeout<T> {
+
+        private final T payload;
+        private final long deadlineMillis;
+        private boolean cancelled;
+
+        private Timeout(T payload, long deadlineMillis) {
+            this.payload = payload;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public long deadlineMillis() {
+            return deadlineMillis;
+        }
+    }
+
+    private static final class Level<T> {
+
+        private final long tickMillis;
+        private final int wheelSize;
+        private final long interval;
+        private final List<List<Timeout<T>>> buckets;
+        private long currentTime;
+        private Level<T> overflow;
+
+        private Level(long tickMillis, int wheelSize, long startMillis) {
+            this.tickMillis = tickMillis;
+            this.wheelSize = wheelSize;
+            this.interval = tickMillis * wheelSize;
+            this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+            this.buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new ArrayList<>());
+            }
+        }
+
+        /**
+         * @return false 表示已到期（落在当前格内或更早）
+         */
+        private boolean add(Timeout<T> timeout) {
+            long deadline = timeout.deadlineMillis;
+            if (deadline < currentTime + tickMillis) {
+                return false;
+            }
+            if (deadline < currentTime + interval) {
+                buckets.get((int) Math.floorMod(deadline / tickMillis, (long) wheelSize)).add(timeout);
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level<>(interval, wheelSize, currentTime);
+            }
+            return overflow.add(timeout);
+        }
+
+        private void advance(long nowMillis, List<Timeout<T>> due, Level<T> root) {
+            while (currentTime + tickMillis <= nowMillis) {
+                currentTime += tickMillis;
+                int index = (int) Math.floorMod(currentTime / tickMillis, (long) wheelSize);
+                List<Timeout<T>> bucket = buckets.get(index);
+                if (bucket.isEmpty()) {
+                    continue;
+                }
+                buckets.set(index, new ArrayList<>());
+                for (Timeout<T> timeout : bucket) {
+                    // 上层格子到期后降级回底层；底层格子到期即输出
+                    if (timeout.cancelled || !root.add(timeout)) {
+                        due.add(timeout);
+                    }
+                }
+            }
+            if (overflow != null) {
+                overflow.advance(nowMillis, due, root);
+            }
+        }
+    }
+}
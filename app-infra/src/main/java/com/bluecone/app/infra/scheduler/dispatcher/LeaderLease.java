@@ -0,0 +1,19 @@
+package com.bluecone.app.infra.scheduler.dispatcher;
+
+/**
+ * 调度主节点租约：同一时刻只有一个节点持有，持有者定期续期，失联后由其他节点接管。
+ */
+public interface LeaderLease {
+
+    /**
+     * 未持有时尝试获取，已持有时续期。
+     *
+     * @return 本节点当前是否为主节点
+     */
+    boolean acquireOrRenew();
+
+    /**
+     * 主动释放（仅在仍由本节点持有时生效）。
+     */
+    void release();
+}
@@ -0,0 +1,78 @@
+package com.bluecone.app.infra.scheduler.dispatcher;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import com.bluecone.app.infra.redis.core.RedisOps;
+
+/**
+ * 基于 Redis 的主节点租约：SET NX PX 获取，Lua 比较持有者后 PEXPIRE 续期 / DEL 释放，
+ * 避免续期或释放到其他节点已接管的租约。
+ *
+ * <p>Redis 异常时视为失去主节点身份，宁可短暂无人调度也不双主。</p>
+ */
+public class RedisLeaderLease implements LeaderLease {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisLeaderLease.class);
+
+    private static final RedisScript<Long> RENEW = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final RedisOps redisOps;
+    private final String key;
+    private final String holderId;
+    private final Duration ttl;
+    private boolean held;
+
+    public RedisLeaderLease(RedisOps redisOps, String key, String holderId, Duration ttl) {
+        this.redisOps = redisOps;
+        this.key = key;
+        this.holderId = holderId;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public synchronized boolean acquireOrRenew() {
+        try {
+            if (held) {
+                Long renewed = redisOps.eval(RENEW, List.of(key), holderId, String.valueOf(ttl.toMillis()));
+                held = renewed != null && renewed > 0;
+                if (!held) {
+                    log.warn("[Scheduler] leader lease lost key={} holder={}", key, holderId);
+                }
+            } else {
+                held = Boolean.TRUE.equals(redisOps.setIfAbsent(key, holderId, ttl));
+                if (held) {
+                    log.info("[Scheduler] leader lease acquired key={} holder={}", key, holderId);
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("[Scheduler] leader lease check failed key={} message={}", key, ex.getMessage());
+            held = false;
+        }
+        return held;
+    }
+
+    @Override
+    public synchronized void release() {
+        if (!held) {
+            return;
+        }
+        held = false;
+        try {
+            redisOps.eval(RELEASE, List.of(key), holderId);
+        } catch (RuntimeException ex) {
+            log.warn("[Scheduler] leader lease release failed key={} message={}", key, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.bluecone.app.infra.scheduler.dispatcher;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * 任务定义变更通知：注册、启停后通知本节点与其他节点（Redis Pub/Sub），主节点据此增量刷新时间轮。
+ *
+ * <p>消息体为 {@code instanceId|jobCode}，收到自己发出的广播时忽略（本地已通知）。
+ * 通知丢失时由主节点的周期全量同步兜底。未配置 Redis 时仅本地通知。</p>
+ */
+public class SchedulerJobChangeBus implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulerJobChangeBus.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private RedisMessageListenerContainer listenerContainer;
+
+    /**
+     * @param redisTemplate 为 null 时只做本地通知
+     * @param channel       广播频道
+     */
+    public SchedulerJobChangeBus(StringRedisTemplate redisTemplate, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    /**
+     * 注册变更回调，参数为任务编码，回调须快速返回。
+     */
+    public void register(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 任务定义已变更：通知本地并广播。
+     */
+    public void notifyChanged(String jobCode) {
+        fireLocal(jobCode);
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(channel, instanceId + "|" + jobCode);
+        } catch (RuntimeException ex) {
+            // 广播失败不影响正确性，主节点周期全量同步时会拾取
+            log.warn("[Scheduler] job change broadcast failed code={} message={}", jobCode, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (redisTemplate == null || redisTemplate.getConnectionFactory() == null) {
+            log.info("[Scheduler] redis not available, job change notification local only");
+            return;
+        }
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisTemplate.getConnectionFactory());
+        listenerContainer.addMessageListener(this::onMessage, new ChannelTopic(channel));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+        log.info("[Scheduler] job change listener started on channel={}", channel);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
+    private void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('|');
+        if (separator < 0 || instanceId.equals(body.substring(0, separator))) {
+            return;
+        }
+        fireLocal(body.substring(separator + 1));
+    }
+
+    private void fireLocal(String jobCode) {
+        for (Consumer<String> listener : listeners) {
+            try {
+                listener.accept(jobCode);
+            } catch (RuntimeException ex) {
+                log.warn("[Scheduler] job change listener failed code={} message={}", jobCode, ex.getMessage());
+            }
+        }
+    }
+}
@@ -1,9 +1,17 @@
 package com.bluecone.app.infra.scheduler.dispatcher;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
@@ -15,18 +23,21 @@ import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.bluecone.app.infra.redis.core.RedisKeyBuilder;
-import com.bluecone.app.infra.redis.core.RedisKeyNamespace;
-import com.bluecone.app.infra.redis.core.RedisOps;
 import com.bluecone.app.infra.scheduler.config.SchedulerProperties;
 import com.bluecone.app.infra.scheduler.core.CronUtils;
+import com.bluecone.app.infra.scheduler.core.HierarchicalTimingWheel;
+import com.bluecone.app.infra.scheduler.core.HierarchicalTimingWheel.Timeout;
 import com.bluecone.app.infra.scheduler.entity.JobDefinitionEntity;
 import com.bluecone.app.infra.scheduler.queue.SchedulerQueuePayload;
 import com.bluecone.app.infra.scheduler.queue.SchedulerQueuePublisher;
 import com.bluecone.app.infra.scheduler.service.JobDefinitionService;
 
 /**
- * 统一心跳：仅负责扫描到期任务并投递队列，不直接执行。
+ * 统一心跳：仅负责把到期任务投递队列，不直接执行。
+ *
+ * <p>只有持有主节点租约的节点调度：成为主节点时全量加载启用任务到分层时间轮，之后按任务变更通知
+ * 增量刷新，并周期全量同步兜底；每次推进只处理到期任务，不再逐次扫表、逐任务加锁。
+ * 每次投递后持久化 nextRunAt，接管的节点据此继续调度。非主节点仅定期尝试获取租约。</p>
  */
 public class SchedulerLoop {
 
@@ -35,22 +46,29 @@ public class SchedulerLoop {
     private final JobDefinitionService jobDefinitionService;
     private final SchedulerQueuePublisher publisher;
     private final SchedulerProperties properties;
-    private final RedisOps redisOps;
-    private final RedisKeyBuilder redisKeyBuilder;
+    private final LeaderLease lease;
     private final ScheduledExecutorService scheduler;
-    private final String instanceId = UUID.randomUUID().toString();
+    private final Queue<String> changedCodes = new ConcurrentLinkedQueue<>();
+
+    // 以下状态仅由心跳线程访问
+    private final Map<String, JobDefinitionEntity> jobs = new HashMap<>();
+    private final Map<String, Timeout<String>> timeouts = new HashMap<>();
+    private HierarchicalTimingWheel<String> wheel;
+    private boolean leader;
+    private long nextLeaseCheckAt;
+    private long nextResyncAt;
 
     public SchedulerLoop(JobDefinitionService jobDefinitionService,
                          SchedulerQueuePublisher publisher,
                          SchedulerProperties properties,
-                         RedisOps redisOps,
-                         RedisKeyBuilder redisKeyBuilder) {
+                         LeaderLease lease,
+                         SchedulerJobChangeBus changeBus) {
         this.jobDefinitionService = jobDefinitionService;
         this.publisher = publisher;
         this.properties = properties;
-        this.redisOps = redisOps;
-        this.redisKeyBuilder = redisKeyBuilder;
+        this.lease = lease;
         this.scheduler = Executors.newSingleThreadScheduledExecutor(new LoopThreadFactory());
+        changeBus.register(changedCodes::add);
     }
 
     @PostConstruct
@@ -61,38 +79,121 @@ public class SchedulerLoop {
         }
         scheduler.scheduleWithFixedDelay(this::beat,
                 0,
-                properties.getLoopIntervalSeconds(),
-                TimeUnit.SECONDS);
-        log.info("[Scheduler] loop started interval={}s", properties.getLoopIntervalSeconds());
+                properties.getWheelTickMillis(),
+                TimeUnit.MILLISECONDS);
+        log.info("[Scheduler] loop started tick={}ms", properties.getWheelTickMillis());
     }
 
     @PreDestroy
     public void stop() {
         scheduler.shutdownNow();
+        lease.release();
     }
 
     private void beat() {
-        LocalDateTime now = LocalDateTime.now();
-        List<JobDefinitionEntity> enabled = jobDefinitionService.loadEnabledJobs();
-        for (JobDefinitionEntity job : enabled) {
-            if (!CronUtils.isDue(job.getNextRunAt(), now)) {
-                continue;
+        try {
+            tick(System.currentTimeMillis());
+        } catch (Exception ex) {
+            log.error("[Scheduler] tick failed", ex);
+        }
+    }
+
+    /**
+     * 推进一次：检查租约、应用变更、投递到期任务。
+     */
+    void tick(long nowMillis) {
+        if (nowMillis >= nextLeaseCheckAt) {
+            checkLease(nowMillis);
+        }
+        if (!leader) {
+            changedCodes.clear();
+            return;
+        }
+        if (nowMillis >= nextResyncAt) {
+            rebuild(nowMillis);
+        } else {
+            applyChanges(nowMillis);
+        }
+        dispatch(wheel.advance(nowMillis), nowMillis);
+    }
+
+    boolean isLeader() {
+        return leader;
+    }
+
+    private void checkLease(long nowMillis) {
+        boolean held = lease.acquireOrRenew();
+        if (held && !leader) {
+            leader = true;
+            log.info("[Scheduler] became leader, loading jobs");
+            rebuild(nowMillis);
+        } else if (!held && leader) {
+            leader = false;
+            jobs.clear();
+            timeouts.clear();
+            wheel = null;
+            log.warn("[Scheduler] leader lease lost, dispatch stopped");
+        }
+        long leaseMillis = properties.getLeaderLeaseSeconds() * 1000L;
+        nextLeaseCheckAt = nowMillis + (leader ? leaseMillis / 3 : properties.getLoopIntervalSeconds() * 1000L);
+    }
+
+    private void rebuild(long nowMillis) {
+        changedCodes.clear();
+        jobs.clear();
+        timeouts.clear();
+        wheel = new HierarchicalTimingWheel<>(properties.getWheelTickMillis(), properties.getWheelSize(), nowMillis);
+        List<String> expired = new ArrayList<>();
+        for (JobDefinitionEntity job : jobDefinitionService.loadEnabledJobs()) {
+            schedule(job, expired);
+        }
+        nextResyncAt = nowMillis + properties.getResyncSeconds() * 1000L;
+        dispatch(expired, nowMillis);
+    }
+
+    private void applyChanges(long nowMillis) {
+        List<String> expired = new ArrayList<>();
+        String code;
+        while ((code = changedCodes.poll()) != null) {
+            Timeout<String> previous = timeouts.remove(code);
+            if (previous != null) {
+                previous.cancel();
             }
-            if (!acquireLock(job.getCode())) {
-                continue;
+            jobs.remove(code);
+            JobDefinitionEntity job = jobDefinitionService.findByCode(code);
+            if (job != null && Boolean.TRUE.equals(job.getEnabled())) {
+                schedule(job, expired);
             }
-            enqueue(job, now);
         }
+        dispatch(expired, nowMillis);
+    }
+
+    private void schedule(JobDefinitionEntity job, List<String> expired) {
+        if (job.getNextRunAt() == null) {
+            LocalDateTime next = CronUtils.nextTime(job.getCronExpr(), LocalDateTime.now());
+            jobDefinitionService.updateNextRun(job.getCode(), next);
+            job.setNextRunAt(next);
+        }
+        jobs.put(job.getCode(), job);
+        timeouts.put(job.getCode(), wheel.schedule(job.getCode(), toMillis(job.getNextRunAt()), expired));
     }
 
-    private boolean acquireLock(String code) {
-        String lockKey = redisKeyBuilder.buildForGlobal(RedisKeyNamespace.LOCK, "scheduler", code, "lock");
-        Boolean locked = redisOps.setIfAbsent(lockKey, instanceId,
-                Duration.ofSeconds(properties.getLoopIntervalSeconds() * 2L));
-        return Boolean.TRUE.equals(locked);
+    private void dispatch(List<String> due, long nowMillis) {
+        Deque<String> pending = new ArrayDeque<>(due);
+        String code;
+        while ((code = pending.poll()) != null) {
+            JobDefinitionEntity job = jobs.get(code);
+            if (job == null) {
+                continue;
+            }
+            List<String> expired = new ArrayList<>();
+            enqueue(job, nowMillis, expired);
+            pending.addAll(expired);
+        }
     }
 
-    private void enqueue(JobDefinitionEntity job, LocalDateTime now) {
+    private void enqueue(JobDefinitionEntity job, long nowMillis, List<String> expired) {
+        LocalDateTime now = toLocalDateTime(nowMillis);
         try {
             SchedulerQueuePayload payload = new SchedulerQueuePayload(
                     job.getCode(),
@@ -100,11 +201,36 @@ public class SchedulerLoop {
                     job.getTenantId(),
                     now);
             publisher.publish(properties.getQueueKey(), payload);
-            LocalDateTime next = CronUtils.nextTime(job.getCronExpr(), now);
-            jobDefinitionService.updateNextRun(job.getCode(), next);
         } catch (Exception ex) {
             log.error("[Scheduler] enqueue failed code={}", job.getCode(), ex);
+            // 保持 nextRunAt 不变，稍后重试
+            timeouts.put(job.getCode(), wheel.schedule(job.getCode(),
+                    nowMillis + Math.max(properties.getLoopIntervalSeconds() * 1000L, properties.getWheelTickMillis()),
+                    expired));
+            return;
         }
+        // 时间轮按格到期，可能略早于 nextRunAt，从两者较晚者起算避免同一时点重复投递
+        LocalDateTime base = job.getNextRunAt() != null && job.getNextRunAt().isAfter(now) ? job.getNextRunAt() : now;
+        LocalDateTime next = CronUtils.nextTime(job.getCronExpr(), base);
+        try {
+            jobDefinitionService.updateNextRun(job.getCode(), next);
+        } catch (Exception ex) {
+            log.error("[Scheduler] update next run failed code={}", job.getCode(), ex);
+        }
+        job.setNextRunAt(next);
+        if (next == null) {
+            timeouts.remove(job.getCode());
+            return;
+        }
+        timeouts.put(job.getCode(), wheel.schedule(job.getCode(), toMillis(next), expired));
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
     }
 
     private static final class LoopThreadFactory implements ThreadFactory {
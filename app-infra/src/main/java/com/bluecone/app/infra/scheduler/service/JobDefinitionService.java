@@ -4,11 +4,13 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
 import com.bluecone.app.infra.scheduler.annotation.BlueconeJob;
 import com.bluecone.app.infra.scheduler.core.CronUtils;
+import com.bluecone.app.infra.scheduler.dispatcher.SchedulerJobChangeBus;
 import com.bluecone.app.infra.scheduler.entity.JobDefinitionEntity;
 import com.bluecone.app.infra.scheduler.queue.SchedulerQueuePayload;
 import com.bluecone.app.infra.scheduler.queue.SchedulerQueuePublisher;
@@ -25,13 +27,16 @@ public class JobDefinitionService {
     private final JobDefinitionRepository repository;
     private final SchedulerQueuePublisher publisher;
     private final SchedulerProperties properties;
+    private final ObjectProvider<SchedulerJobChangeBus> changeBus;
 
     public JobDefinitionService(JobDefinitionRepository repository,
                                 SchedulerQueuePublisher publisher,
-                                SchedulerProperties properties) {
+                                SchedulerProperties properties,
+                                ObjectProvider<SchedulerJobChangeBus> changeBus) {
         this.repository = repository;
         this.publisher = publisher;
         this.properties = properties;
+        this.changeBus = changeBus;
     }
 
     public JobDefinitionEntity registerIfNeeded(BlueconeJob annotation) {
@@ -49,6 +54,7 @@ public class JobDefinitionService {
             created.setUpdatedAt(LocalDateTime.now());
             created.setNextRunAt(CronUtils.nextTime(annotation.cron(), LocalDateTime.now()));
             repository.insert(created);
+            notifyChanged(created.getCode());
             return created;
         }
         JobDefinitionEntity merged = new JobDefinitionEntity();
@@ -81,6 +87,10 @@ public class JobDefinitionService {
         return enabled;
     }
 
+    public JobDefinitionEntity findByCode(String code) {
+        return repository.findByCode(code);
+    }
+
     public List<JobDefinitionEntity> listAll() {
         return repository.listAll();
     }
@@ -91,10 +101,12 @@ public class JobDefinitionService {
 
     public void enable(String code) {
         repository.updateEnabled(code, true);
+        notifyChanged(code);
     }
 
     public void disable(String code) {
         repository.updateEnabled(code, false);
+        notifyChanged(code);
     }
 
     public void triggerRunNow(String code) {
@@ -107,6 +119,13 @@ public class JobDefinitionService {
         publisher.publish(properties.getQueueKey(), payload);
     }
 
+    private void notifyChanged(String code) {
+        SchedulerJobChangeBus bus = changeBus.getIfAvailable();
+        if (bus != null) {
+            bus.notifyChanged(code);
+        }
+    }
+
     private String resolveTenant() {
         String tenantId = TenantContext.getTenantId();
         return (tenantId == null || tenantId.isBlank()) ? "default" : tenantId;
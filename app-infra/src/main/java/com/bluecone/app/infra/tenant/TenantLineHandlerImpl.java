@@ -101,7 +101,8 @@ public class TenantLineHandlerImpl implements TenantLineHandler {
         //     return true;
         // }
          // Outbox 表为全局队列，不做租户隔离
-         if ("bc_outbox_message".equalsIgnoreCase(tableName)) {
+         if ("bc_outbox_message".equalsIgnoreCase(tableName)
+                 || "bc_outbox_event".equalsIgnoreCase(tableName)) {
              return true;
          }
          // Integration Hub 为全局事件通道，内部自行做 tenant 过滤
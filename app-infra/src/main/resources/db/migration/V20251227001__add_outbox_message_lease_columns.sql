@@ -0,0 +1,12 @@
+-- ============================================================================
+-- bc_outbox_message 租约认领字段
+-- ============================================================================
+-- 用途：多节点投递时按批次原子认领消息，避免各节点扫描到同一批行重复投递
+--   1. lock_owner：本轮认领令牌（实例 ID + 轮次），投递完成后清空
+--   2. lease_until：租约到期时间，节点宕机后租约过期即可被其他节点重新认领
+-- ============================================================================
+
+ALTER TABLE bc_outbox_message
+    ADD COLUMN lock_owner VARCHAR(64) NULL COMMENT '认领令牌（实例 ID + 轮次）' AFTER next_retry_at,
+    ADD COLUMN lease_until TIMESTAMP(3) NULL COMMENT '租约到期时间，过期后可被重新认领' AFTER lock_owner,
+    ADD INDEX idx_lock_owner (lock_owner);
@@ -0,0 +1,38 @@
+-- ============================================================================
+-- bc_outbox_message_history：已完成 Outbox 消息归档表
+-- ============================================================================
+-- 用途：OutboxCleanerJob 将超过保留期的 DONE / DEAD 消息按批整体搬迁至此，
+--       主表只保留在途消息，扫描与索引维护成本不随历史增长
+-- 分区：按 created_at 月度 RANGE 分区，历史数据过期时直接
+--       ALTER TABLE ... DROP PARTITION，避免逐行 DELETE；
+--       新月份由 OutboxCleanerJob 每次归档前调用 ensureHistoryPartitions 自动补齐：
+--       listHistoryPartitions 查出已有月份，addHistoryPartitions 从 p_max 拆出
+--       未来 bluecone.outbox.archive-partition-months-ahead 个月的分区，无需人工维护
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS bc_outbox_message_history (
+    id BIGINT NOT NULL COMMENT '原 bc_outbox_message.id',
+    event_type VARCHAR(255) NOT NULL COMMENT '领域事件类型',
+    event_key VARCHAR(255) NOT NULL COMMENT '业务幂等键',
+    payload JSON NOT NULL COMMENT '事件载荷',
+    headers JSON NULL COMMENT '元数据/扩展头',
+    tenant_id BIGINT NULL COMMENT '租户 ID',
+    status VARCHAR(32) NOT NULL COMMENT '归档时状态：DONE / DEAD',
+    retry_count INT NOT NULL DEFAULT 0 COMMENT '已重试次数',
+    created_at DATETIME NOT NULL COMMENT '原消息创建时间（分区键）',
+    updated_at DATETIME NOT NULL COMMENT '原消息最后更新时间',
+    archived_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '归档时间',
+    PRIMARY KEY (id, created_at),
+    INDEX idx_event_key (event_key),
+    INDEX idx_tenant_created (tenant_id, created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Outbox 消息归档表'
+PARTITION BY RANGE COLUMNS (created_at) (
+    PARTITION p202512 VALUES LESS THAN ('2026-01-01'),
+    PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+    PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+    PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+    PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+    PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+    PARTITION p_max VALUES LESS THAN (MAXVALUE)
+);
@@ -0,0 +1,12 @@
+-- ============================================================================
+-- bc_outbox_event 租约认领字段
+-- ============================================================================
+-- 用途：bc_outbox_event 与 bc_outbox_message 统一由 OutboxRelayEngine 中继，认领方式一致
+--   1. lock_owner：本轮认领令牌（实例 ID + 轮次），回写完成后清空
+--   2. lease_until：租约到期时间，节点宕机后租约过期即可被其他节点重新认领
+-- ============================================================================
+
+ALTER TABLE bc_outbox_event
+    ADD COLUMN lock_owner VARCHAR(64) NULL COMMENT '认领令牌（实例 ID + 轮次）' AFTER next_retry_at,
+    ADD COLUMN lease_until TIMESTAMP(3) NULL COMMENT '租约到期时间，过期后可被重新认领' AFTER lock_owner,
+    ADD INDEX idx_lock_owner (lock_owner);
@@ -0,0 +1,30 @@
+-- ============================================================================
+-- 热点商品库存分桶
+-- ============================================================================
+-- 用途：秒杀等单品高并发锁定时，把一个库存维度拆成多行分桶，锁定按桶条件更新，不再争用 bc_inv_stock 单行版本号
+--   1. bc_inv_policy.hot_bucket_count：分桶数，大于 1 时开启
+--   2. bc_inv_stock_bucket：各桶总量/锁定/可用，各桶之和即库存维度汇总，bc_inv_stock 作为汇总快照对账刷新
+--   3. bc_inv_stock_lock.bucket_no：锁定所在桶，释放与扣减回到该桶
+-- ============================================================================
+
+ALTER TABLE bc_inv_policy
+    ADD COLUMN hot_bucket_count INT NOT NULL DEFAULT 0 COMMENT '热点分桶数，大于1时开启分桶锁定，0表示不分桶' AFTER max_daily_sold;
+
+ALTER TABLE bc_inv_stock_lock
+    ADD COLUMN bucket_no INT NULL COMMENT '热点分桶锁定所在桶号，非分桶锁定为空' AFTER lock_qty;
+
+CREATE TABLE IF NOT EXISTS `bc_inv_stock_bucket` (
+  `id`            BIGINT   NOT NULL AUTO_INCREMENT COMMENT '主键',
+  `tenant_id`     BIGINT   NOT NULL COMMENT '租户ID',
+  `store_id`      BIGINT   NOT NULL COMMENT '门店ID',
+  `item_id`       BIGINT   NOT NULL COMMENT '库存对象ID，对应 bc_inv_item.id',
+  `location_id`   BIGINT   NOT NULL DEFAULT 0 COMMENT '库位ID，与 bc_inv_stock 一致',
+  `bucket_no`     INT      NOT NULL COMMENT '桶号，从0开始',
+  `total_qty`     BIGINT   NOT NULL DEFAULT 0 COMMENT '桶内总数量（最小单位）',
+  `locked_qty`    BIGINT   NOT NULL DEFAULT 0 COMMENT '桶内锁定数量（最小单位）',
+  `available_qty` BIGINT   NOT NULL DEFAULT 0 COMMENT '桶内可用数量（最小单位）',
+  `created_at`    DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `updated_at`    DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_inv_stock_bucket` (`tenant_id`, `store_id`, `item_id`, `location_id`, `bucket_no`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='热点商品库存分桶表';
@@ -0,0 +1,65 @@
+package com.bluecone.app.infra.cache.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * BinaryCacheCodec 编解码、压缩与 JSON 共存测试。
+ */
+class BinaryCacheCodecTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .build();
+
+    @Test
+    void smallValueShouldRoundTripWithoutCompression() throws Exception {
+        BinaryCacheCodec codec = new BinaryCacheCodec(512);
+        Sample sample = new Sample(1L, "store", Instant.parse("2025-01-01T00:00:00Z"), Map.of("k", "v"));
+
+        byte[] payload = codec.encode(sample);
+
+        assertThat(payload[0]).isEqualTo(BinaryCacheCodec.MAGIC);
+        assertThat(payload[2] & BinaryCacheCodec.FLAG_LZ4).isZero();
+        assertThat(codec.decode(payload, Sample.class)).isEqualTo(sample);
+    }
+
+    @Test
+    void largeValueShouldBeCompressedAndSmallerThanJson() throws Exception {
+        BinaryCacheCodec codec = new BinaryCacheCodec(64);
+        Sample sample = new Sample(2L, "x".repeat(2000), Instant.parse("2025-01-01T00:00:00Z"), Map.of());
+
+        byte[] payload = codec.encode(sample);
+
+        assertThat(payload[2] & BinaryCacheCodec.FLAG_LZ4).isEqualTo(BinaryCacheCodec.FLAG_LZ4);
+        assertThat(payload.length).isLessThan(objectMapper.writeValueAsBytes(sample).length);
+        assertThat(codec.decode(payload, Sample.class)).isEqualTo(sample);
+    }
+
+    @Test
+    void formatHeaderShouldSeparateJsonAndBinaryPayloads() throws Exception {
+        BinaryCacheCodec binary = new BinaryCacheCodec(512);
+        JsonCacheCodec json = new JsonCacheCodec(objectMapper);
+        Sample sample = new Sample(3L, "store", null, Map.of());
+
+        byte[] binaryPayload = binary.encode(sample);
+        byte[] jsonPayload = json.encode(sample);
+
+        assertThat(binary.supports(binaryPayload)).isTrue();
+        assertThat(json.supports(binaryPayload)).isFalse();
+        assertThat(binary.supports(jsonPayload)).isFalse();
+        assertThat(json.supports(jsonPayload)).isTrue();
+    }
+
+    record Sample(long id, String name, Instant updatedAt, Map<String, Object> ext) {
+    }
+}
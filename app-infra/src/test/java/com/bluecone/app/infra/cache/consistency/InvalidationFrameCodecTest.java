@@ -0,0 +1,57 @@
+package com.bluecone.app.infra.cache.consistency;
+
+import com.bluecone.app.infra.cache.core.CacheKey;
+import com.bluecone.app.infra.cache.core.CacheNamespace;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * InvalidationFrameCodec 批次帧编解码与压缩测试。
+ */
+class InvalidationFrameCodecTest {
+
+    @Test
+    void batchWithNamespacesShouldRoundTrip() throws Exception {
+        InvalidationFrameCodec codec = new InvalidationFrameCodec(1024);
+        InvalidationBatch batch = new InvalidationBatch(
+                List.of(CacheKey.generic("t1", "product", 1), CacheKey.generic("t2", "store", 9).withVersion("3"),
+                        CacheKey.generic("t1", "product", 2)),
+                List.of(CacheNamespace.tenant("t3"), CacheNamespace.of("t1", "sku")));
+
+        byte[] frame = codec.encode(batch);
+
+        assertThat(InvalidationFrameCodec.isFrame(frame)).isTrue();
+        assertThat(frame[2] & InvalidationFrameCodec.FLAG_LZ4).isZero();
+        InvalidationBatch decoded = codec.decode(frame);
+        assertThat(decoded.namespaces()).isEqualTo(batch.namespaces());
+        assertThat(decoded.keys()).containsExactlyInAnyOrderElementsOf(batch.keys());
+    }
+
+    @Test
+    void largeBatchShouldBeCompressed() throws Exception {
+        InvalidationFrameCodec codec = new InvalidationFrameCodec(1024);
+        List<CacheKey> keys = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            keys.add(CacheKey.generic("tenant-1", "product", 100000 + i));
+        }
+
+        byte[] frame = codec.encode(InvalidationBatch.ofKeys(keys));
+
+        assertThat(frame[2] & InvalidationFrameCodec.FLAG_LZ4).isNotZero();
+        // 1000 条逐条 JSON 消息约 90KB，单帧应远小于此
+        assertThat(frame.length).isLessThan(8 * 1024);
+        assertThat(codec.decode(frame).keys()).containsExactlyElementsOf(keys);
+    }
+
+    @Test
+    void legacyJsonPayloadShouldNotBeTreatedAsFrame() {
+        byte[] json = "{\"tenantId\":\"t1\",\"domain\":\"product\",\"bizId\":\"1\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(InvalidationFrameCodec.isFrame(json)).isFalse();
+    }
+}
@@ -0,0 +1,90 @@
+package com.bluecone.app.infra.cache.consistency;
+
+import com.bluecone.app.infra.cache.core.CacheKey;
+import com.bluecone.app.infra.cache.core.CacheNamespace;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * RedisConsistencyBus 发布格式开关测试：默认旧版 JSON，开启后发二进制帧。
+ */
+class RedisConsistencyBusTest {
+
+    private static final String CHANNEL = "bluecone:cache:invalidate";
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    RedisConsistencyBusTest() {
+        when(redisTemplate.getConnectionFactory()).thenReturn(mock(RedisConnectionFactory.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void legacyFormatPublishesOneJsonMessagePerKey() throws Exception {
+        RedisConsistencyBus bus = newBus(false);
+
+        bus.publishInvalidation(List.of(CacheKey.generic("t1", "product", 1), CacheKey.generic("t1", "product", 2)
+                .withVersion("3")), "update");
+
+        ArgumentCaptor<String> sent = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, times(2)).convertAndSend(eq(CHANNEL), sent.capture());
+        assertThat(objectMapper.readTree(sent.getAllValues().get(1)).get("bizId").asText()).isEqualTo("2");
+        assertThat(objectMapper.readTree(sent.getAllValues().get(1)).get("version").asText()).isEqualTo("3");
+        verify(redisTemplate, never()).execute(any(RedisCallback.class));
+    }
+
+    @Test
+    void legacyFormatStillSendsNamespacesAsFrame() throws Exception {
+        RedisConsistencyBus bus = newBus(false);
+
+        bus.publishNamespaceInvalidation(CacheNamespace.of("t1", "sku"), "reload");
+
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+        assertThat(publishedFrame().namespaces()).containsExactly(CacheNamespace.of("t1", "sku"));
+    }
+
+    @Test
+    void frameFormatPublishesKeysInOneFrame() throws Exception {
+        RedisConsistencyBus bus = newBus(true);
+        List<CacheKey> keys = List.of(CacheKey.generic("t1", "product", 1), CacheKey.generic("t1", "product", 2));
+
+        bus.publishInvalidation(keys, "update");
+
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+        assertThat(publishedFrame().keys()).containsExactlyInAnyOrderElementsOf(keys);
+    }
+
+    @SuppressWarnings("unchecked")
+    private InvalidationBatch publishedFrame() throws Exception {
+        ArgumentCaptor<RedisCallback<Long>> callback = ArgumentCaptor.forClass(RedisCallback.class);
+        verify(redisTemplate).execute(callback.capture());
+        RedisConnection connection = mock(RedisConnection.class);
+        callback.getValue().doInRedis(connection);
+        ArgumentCaptor<byte[]> frame = ArgumentCaptor.forClass(byte[].class);
+        verify(connection).publish(any(byte[].class), frame.capture());
+        return new InvalidationFrameCodec(1024).decode(frame.getValue());
+    }
+
+    private RedisConsistencyBus newBus(boolean publishFrames) {
+        return new RedisConsistencyBus(redisTemplate, objectMapper, Duration.ZERO, 1000, 1024, publishFrames);
+    }
+}
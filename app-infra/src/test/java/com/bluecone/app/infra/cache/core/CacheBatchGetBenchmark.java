@@ -0,0 +1,142 @@
+package com.bluecone.app.infra.cache.core;
+
+import com.bluecone.app.infra.cache.consistency.NoopConsistencyBus;
+import com.bluecone.app.infra.cache.profile.CacheProfile;
+import com.bluecone.app.infra.cache.profile.CacheProfileName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 对比 CacheEngine 批量 getAll 与逐 key get 循环。
+ *
+ * <p>L1 使用 Noop 强制每次都走 L2；L2 为内存实现，每次调用按 {@code rttMicros} 模拟一次 Redis 往返。
+ * 运行方式：在 IDE 中执行 {@link #main(String[])}，或 {@code java -cp <test-classpath> ...CacheBatchGetBenchmark}。</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBatchGetBenchmark {
+
+    @Param({"10", "50"})
+    public int keyCount;
+
+    @Param({"100"})
+    public long rttMicros;
+
+    private CacheEngine engine;
+    private CacheProfile profile;
+    private List<CacheKey> keys;
+
+    @Setup
+    public void setUp() {
+        SimulatedRemoteStore l2 = new SimulatedRemoteStore(TimeUnit.MICROSECONDS.toNanos(rttMicros));
+        engine = new CacheEngine(new NoopCacheStore(), l2, new NoopConsistencyBus());
+        profile = CacheProfile.builder(CacheProfileName.STORE_BASE).ttl(Duration.ofMinutes(5)).build();
+        keys = new ArrayList<>(keyCount);
+        Map<CacheKey, Object> seed = new HashMap<>();
+        for (int i = 0; i < keyCount; i++) {
+            CacheKey key = CacheKey.generic("t1", "store-base", i);
+            keys.add(key);
+            seed.put(key, "store-" + i);
+        }
+        l2.putAll(seed, profile.ttl());
+    }
+
+    @Benchmark
+    public void perKeyLoop(Blackhole blackhole) {
+        for (CacheKey key : keys) {
+            blackhole.consume(engine.get(key, String.class, () -> "loaded", profile));
+        }
+    }
+
+    @Benchmark
+    public void batchGetAll(Blackhole blackhole) {
+        blackhole.consume(engine.getAll(keys, String.class, missing -> Map.of(), profile));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CacheBatchGetBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * 每次调用（单 key 或批量）都付出一次 RTT 的内存版 L2。
+     */
+    static final class SimulatedRemoteStore implements CacheStore {
+
+        private final Map<CacheKey, Object> data = new ConcurrentHashMap<>();
+        private final long rttNanos;
+
+        SimulatedRemoteStore(long rttNanos) {
+            this.rttNanos = rttNanos;
+        }
+
+        @Override
+        public <T> Optional<T> get(CacheKey key, Class<T> type) {
+            roundTrip();
+            return Optional.ofNullable(data.get(key)).filter(type::isInstance).map(type::cast);
+        }
+
+        @Override
+        public <T> Map<CacheKey, T> getAll(Collection<CacheKey> keys, Class<T> type) {
+            roundTrip();
+            Map<CacheKey, T> result = new LinkedHashMap<>();
+            for (CacheKey key : keys) {
+                Object value = data.get(key);
+                if (type.isInstance(value)) {
+                    result.put(key, type.cast(value));
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public void put(CacheKey key, Object value, Duration ttl) {
+            roundTrip();
+            data.put(key, value);
+        }
+
+        @Override
+        public void putAll(Map<CacheKey, ?> values, Duration ttl) {
+            roundTrip();
+            data.putAll(values);
+        }
+
+        @Override
+        public void evict(CacheKey key) {
+            roundTrip();
+            data.remove(key);
+        }
+
+        private void roundTrip() {
+            LockSupport.parkNanos(rttNanos);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.bluecone.app.infra.cache.core;
+
+import com.bluecone.app.infra.cache.consistency.NoopConsistencyBus;
+import com.bluecone.app.infra.cache.hotkey.HotKey;
+import com.bluecone.app.infra.cache.hotkey.HotKeyDetector;
+import com.bluecone.app.infra.cache.profile.CacheProfile;
+import com.bluecone.app.infra.cache.profile.CacheProfileName;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CacheEngine single-flight、stale-while-revalidate、批量读取与热点驻留测试。
+ */
+class CacheEngineTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void concurrentMissesShouldShareOneLoad() throws Exception {
+        CacheEngine engine = new CacheEngine(new L1CacheStore(100), new NoopCacheStore(), new NoopConsistencyBus(),
+                meterRegistry, Runnable::run);
+        CacheProfile profile = CacheProfile.builder(CacheProfileName.STORE_BASE).ttl(Duration.ofMinutes(1)).build();
+        CacheKey key = CacheKey.generic("t1", "store-base", 1L);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(pool.submit(() -> engine.get(key, String.class, () -> {
+                loads.incrementAndGet();
+                loaderEntered.countDown();
+                await(release);
+                return "v1";
+            }, profile)));
+            assertThat(loaderEntered.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 1; i < threads; i++) {
+                results.add(pool.submit(() -> engine.get(key, String.class, () -> {
+                    loads.incrementAndGet();
+                    return "other";
+                }, profile)));
+            }
+            while (coalesced() < threads - 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("v1");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(coalesced()).isEqualTo(threads - 1);
+    }
+
+    @Test
+    void staleValueShouldBeServedWhileRefreshing() throws Exception {
+        ExecutorService refresher = Executors.newSingleThreadExecutor();
+        CacheEngine engine = new CacheEngine(new L1CacheStore(100), new NoopCacheStore(), new NoopConsistencyBus(),
+                meterRegistry, refresher);
+        CacheProfile profile = CacheProfile.builder(CacheProfileName.STORE_SNAPSHOT)
+                .ttl(Duration.ofMillis(50))
+                .staleWhileRevalidate(true)
+                .staleTtl(Duration.ofSeconds(10))
+                .build();
+        CacheKey key = CacheKey.generic("t1", "store-snapshot", 1L);
+        try {
+            assertThat(engine.get(key, String.class, () -> "v1", profile)).isEqualTo("v1");
+            Thread.sleep(80);
+
+            CountDownLatch refreshed = new CountDownLatch(1);
+            String served = engine.get(key, String.class, () -> {
+                refreshed.countDown();
+                return "v2";
+            }, profile);
+
+            assertThat(served).isEqualTo("v1");
+            assertThat(refreshed.await(5, TimeUnit.SECONDS)).isTrue();
+            refresher.shutdown();
+            assertThat(refresher.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(engine.get(key, String.class, () -> "v3", profile)).isEqualTo("v2");
+            assertThat(meterRegistry.counter("bluecone.cache.stale.served", "profile", "STORE_SNAPSHOT").count())
+                    .isEqualTo(1.0d);
+        } finally {
+            refresher.shutdownNow();
+        }
+    }
+
+    @Test
+    void staleRefreshShouldBypassL2AndRewriteIt() throws Exception {
+        ExecutorService refresher = Executors.newSingleThreadExecutor();
+        CacheStore l2 = new L1CacheStore(100);
+        CacheEngine engine = new CacheEngine(new L1CacheStore(100), l2, new NoopConsistencyBus(),
+                meterRegistry, refresher);
+        CacheProfile profile = CacheProfile.builder(CacheProfileName.STORE_SNAPSHOT)
+                .ttl(Duration.ofMillis(50))
+                .staleWhileRevalidate(true)
+                .staleTtl(Duration.ofSeconds(10))
+                .build();
+        CacheKey key = CacheKey.generic("t1", "store-snapshot", 2L);
+        try {
+            assertThat(engine.get(key, String.class, () -> "v1", profile)).isEqualTo("v1");
+            Thread.sleep(80);
+            // L2 中残留旧值：刷新若先读 L2，会把它当作新值续期到 L1
+            l2.put(key, "l2-old", Duration.ofMinutes(1));
+
+            assertThat(engine.get(key, String.class, () -> "v2", profile)).isEqualTo("v1");
+            refresher.shutdown();
+            assertThat(refresher.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(engine.get(key, String.class, () -> "v3", profile)).isEqualTo("v2");
+            assertThat(l2.get(key, String.class)).contains("v2");
+        } finally {
+            refresher.shutdownNow();
+        }
+    }
+
+    @Test
+    void getAllShouldLoadMissingKeysInOneBulkCall() {
+        CacheStore l1 = new L1CacheStore(100);
+        CacheEngine engine = new CacheEngine(l1, new NoopCacheStore(), new NoopConsistencyBus());
+        CacheProfile profile = CacheProfile.builder(CacheProfileName.STORE_BASE).ttl(Duration.ofMinutes(1)).build();
+        CacheKey k1 = CacheKey.generic("t1", "store-base", 1L);
+        CacheKey k2 = CacheKey.generic("t1", "store-base", 2L);
+        CacheKey k3 = CacheKey.generic("t1", "store-base", 3L);
+        engine.put(k1, "cached-1", profile);
+        List<Set<CacheKey>> bulkCalls = new ArrayList<>();
+
+        Map<CacheKey, String> values = engine.getAll(List.of(k1, k2, k3), String.class, missing -> {
+            bulkCalls.add(Set.copyOf(missing));
+            Map<CacheKey, String> loaded = new HashMap<>();
+            loaded.put(k2, "loaded-2");
+            return loaded;
+        }, profile);
+
+        assertThat(bulkCalls).containsExactly(Set.of(k2, k3));
+        assertThat(values).containsExactly(Map.entry(k1, "cached-1"), Map.entry(k2, "loaded-2"));
+        assertThat(l1.get(k2, String.class)).contains("loaded-2");
+    }
+
+    @Test
+    void hotKeyShouldBeServedFromPinnedTierWithoutL1() {
+        HotKeyDetector detector = new HotKeyDetector(8, 10, Duration.ofMinutes(1));
+        CacheEngine engine = new CacheEngine(new NoopCacheStore(), new NoopCacheStore(), new NoopConsistencyBus(),
+                meterRegistry, null, detector);
+        CacheProfile profile = CacheProfile.builder(CacheProfileName.STORE_BASE).ttl(Duration.ofMinutes(1)).build();
+        CacheKey key = CacheKey.generic("t1", "store-base", 1L);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(engine.get(key, String.class, () -> "v" + loads.incrementAndGet(), profile)).isNotNull();
+        }
+
+        // 前 9 次未达阈值每次回源，第 10 次晋升并驻留热点层，之后不再回源
+        assertThat(loads.get()).isEqualTo(10);
+        assertThat(engine.hotKeys()).extracting(HotKey::key).containsExactly(key.toRedisKey());
+
+        engine.evict(key, profile);
+        engine.get(key, String.class, () -> "v" + loads.incrementAndGet(), profile);
+        assertThat(loads.get()).isEqualTo(11);
+    }
+
+    @Test
+    void promotedKeyShouldBePinnedEvenWhileL1Hits() {
+        HotKeyDetector detector = new HotKeyDetector(8, 10, Duration.ofMinutes(1));
+        CacheStore l1 = new L1CacheStore(100);
+        CacheStore l2 = new L1CacheStore(100);
+        CacheEngine engine = new CacheEngine(l1, l2, new NoopConsistencyBus(), meterRegistry, null, detector);
+        CacheProfile profile = CacheProfile.builder(CacheProfileName.STORE_BASE).ttl(Duration.ofMinutes(1)).build();
+        CacheKey key = CacheKey.generic("t1", "store-base", 2L);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 10; i++) {
+            engine.get(key, String.class, () -> "v" + loads.incrementAndGet(), profile);
+        }
+        // 首次回源后一直命中 L1，第 10 次晋升时跳过 L2 回源一次写入热点层
+        assertThat(loads.get()).isEqualTo(2);
+
+        // L1 容量淘汰后仍由热点层承接，不再回源
+        l1.evict(key);
+        l2.evict(key);
+        assertThat(engine.get(key, String.class, () -> "v" + loads.incrementAndGet(), profile)).isEqualTo("v2");
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    private double coalesced() {
+        return meterRegistry.counter("bluecone.cache.load.coalesced", "profile", "STORE_BASE").count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.bluecone.app.infra.cache.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * L1CacheStore 过期、陈旧窗口、提前刷新判定与命名空间失效测试。
+ */
+class L1CacheStoreTest {
+
+    private final AtomicLong nanos = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final L1CacheStore store = new L1CacheStore(100, nanos::get);
+    private final CacheKey key = CacheKey.generic("t1", "store-base", 1L);
+
+    @Test
+    void entryShouldBeStaleAfterTtlAndGoneAfterStaleWindow() {
+        store.put(key, "v1", Duration.ofSeconds(10), Duration.ofSeconds(5));
+
+        advance(Duration.ofSeconds(11));
+        assertThat(store.get(key, String.class)).isEmpty();
+        assertThat(store.getStale(key, String.class)).contains("v1");
+
+        advance(Duration.ofSeconds(5));
+        assertThat(store.getStale(key, String.class)).isEmpty();
+    }
+
+    @Test
+    void refreshAheadRatioShouldTriggerNearExpiry() {
+        store.put(key, "v1", Duration.ofSeconds(10));
+
+        advance(Duration.ofSeconds(7));
+        assertThat(store.shouldRefreshAhead(key, 0.8d, 0d)).isFalse();
+
+        advance(Duration.ofSeconds(2));
+        assertThat(store.shouldRefreshAhead(key, 0.8d, 0d)).isTrue();
+        assertThat(store.get(key, String.class)).contains("v1");
+    }
+
+    @Test
+    void xfetchShouldTriggerEarlierForSlowLoads() {
+        store.put(key, "v1", Duration.ofSeconds(10), Duration.ZERO, 0L);
+        CacheKey slowKey = CacheKey.generic("t1", "store-base", 2L);
+        store.put(slowKey, "v2", Duration.ofSeconds(10), Duration.ZERO, TimeUnit.SECONDS.toNanos(100));
+
+        advance(Duration.ofSeconds(5));
+
+        assertThat(store.shouldRefreshAhead(key, 0d, 1.0d)).isFalse();
+        int triggered = 0;
+        for (int i = 0; i < 100; i++) {
+            if (store.shouldRefreshAhead(slowKey, 0d, 1.0d)) {
+                triggered++;
+            }
+        }
+        assertThat(triggered).isGreaterThan(80);
+    }
+
+    @Test
+    void evictNamespaceShouldOnlyDropMatchingEntries() {
+        CacheKey sameDomain = CacheKey.generic("t1", "store-base", 2L);
+        CacheKey otherDomain = CacheKey.generic("t1", "product", 1L);
+        CacheKey otherTenant = CacheKey.generic("t2", "store-base", 1L);
+        for (CacheKey k : new CacheKey[]{key, sameDomain, otherDomain, otherTenant}) {
+            store.put(k, "v", Duration.ofSeconds(10));
+        }
+
+        store.evictNamespace(CacheNamespace.of("t1", "store-base"));
+        assertThat(store.get(key, String.class)).isEmpty();
+        assertThat(store.get(sameDomain, String.class)).isEmpty();
+        assertThat(store.get(otherDomain, String.class)).contains("v");
+
+        store.evictNamespace(CacheNamespace.tenant("t1"));
+        assertThat(store.get(otherDomain, String.class)).isEmpty();
+        assertThat(store.get(otherTenant, String.class)).contains("v");
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+}
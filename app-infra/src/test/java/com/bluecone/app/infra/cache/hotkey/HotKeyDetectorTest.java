@@ -0,0 +1,89 @@
+package com.bluecone.app.infra.cache.hotkey;
+
+import com.bluecone.app.infra.cache.core.CacheKey;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * HotKeyDetector 晋升、top-K 上限与窗口衰减降级测试。
+ */
+class HotKeyDetectorTest {
+
+    private final AtomicLong nanos = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final HotKeyDetector detector = new HotKeyDetector(2, 100, Duration.ofSeconds(10), nanos::get);
+
+    @Test
+    void keyShouldBecomeHotAfterThreshold() {
+        CacheKey key = CacheKey.generic("t1", "store-base", 1L);
+
+        for (int i = 0; i < 99; i++) {
+            assertThat(detector.record(key)).isFalse();
+        }
+        assertThat(detector.record(key)).isTrue();
+        assertThat(detector.hotKeys()).extracting(HotKey::key).containsExactly(key.toRedisKey());
+    }
+
+    @Test
+    void hotterKeyShouldReplaceColdestWhenFull() {
+        CacheKey a = CacheKey.generic("t1", "store-base", "a");
+        CacheKey b = CacheKey.generic("t1", "store-base", "b");
+        CacheKey c = CacheKey.generic("t1", "store-base", "c");
+        List<CacheKey> demoted = new ArrayList<>();
+        detector.registerDemotionListener(demoted::add);
+
+        hit(a, 300);
+        hit(b, 150);
+        hit(c, 200);
+
+        assertThat(detector.size()).isEqualTo(2);
+        assertThat(detector.isHot(a)).isTrue();
+        assertThat(detector.isHot(c)).isTrue();
+        assertThat(demoted).containsExactly(b);
+    }
+
+    @Test
+    void coolingKeyShouldBeDemotedAfterDecay() {
+        CacheKey key = CacheKey.generic("t1", "store-base", 1L);
+        CacheKey other = CacheKey.generic("t1", "store-base", 2L);
+        List<CacheKey> demoted = new ArrayList<>();
+        detector.registerDemotionListener(demoted::add);
+        hit(key, 120);
+
+        // 120 → 60 → 30：第二次衰减后跌破 threshold/2
+        nanos.addAndGet(Duration.ofSeconds(11).toNanos());
+        detector.record(other);
+        assertThat(detector.isHot(key)).isTrue();
+
+        nanos.addAndGet(Duration.ofSeconds(11).toNanos());
+        detector.record(other);
+        assertThat(detector.isHot(key)).isFalse();
+        assertThat(demoted).containsExactly(key);
+    }
+
+    @Test
+    void decayedHotKeyShouldStayHotAboveHalfThreshold() {
+        CacheKey key = CacheKey.generic("t1", "store-base", 1L);
+        CacheKey cold = CacheKey.generic("t1", "store-base", 2L);
+        hit(key, 140);
+
+        // 140 → 70：低于 threshold 但不低于 threshold/2，仍是热点
+        nanos.addAndGet(Duration.ofSeconds(11).toNanos());
+        assertThat(detector.record(key)).isTrue();
+        assertThat(detector.hotKeys()).extracting(HotKey::estimate).containsExactly(71L);
+        assertThat(detector.record(cold)).isFalse();
+        assertThat(detector.isHot(cold)).isFalse();
+    }
+
+    private void hit(CacheKey key, int times) {
+        for (int i = 0; i < times; i++) {
+            detector.record(key);
+        }
+    }
+}
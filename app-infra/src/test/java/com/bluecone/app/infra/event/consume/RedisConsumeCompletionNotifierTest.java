@@ -0,0 +1,83 @@
+package com.bluecone.app.infra.event.consume;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bluecone.app.core.event.consume.spi.ConsumeCompletionNotifier.ConsumeCompletion;
+import com.bluecone.app.id.core.Ulid128;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+class RedisConsumeCompletionNotifierTest {
+
+    private static final String CHANNEL = "bluecone:event-consume:completed";
+    private static final Ulid128 EVENT_ID = new Ulid128(1L, 2L);
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final RedisConsumeCompletionNotifier notifier = newNotifier();
+
+    @Test
+    void completionWithoutRemoteWaiterIsNotBroadcast() {
+        notifier.publish(new ConsumeCompletion("ORDER", EVENT_ID, true));
+
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    void completionIsBroadcastOnceForARemoteWaiter() {
+        notifier.onMessage("W|other-node|1|2|5000|ORDER");
+
+        notifier.publish(new ConsumeCompletion("ORDER", EVENT_ID, true));
+        notifier.publish(new ConsumeCompletion("ORDER", EVENT_ID, true));
+
+        verify(redisTemplate, times(1)).convertAndSend(eq(CHANNEL), startsWith("D|"));
+        assertThat(notifier.remoteWaiterCount()).isZero();
+    }
+
+    @Test
+    void expiredRemoteWaiterIsIgnored() {
+        notifier.onMessage("W|other-node|1|2|0|ORDER");
+
+        notifier.publish(new ConsumeCompletion("ORDER", EVENT_ID, false));
+
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    void awaitingRoundTripsBetweenNodes() {
+        RedisConsumeCompletionNotifier owner = newNotifier();
+        List<ConsumeCompletion> received = new ArrayList<>();
+        notifier.subscribe(received::add);
+
+        notifier.awaiting("A|B", EVENT_ID, Duration.ofSeconds(5));
+        ArgumentCaptor<String> sent = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), sent.capture());
+        notifier.onMessage(sent.getValue());
+        owner.onMessage(sent.getValue());
+        owner.publish(new ConsumeCompletion("A|B", EVENT_ID, true));
+        verify(redisTemplate, times(2)).convertAndSend(eq(CHANNEL), sent.capture());
+        notifier.onMessage(sent.getValue());
+
+        assertThat(notifier.remoteWaiterCount()).isZero();
+        assertThat(received).containsExactly(new ConsumeCompletion("A|B", EVENT_ID, true));
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisConsumeCompletionNotifier newNotifier() {
+        ObjectProvider<StringRedisTemplate> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(redisTemplate);
+        return new RedisConsumeCompletionNotifier(provider);
+    }
+}
@@ -0,0 +1,66 @@
+package com.bluecone.app.infra.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import com.bluecone.app.core.idempotency.domain.IdemStatus;
+import com.bluecone.app.core.idempotency.spi.IdempotencyRepository.AcquireCommand;
+import com.bluecone.app.core.idempotency.spi.IdempotencyRepository.AcquireResult;
+import com.bluecone.app.core.idempotency.spi.IdempotencyRepository.AcquireState;
+import com.bluecone.app.core.idempotency.spi.IdempotencyRepository.MarkFailedCommand;
+import com.bluecone.app.core.idempotency.spi.IdempotencyRepository.MarkSuccessCommand;
+import com.bluecone.app.infra.test.AbstractIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+class RedisIdempotencyFastStoreIT extends AbstractIntegrationTest {
+
+    @Autowired
+    private RedisIdempotencyFastStore fastStore;
+
+    @BeforeEach
+    void setUp() {
+        flushRedis();
+    }
+
+    @Test
+    void missLeavesAcquireToRepository() {
+        AcquireCommand command = command("key-1", "hash-a", Duration.ofSeconds(30));
+
+        assertThat(fastStore.lookup(command)).isEmpty();
+        assertThat(fastStore.lookup(command)).isEmpty();
+    }
+
+    @Test
+    void replaysCachedResultAndDetectsConflict() {
+        AcquireCommand command = command("key-2", "hash-a", Duration.ofSeconds(30));
+        fastStore.markSuccess(new MarkSuccessCommand(1L, "ORDER_SUBMIT", "key-2", "hash-a",
+                null, "{\"orderId\":1}", command.expireAt()));
+
+        AcquireResult replay = fastStore.lookup(command).orElseThrow();
+        assertThat(replay.state()).isEqualTo(AcquireState.REPLAY_SUCCEEDED);
+        assertThat(replay.record().resultRef()).isNull();
+        assertThat(replay.record().resultJson()).isEqualTo("{\"orderId\":1}");
+        assertThat(fastStore.lookup(command("key-2", "hash-b", Duration.ofSeconds(30))).orElseThrow().state())
+                .isEqualTo(AcquireState.CONFLICT);
+        assertThat(fastStore.find(1L, "ORDER_SUBMIT", "key-2").orElseThrow().status())
+                .isEqualTo(IdemStatus.SUCCEEDED);
+    }
+
+    @Test
+    void failedRecordIsLeftToRepository() {
+        AcquireCommand command = command("key-3", "hash-a", Duration.ofSeconds(30));
+        fastStore.markFailed(new MarkFailedCommand(1L, "ORDER_SUBMIT", "key-3", "hash-a",
+                null, "boom", command.expireAt()));
+
+        assertThat(fastStore.lookup(command)).isEmpty();
+    }
+
+    private AcquireCommand command(String idemKey, String hash, Duration lockTtl) {
+        Instant now = Instant.now();
+        return new AcquireCommand(1L, "ORDER_SUBMIT", idemKey, hash, now.plus(Duration.ofHours(1)), now.plus(lockTtl));
+    }
+}
@@ -0,0 +1,168 @@
+package com.bluecone.app.infra.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.bluecone.app.infra.event.outbox.DispatchedEvent;
+import com.bluecone.app.infra.event.outbox.DispatchedEventBatchHandler;
+import com.bluecone.app.infra.event.outbox.InProcessEventDispatcher;
+import com.bluecone.app.infra.event.outbox.OutboxEventPO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+class InProcessEventDispatcherTest {
+
+    private final FakeHandler handler = new FakeHandler();
+    private final CountingTxManager txManager = new CountingTxManager();
+    private final List<DispatchedEvent> published = new ArrayList<>();
+    private final ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+    private final InProcessEventDispatcher dispatcher = newDispatcher();
+
+    @Test
+    void supportedEventsAreConsumedInChunksOfOneTransactionEach() {
+        List<OutboxEventPO> events = new ArrayList<>();
+        for (long id = 1; id <= 250; id++) {
+            events.add(event(id, "order.paid", "{\"orderId\":" + id + "}"));
+        }
+        events.add(event(251L, "order.created", "{}"));
+
+        Map<Long, Exception> failures = dispatcher.dispatchBatch(events);
+
+        assertThat(failures).isEmpty();
+        assertThat(handler.batchSizes).containsExactly(100, 100, 50);
+        assertThat(txManager.commits).isEqualTo(3);
+        assertThat(txManager.rollbacks).isZero();
+        assertThat(published).hasSize(251);
+    }
+
+    @Test
+    void failedChunkRollsBackAndIsRetriedOneByOne() {
+        List<OutboxEventPO> events = List.of(
+                event(1L, "order.paid", "{\"orderId\":1}"),
+                event(2L, "order.paid", "{\"orderId\":2,\"fail\":true}"),
+                event(3L, "order.paid", "{\"orderId\":3}"));
+
+        Map<Long, Exception> failures = dispatcher.dispatchBatch(events);
+
+        assertThat(handler.batchSizes).containsExactly(3, 1, 1, 1);
+        assertThat(txManager.rollbacks).isEqualTo(2);
+        assertThat(txManager.commits).isEqualTo(2);
+        assertThat(failures).containsOnlyKeys(2L);
+        assertThat(failures.get(2L)).hasMessage("poison order 2");
+        assertThat(published).extracting(e -> e.getPayload().get("orderId")).containsExactly(1, 3);
+    }
+
+    @Test
+    void eventsWithEqualContentAreTrackedByOutboxId() {
+        List<OutboxEventPO> events = List.of(
+                event(7L, "order.paid", "{\"orderId\":9,\"fail\":true}"),
+                event(8L, "order.paid", "{\"orderId\":9,\"fail\":true}"));
+
+        Map<Long, Exception> failures = dispatcher.dispatchBatch(events);
+
+        assertThat(failures).containsOnlyKeys(7L, 8L);
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    void listenerFailureIsReportedWithoutAffectingOtherEvents() {
+        doAnswer(invocation -> {
+            DispatchedEvent event = invocation.getArgument(0);
+            if ("evt-2".equals(event.getEventId())) {
+                throw new IllegalStateException("listener down");
+            }
+            published.add(event);
+            return null;
+        }).when(publisher).publishEvent(any(Object.class));
+
+        Map<Long, Exception> failures = dispatcher.dispatchBatch(List.of(
+                event(1L, "order.created", "{}"),
+                event(2L, "order.created", "{}")));
+
+        assertThat(failures).containsOnlyKeys(2L);
+        assertThat(published).extracting(DispatchedEvent::getEventId).containsExactly("evt-1");
+        assertThat(handler.batchSizes).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private InProcessEventDispatcher newDispatcher() {
+        doAnswer(invocation -> published.add(invocation.getArgument(0)))
+                .when(publisher).publishEvent(any(Object.class));
+        ObjectProvider<DispatchedEventBatchHandler> handlers = mock(ObjectProvider.class);
+        when(handlers.orderedStream()).thenAnswer(invocation -> Stream.of(handler));
+        ObjectProvider<PlatformTransactionManager> tx = mock(ObjectProvider.class);
+        when(tx.getIfAvailable()).thenReturn(txManager);
+        return new InProcessEventDispatcher(publisher, new ObjectMapper(), handlers, tx);
+    }
+
+    private static OutboxEventPO event(long id, String type, String payload) {
+        OutboxEventPO po = new OutboxEventPO();
+        po.setId(id);
+        po.setEventId("evt-" + id);
+        po.setEventType(type);
+        po.setAggregateType("ORDER");
+        po.setAggregateId("order-" + id);
+        po.setTenantId(1L);
+        po.setEventPayload(payload);
+        return po;
+    }
+
+    private static final class FakeHandler implements DispatchedEventBatchHandler {
+
+        private final List<Integer> batchSizes = new ArrayList<>();
+
+        @Override
+        public String consumerName() {
+            return "FakeConsumer";
+        }
+
+        @Override
+        public boolean supports(String eventType) {
+            return "order.paid".equals(eventType);
+        }
+
+        @Override
+        public void handleBatch(List<DispatchedEvent> events) {
+            batchSizes.add(events.size());
+            for (DispatchedEvent event : events) {
+                if (Boolean.TRUE.equals(event.getPayload().get("fail"))) {
+                    throw new IllegalStateException("poison order " + event.getPayload().get("orderId"));
+                }
+            }
+        }
+    }
+
+    private static final class CountingTxManager implements PlatformTransactionManager {
+
+        private int commits;
+        private int rollbacks;
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            commits++;
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            rollbacks++;
+        }
+    }
+}
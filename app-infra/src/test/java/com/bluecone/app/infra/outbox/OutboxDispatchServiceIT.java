@@ -27,9 +27,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.support.TransactionTemplate;
 
+// 关闭唤醒循环，由测试显式驱动投递
+@TestPropertySource(properties = "bluecone.outbox.wakeup-enabled=false")
 class OutboxDispatchServiceIT extends AbstractIntegrationTest {
 
     @Autowired
@@ -0,0 +1,207 @@
+package com.bluecone.app.infra.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bluecone.app.core.event.DomainEvent;
+import com.bluecone.app.core.event.EventHandler;
+import com.bluecone.app.core.event.EventMetadata;
+import com.bluecone.app.infra.observability.metrics.OutboxMetrics;
+import com.bluecone.app.infra.outbox.config.OutboxProperties;
+import com.bluecone.app.infra.outbox.core.EventSerializer;
+import com.bluecone.app.infra.outbox.core.OutboxMetricsRecorder;
+import com.bluecone.app.infra.outbox.core.SimpleExponentialBackoffRetryPolicy;
+import com.bluecone.app.infra.outbox.entity.OutboxMessageEntity;
+import com.bluecone.app.infra.outbox.entity.OutboxMessageStatus;
+import com.bluecone.app.infra.outbox.relay.OutboxMessageTableAdapter;
+import com.bluecone.app.infra.outbox.relay.OutboxRelayEngine;
+import com.bluecone.app.infra.outbox.repository.OutboxMessageRepository;
+import com.bluecone.app.infra.outbox.router.OutboxEventRouter;
+import com.bluecone.app.infra.outbox.service.OutboxDispatchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class OutboxDispatchServiceTest {
+
+    private final OutboxMessageRepository repository = mock(OutboxMessageRepository.class);
+    private final EventSerializer serializer = mock(EventSerializer.class);
+    private final OutboxProperties properties = new OutboxProperties();
+    private final RecordingHandler handler = new RecordingHandler();
+
+    private OutboxRelayEngine relayEngine;
+    private OutboxDispatchService dispatchService;
+
+    @AfterEach
+    void tearDown() {
+        if (relayEngine != null) {
+            relayEngine.shutdown();
+        }
+    }
+
+    @Test
+    void dispatchesOnlyClaimedMessagesAndReleasesLeaseWithOwnToken() {
+        dispatchService = newService();
+        ArgumentCaptor<String> owner = ArgumentCaptor.forClass(String.class);
+        when(repository.claimDueMessages(anyList(), any(), owner.capture(), any(), eq(100))).thenReturn(2);
+        when(repository.findClaimed(anyString())).thenAnswer(inv -> List.of(
+                message(1L, "k1", inv.getArgument(0)),
+                message(2L, "k2", inv.getArgument(0))));
+
+        dispatchService.dispatchDueMessages();
+
+        String token = owner.getValue();
+        verify(repository).findClaimed(token);
+        verify(repository).markDoneBatch(List.of(1L, 2L), token);
+        assertThat(handler.payloads()).containsExactlyInAnyOrder("k1#1", "k2#2");
+    }
+
+    @Test
+    void flushesFailuresGroupedByRetryCount() {
+        dispatchService = newService();
+        handler.failing = List.of("a#1", "b#2", "c#3");
+        when(repository.claimDueMessages(anyList(), any(), anyString(), any(), anyInt())).thenReturn(4);
+        when(repository.findClaimed(anyString())).thenAnswer(inv -> {
+            OutboxMessageEntity retried = message(3L, "c", inv.getArgument(0));
+            retried.setRetryCount(2);
+            return List.of(message(1L, "a", inv.getArgument(0)), message(2L, "b", inv.getArgument(0)),
+                    retried, message(4L, "d", inv.getArgument(0)));
+        });
+
+        dispatchService.dispatchDueMessages();
+
+        verify(repository).markDoneBatch(eq(List.of(4L)), anyString());
+        verify(repository).markFailedBatch(eq(List.of(1L, 2L)), anyString(), eq(1), any(), eq(false));
+        verify(repository).markFailedBatch(eq(List.of(3L)), anyString(), eq(3), any(), eq(false));
+        verify(repository, never()).markDone(any(), any());
+        verify(repository, never()).markFailed(any(), any(), anyInt(), any(), anyBoolean());
+    }
+
+    @Test
+    void skipsLoadingWhenNothingClaimed() {
+        dispatchService = newService();
+        when(repository.claimDueMessages(anyList(), any(), anyString(), any(), anyInt())).thenReturn(0);
+
+        dispatchService.dispatchDueMessages();
+
+        verify(repository, never()).findClaimed(anyString());
+        assertThat(handler.payloads()).isEmpty();
+    }
+
+    @Test
+    void runsPartitionsInParallelButKeepsOrderWithinAggregate() {
+        dispatchService = newService();
+        // 两个分区的首条消息互相等待：串行执行会超时失败
+        handler.barrier = new CyclicBarrier(2);
+        handler.barrierKeys = List.of("a#1", "b#2");
+        when(repository.claimDueMessages(anyList(), any(), anyString(), any(), anyInt())).thenReturn(5);
+        when(repository.findClaimed(anyString())).thenAnswer(inv -> List.of(
+                message(1L, "a", inv.getArgument(0)),
+                message(2L, "b", inv.getArgument(0)),
+                message(3L, "a", inv.getArgument(0)),
+                message(4L, "b", inv.getArgument(0)),
+                message(5L, "a", inv.getArgument(0))));
+
+        dispatchService.dispatchDueMessages();
+
+        assertThat(handler.failures).isEmpty();
+        assertThat(handler.payloadsFor("a")).containsExactly("a#1", "a#3", "a#5");
+        assertThat(handler.payloadsFor("b")).containsExactly("b#2", "b#4");
+        assertThat(handler.threads).hasSizeGreaterThan(1);
+    }
+
+    private OutboxDispatchService newService() {
+        when(serializer.deserialize(anyString(), any())).thenAnswer(inv -> new TestEvent(inv.getArgument(0)));
+        OutboxMessageTableAdapter adapter = new OutboxMessageTableAdapter(repository, serializer,
+                new OutboxEventRouter(List.of(handler)), new SimpleExponentialBackoffRetryPolicy(properties),
+                new ObjectMapper(), null, mock(OutboxMetricsRecorder.class));
+        relayEngine = new OutboxRelayEngine(List.of(adapter), properties, new OutboxMetrics(new SimpleMeterRegistry()));
+        return new OutboxDispatchService(relayEngine, adapter);
+    }
+
+    /**
+     * event_key 按生产语义每条唯一，分区取 headers 中的聚合信息。
+     */
+    private static OutboxMessageEntity message(Long id, String aggregateId, String lockOwner) {
+        OutboxMessageEntity entity = new OutboxMessageEntity();
+        entity.setId(id);
+        entity.setEventType("test.event");
+        entity.setEventKey("test.event:" + id);
+        entity.setPayload(aggregateId + "#" + id);
+        entity.setHeaders("{\"aggregateType\":\"ORDER\",\"aggregateId\":\"" + aggregateId + "\"}");
+        entity.setStatus(OutboxMessageStatus.NEW);
+        entity.setRetryCount(0);
+        entity.setLockOwner(lockOwner);
+        return entity;
+    }
+
+    static class RecordingHandler implements EventHandler<TestEvent> {
+
+        private final List<String> handled = new CopyOnWriteArrayList<>();
+        private final List<Throwable> failures = new CopyOnWriteArrayList<>();
+        private final Map<Thread, Boolean> threads = new ConcurrentHashMap<>();
+        private volatile CyclicBarrier barrier;
+        private volatile List<String> barrierKeys = List.of();
+        private volatile List<String> failing = List.of();
+
+        @Override
+        public void handle(TestEvent event) {
+            threads.put(Thread.currentThread(), Boolean.TRUE);
+            if (barrier != null && barrierKeys.contains(event.payload)) {
+                try {
+                    barrier.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+                    failures.add(e);
+                }
+            }
+            handled.add(event.payload);
+            if (failing.contains(event.payload)) {
+                throw new IllegalStateException("boom " + event.payload);
+            }
+        }
+
+        List<String> payloads() {
+            return handled;
+        }
+
+        List<String> payloadsFor(String aggregateId) {
+            List<String> result = new ArrayList<>();
+            for (String payload : handled) {
+                if (payload.startsWith(aggregateId + "#")) {
+                    result.add(payload);
+                }
+            }
+            return result;
+        }
+    }
+
+    static class TestEvent extends DomainEvent {
+
+        private final String payload;
+
+        TestEvent(String payload) {
+            super("test.event", EventMetadata.empty());
+            this.payload = payload;
+        }
+    }
+}
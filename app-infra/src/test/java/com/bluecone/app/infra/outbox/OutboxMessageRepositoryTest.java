@@ -0,0 +1,40 @@
+package com.bluecone.app.infra.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bluecone.app.infra.outbox.mapper.OutboxMessageMapper;
+import com.bluecone.app.infra.outbox.repository.OutboxMessageRepository;
+import java.time.YearMonth;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class OutboxMessageRepositoryTest {
+
+    private final OutboxMessageMapper mapper = mock(OutboxMessageMapper.class);
+    private final OutboxMessageRepository repository = new OutboxMessageRepository(mapper);
+
+    @Test
+    void splitsMissingMonthsOutOfMaxPartition() {
+        when(mapper.listHistoryPartitions()).thenReturn(List.of("p202605", "p202606", "p_max"));
+
+        int added = repository.ensureHistoryPartitions(YearMonth.of(2026, 7), 2);
+
+        assertThat(added).isEqualTo(3);
+        verify(mapper).addHistoryPartitions("PARTITION p202607 VALUES LESS THAN ('2026-08-01'), "
+                + "PARTITION p202608 VALUES LESS THAN ('2026-09-01'), "
+                + "PARTITION p202609 VALUES LESS THAN ('2026-10-01')");
+    }
+
+    @Test
+    void leavesPartitionsAloneWhenAlreadyAhead() {
+        when(mapper.listHistoryPartitions()).thenReturn(List.of("p202612", "p202701", "p_max"));
+
+        assertThat(repository.ensureHistoryPartitions(YearMonth.of(2026, 11), 2)).isZero();
+        verify(mapper, never()).addHistoryPartitions(anyString());
+    }
+}
@@ -0,0 +1,258 @@
+package com.bluecone.app.infra.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.bluecone.app.infra.observability.metrics.OutboxMetrics;
+import com.bluecone.app.infra.outbox.config.OutboxProperties;
+import com.bluecone.app.infra.outbox.relay.OutboxRelayEngine;
+import com.bluecone.app.infra.outbox.relay.OutboxTableAdapter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class OutboxRelayEngineTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private OutboxRelayEngine engine;
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void relaysEveryTableInOneRoundWithTableTaggedMetrics() {
+        FakeTable messages = new FakeTable("bc_outbox_message", List.of(1L, 2L, 3L));
+        FakeTable events = new FakeTable("bc_outbox_event", List.of(10L, 11L));
+        events.failing = List.of(11L);
+        engine = newEngine(messages, events);
+
+        int claimed = engine.relayAll();
+
+        assertThat(claimed).isEqualTo(3);
+        assertThat(messages.done).containsExactly(1L, 2L, 3L);
+        assertThat(events.done).containsExactly(10L);
+        assertThat(events.failed).containsExactly(new FailedWrite(List.of(11L), 1, false, "boom 11"));
+        assertThat(registry.get("outbox_relay_delivered_total").tag("table", "bc_outbox_message").counter().count())
+                .isEqualTo(3.0);
+        assertThat(registry.get("outbox_relay_failed_total").tag("table", "bc_outbox_event").tag("dead", "false")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void claimFailureOnOneTableDoesNotStarveTheOthers() {
+        FakeTable broken = new FakeTable("bc_outbox_event", List.of(1L));
+        broken.claimError = new IllegalStateException("table missing");
+        FakeTable healthy = new FakeTable("bc_outbox_message", List.of(5L));
+        engine = newEngine(broken, healthy);
+
+        assertThatThrownBy(() -> engine.relayAll()).hasMessage("table missing");
+        assertThat(healthy.done).containsExactly(5L);
+    }
+
+    @Test
+    void eachFailedRowKeepsItsOwnError() {
+        FakeTable table = new FakeTable("bc_outbox_event", List.of(1L, 2L, 3L));
+        table.failing = List.of(1L, 3L);
+        engine = newEngine(table);
+
+        engine.relayAll();
+
+        assertThat(table.failed).containsExactly(
+                new FailedWrite(List.of(1L), 1, false, "boom 1"),
+                new FailedWrite(List.of(3L), 1, false, "boom 3"));
+    }
+
+    @Test
+    void givesUpWhenAdapterSaysSo() {
+        FakeTable table = new FakeTable("bc_outbox_event", List.of(7L));
+        table.failing = List.of(7L);
+        table.giveUpAfter = 1;
+        engine = newEngine(table);
+
+        engine.relayAll();
+
+        assertThat(table.failed).containsExactly(new FailedWrite(List.of(7L), 1, true, "boom 7"));
+    }
+
+    @Test
+    void batchTablesAreDeliveredInWavesKeepingPartitionOrder() {
+        FakeTable table = new FakeTable("bc_outbox_event", List.of(1L, 2L, 3L, 4L, 5L));
+        table.batchDelivery = true;
+        table.partitioned = true;
+        table.failing = List.of(3L);
+        engine = newEngine(table);
+
+        engine.relayAll();
+
+        // 奇偶分区：每波取各分区的下一条，奇数分区在 3 失败后不再参与后续波次
+        assertThat(table.batches).containsExactly(List.of(1L, 2L), List.of(3L, 4L));
+        assertThat(table.done).containsExactly(1L, 2L, 4L);
+        assertThat(table.failed).containsExactly(new FailedWrite(List.of(3L), 1, false, "boom 3"));
+        assertThat(table.deferred).containsExactly(5L);
+    }
+
+    @Test
+    void partitionStopsAtFirstFailureAndDefersTheRest() {
+        FakeTable table = new FakeTable("bc_outbox_message", List.of(1L, 2L, 3L, 4L, 5L, 6L));
+        table.partitioned = true;
+        table.failing = List.of(3L);
+        engine = newEngine(table);
+
+        engine.relayAll();
+
+        assertThat(table.delivered).doesNotContain(5L);
+        assertThat(table.done).containsExactlyInAnyOrder(1L, 2L, 4L, 6L);
+        assertThat(table.failed).containsExactly(new FailedWrite(List.of(3L), 1, false, "boom 3"));
+        assertThat(table.deferred).containsExactly(5L);
+    }
+
+    @Test
+    void renewsLeaseWhileRoundIsRunning() {
+        FakeTable table = new FakeTable("bc_outbox_message", List.of(1L));
+        table.deliverMillis = 800;
+        OutboxProperties properties = new OutboxProperties();
+        properties.setClaimLeaseSeconds(1);
+        engine = new OutboxRelayEngine(List.of(table), properties, new OutboxMetrics(registry));
+
+        engine.relayAll();
+
+        assertThat(table.renewals.get()).isGreaterThanOrEqualTo(1);
+        assertThat(table.done).containsExactly(1L);
+    }
+
+    private OutboxRelayEngine newEngine(FakeTable... tables) {
+        return new OutboxRelayEngine(List.of(tables), new OutboxProperties(), new OutboxMetrics(registry));
+    }
+
+    record FailedWrite(List<Long> ids, int retryCount, boolean dead, String lastError) {
+    }
+
+    /**
+     * 只在内存中记录认领与回写结果的表适配器，行对象即 ID。
+     */
+    static class FakeTable implements OutboxTableAdapter<Long> {
+
+        private final String table;
+        private final List<Long> rows;
+        private final List<Long> done = new CopyOnWriteArrayList<>();
+        private final List<FailedWrite> failed = new CopyOnWriteArrayList<>();
+        private final List<Long> deferred = new CopyOnWriteArrayList<>();
+        private final List<Long> delivered = new CopyOnWriteArrayList<>();
+        private final AtomicInteger renewals = new AtomicInteger();
+        private volatile long deliverMillis;
+        private volatile List<Long> failing = List.of();
+        private volatile int giveUpAfter = Integer.MAX_VALUE;
+        private volatile RuntimeException claimError;
+        private volatile boolean batchDelivery;
+        private volatile boolean partitioned;
+        private final List<List<Long>> batches = new CopyOnWriteArrayList<>();
+        private List<Long> claimed = List.of();
+
+        FakeTable(String table, List<Long> rows) {
+            this.table = table;
+            this.rows = rows;
+        }
+
+        @Override
+        public String table() {
+            return table;
+        }
+
+        @Override
+        public int claim(LocalDateTime now, String lockOwner, LocalDateTime leaseUntil, int limit) {
+            if (claimError != null) {
+                throw claimError;
+            }
+            claimed = new ArrayList<>(rows.subList(0, Math.min(limit, rows.size())));
+            return claimed.size();
+        }
+
+        @Override
+        public List<Long> findClaimed(String lockOwner) {
+            return claimed;
+        }
+
+        @Override
+        public Long id(Long message) {
+            return message;
+        }
+
+        @Override
+        public String partitionKey(Long message) {
+            return partitioned ? String.valueOf(message % 2) : null;
+        }
+
+        @Override
+        public int retryCount(Long message) {
+            return 0;
+        }
+
+        @Override
+        public void deliver(Long message) throws InterruptedException {
+            if (deliverMillis > 0) {
+                Thread.sleep(deliverMillis);
+            }
+            delivered.add(message);
+            if (failing.contains(message)) {
+                throw new IllegalStateException("boom " + message);
+            }
+        }
+
+        @Override
+        public boolean supportsBatchDelivery() {
+            return batchDelivery;
+        }
+
+        @Override
+        public Map<Long, Exception> deliverBatch(List<Long> messages) {
+            batches.add(List.copyOf(messages));
+            return OutboxTableAdapter.super.deliverBatch(messages);
+        }
+
+        @Override
+        public boolean shouldGiveUp(Long message, int nextRetry, Exception error) {
+            return nextRetry >= giveUpAfter;
+        }
+
+        @Override
+        public Duration nextDelay(int retryCount) {
+            return Duration.ofSeconds(retryCount);
+        }
+
+        @Override
+        public int markDone(List<Long> ids, String lockOwner) {
+            done.addAll(ids);
+            return ids.size();
+        }
+
+        @Override
+        public int markFailed(List<Long> ids, String lockOwner, int retryCount, LocalDateTime nextRetryAt,
+                              boolean dead, String lastError) {
+            failed.add(new FailedWrite(List.copyOf(ids), retryCount, dead, lastError));
+            return ids.size();
+        }
+
+        @Override
+        public int defer(List<Long> ids, String lockOwner, LocalDateTime notBefore) {
+            deferred.addAll(ids);
+            return ids.size();
+        }
+
+        @Override
+        public int renewLease(String lockOwner, LocalDateTime leaseUntil) {
+            renewals.incrementAndGet();
+            return claimed.size();
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.bluecone.app.infra.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.bluecone.app.core.event.DomainEvent;
+import com.bluecone.app.core.event.EventHandler;
+import com.bluecone.app.core.event.EventMetadata;
+import com.bluecone.app.infra.observability.metrics.JobMetrics;
+import com.bluecone.app.infra.observability.metrics.OutboxMetrics;
+import com.bluecone.app.infra.outbox.config.OutboxProperties;
+import com.bluecone.app.infra.outbox.core.EventSerializer;
+import com.bluecone.app.infra.outbox.core.OutboxMetricsRecorder;
+import com.bluecone.app.infra.outbox.core.OutboxWakeupBus;
+import com.bluecone.app.infra.outbox.core.SimpleExponentialBackoffRetryPolicy;
+import com.bluecone.app.infra.outbox.core.TransactionalOutboxEventPublisher;
+import com.bluecone.app.infra.outbox.entity.OutboxMessageEntity;
+import com.bluecone.app.infra.outbox.entity.OutboxMessageStatus;
+import com.bluecone.app.infra.outbox.relay.OutboxMessageTableAdapter;
+import com.bluecone.app.infra.outbox.relay.OutboxRelayEngine;
+import com.bluecone.app.infra.outbox.repository.OutboxMessageRepository;
+import com.bluecone.app.infra.outbox.router.OutboxEventRouter;
+import com.bluecone.app.infra.outbox.scheduler.OutboxDispatchLoop;
+import com.bluecone.app.infra.outbox.scheduler.OutboxPublisherJob;
+import com.bluecone.app.infra.outbox.service.OutboxStoreService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 提交到处理器收到事件的端到端延迟：提交后唤醒 vs 仅靠退避轮询。
+ *
+ * <p>每轮需空闲等待轮询退避，耗时数秒，放在 failsafe（{@code mvn verify}）中运行，不进默认单测。</p>
+ */
+class OutboxWakeupLatencyIT {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxWakeupLatencyIT.class);
+
+    private static final int ROUNDS = 3;
+    private static final long IDLE_BEFORE_PUBLISH_MILLIS = 1_000L;
+
+    @Test
+    void wakeupDeliversFasterThanBackoffPolling() throws Exception {
+        long[] polling = measure(false);
+        long[] wakeup = measure(true);
+
+        log.info("[OutboxWakeupLatency] commit->handler ms polling={} wakeup={}", format(polling), format(wakeup));
+        assertThat(max(wakeup)).isLessThan(500L);
+        assertThat(avg(wakeup)).isLessThan(avg(polling));
+    }
+
+    /**
+     * 空闲一段时间让轮询退避到较长间隔后，提交一条事件并测量处理器收到的延迟（毫秒）。
+     */
+    private long[] measure(boolean wakeupEnabled) throws Exception {
+        OutboxProperties properties = new OutboxProperties();
+        properties.setPollMinIntervalMillis(50L);
+        properties.setPollMaxIntervalMillis(800L);
+        properties.setWakeupEnabled(true);
+
+        InMemoryOutboxRepository repository = new InMemoryOutboxRepository();
+        EventSerializer serializer = mock(EventSerializer.class);
+        when(serializer.serializeHeaders(any())).thenAnswer(inv -> new HashMap<String, String>());
+        when(serializer.serializePayload(any())).thenReturn("{}");
+        when(serializer.deserialize(anyString(), any())).thenAnswer(inv -> new LatencyEvent());
+        OutboxMetricsRecorder metricsRecorder = mock(OutboxMetricsRecorder.class);
+        RecordingHandler handler = new RecordingHandler();
+
+        OutboxMessageTableAdapter adapter = new OutboxMessageTableAdapter(repository, serializer,
+                new OutboxEventRouter(List.of(handler)), new SimpleExponentialBackoffRetryPolicy(properties),
+                new ObjectMapper(), null, metricsRecorder);
+        OutboxRelayEngine relayEngine = new OutboxRelayEngine(List.of(adapter), properties,
+                new OutboxMetrics(new SimpleMeterRegistry()));
+        OutboxPublisherJob job = new OutboxPublisherJob(relayEngine, properties, new JobMetrics(new SimpleMeterRegistry()));
+        OutboxWakeupBus wakeupBus = new OutboxWakeupBus(null, properties.getWakeupChannel());
+        OutboxDispatchLoop loop = new OutboxDispatchLoop(job, wakeupBus, properties);
+        OutboxStoreService storeService = new OutboxStoreService(repository, new ObjectMapper(), metricsRecorder);
+        // 轮询模式下发布端不持有唤醒总线，只能等轮询拾取
+        TransactionalOutboxEventPublisher publisher = new TransactionalOutboxEventPublisher(storeService, serializer,
+                wakeupEnabled ? wakeupBus : null);
+        TransactionTemplate tx = new TransactionTemplate(new NoOpTransactionManager());
+
+        loop.start();
+        try {
+            long[] latencies = new long[ROUNDS];
+            for (int i = 0; i < ROUNDS; i++) {
+                Thread.sleep(IDLE_BEFORE_PUBLISH_MILLIS);
+                long committedAt = System.nanoTime();
+                tx.executeWithoutResult(status -> publisher.publish(new LatencyEvent()));
+                Long receivedAt = handler.received.poll(5, TimeUnit.SECONDS);
+                assertThat(receivedAt).as("event delivered").isNotNull();
+                latencies[i] = TimeUnit.NANOSECONDS.toMillis(receivedAt - committedAt);
+            }
+            return latencies;
+        } finally {
+            loop.stop();
+            relayEngine.shutdown();
+        }
+    }
+
+    private static long max(long[] values) {
+        long max = Long.MIN_VALUE;
+        for (long v : values) {
+            max = Math.max(max, v);
+        }
+        return max;
+    }
+
+    private static double avg(long[] values) {
+        long sum = 0;
+        for (long v : values) {
+            sum += v;
+        }
+        return (double) sum / values.length;
+    }
+
+    private static String format(long[] values) {
+        return Arrays.toString(values) + " avg=" + avg(values);
+    }
+
+    static class RecordingHandler implements EventHandler<LatencyEvent> {
+
+        private final BlockingQueue<Long> received = new ArrayBlockingQueue<>(16);
+
+        @Override
+        public void handle(LatencyEvent event) {
+            received.add(System.nanoTime());
+        }
+    }
+
+    static class LatencyEvent extends DomainEvent {
+
+        LatencyEvent() {
+            super("outbox.latency.test", EventMetadata.empty());
+        }
+    }
+
+    /**
+     * 只维护 Outbox 状态机所需字段的内存仓储。
+     */
+    static class InMemoryOutboxRepository extends OutboxMessageRepository {
+
+        private final Map<Long, OutboxMessageEntity> rows = new HashMap<>();
+        private final AtomicLong ids = new AtomicLong();
+
+        InMemoryOutboxRepository() {
+            super(null);
+        }
+
+        @Override
+        public synchronized void save(OutboxMessageEntity entity) {
+            entity.setId(ids.incrementAndGet());
+            rows.put(entity.getId(), entity);
+        }
+
+        @Override
+        public synchronized int claimDueMessages(List<OutboxMessageStatus> statuses, LocalDateTime now,
+                                                 String lockOwner, LocalDateTime leaseUntil, int limit) {
+            List<OutboxMessageEntity> due = new ArrayList<>();
+            for (OutboxMessageEntity row : rows.values()) {
+                boolean retryDue = row.getNextRetryAt() == null || !row.getNextRetryAt().isAfter(now);
+                boolean leaseFree = row.getLeaseUntil() == null || row.getLeaseUntil().isBefore(now);
+                if (statuses.contains(row.getStatus()) && retryDue && leaseFree) {
+                    due.add(row);
+                }
+            }
+            due.sort(Comparator.comparing(OutboxMessageEntity::getId));
+            int claimed = 0;
+            for (OutboxMessageEntity row : due) {
+                if (claimed == limit) {
+                    break;
+                }
+                row.setLockOwner(lockOwner);
+                row.setLeaseUntil(leaseUntil);
+                claimed++;
+            }
+            return claimed;
+        }
+
+        @Override
+        public synchronized List<OutboxMessageEntity> findClaimed(String lockOwner) {
+            List<OutboxMessageEntity> claimed = new ArrayList<>();
+            for (OutboxMessageEntity row : rows.values()) {
+                if (lockOwner.equals(row.getLockOwner())) {
+                    claimed.add(copy(row));
+                }
+            }
+            claimed.sort(Comparator.comparing(OutboxMessageEntity::getId));
+            return claimed;
+        }
+
+        @Override
+        public synchronized int markDoneBatch(Collection<Long> ids, String lockOwner) {
+            for (Long id : ids) {
+                OutboxMessageEntity row = rows.get(id);
+                row.setStatus(OutboxMessageStatus.DONE);
+                row.setLockOwner(null);
+                row.setLeaseUntil(null);
+            }
+            return ids.size();
+        }
+
+        @Override
+        public synchronized int markFailedBatch(Collection<Long> ids, String lockOwner, int retryCount,
+                                                LocalDateTime nextRetryAt, boolean dead) {
+            for (Long id : ids) {
+                OutboxMessageEntity row = rows.get(id);
+                row.setStatus(dead ? OutboxMessageStatus.DEAD : OutboxMessageStatus.FAILED);
+                row.setRetryCount(retryCount);
+                row.setNextRetryAt(nextRetryAt);
+                row.setLockOwner(null);
+                row.setLeaseUntil(null);
+            }
+            return ids.size();
+        }
+
+        private static OutboxMessageEntity copy(OutboxMessageEntity row) {
+            OutboxMessageEntity copy = new OutboxMessageEntity();
+            copy.setId(row.getId());
+            copy.setEventType(row.getEventType());
+            copy.setEventKey(row.getEventKey());
+            copy.setPayload(row.getPayload());
+            copy.setHeaders(row.getHeaders());
+            copy.setStatus(row.getStatus());
+            copy.setRetryCount(row.getRetryCount());
+            copy.setNextRetryAt(row.getNextRetryAt());
+            copy.setLockOwner(row.getLockOwner());
+            copy.setLeaseUntil(row.getLeaseUntil());
+            return copy;
+        }
+    }
+
+    /**
+     * 只驱动事务同步回调（afterCommit）的空事务管理器。
+     */
+    static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
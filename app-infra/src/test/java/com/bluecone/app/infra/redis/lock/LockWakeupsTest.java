@@ -0,0 +1,61 @@
+package com.bluecone.app.infra.redis.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class LockWakeupsTest {
+
+    private final LockWakeups wakeups = new LockWakeups();
+
+    @Test
+    void signalWakesWaiterBeforeTimeout() throws Exception {
+        CountDownLatch waiting = new CountDownLatch(1);
+        long[] waitedMs = new long[1];
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try (LockWakeups.Waiter handle = wakeups.subscribe("lock:a")) {
+                long generation = handle.generation();
+                waiting.countDown();
+                long start = System.nanoTime();
+                handle.await(generation, 5_000);
+                waitedMs[0] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(waiting.await(5, TimeUnit.SECONDS)).isTrue();
+
+        wakeups.signal("lock:a");
+
+        assertThat(waiter.join(java.time.Duration.ofSeconds(5))).isTrue();
+        assertThat(waitedMs[0]).isLessThan(1_000);
+    }
+
+    @Test
+    void signalBetweenGenerationAndAwaitIsNotLost() throws Exception {
+        try (LockWakeups.Waiter handle = wakeups.subscribe("lock:b")) {
+            long generation = handle.generation();
+            wakeups.signal("lock:b");
+
+            long start = System.nanoTime();
+            handle.await(generation, 5_000);
+
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+        }
+    }
+
+    @Test
+    void lastWaiterRemovesChannel() {
+        LockWakeups.Waiter first = wakeups.subscribe("lock:c");
+        LockWakeups.Waiter second = wakeups.subscribe("lock:c");
+        assertThat(wakeups.channelCount()).isEqualTo(1);
+
+        first.close();
+        assertThat(wakeups.channelCount()).isEqualTo(1);
+        second.close();
+        assertThat(wakeups.channelCount()).isZero();
+    }
+}
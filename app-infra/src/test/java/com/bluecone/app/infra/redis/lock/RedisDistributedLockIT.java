@@ -2,11 +2,18 @@ package com.bluecone.app.infra.redis.lock;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.bluecone.app.infra.redis.core.RedisKeyBuilder;
+import com.bluecone.app.infra.redis.core.RedisKeyNamespace;
 import com.bluecone.app.infra.redis.core.RedisOps;
 import com.bluecone.app.infra.test.AbstractIntegrationTest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 
 class RedisDistributedLockIT extends AbstractIntegrationTest {
 
@@ -16,6 +23,9 @@ class RedisDistributedLockIT extends AbstractIntegrationTest {
     @Autowired
     private RedisOps redisOps;
 
+    @Autowired
+    private RedisKeyBuilder keyBuilder;
+
     @BeforeEach
     void setUp() {
         flushRedis();
@@ -34,4 +44,64 @@ class RedisDistributedLockIT extends AbstractIntegrationTest {
         boolean second = distributedLock.tryLock("inventory:sku-1", "worker-B", 0, 2000);
         assertThat(second).isTrue();
     }
+
+    @Test
+    void unlockByOtherOwnerKeepsLock() {
+        assertThat(distributedLock.tryLock("inventory:sku-2", "worker-A", 0, 2000)).isTrue();
+
+        distributedLock.unlock("inventory:sku-2", "worker-B");
+
+        assertThat(distributedLock.tryLock("inventory:sku-2", "worker-B", 0, 2000)).isFalse();
+    }
+
+    @Test
+    void reentrantLockNeedsMatchingUnlocks() {
+        assertThat(distributedLock.tryLock("inventory:sku-3", "worker-A", 0, 2000)).isTrue();
+        assertThat(distributedLock.tryLock("inventory:sku-3", "worker-A", 0, 2000)).isTrue();
+
+        distributedLock.unlock("inventory:sku-3", "worker-A");
+        assertThat(distributedLock.tryLock("inventory:sku-3", "worker-B", 0, 2000)).isFalse();
+
+        distributedLock.unlock("inventory:sku-3", "worker-A");
+        assertThat(distributedLock.tryLock("inventory:sku-3", "worker-B", 0, 2000)).isTrue();
+    }
+
+    @Test
+    void reentrantLockNeverShortensLease() {
+        assertThat(distributedLock.tryLock("inventory:sku-6", "worker-A", 0, 10_000)).isTrue();
+        assertThat(distributedLock.tryLock("inventory:sku-6", "worker-A", 0, 500)).isTrue();
+
+        Long ttl = redisOps.eval(new DefaultRedisScript<>("return redis.call('pttl', KEYS[1])", Long.class),
+                List.of(keyBuilder.build(RedisKeyNamespace.LOCK, "inventory:sku-6")));
+        assertThat(ttl).isGreaterThan(5_000);
+
+        distributedLock.unlock("inventory:sku-6", "worker-A");
+        distributedLock.unlock("inventory:sku-6", "worker-A");
+    }
+
+    @Test
+    void waiterWakesOnUnlockWithoutWaitingForLease() throws Exception {
+        assertThat(distributedLock.tryLock("inventory:sku-4", "worker-A", 0, 10_000)).isTrue();
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(
+                () -> distributedLock.tryLock("inventory:sku-4", "worker-B", 5_000, 2000));
+
+        Thread.sleep(100);
+        long start = System.nanoTime();
+        distributedLock.unlock("inventory:sku-4", "worker-A");
+
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+    }
+
+    @Test
+    void watchdogKeepsLockBeyondTimeout() throws Exception {
+        assertThat(distributedLock.tryLock("inventory:sku-5", "worker-A", 0, 0)).isTrue();
+
+        Long ttl = redisOps.eval(new DefaultRedisScript<>("return redis.call('pttl', KEYS[1])", Long.class),
+                List.of(keyBuilder.build(RedisKeyNamespace.LOCK, "inventory:sku-5")));
+        assertThat(ttl).isGreaterThan(2000);
+
+        distributedLock.unlock("inventory:sku-5", "worker-A");
+        assertThat(distributedLock.tryLock("inventory:sku-5", "worker-B", 0, 2000)).isTrue();
+    }
 }
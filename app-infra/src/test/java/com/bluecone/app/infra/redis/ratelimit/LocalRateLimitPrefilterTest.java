@@ -0,0 +1,35 @@
+package com.bluecone.app.infra.redis.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class LocalRateLimitPrefilterTest {
+
+    @Test
+    void blocksOnlyUntilRetryTime() {
+        LocalRateLimitPrefilter prefilter = new LocalRateLimitPrefilter(10);
+
+        prefilter.block("k", 1_500, 1_000);
+
+        assertThat(prefilter.isBlocked("k", 1_000)).isTrue();
+        assertThat(prefilter.isBlocked("k", 1_499)).isTrue();
+        assertThat(prefilter.isBlocked("k", 1_500)).isFalse();
+        assertThat(prefilter.isBlocked("other", 1_000)).isFalse();
+        assertThat(prefilter.size()).isZero();
+    }
+
+    @Test
+    void evictsExpiredEntriesAndStopsRecordingWhenFull() {
+        LocalRateLimitPrefilter prefilter = new LocalRateLimitPrefilter(2);
+        prefilter.block("a", 1_100, 1_000);
+        prefilter.block("b", 5_000, 1_000);
+
+        prefilter.block("c", 5_000, 2_000);
+        prefilter.block("d", 5_000, 2_000);
+
+        assertThat(prefilter.isBlocked("b", 2_000)).isTrue();
+        assertThat(prefilter.isBlocked("c", 2_000)).isTrue();
+        assertThat(prefilter.isBlocked("d", 2_000)).isFalse();
+    }
+}
@@ -0,0 +1,96 @@
+package com.bluecone.app.infra.redis.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.bluecone.app.infra.redis.core.RedisKeyBuilder;
+import com.bluecone.app.infra.redis.support.RedisEnvProvider;
+import com.bluecone.app.infra.redis.support.RedisTenantProvider;
+
+/**
+ * 对比固定窗口逐次访问 Redis 与本地令牌租约模式。
+ *
+ * <p>使用模拟时钟，每次调用推进 100 微秒，即按 10k QPS 的到达节奏驱动限流器；Redis 为内存实现，
+ * 每次脚本调用按 {@code rttMicros} 模拟一次往返。结束时打印折算到 10k QPS 的 Redis 调用数/秒。
+ * 运行方式：在 IDE 中执行 {@link #main(String[])}，或 {@code java -cp <test-classpath> ...RateLimitLeaseBenchmark}。</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitLeaseBenchmark {
+
+    private static final long STEP_MICROS = 100;
+
+    @Param({"FIXED_WINDOW", "LEASED_WINDOW"})
+    public RateLimitAlgorithm algorithm;
+
+    @Param({"100"})
+    public long rttMicros;
+
+    private SimulatedRateLimitRedis redis;
+    private RedisRateLimiter limiter;
+    private AtomicLong clockMicros;
+    private long startMicros;
+    private long startCalls;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        redis = new SimulatedRateLimitRedis(TimeUnit.MICROSECONDS.toNanos(rttMicros));
+        clockMicros = new AtomicLong(0);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setLocalPrefilterEnabled(false);
+        RedisKeyBuilder keyBuilder = new RedisKeyBuilder(new RedisEnvProvider(new MockEnvironment()),
+                new RedisTenantProvider());
+        limiter = new RedisRateLimiter(redis, keyBuilder, properties, null, () -> clockMicros.get() / 1000);
+    }
+
+    @Setup(Level.Iteration)
+    public void mark() {
+        startMicros = clockMicros.get();
+        startCalls = redis.calls();
+    }
+
+    @Benchmark
+    public boolean tryAcquire() {
+        clockMicros.addAndGet(STEP_MICROS);
+        // 上限高于 10k QPS 的到达量，测量的是放行路径的 Redis 开销
+        return limiter.tryAcquire("login:sms", 20_000, 1, algorithm);
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        double simulatedSeconds = (clockMicros.get() - startMicros) / 1_000_000.0;
+        long calls = redis.calls() - startCalls;
+        System.out.printf("%n[%s] redis ops/sec at 10k QPS: %.1f%n", algorithm, calls / simulatedSeconds);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        limiter.close();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RateLimitLeaseBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -2,7 +2,10 @@ package com.bluecone.app.infra.redis.ratelimit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.bluecone.app.infra.redis.core.RedisKeyBuilder;
+import com.bluecone.app.infra.redis.core.RedisOps;
 import com.bluecone.app.infra.test.AbstractIntegrationTest;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +15,15 @@ class RedisRateLimiterIT extends AbstractIntegrationTest {
     @Autowired
     private RedisRateLimiter rateLimiter;
 
+    @Autowired
+    private RedisOps redisOps;
+
+    @Autowired
+    private RedisKeyBuilder keyBuilder;
+
+    @Autowired
+    private RateLimitProperties properties;
+
     @BeforeEach
     void setUp() {
         flushRedis();
@@ -28,4 +40,46 @@ class RedisRateLimiterIT extends AbstractIntegrationTest {
         assertThat(rateLimiter.tryAcquire(key, limit, window)).isTrue();
         assertThat(rateLimiter.tryAcquire(key, limit, window)).isFalse();
     }
+
+    @Test
+    void slidingWindowCarriesPreviousWindowWeight() {
+        String key = "api:/orders/sliding";
+        // 手动时钟从窗口边界开始，保证跨过一次窗口切换
+        long windowStart = 1_700_000_000_000L;
+        AtomicLong clock = new AtomicLong(windowStart);
+        RedisRateLimiter limiter = new RedisRateLimiter(redisOps, keyBuilder, properties, null, clock::get);
+
+        assertThat(acquireUntilDenied(limiter, key, 10)).isEqualTo(10);
+
+        // 下一窗口过半：上一窗口按 50% 计入，只剩 5 个配额
+        clock.set(windowStart + 1_500);
+        assertThat(acquireUntilDenied(limiter, key, 10)).isEqualTo(5);
+
+        // 下一窗口 90%：上一窗口只计 1 个，本窗口累计可到 9 个
+        clock.set(windowStart + 1_900);
+        assertThat(acquireUntilDenied(limiter, key, 10)).isEqualTo(4);
+        limiter.close();
+    }
+
+    @Test
+    void tokenBucketAllowsBurstThenRefillsAtSteadyRate() throws InterruptedException {
+        String key = "api:/orders/gcra";
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(rateLimiter.tryAcquire(key, 4, 1, RateLimitAlgorithm.TOKEN_BUCKET)).isTrue();
+        }
+        assertThat(rateLimiter.tryAcquire(key, 4, 1, RateLimitAlgorithm.TOKEN_BUCKET)).isFalse();
+
+        Thread.sleep(300);
+        assertThat(rateLimiter.tryAcquire(key, 4, 1, RateLimitAlgorithm.TOKEN_BUCKET)).isTrue();
+        assertThat(rateLimiter.tryAcquire(key, 4, 1, RateLimitAlgorithm.TOKEN_BUCKET)).isFalse();
+    }
+
+    private static int acquireUntilDenied(RedisRateLimiter limiter, String key, int limit) {
+        int allowed = 0;
+        while (allowed <= limit && limiter.tryAcquire(key, limit, 1, RateLimitAlgorithm.SLIDING_WINDOW)) {
+            allowed++;
+        }
+        return allowed;
+    }
 }
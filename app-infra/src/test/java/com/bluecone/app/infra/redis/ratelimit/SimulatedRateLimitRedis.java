@@ -0,0 +1,60 @@
+package com.bluecone.app.infra.redis.ratelimit;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.data.redis.core.script.RedisScript;
+
+import com.bluecone.app.infra.redis.core.RedisOps;
+
+/**
+ * 内存版限流 Redis：按脚本语义模拟租约预留/归还与固定窗口计数，统计脚本调用次数，可选模拟 RTT。
+ */
+class SimulatedRateLimitRedis extends RedisOps {
+
+    private final Map<String, Long> counters = new ConcurrentHashMap<>();
+    private final AtomicLong calls = new AtomicLong();
+    private final long rttNanos;
+
+    SimulatedRateLimitRedis(long rttNanos) {
+        super(null, null, null);
+        this.rttNanos = rttNanos;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T eval(RedisScript<T> script, List<String> keys, String... args) {
+        calls.incrementAndGet();
+        if (rttNanos > 0) {
+            LockSupport.parkNanos(rttNanos);
+        }
+        String key = keys.get(0);
+        long used = counters.getOrDefault(key, 0L);
+        if (script == TokenLeasePool.RESERVE) {
+            long grant = Math.min(Long.parseLong(args[0]), Long.parseLong(args[1]) - used);
+            if (grant <= 0) {
+                return (T) Long.valueOf(-Long.parseLong(args[2]));
+            }
+            counters.put(key, used + grant);
+            return (T) Long.valueOf(grant);
+        }
+        if (script == TokenLeasePool.RELEASE) {
+            counters.put(key, used - Long.parseLong(args[0]));
+            return (T) Long.valueOf(used - Long.parseLong(args[0]));
+        }
+        // 固定窗口：ARGV limit, untilWindowEndMillis
+        counters.put(key, used + 1);
+        return (T) Long.valueOf(used + 1 <= Long.parseLong(args[0]) ? 0 : Long.parseLong(args[1]));
+    }
+
+    long calls() {
+        return calls.get();
+    }
+
+    long used(String key) {
+        return counters.getOrDefault(key, 0L);
+    }
+}
@@ -0,0 +1,80 @@
+package com.bluecone.app.infra.redis.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class TokenLeasePoolTest {
+
+    private static final String BASE = "bluecone:test:0:rl:sms";
+    private static final String WINDOW = BASE + ":0";
+    private static final long WINDOW_END = 60_000;
+
+    private final SimulatedRateLimitRedis redis = new SimulatedRateLimitRedis(0);
+    private final AtomicLong clock = new AtomicLong(1_000);
+    private final TokenLeasePool nodeA = new TokenLeasePool(redis, clock::get, 0.05, 1_000, 100);
+    private final TokenLeasePool nodeB = new TokenLeasePool(redis, clock::get, 0.05, 1_000, 100);
+
+    @AfterEach
+    void tearDown() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    void nodesNeverExceedLimitAndReserveInBlocks() {
+        int allowed = 0;
+        for (int i = 0; i < 600; i++) {
+            allowed += acquire(nodeA) ? 1 : 0;
+            allowed += acquire(nodeB) ? 1 : 0;
+        }
+
+        assertThat(allowed).isEqualTo(1_000);
+        assertThat(redis.used(WINDOW)).isEqualTo(1_000);
+        // 每批 50 个配额：两个节点共 20 次预留，其余为超限后的拒绝
+        assertThat(redis.calls()).isLessThanOrEqualTo(20 + 2 * 100);
+    }
+
+    @Test
+    void expiredLeaseReturnsUnusedPermits() {
+        TokenLeasePool wide = new TokenLeasePool(redis, clock::get, 0.5, 1_000, 100);
+        assertThat(wide.tryAcquire(BASE, WINDOW, 100, WINDOW_END, clock.get())).isZero();
+        int allowedOnB = 0;
+        TokenLeasePool wideB = new TokenLeasePool(redis, clock::get, 0.5, 1_000, 100);
+        for (int i = 0; i < 60; i++) {
+            allowedOnB += wideB.tryAcquire(BASE, WINDOW, 100, WINDOW_END, clock.get()) == 0 ? 1 : 0;
+        }
+        assertThat(allowedOnB).isEqualTo(50);
+
+        clock.addAndGet(1_000);
+        wide.releaseExpired(clock.get());
+        wideB.releaseExpired(clock.get());
+
+        assertThat(redis.used(WINDOW)).isEqualTo(51);
+        int later = 0;
+        for (int i = 0; i < 60; i++) {
+            later += wideB.tryAcquire(BASE, WINDOW, 100, WINDOW_END, clock.get()) == 0 ? 1 : 0;
+        }
+        assertThat(later).isEqualTo(49);
+        wide.close();
+        wideB.close();
+    }
+
+    @Test
+    void deniedRequestReportsRemainingWindow() {
+        TokenLeasePool pool = new TokenLeasePool(redis, clock::get, 1.0, 1_000, 100);
+        assertThat(pool.tryAcquire(BASE, WINDOW, 2, WINDOW_END, clock.get())).isZero();
+        assertThat(pool.tryAcquire(BASE, WINDOW, 2, WINDOW_END, clock.get())).isZero();
+
+        // 重试时间取到窗口结束为止，而不是键的剩余 TTL
+        assertThat(pool.tryAcquire(BASE, WINDOW, 2, WINDOW_END, clock.get())).isEqualTo(WINDOW_END - clock.get());
+        pool.close();
+    }
+
+    private boolean acquire(TokenLeasePool pool) {
+        return pool.tryAcquire(BASE, WINDOW, 1_000, WINDOW_END, clock.get()) == 0;
+    }
+}
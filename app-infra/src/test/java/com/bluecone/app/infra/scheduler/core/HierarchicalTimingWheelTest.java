@@ -0,0 +1,53 @@
+package com.bluecone.app.infra.scheduler.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void expiresEntriesAcrossLevelsInOrder() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 8, 0);
+        List<String> expired = new ArrayList<>();
+        wheel.schedule("near", 3_000, expired);
+        wheel.schedule("mid", 20_000, expired);
+        wheel.schedule("far", 500_000, expired);
+        assertTrue(expired.isEmpty());
+        assertEquals(3, wheel.size());
+
+        assertEquals(List.of(), wheel.advance(2_999));
+        assertEquals(List.of("near"), wheel.advance(3_000));
+        assertEquals(List.of(), wheel.advance(19_999));
+        assertEquals(List.of("mid"), wheel.advance(20_000));
+        assertEquals(List.of(), wheel.advance(499_999));
+        assertEquals(List.of("far"), wheel.advance(500_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void dueEntryIsReturnedImmediately() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 8, 10_000);
+        List<String> expired = new ArrayList<>();
+
+        wheel.schedule("late", 5_000, expired);
+
+        assertEquals(List.of("late"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledEntryIsDropped() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 8, 0);
+        List<String> expired = new ArrayList<>();
+        wheel.schedule("keep", 30_000, expired);
+        wheel.schedule("drop", 30_000, expired).cancel();
+
+        assertEquals(List.of("keep"), wheel.advance(30_000));
+        assertEquals(0, wheel.size());
+    }
+}
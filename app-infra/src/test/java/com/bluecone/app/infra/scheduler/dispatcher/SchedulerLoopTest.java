@@ -0,0 +1,146 @@
+package com.bluecone.app.infra.scheduler.dispatcher;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.bluecone.app.infra.scheduler.config.SchedulerProperties;
+import com.bluecone.app.infra.scheduler.entity.JobDefinitionEntity;
+import com.bluecone.app.infra.scheduler.queue.SchedulerQueuePayload;
+import com.bluecone.app.infra.scheduler.queue.SchedulerQueuePublisher;
+import com.bluecone.app.infra.scheduler.service.JobDefinitionService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SchedulerLoopTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 10, 0, 0);
+
+    private final JobDefinitionService service = mock(JobDefinitionService.class);
+    private final SchedulerQueuePublisher publisher = mock(SchedulerQueuePublisher.class);
+    private final SchedulerProperties properties = new SchedulerProperties();
+    private final SchedulerJobChangeBus changeBus = new SchedulerJobChangeBus(null, "test");
+    private final FakeLease lease = new FakeLease();
+    private SchedulerLoop loop;
+
+    @BeforeEach
+    void setUp() {
+        properties.setQueueKey("queue");
+        loop = new SchedulerLoop(service, publisher, properties, lease, changeBus);
+        lease.held = true;
+    }
+
+    @Test
+    void leaderLoadsOnceAndEnqueuesWhenDue() {
+        when(service.loadEnabledJobs()).thenReturn(List.of(job("report", "0 * * * * *", START.plusSeconds(30))));
+
+        for (int s = 0; s < 30; s++) {
+            loop.tick(millis(START.plusSeconds(s)));
+        }
+        verify(publisher, never()).publish(any(), any());
+
+        loop.tick(millis(START.plusSeconds(30)));
+        loop.tick(millis(START.plusSeconds(31)));
+
+        ArgumentCaptor<SchedulerQueuePayload> payload = ArgumentCaptor.forClass(SchedulerQueuePayload.class);
+        verify(publisher, times(1)).publish(eq("queue"), payload.capture());
+        assertEquals("report", payload.getValue().getCode());
+        verify(service).updateNextRun("report", START.plusMinutes(1));
+        verify(service, times(1)).loadEnabledJobs();
+    }
+
+    @Test
+    void followerDoesNotDispatch() {
+        lease.held = false;
+        when(service.loadEnabledJobs()).thenReturn(List.of(job("report", "0 * * * * *", START)));
+
+        loop.tick(millis(START));
+        loop.tick(millis(START.plusSeconds(5)));
+
+        assertFalse(loop.isLeader());
+        verify(service, never()).loadEnabledJobs();
+        verify(publisher, never()).publish(any(), any());
+    }
+
+    @Test
+    void losingLeaseStopsDispatch() {
+        when(service.loadEnabledJobs()).thenReturn(List.of(job("report", "0 * * * * *", START.plusSeconds(30))));
+        loop.tick(millis(START));
+        assertTrue(loop.isLeader());
+
+        lease.held = false;
+        for (int s = 1; s <= 60; s++) {
+            loop.tick(millis(START.plusSeconds(s)));
+        }
+
+        assertFalse(loop.isLeader());
+        verify(publisher, never()).publish(any(), any());
+    }
+
+    @Test
+    void changeNotificationReloadsSingleJob() {
+        when(service.loadEnabledJobs()).thenReturn(new ArrayList<>());
+        loop.tick(millis(START));
+
+        when(service.findByCode("cleanup")).thenReturn(job("cleanup", "0 * * * * *", START.plusSeconds(2)));
+        changeBus.notifyChanged("cleanup");
+        loop.tick(millis(START.plusSeconds(1)));
+        loop.tick(millis(START.plusSeconds(2)));
+
+        verify(service, times(1)).loadEnabledJobs();
+        verify(service, times(1)).findByCode("cleanup");
+        verify(publisher, times(1)).publish(eq("queue"), any());
+
+        JobDefinitionEntity disabled = job("cleanup", "0 * * * * *", START.plusMinutes(1));
+        disabled.setEnabled(false);
+        when(service.findByCode("cleanup")).thenReturn(disabled);
+        changeBus.notifyChanged("cleanup");
+        for (int s = 3; s <= 90; s++) {
+            loop.tick(millis(START.plusSeconds(s)));
+        }
+
+        verify(publisher, times(1)).publish(eq("queue"), any());
+    }
+
+    private static JobDefinitionEntity job(String code, String cron, LocalDateTime nextRunAt) {
+        JobDefinitionEntity job = new JobDefinitionEntity();
+        job.setCode(code);
+        job.setCronExpr(cron);
+        job.setEnabled(true);
+        job.setTenantId("default");
+        job.setNextRunAt(nextRunAt);
+        return job;
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class FakeLease implements LeaderLease {
+
+        private boolean held;
+
+        @Override
+        public boolean acquireOrRenew() {
+            return held;
+        }
+
+        @Override
+        public void release() {
+        }
+    }
+}
@@ -26,6 +26,7 @@ import com.bluecone.app.inventory.domain.repository.InventoryLockRepository;
 import com.bluecone.app.inventory.domain.repository.InventoryPolicyRepository;
 import com.bluecone.app.inventory.domain.repository.InventoryStockRepository;
 import com.bluecone.app.inventory.domain.service.StockAdjustDomainService;
+import com.bluecone.app.inventory.domain.service.StockBucketDomainService;
 import com.bluecone.app.inventory.domain.service.StockDeductDomainService;
 import com.bluecone.app.inventory.domain.service.StockLockDomainService;
 import com.bluecone.app.inventory.domain.service.StockReleaseDomainService;
@@ -49,6 +50,7 @@ public class InventoryCommandApplicationService implements InventoryCommandApi {
     private final StockDeductDomainService stockDeductDomainService;
     private final StockReleaseDomainService stockReleaseDomainService;
     private final StockAdjustDomainService stockAdjustDomainService;
+    private final StockBucketDomainService stockBucketDomainService;
     private final CacheClient cacheClient;
     private final CacheProfileRegistry cacheProfileRegistry;
     /** 领域事件发布器，负责将库存变更写入 Outbox */
@@ -76,6 +78,8 @@ public class InventoryCommandApplicationService implements InventoryCommandApi {
             throw new BusinessException(CommonErrorCode.BAD_REQUEST, "库存不存在，tenantId=" + tenantId
                     + ", storeId=" + storeId + ", itemId=" + itemId + ", locationId=" + locationId);
         }
+        // 分桶期间主行数量是拆分前的旧值，按各桶之和展示
+        stockBucketDomainService.applyBucketSums(stock);
 
         InventoryPolicy policy = inventoryPolicyRepository.findByItem(tenantId, storeId, itemId);
 
@@ -199,6 +203,7 @@ public class InventoryCommandApplicationService implements InventoryCommandApi {
             throw new BusinessException(CommonErrorCode.BAD_REQUEST, "库存不存在，无法调整，tenantId=" + tenantId
                     + ", storeId=" + storeId + ", itemId=" + itemId + ", locationId=" + locationId);
         }
+        stockBucketDomainService.applyBucketSums(stock);
 
         long beforeAvailable = nullSafe(stock.getAvailableQty());
         switch (command.getAdjustType()) {
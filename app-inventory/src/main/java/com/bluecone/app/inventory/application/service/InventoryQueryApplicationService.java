@@ -9,6 +9,7 @@ import com.bluecone.app.inventory.api.dto.StockView;
 import com.bluecone.app.inventory.application.assembler.InventoryAssembler;
 import com.bluecone.app.inventory.domain.model.InventoryStock;
 import com.bluecone.app.inventory.domain.repository.InventoryStockRepository;
+import com.bluecone.app.inventory.domain.service.StockBucketDomainService;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +22,7 @@ import org.springframework.stereotype.Service;
 public class InventoryQueryApplicationService implements InventoryQueryApi {
 
     private final InventoryStockRepository inventoryStockRepository;
+    private final StockBucketDomainService stockBucketDomainService;
 
     @Override
     @Cached(profile = CacheProfileName.INVENTORY_STOCK,
@@ -51,6 +53,8 @@ public class InventoryQueryApplicationService implements InventoryQueryApi {
             return view;
         }
 
+        // 热点分桶期间主行不随锁定更新，按各桶之和展示
+        stockBucketDomainService.applyBucketSums(stock);
         return InventoryAssembler.toStockView(stock);
     }
 
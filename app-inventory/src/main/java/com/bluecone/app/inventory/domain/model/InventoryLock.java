@@ -32,6 +32,11 @@ public class InventoryLock implements Serializable {
 
     private Long lockQty;
 
+    /**
+     * 热点分桶锁定时所在的桶号，非分桶锁定为 null。
+     */
+    private Integer bucketNo;
+
     private InventoryLockStatus status;
 
     private LocalDateTime expireAt;
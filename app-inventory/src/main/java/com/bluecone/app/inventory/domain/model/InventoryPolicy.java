@@ -36,6 +36,11 @@ public class InventoryPolicy implements Serializable {
 
     private String remark;
 
+    /**
+     * 热点商品分桶数，大于 1 时开启分桶锁定，可用库存拆到多行分桶上并发扣减。
+     */
+    private Integer hotBucketCount;
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
@@ -43,4 +48,8 @@ public class InventoryPolicy implements Serializable {
     public boolean isEnabled() {
         return Integer.valueOf(1).equals(status);
     }
+
+    public boolean isHotItem() {
+        return hotBucketCount != null && hotBucketCount > 1;
+    }
 }
@@ -0,0 +1,42 @@
+package com.bluecone.app.inventory.domain.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 热点商品库存分桶：一个库存维度的可用/锁定数量拆到多行，锁定时各桶独立扣减，避免单行争用。
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryStockBucket implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private Long tenantId;
+
+    private Long storeId;
+
+    private Long itemId;
+
+    private Long locationId;
+
+    private Integer bucketNo;
+
+    private Long totalQty;
+
+    private Long lockedQty;
+
+    private Long availableQty;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
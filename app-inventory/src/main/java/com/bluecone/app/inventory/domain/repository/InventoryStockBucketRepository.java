@@ -0,0 +1,43 @@
+package com.bluecone.app.inventory.domain.repository;
+
+import com.bluecone.app.inventory.domain.model.InventoryStockBucket;
+import java.util.List;
+
+public interface InventoryStockBucketRepository {
+
+    /**
+     * 查询库存维度下的全部分桶，按桶号升序。
+     */
+    List<InventoryStockBucket> findByStock(Long tenantId, Long storeId, Long itemId, Long locationId);
+
+    /**
+     * 当前读并对全部分桶加排他锁，按桶号升序；须在已锁定主行后调用，保持与拆分相同的加锁顺序。
+     */
+    List<InventoryStockBucket> findByStockForUpdate(Long tenantId, Long storeId, Long itemId, Long locationId);
+
+    InventoryStockBucket findById(Long id);
+
+    /**
+     * 批量创建分桶。
+     *
+     * @return false 表示分桶已被并发创建
+     */
+    boolean saveAll(List<InventoryStockBucket> buckets);
+
+    void deleteByStock(Long tenantId, Long storeId, Long itemId, Long locationId);
+
+    /**
+     * 原子锁定：available 足够时 available -= qty、locked += qty，不依赖版本号。
+     */
+    boolean tryLock(Long bucketId, long qty);
+
+    /**
+     * 原子释放：locked 足够时 locked -= qty、available += qty。
+     */
+    boolean tryRelease(Long bucketId, long qty);
+
+    /**
+     * 原子扣减：locked 足够时 locked -= qty、total -= qty。
+     */
+    boolean tryDeduct(Long bucketId, long qty);
+}
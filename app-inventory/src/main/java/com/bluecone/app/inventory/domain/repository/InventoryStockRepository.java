@@ -9,6 +9,14 @@ public interface InventoryStockRepository {
                                          Long itemId,
                                          Long locationId);
 
+    /**
+     * 当前读并对主行加排他锁，读到最新已提交数据，用于分桶拆分与合并。
+     */
+    InventoryStock findByTenantStoreItemForUpdate(Long tenantId,
+                                                  Long storeId,
+                                                  Long itemId,
+                                                  Long locationId);
+
     void save(InventoryStock stock);
 
     void update(InventoryStock stock);
@@ -18,6 +18,7 @@ public class StockAdjustDomainService {
 
     private final InventoryStockRepository inventoryStockRepository;
     private final InventoryTxnRepository inventoryTxnRepository;
+    private final StockBucketDomainService stockBucketDomainService;
 
     /**
      * 入库（采购、盘盈等），增加 totalQty 和 availableQty。
@@ -33,6 +34,8 @@ public class StockAdjustDomainService {
         if (qty <= 0) {
             throw new BusinessException(CommonErrorCode.BAD_REQUEST, "入库数量必须大于0");
         }
+        // 热点分桶先合并回主行，按整体数量调整
+        stockBucketDomainService.merge(stock);
         long beforeTotal = nullSafe(stock.getTotalQty());
         long beforeLocked = nullSafe(stock.getLockedQty());
         stock.setTotalQty(beforeTotal + qty);
@@ -76,6 +79,7 @@ public class StockAdjustDomainService {
         if (qty <= 0) {
             throw new BusinessException(CommonErrorCode.BAD_REQUEST, "出库数量必须大于0");
         }
+        stockBucketDomainService.merge(stock);
         long beforeTotal = nullSafe(stock.getTotalQty());
         long beforeLocked = nullSafe(stock.getLockedQty());
         long beforeAvailable = nullSafe(stock.getAvailableQty());
@@ -123,6 +127,7 @@ public class StockAdjustDomainService {
         if (stock == null) {
             throw new BusinessException(CommonErrorCode.BAD_REQUEST, "库存不存在，无法盘点调整");
         }
+        stockBucketDomainService.merge(stock);
         long currentTotal = nullSafe(stock.getTotalQty());
         long diff = targetTotalQty - currentTotal;
         if (diff == 0) {
@@ -0,0 +1,290 @@
+package com.bluecone.app.inventory.domain.service;
+
+import com.bluecone.app.core.error.CommonErrorCode;
+import com.bluecone.app.core.exception.BusinessException;
+import com.bluecone.app.inventory.domain.model.InventoryLock;
+import com.bluecone.app.inventory.domain.model.InventoryStock;
+import com.bluecone.app.inventory.domain.model.InventoryStockBucket;
+import com.bluecone.app.inventory.domain.repository.InventoryStockBucketRepository;
+import com.bluecone.app.inventory.domain.repository.InventoryStockRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * 热点商品分桶库存。
+ *
+ * <p>策略开启分桶后，首次锁定时把库存维度拆成 N 个分桶：可用量均分，已锁定量全部放入 0 号桶承接拆分前的锁记录。
+ * 锁定从随机桶开始做条件更新（available &gt;= qty），不再依赖主行版本号，并发请求落在不同行上互不冲突；
+ * 释放、扣减优先回到锁记录所在桶。</p>
+ *
+ * <p>分桶期间主行不随锁定、释放、扣减更新，查询时用各桶之和覆盖；入库、出库、盘点前先合并回主行，
+ * 下次热点锁定时重新拆分。拆分与合并都先对主行加锁、再对分桶做当前读：并发拆分在主行上排队并看到对方已提交的分桶，
+ * 拆分数量取主行最新值而非调用方的快照；合并时桶上进行中的锁定先提交再参与求和，不会丢失。</p>
+ *
+ * <p>合并与锁定并发时，锁定方可能按快照拿到已被删除的分桶而更新不到行，此时按库存不足返回，不会超卖。</p>
+ *
+ * <p>一次锁定只落在一个桶上（释放、扣减按锁记录所在桶回补），没有单桶能满足时由调用方合并后改走主行；
+ * 策略退出热点后主行路径同样先合并残留分桶，不会按拆分前的主行数量重复锁出。</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class StockBucketDomainService {
+
+    private final InventoryStockRepository inventoryStockRepository;
+    private final InventoryStockBucketRepository inventoryStockBucketRepository;
+
+    /**
+     * 单个分桶上的一次变更，数量为变更前后库存维度（各桶之和）的快照，用于库存流水。
+     */
+    public record BucketChange(int bucketNo,
+                               long beforeTotal,
+                               long afterTotal,
+                               long beforeLocked,
+                               long afterLocked) {
+
+        public String extra() {
+            return "bucket=" + bucketNo;
+        }
+    }
+
+    /**
+     * 从分桶锁定库存，分桶不存在时先拆分。
+     *
+     * @return 锁定所在桶的变更，所有桶可用量均不足时返回 null
+     */
+    public BucketChange lock(InventoryStock stock, int bucketCount, long qty) {
+        List<InventoryStockBucket> buckets = ensureBuckets(stock, bucketCount);
+        int size = buckets.size();
+        int start = ThreadLocalRandom.current().nextInt(size);
+        boolean[] tried = new boolean[size];
+        // 先按读到的快照跳过明显不足的桶，快照可能已过期，再对剩余桶兜底尝试一次
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < size; i++) {
+                int index = (start + i) % size;
+                InventoryStockBucket bucket = buckets.get(index);
+                if (tried[index] || (pass == 0 && nullSafe(bucket.getAvailableQty()) < qty)) {
+                    continue;
+                }
+                tried[index] = true;
+                if (inventoryStockBucketRepository.tryLock(bucket.getId(), qty)) {
+                    List<InventoryStockBucket> after = findBuckets(stock);
+                    applySums(stock, after);
+                    return change(bucket.getBucketNo(), after, 0L, qty);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 释放分桶锁定。
+     *
+     * @return 库存未分桶时返回 null，由调用方按主行处理
+     */
+    public BucketChange release(InventoryLock lock, long qty) {
+        InventoryStockBucket bucket = pickLocked(lock, qty, true);
+        if (bucket == null) {
+            return null;
+        }
+        return change(bucket.getBucketNo(), findBuckets(lock), 0L, -qty);
+    }
+
+    /**
+     * 确认扣减分桶锁定。
+     *
+     * @return 库存未分桶时返回 null，由调用方按主行处理
+     */
+    public BucketChange deduct(InventoryLock lock, long qty) {
+        InventoryStockBucket bucket = pickLocked(lock, qty, false);
+        if (bucket == null) {
+            return null;
+        }
+        return change(bucket.getBucketNo(), findBuckets(lock), -qty, -qty);
+    }
+
+    /**
+     * 用各桶之和覆盖主行快照中的数量，只改内存对象不写库，用于查询展示。
+     *
+     * @return true 表示库存已分桶
+     */
+    public boolean applyBucketSums(InventoryStock stock) {
+        List<InventoryStockBucket> buckets = findBuckets(stock);
+        if (buckets.isEmpty()) {
+            return false;
+        }
+        applySums(stock, buckets);
+        return true;
+    }
+
+    /**
+     * 快照读到分桶时合并回主行，用于按主行处理前清理残留分桶；未分桶时不加锁直接返回 false。
+     */
+    public boolean mergeIfBucketed(InventoryStock stock) {
+        return !findBuckets(stock).isEmpty() && merge(stock);
+    }
+
+    /**
+     * 合并分桶回主行并删除分桶，用于入库、出库、盘点等需要整体调整的操作。
+     *
+     * <p>无论是否分桶都会锁定主行，并把最新已提交的数量与版本号写回 stock，调用方据此计算调整结果。</p>
+     *
+     * @return true 表示存在分桶并已合并
+     */
+    public boolean merge(InventoryStock stock) {
+        InventoryStock current = lockStock(stock);
+        List<InventoryStockBucket> buckets = inventoryStockBucketRepository.findByStockForUpdate(
+                stock.getTenantId(), stock.getStoreId(), stock.getItemId(), stock.getLocationId());
+        if (buckets.isEmpty()) {
+            copyQuantities(current, stock);
+            return false;
+        }
+        applySums(current, buckets);
+        if (current.getVersion() != null) {
+            current.setVersion(current.getVersion() + 1);
+        }
+        inventoryStockBucketRepository.deleteByStock(
+                stock.getTenantId(), stock.getStoreId(), stock.getItemId(), stock.getLocationId());
+        inventoryStockRepository.update(current);
+        copyQuantities(current, stock);
+        return true;
+    }
+
+    /**
+     * 快照读到分桶时直接使用；否则锁定主行后当前读确认，仍不存在时按主行最新数量拆分。
+     *
+     * <p>可重复读下快照可能早于并发拆分的提交，必须用当前读确认，不能重试快照读。</p>
+     */
+    private List<InventoryStockBucket> ensureBuckets(InventoryStock stock, int bucketCount) {
+        List<InventoryStockBucket> buckets = findBuckets(stock);
+        if (!buckets.isEmpty()) {
+            return buckets;
+        }
+        InventoryStock current = lockStock(stock);
+        buckets = inventoryStockBucketRepository.findByStockForUpdate(
+                stock.getTenantId(), stock.getStoreId(), stock.getItemId(), stock.getLocationId());
+        if (!buckets.isEmpty()) {
+            return buckets;
+        }
+        List<InventoryStockBucket> created = split(current, bucketCount);
+        if (!inventoryStockBucketRepository.saveAll(created)) {
+            throw new BusinessException(CommonErrorCode.SYSTEM_ERROR, String.format(
+                    "库存分桶初始化失败，tenantId=%s,storeId=%s,itemId=%s",
+                    stock.getTenantId(), stock.getStoreId(), stock.getItemId()));
+        }
+        return created;
+    }
+
+    private InventoryStock lockStock(InventoryStock stock) {
+        InventoryStock current = inventoryStockRepository.findByTenantStoreItemForUpdate(
+                stock.getTenantId(), stock.getStoreId(), stock.getItemId(), stock.getLocationId());
+        if (current == null) {
+            throw new BusinessException(CommonErrorCode.SYSTEM_ERROR, String.format(
+                    "库存不存在，tenantId=%s,storeId=%s,itemId=%s",
+                    stock.getTenantId(), stock.getStoreId(), stock.getItemId()));
+        }
+        return current;
+    }
+
+    private List<InventoryStockBucket> split(InventoryStock stock, int bucketCount) {
+        long available = nullSafe(stock.getAvailableQty());
+        long locked = nullSafe(stock.getLockedQty());
+        long share = available / bucketCount;
+        long remainder = available % bucketCount;
+        LocalDateTime now = LocalDateTime.now();
+        List<InventoryStockBucket> buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            long bucketAvailable = share + (i < remainder ? 1 : 0);
+            long bucketLocked = i == 0 ? locked : 0L;
+            buckets.add(InventoryStockBucket.builder()
+                    .tenantId(stock.getTenantId())
+                    .storeId(stock.getStoreId())
+                    .itemId(stock.getItemId())
+                    .locationId(stock.getLocationId())
+                    .bucketNo(i)
+                    .totalQty(bucketAvailable + bucketLocked)
+                    .lockedQty(bucketLocked)
+                    .availableQty(bucketAvailable)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        return buckets;
+    }
+
+    /**
+     * 优先锁记录所在桶（拆分前的锁记录在 0 号桶），该桶不足时依次尝试其他桶。
+     */
+    private InventoryStockBucket pickLocked(InventoryLock lock, long qty, boolean release) {
+        List<InventoryStockBucket> buckets = findBuckets(lock);
+        if (buckets.isEmpty()) {
+            return null;
+        }
+        int preferred = lock.getBucketNo() != null ? lock.getBucketNo() : 0;
+        List<InventoryStockBucket> ordered = new ArrayList<>(buckets.size());
+        buckets.stream().filter(bucket -> bucket.getBucketNo() == preferred).forEach(ordered::add);
+        buckets.stream().filter(bucket -> bucket.getBucketNo() != preferred).forEach(ordered::add);
+        for (InventoryStockBucket bucket : ordered) {
+            boolean updated = release
+                    ? inventoryStockBucketRepository.tryRelease(bucket.getId(), qty)
+                    : inventoryStockBucketRepository.tryDeduct(bucket.getId(), qty);
+            if (updated) {
+                return bucket;
+            }
+        }
+        throw new BusinessException(CommonErrorCode.SYSTEM_ERROR, String.format(
+                "分桶锁定库存不足，tenantId=%s,storeId=%s,itemId=%s,lockId=%s,qty=%s",
+                lock.getTenantId(), lock.getStoreId(), lock.getItemId(), lock.getId(), qty));
+    }
+
+    private List<InventoryStockBucket> findBuckets(InventoryStock stock) {
+        return inventoryStockBucketRepository.findByStock(
+                stock.getTenantId(), stock.getStoreId(), stock.getItemId(), stock.getLocationId());
+    }
+
+    private List<InventoryStockBucket> findBuckets(InventoryLock lock) {
+        return inventoryStockBucketRepository.findByStock(
+                lock.getTenantId(), lock.getStoreId(), lock.getItemId(), lock.getLocationId());
+    }
+
+    /**
+     * 以变更后各桶之和为 after，按本次变更量倒推 before。
+     */
+    private BucketChange change(int bucketNo, List<InventoryStockBucket> after, long totalDelta, long lockedDelta) {
+        long total = 0L;
+        long locked = 0L;
+        for (InventoryStockBucket bucket : after) {
+            total += nullSafe(bucket.getTotalQty());
+            locked += nullSafe(bucket.getLockedQty());
+        }
+        return new BucketChange(bucketNo, total - totalDelta, total, locked - lockedDelta, locked);
+    }
+
+    private void applySums(InventoryStock stock, List<InventoryStockBucket> buckets) {
+        long total = 0L;
+        long locked = 0L;
+        long available = 0L;
+        for (InventoryStockBucket bucket : buckets) {
+            total += nullSafe(bucket.getTotalQty());
+            locked += nullSafe(bucket.getLockedQty());
+            available += nullSafe(bucket.getAvailableQty());
+        }
+        stock.setTotalQty(total);
+        stock.setLockedQty(locked);
+        stock.setAvailableQty(available);
+    }
+
+    private void copyQuantities(InventoryStock from, InventoryStock to) {
+        to.setTotalQty(from.getTotalQty());
+        to.setLockedQty(from.getLockedQty());
+        to.setAvailableQty(from.getAvailableQty());
+        to.setVersion(from.getVersion());
+    }
+
+    private long nullSafe(Long value) {
+        return value == null ? 0L : value;
+    }
+}
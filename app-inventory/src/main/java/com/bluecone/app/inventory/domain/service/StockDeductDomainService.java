@@ -23,6 +23,7 @@ public class StockDeductDomainService {
     private final InventoryStockRepository inventoryStockRepository;
     private final InventoryLockRepository inventoryLockRepository;
     private final InventoryTxnRepository inventoryTxnRepository;
+    private final StockBucketDomainService stockBucketDomainService;
 
     /**
      * 确认一批锁记录并扣减库存（通常在支付成功后调用）。
@@ -47,23 +48,36 @@ public class StockDeductDomainService {
             }
 
             long lockQty = lock.getLockQty() == null ? 0L : lock.getLockQty();
-            long beforeTotal = nullSafe(stock.getTotalQty());
-            long beforeLocked = nullSafe(stock.getLockedQty());
+            long beforeTotal;
+            long beforeLocked;
+            long afterTotal;
+            long afterLocked;
+            // 已分桶的库存从桶内扣减，流水记录桶内数量
+            StockBucketDomainService.BucketChange change = stockBucketDomainService.deduct(lock, lockQty);
+            if (change != null) {
+                beforeTotal = change.beforeTotal();
+                beforeLocked = change.beforeLocked();
+                afterTotal = change.afterTotal();
+                afterLocked = change.afterLocked();
+            } else {
+                beforeTotal = nullSafe(stock.getTotalQty());
+                beforeLocked = nullSafe(stock.getLockedQty());
 
-            boolean updated = inventoryStockRepository.tryDeduct(stock, lockQty);
-            if (!updated) {
-                throw new BusinessException(CommonErrorCode.SYSTEM_ERROR, String.format(
-                        "扣减库存失败，可能并发冲突或库存不足，tenantId=%s,storeId=%s,itemId=%s,lockId=%s,qty=%s",
-                        stock.getTenantId(), stock.getStoreId(), stock.getItemId(), lock.getId(), lockQty));
-            }
+                boolean updated = inventoryStockRepository.tryDeduct(stock, lockQty);
+                if (!updated) {
+                    throw new BusinessException(CommonErrorCode.SYSTEM_ERROR, String.format(
+                            "扣减库存失败，可能并发冲突或库存不足，tenantId=%s,storeId=%s,itemId=%s,lockId=%s,qty=%s",
+                            stock.getTenantId(), stock.getStoreId(), stock.getItemId(), lock.getId(), lockQty));
+                }
 
-            stock.applyDeduct(lockQty);
-            if (stock.getVersion() != null) {
-                stock.setVersion(stock.getVersion() + 1);
-            }
+                stock.applyDeduct(lockQty);
+                if (stock.getVersion() != null) {
+                    stock.setVersion(stock.getVersion() + 1);
+                }
 
-            long afterTotal = nullSafe(stock.getTotalQty());
-            long afterLocked = nullSafe(stock.getLockedQty());
+                afterTotal = nullSafe(stock.getTotalQty());
+                afterLocked = nullSafe(stock.getLockedQty());
+            }
 
             lock.markConfirmed();
             inventoryLockRepository.update(lock);
@@ -84,6 +98,9 @@ public class StockDeductDomainService {
                     lock.getOrderId());
             txn.setCreatedAt(LocalDateTime.now());
             txn.setTxnType(InventoryTxnType.DEDUCT);
+            if (change != null) {
+                txn.setExtra(change.extra());
+            }
             inventoryTxnRepository.save(txn);
         }
     }
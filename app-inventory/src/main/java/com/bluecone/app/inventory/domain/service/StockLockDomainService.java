@@ -24,9 +24,13 @@ public class StockLockDomainService {
     private final InventoryStockRepository inventoryStockRepository;
     private final InventoryLockRepository inventoryLockRepository;
     private final InventoryTxnRepository inventoryTxnRepository;
+    private final StockBucketDomainService stockBucketDomainService;
 
     /**
      * 锁定库存的领域操作。
+     *
+     * <p>策略开启热点分桶时从分桶锁定，不更新主行，锁记录与流水记录所在桶；没有单桶能满足数量时合并后走主行。
+     * 主行路径先合并残留分桶（策略从热点切回普通时），避免按拆分前的主行数量重复锁出。</p>
      */
     public InventoryLock lock(InventoryStock stock,
                               InventoryPolicy policy,
@@ -55,6 +59,22 @@ public class StockLockDomainService {
             throw new BusinessException(CommonErrorCode.BAD_REQUEST, "库存策略未启用");
         }
 
+        if (policy != null && policy.isHotItem()) {
+            StockBucketDomainService.BucketChange change =
+                    stockBucketDomainService.lock(stock, policy.getHotBucketCount(), lockQty);
+            if (change != null) {
+                return saveLockAndTxn(stock, orderId, orderItemId, lockQty, requestId, expireAt,
+                        change.beforeTotal(), change.afterTotal(), change.beforeLocked(), change.afterLocked(), change);
+            }
+            // 单桶都不够但各桶之和够（多件下单临近售罄）：合并回主行后按主行锁定，下次热点锁定时重新拆分
+            if (!stockBucketDomainService.applyBucketSums(stock) || nullSafe(stock.getAvailableQty()) < lockQty) {
+                throw new BusinessException(CommonErrorCode.BAD_REQUEST, "可用库存不足，无法锁定");
+            }
+            stockBucketDomainService.merge(stock);
+        } else {
+            stockBucketDomainService.mergeIfBucketed(stock);
+        }
+
         if (!stock.canLock(lockQty, policy)) {
             throw new BusinessException(CommonErrorCode.BAD_REQUEST, "可用库存不足，无法锁定");
         }
@@ -74,6 +94,21 @@ public class StockLockDomainService {
             stock.setVersion(stock.getVersion() + 1);
         }
 
+        return saveLockAndTxn(stock, orderId, orderItemId, lockQty, requestId, expireAt,
+                beforeTotal, stock.getTotalQty(), beforeLocked, stock.getLockedQty(), null);
+    }
+
+    private InventoryLock saveLockAndTxn(InventoryStock stock,
+                                         Long orderId,
+                                         Long orderItemId,
+                                         long lockQty,
+                                         String requestId,
+                                         LocalDateTime expireAt,
+                                         long beforeTotal,
+                                         long afterTotal,
+                                         long beforeLocked,
+                                         long afterLocked,
+                                         StockBucketDomainService.BucketChange bucketChange) {
         InventoryLock lock = InventoryLock.createNew(
                 stock.getTenantId(),
                 stock.getStoreId(),
@@ -84,6 +119,9 @@ public class StockLockDomainService {
                 lockQty,
                 requestId,
                 expireAt);
+        if (bucketChange != null) {
+            lock.setBucketNo(bucketChange.bucketNo());
+        }
         inventoryLockRepository.save(lock);
 
         InventoryTxn txn = InventoryTxn.forLock(
@@ -93,15 +131,18 @@ public class StockLockDomainService {
                 stock.getLocationId(),
                 lockQty,
                 beforeTotal,
-                stock.getTotalQty(),
+                afterTotal,
                 beforeLocked,
-                stock.getLockedQty(),
+                afterLocked,
                 lock.getId(),
                 requestId,
                 "ORDER",
                 orderId);
         txn.setTxnDirection(InventoryTxnDirection.OUT);
         txn.setTxnType(InventoryTxnType.LOCK);
+        if (bucketChange != null) {
+            txn.setExtra(bucketChange.extra());
+        }
         txn.setCreatedAt(LocalDateTime.now());
         inventoryTxnRepository.save(txn);
 
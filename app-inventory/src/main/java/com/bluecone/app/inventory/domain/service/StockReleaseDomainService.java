@@ -26,6 +26,7 @@ public class StockReleaseDomainService {
     private final InventoryStockRepository inventoryStockRepository;
     private final InventoryLockRepository inventoryLockRepository;
     private final InventoryTxnRepository inventoryTxnRepository;
+    private final StockBucketDomainService stockBucketDomainService;
 
     /**
      * 释放一批锁记录（订单取消或超时），将锁定库存还原为可用库存。
@@ -55,17 +56,30 @@ public class StockReleaseDomainService {
             }
 
             long releaseQty = lock.getLockQty() == null ? 0L : lock.getLockQty();
-            long beforeTotal = nullSafe(stock.getTotalQty());
-            long beforeLocked = nullSafe(stock.getLockedQty());
+            long beforeTotal;
+            long beforeLocked;
+            long afterTotal;
+            long afterLocked;
+            // 已分桶的库存释放回桶内，流水记录桶内数量
+            StockBucketDomainService.BucketChange change = stockBucketDomainService.release(lock, releaseQty);
+            if (change != null) {
+                beforeTotal = change.beforeTotal();
+                beforeLocked = change.beforeLocked();
+                afterTotal = change.afterTotal();
+                afterLocked = change.afterLocked();
+            } else {
+                beforeTotal = nullSafe(stock.getTotalQty());
+                beforeLocked = nullSafe(stock.getLockedQty());
 
-            stock.applyRelease(releaseQty);
-            if (stock.getVersion() != null) {
-                stock.setVersion(stock.getVersion() + 1);
-            }
-            inventoryStockRepository.update(stock);
+                stock.applyRelease(releaseQty);
+                if (stock.getVersion() != null) {
+                    stock.setVersion(stock.getVersion() + 1);
+                }
+                inventoryStockRepository.update(stock);
 
-            long afterTotal = nullSafe(stock.getTotalQty());
-            long afterLocked = nullSafe(stock.getLockedQty());
+                afterTotal = nullSafe(stock.getTotalQty());
+                afterLocked = nullSafe(stock.getLockedQty());
+            }
 
             if (expired) {
                 lock.markExpired();
@@ -90,6 +104,9 @@ public class StockReleaseDomainService {
                     lock.getOrderId());
             txn.setTxnDirection(InventoryTxnDirection.IN);
             txn.setTxnType(InventoryTxnType.UNLOCK);
+            if (change != null) {
+                txn.setExtra(change.extra());
+            }
             txn.setCreatedAt(LocalDateTime.now());
             inventoryTxnRepository.save(txn);
         }
@@ -0,0 +1,24 @@
+package com.bluecone.app.inventory.infra.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.bluecone.app.inventory.infra.po.InvStockBucketDO;
+
+@Mapper
+public interface InvStockBucketMapper extends BaseMapper<InvStockBucketDO> {
+
+    @Update("UPDATE bc_inv_stock_bucket SET available_qty = available_qty - #{qty}, locked_qty = locked_qty + #{qty}, "
+            + "updated_at = NOW() WHERE id = #{id} AND available_qty >= #{qty}")
+    int tryLock(@Param("id") Long id, @Param("qty") long qty);
+
+    @Update("UPDATE bc_inv_stock_bucket SET locked_qty = locked_qty - #{qty}, available_qty = available_qty + #{qty}, "
+            + "updated_at = NOW() WHERE id = #{id} AND locked_qty >= #{qty}")
+    int tryRelease(@Param("id") Long id, @Param("qty") long qty);
+
+    @Update("UPDATE bc_inv_stock_bucket SET locked_qty = locked_qty - #{qty}, total_qty = total_qty - #{qty}, "
+            + "updated_at = NOW() WHERE id = #{id} AND locked_qty >= #{qty}")
+    int tryDeduct(@Param("id") Long id, @Param("qty") long qty);
+}
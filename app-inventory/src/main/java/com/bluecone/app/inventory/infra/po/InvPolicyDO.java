@@ -34,6 +34,8 @@ public class InvPolicyDO implements Serializable {
 
     private String remark;
 
+    private Integer hotBucketCount;
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
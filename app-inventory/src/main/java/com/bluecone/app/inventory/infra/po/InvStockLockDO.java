@@ -30,6 +30,8 @@ public class InvStockLockDO implements Serializable {
 
     private Long lockQty;
 
+    private Integer bucketNo;
+
     private Integer status;
 
     private LocalDateTime expireAt;
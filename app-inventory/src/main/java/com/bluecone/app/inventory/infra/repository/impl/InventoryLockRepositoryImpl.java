@@ -72,6 +72,7 @@ public class InventoryLockRepositoryImpl implements InventoryLockRepository {
                 .orderId(data.getOrderId())
                 .orderItemId(data.getOrderItemId())
                 .lockQty(data.getLockQty())
+                .bucketNo(data.getBucketNo())
                 .status(InventoryLockStatus.fromCode(data.getStatus()))
                 .expireAt(data.getExpireAt())
                 .requestId(data.getRequestId())
@@ -95,6 +96,7 @@ public class InventoryLockRepositoryImpl implements InventoryLockRepository {
         data.setOrderId(lock.getOrderId());
         data.setOrderItemId(lock.getOrderItemId());
         data.setLockQty(lock.getLockQty());
+        data.setBucketNo(lock.getBucketNo());
         data.setStatus(lock.getStatus() != null ? lock.getStatus().getCode() : null);
         data.setExpireAt(lock.getExpireAt());
         data.setRequestId(lock.getRequestId());
@@ -57,6 +57,7 @@ public class InventoryPolicyRepositoryImpl implements InventoryPolicyRepository
                 .maxDailySold(data.getMaxDailySold())
                 .status(data.getStatus())
                 .remark(data.getRemark())
+                .hotBucketCount(data.getHotBucketCount())
                 .createdAt(data.getCreatedAt())
                 .updatedAt(data.getUpdatedAt())
                 .build();
@@ -77,6 +78,7 @@ public class InventoryPolicyRepositoryImpl implements InventoryPolicyRepository
         data.setMaxDailySold(policy.getMaxDailySold());
         data.setStatus(policy.getStatus());
         data.setRemark(policy.getRemark());
+        data.setHotBucketCount(policy.getHotBucketCount());
         data.setCreatedAt(policy.getCreatedAt());
         data.setUpdatedAt(policy.getUpdatedAt());
         return data;
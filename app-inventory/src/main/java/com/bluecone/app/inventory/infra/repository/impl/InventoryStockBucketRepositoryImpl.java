@@ -0,0 +1,116 @@
+package com.bluecone.app.inventory.infra.repository.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.bluecone.app.inventory.domain.model.InventoryStockBucket;
+import com.bluecone.app.inventory.domain.repository.InventoryStockBucketRepository;
+import com.bluecone.app.inventory.infra.mapper.InvStockBucketMapper;
+import com.bluecone.app.inventory.infra.po.InvStockBucketDO;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class InventoryStockBucketRepositoryImpl implements InventoryStockBucketRepository {
+
+    private final InvStockBucketMapper invStockBucketMapper;
+
+    @Override
+    public List<InventoryStockBucket> findByStock(Long tenantId, Long storeId, Long itemId, Long locationId) {
+        List<InvStockBucketDO> list = invStockBucketMapper.selectList(stockQuery(tenantId, storeId, itemId, locationId)
+                .orderByAsc(InvStockBucketDO::getBucketNo));
+        return list.stream().map(this::toDomain).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<InventoryStockBucket> findByStockForUpdate(Long tenantId, Long storeId, Long itemId, Long locationId) {
+        List<InvStockBucketDO> list = invStockBucketMapper.selectList(stockQuery(tenantId, storeId, itemId, locationId)
+                .orderByAsc(InvStockBucketDO::getBucketNo)
+                .last("FOR UPDATE"));
+        return list.stream().map(this::toDomain).collect(Collectors.toList());
+    }
+
+    @Override
+    public InventoryStockBucket findById(Long id) {
+        return toDomain(invStockBucketMapper.selectById(id));
+    }
+
+    @Override
+    public boolean saveAll(List<InventoryStockBucket> buckets) {
+        try {
+            for (InventoryStockBucket bucket : buckets) {
+                InvStockBucketDO data = toDO(bucket);
+                invStockBucketMapper.insert(data);
+                bucket.setId(data.getId());
+            }
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public void deleteByStock(Long tenantId, Long storeId, Long itemId, Long locationId) {
+        invStockBucketMapper.delete(stockQuery(tenantId, storeId, itemId, locationId));
+    }
+
+    @Override
+    public boolean tryLock(Long bucketId, long qty) {
+        return invStockBucketMapper.tryLock(bucketId, qty) > 0;
+    }
+
+    @Override
+    public boolean tryRelease(Long bucketId, long qty) {
+        return invStockBucketMapper.tryRelease(bucketId, qty) > 0;
+    }
+
+    @Override
+    public boolean tryDeduct(Long bucketId, long qty) {
+        return invStockBucketMapper.tryDeduct(bucketId, qty) > 0;
+    }
+
+    private LambdaQueryWrapper<InvStockBucketDO> stockQuery(Long tenantId, Long storeId, Long itemId, Long locationId) {
+        return new LambdaQueryWrapper<InvStockBucketDO>()
+                .eq(InvStockBucketDO::getTenantId, tenantId)
+                .eq(InvStockBucketDO::getStoreId, storeId)
+                .eq(InvStockBucketDO::getItemId, itemId)
+                .eq(InvStockBucketDO::getLocationId, locationId);
+    }
+
+    private InventoryStockBucket toDomain(InvStockBucketDO data) {
+        if (data == null) {
+            return null;
+        }
+        return InventoryStockBucket.builder()
+                .id(data.getId())
+                .tenantId(data.getTenantId())
+                .storeId(data.getStoreId())
+                .itemId(data.getItemId())
+                .locationId(data.getLocationId())
+                .bucketNo(data.getBucketNo())
+                .totalQty(data.getTotalQty())
+                .lockedQty(data.getLockedQty())
+                .availableQty(data.getAvailableQty())
+                .createdAt(data.getCreatedAt())
+                .updatedAt(data.getUpdatedAt())
+                .build();
+    }
+
+    private InvStockBucketDO toDO(InventoryStockBucket bucket) {
+        InvStockBucketDO data = new InvStockBucketDO();
+        data.setId(bucket.getId());
+        data.setTenantId(bucket.getTenantId());
+        data.setStoreId(bucket.getStoreId());
+        data.setItemId(bucket.getItemId());
+        data.setLocationId(bucket.getLocationId());
+        data.setBucketNo(bucket.getBucketNo());
+        data.setTotalQty(bucket.getTotalQty());
+        data.setLockedQty(bucket.getLockedQty());
+        data.setAvailableQty(bucket.getAvailableQty());
+        data.setCreatedAt(bucket.getCreatedAt());
+        data.setUpdatedAt(bucket.getUpdatedAt());
+        return data;
+    }
+}
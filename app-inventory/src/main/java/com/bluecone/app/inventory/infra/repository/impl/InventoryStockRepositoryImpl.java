@@ -24,6 +24,17 @@ public class InventoryStockRepositoryImpl implements InventoryStockRepository {
         return toDomain(data);
     }
 
+    @Override
+    public InventoryStock findByTenantStoreItemForUpdate(Long tenantId, Long storeId, Long itemId, Long locationId) {
+        InvStockDO data = invStockMapper.selectOne(new LambdaQueryWrapper<InvStockDO>()
+                .eq(InvStockDO::getTenantId, tenantId)
+                .eq(InvStockDO::getStoreId, storeId)
+                .eq(InvStockDO::getItemId, itemId)
+                .eq(InvStockDO::getLocationId, locationId)
+                .last("FOR UPDATE"));
+        return toDomain(data);
+    }
+
     @Override
     public void save(InventoryStock stock) {
         if (stock == null) {
@@ -2,6 +2,7 @@ package com.bluecone.app.inventory.runtime.infrastructure;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.bluecone.app.core.contextkit.SnapshotLoadKey;
+import com.bluecone.app.core.contextkit.VersionedSnapshot;
 import com.bluecone.app.inventory.infra.mapper.InvPolicyMapper;
 import com.bluecone.app.inventory.infra.po.InvPolicyDO;
 import com.bluecone.app.inventory.runtime.api.InventoryPolicySnapshot;
@@ -9,8 +10,14 @@ import com.bluecone.app.inventory.runtime.api.InventoryScope;
 import com.bluecone.app.inventory.runtime.spi.InventoryPolicyRepository;
 import java.time.ZoneOffset;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
@@ -42,7 +49,65 @@ public class InventoryPolicySnapshotRepositoryImpl implements InventoryPolicyRep
         if (policy == null) {
             return Optional.empty();
         }
+        return Optional.of(toSnapshot(key, scope, policy));
+    }
+
+    /**
+     * 按租户分组，每组一次 {@code store_id IN (...)} 查询。
+     */
+    @Override
+    public Map<SnapshotLoadKey, VersionedSnapshot<InventoryPolicySnapshot>> loadFullBatch(Collection<SnapshotLoadKey> keys) {
+        Map<SnapshotLoadKey, VersionedSnapshot<InventoryPolicySnapshot>> result = new LinkedHashMap<>();
+        loadPoliciesByKey(keys, false).forEach((key, policy) -> {
+            InventoryPolicySnapshot snapshot = toSnapshot(key, (InventoryScope) key.scopeId(), policy);
+            result.put(key, new VersionedSnapshot<>(snapshot, snapshot.configVersion()));
+        });
+        return result;
+    }
+
+    @Override
+    public Map<SnapshotLoadKey, Long> loadVersionBatch(Collection<SnapshotLoadKey> keys) {
+        Map<SnapshotLoadKey, Long> result = new LinkedHashMap<>();
+        loadPoliciesByKey(keys, true).forEach((key, policy) -> {
+            if (policy.getUpdatedAt() != null) {
+                result.put(key, deriveVersion(policy));
+            }
+        });
+        return result;
+    }
 
+    private Map<SnapshotLoadKey, InvPolicyDO> loadPoliciesByKey(Collection<SnapshotLoadKey> keys, boolean versionOnly) {
+        Map<Long, Map<Long, List<SnapshotLoadKey>>> keysByTenantAndStore = new LinkedHashMap<>();
+        for (SnapshotLoadKey key : keys) {
+            Long storeId = ((InventoryScope) key.scopeId()).storeNumericId();
+            if (storeId != null) {
+                keysByTenantAndStore.computeIfAbsent(key.tenantId(), ignored -> new LinkedHashMap<>())
+                        .computeIfAbsent(storeId, ignored -> new ArrayList<>())
+                        .add(key);
+            }
+        }
+        Map<SnapshotLoadKey, InvPolicyDO> result = new LinkedHashMap<>();
+        keysByTenantAndStore.forEach((tenantId, keysByStore) -> {
+            LambdaQueryWrapper<InvPolicyDO> query = new LambdaQueryWrapper<InvPolicyDO>()
+                    .eq(InvPolicyDO::getTenantId, tenantId)
+                    .in(InvPolicyDO::getStoreId, keysByStore.keySet())
+                    .eq(InvPolicyDO::getStatus, 1);
+            if (versionOnly) {
+                query.select(InvPolicyDO::getStoreId, InvPolicyDO::getUpdatedAt);
+            }
+            Set<Long> seenStores = new HashSet<>();
+            for (InvPolicyDO policy : invPolicyMapper.selectList(query)) {
+                // 与单条查询的 LIMIT 1 一致：每个门店只取一条
+                if (seenStores.add(policy.getStoreId())) {
+                    keysByStore.getOrDefault(policy.getStoreId(), List.of()).forEach(key -> result.put(key, policy));
+                }
+            }
+        });
+        return result;
+    }
+
+    private InventoryPolicySnapshot toSnapshot(SnapshotLoadKey key, InventoryScope scope, InvPolicyDO policy) {
+        Long storeId = scope.storeNumericId();
         boolean enableInventory = policy.getStatus() != null && policy.getStatus() == 1;
         String deductMode = policy.getDeductMode();
         int safetyStockMode = 0;
@@ -58,7 +123,7 @@ public class InventoryPolicySnapshotRepositoryImpl implements InventoryPolicyRep
         ext.put("maxDailySold", policy.getMaxDailySold());
         ext.put("storeNumericId", storeId);
 
-        InventoryPolicySnapshot snapshot = new InventoryPolicySnapshot(
+        return new InventoryPolicySnapshot(
                 key.tenantId(),
                 scope.storeInternalId(),
                 scope.storePublicId(),
@@ -69,7 +134,6 @@ public class InventoryPolicySnapshotRepositoryImpl implements InventoryPolicyRep
                 updatedAt,
                 ext
         );
-        return Optional.of(snapshot);
     }
 
     @Override
@@ -92,6 +156,11 @@ public class InventoryPolicySnapshotRepositoryImpl implements InventoryPolicyRep
         return Optional.of(deriveVersion(policy));
     }
 
+    @Override
+    public Optional<VersionedSnapshot<InventoryPolicySnapshot>> loadFullWithVersion(SnapshotLoadKey key) {
+        return loadFull(key).map(snapshot -> new VersionedSnapshot<>(snapshot, snapshot.configVersion()));
+    }
+
     private long deriveVersion(InvPolicyDO policy) {
         if (policy.getUpdatedAt() == null) {
             return 0L;
@@ -0,0 +1,469 @@
+package com.bluecone.app.inventory.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.bluecone.app.core.exception.BusinessException;
+import com.bluecone.app.inventory.domain.model.InventoryLock;
+import com.bluecone.app.inventory.domain.model.InventoryPolicy;
+import com.bluecone.app.inventory.domain.model.InventoryStock;
+import com.bluecone.app.inventory.domain.model.InventoryStockBucket;
+import com.bluecone.app.inventory.domain.model.InventoryTxn;
+import com.bluecone.app.inventory.domain.repository.InventoryLockRepository;
+import com.bluecone.app.inventory.domain.repository.InventoryStockBucketRepository;
+import com.bluecone.app.inventory.domain.repository.InventoryStockRepository;
+import com.bluecone.app.inventory.domain.repository.InventoryTxnRepository;
+import com.bluecone.app.inventory.domain.type.InventoryTxnType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 热点分桶锁定测试：验证选桶、流水与各桶求和的不变量。
+ *
+ * <p>内存仓库只按行串行化条件更新，主行当前读用线程持有的锁模拟事务内行锁，不模拟 MySQL 隔离级别与快照，
+ * 并发结果不能代表数据库上的吞吐或冲突率。</p>
+ */
+class StockLockDomainServiceHotBucketTest {
+
+    private static final int THREADS = 500;
+    private static final long STOCK_QTY = 300L;
+
+    private InMemoryStockRepository stockRepository;
+    private InMemoryBucketRepository bucketRepository;
+    private InMemoryLockRepository lockRepository;
+    private InMemoryTxnRepository txnRepository;
+    private StockBucketDomainService bucketService;
+    private StockLockDomainService lockService;
+
+    @BeforeEach
+    void setUp() {
+        stockRepository = new InMemoryStockRepository(InventoryStock.builder()
+                .id(1L).tenantId(1L).storeId(10L).itemId(100L).locationId(0L)
+                .totalQty(STOCK_QTY).lockedQty(0L).availableQty(STOCK_QTY).version(0L)
+                .build());
+        bucketRepository = new InMemoryBucketRepository();
+        lockRepository = new InMemoryLockRepository();
+        txnRepository = new InMemoryTxnRepository();
+        bucketService = new StockBucketDomainService(stockRepository, bucketRepository);
+        lockService = new StockLockDomainService(stockRepository, lockRepository, txnRepository, bucketService);
+    }
+
+    @Test
+    void hotItemLocksExactlyAvailableStockWithoutConflicts() throws Exception {
+        InventoryPolicy policy = InventoryPolicy.builder().status(1).hotBucketCount(16).build();
+
+        Outcome outcome = lockConcurrently(policy);
+
+        assertThat(outcome.succeeded.get()).isEqualTo((int) STOCK_QTY);
+        assertThat(outcome.conflicts.get()).isZero();
+        assertThat(outcome.insufficient.get()).isEqualTo(THREADS - (int) STOCK_QTY);
+
+        List<InventoryStockBucket> buckets = bucketRepository.findByStock(1L, 10L, 100L, 0L);
+        assertThat(buckets).hasSize(16);
+        assertThat(buckets.stream().mapToLong(InventoryStockBucket::getLockedQty).sum()).isEqualTo(STOCK_QTY);
+        assertThat(buckets.stream().mapToLong(InventoryStockBucket::getAvailableQty).sum()).isZero();
+
+        // 锁记录与流水一一对应，并记录所在桶
+        assertThat(lockRepository.locks.values()).hasSize((int) STOCK_QTY)
+                .allSatisfy(lock -> assertThat(lock.getBucketNo()).isBetween(0, 15));
+        assertThat(txnRepository.txns).hasSize((int) STOCK_QTY)
+                .allSatisfy(txn -> {
+                    assertThat(txn.getTxnType()).isEqualTo(InventoryTxnType.LOCK);
+                    assertThat(txn.getExtra()).startsWith("bucket=");
+                    assertThat(txn.getAfterLocked() - txn.getBeforeLocked()).isEqualTo(1L);
+                });
+
+        // 锁定路径不写主行，查询时按各桶之和展示
+        assertThat(stockRepository.current().getLockedQty()).isZero();
+        InventoryStock view = stockRepository.load();
+        assertThat(bucketService.applyBucketSums(view)).isTrue();
+        assertThat(view.getLockedQty()).isEqualTo(STOCK_QTY);
+        assertThat(view.getAvailableQty()).isZero();
+        assertThat(stockRepository.current().getLockedQty()).isZero();
+    }
+
+    @Test
+    void mergeFoldsBucketsIntoLockedMainRow() {
+        InventoryPolicy policy = InventoryPolicy.builder().status(1).hotBucketCount(4).build();
+        lockInTxn(stockRepository.load(), policy, 1000L, 5L, "req-merge");
+
+        // 调用方持有的是拆分前的旧快照，合并应以当前读的主行与分桶为准
+        InventoryStock stale = stockRepository.load();
+        stale.setAvailableQty(0L);
+        assertThat(bucketService.merge(stale)).isTrue();
+        stockRepository.commit();
+
+        assertThat(bucketRepository.findByStock(1L, 10L, 100L, 0L)).isEmpty();
+        assertThat(stockRepository.current().getLockedQty()).isEqualTo(5L);
+        assertThat(stockRepository.current().getAvailableQty()).isEqualTo(STOCK_QTY - 5L);
+        assertThat(stale.getAvailableQty()).isEqualTo(STOCK_QTY - 5L);
+        assertThat(stale.getVersion()).isEqualTo(stockRepository.current().getVersion());
+    }
+
+    @Test
+    void leavingHotModeMergesBucketsBeforeLockingMainRow() {
+        InventoryPolicy hot = InventoryPolicy.builder().status(1).hotBucketCount(4).build();
+        for (int i = 0; i < 10; i++) {
+            lockInTxn(stockRepository.load(), hot, 1000L + i, 10L, "req-hot-" + i);
+        }
+        assertThat(stockRepository.current().getAvailableQty()).isEqualTo(STOCK_QTY);
+
+        // 策略切回普通：主行仍是拆分前的数量，必须先合并分桶再判断可用量
+        InventoryPolicy normal = InventoryPolicy.builder().status(1).hotBucketCount(1).build();
+        assertThatThrownBy(() -> lockInTxn(stockRepository.load(), normal, 2000L, STOCK_QTY - 99L, "req-over"))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("可用库存不足");
+        lockInTxn(stockRepository.load(), normal, 2001L, STOCK_QTY - 100L, "req-normal");
+
+        assertThat(bucketRepository.findByStock(1L, 10L, 100L, 0L)).isEmpty();
+        assertThat(stockRepository.current().getLockedQty()).isEqualTo(STOCK_QTY);
+        assertThat(stockRepository.current().getAvailableQty()).isZero();
+    }
+
+    @Test
+    void quantityLargerThanAnyBucketFallsBackToMergedMainRow() {
+        InventoryPolicy policy = InventoryPolicy.builder().status(1).hotBucketCount(4).build();
+        lockInTxn(stockRepository.load(), policy, 1000L, 1L, "req-split");
+
+        // 每桶约 75，单桶放不下 200，但各桶之和足够
+        InventoryLock lock = lockInTxn(stockRepository.load(), policy, 1001L, 200L, "req-big");
+
+        assertThat(lock.getBucketNo()).isNull();
+        assertThat(bucketRepository.findByStock(1L, 10L, 100L, 0L)).isEmpty();
+        assertThat(stockRepository.current().getLockedQty()).isEqualTo(201L);
+        assertThat(stockRepository.current().getAvailableQty()).isEqualTo(STOCK_QTY - 201L);
+        assertThatThrownBy(() -> lockInTxn(stockRepository.load(), policy, 1002L, STOCK_QTY, "req-too-big"))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("可用库存不足");
+    }
+
+    @Test
+    void bucketTxnRecordsStockLevelQuantities() {
+        InventoryPolicy policy = InventoryPolicy.builder().status(1).hotBucketCount(4).build();
+        lockInTxn(stockRepository.load(), policy, 1000L, 3L, "req-1");
+        lockInTxn(stockRepository.load(), policy, 1001L, 2L, "req-2");
+
+        InventoryTxn second = txnRepository.txns.stream()
+                .filter(txn -> "req-2".equals(txn.getRequestId()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(second.getBeforeTotal()).isEqualTo(STOCK_QTY);
+        assertThat(second.getAfterTotal()).isEqualTo(STOCK_QTY);
+        assertThat(second.getBeforeLocked()).isEqualTo(3L);
+        assertThat(second.getAfterLocked()).isEqualTo(5L);
+    }
+
+    @Test
+    void releaseReturnsQuantityToLockedBucket() {
+        InventoryPolicy policy = InventoryPolicy.builder().status(1).hotBucketCount(4).build();
+        InventoryLock lock = lockInTxn(stockRepository.load(), policy, 1000L, 2L, "req-release");
+
+        StockReleaseDomainService releaseService =
+                new StockReleaseDomainService(stockRepository, lockRepository, txnRepository, bucketService);
+        releaseService.releaseLocks(List.of(lock), "req-release-1", false);
+
+        InventoryStockBucket bucket = bucketRepository.findByStock(1L, 10L, 100L, 0L).get(lock.getBucketNo());
+        assertThat(bucket.getLockedQty()).isZero();
+        InventoryStock view = stockRepository.load();
+        bucketService.applyBucketSums(view);
+        assertThat(view.getLockedQty()).isZero();
+        assertThat(view.getAvailableQty()).isEqualTo(STOCK_QTY);
+        InventoryTxn unlock = txnRepository.txns.stream()
+                .filter(txn -> txn.getTxnType() == InventoryTxnType.UNLOCK)
+                .findFirst()
+                .orElseThrow();
+        assertThat(unlock.getExtra()).isEqualTo("bucket=" + lock.getBucketNo());
+        assertThat(unlock.getBeforeLocked() - unlock.getAfterLocked()).isEqualTo(2L);
+    }
+
+    private Outcome lockConcurrently(InventoryPolicy policy) throws Exception {
+        Outcome outcome = new Outcome();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                String requestId = "req-" + i;
+                long orderId = 1000L + i;
+                executor.submit(() -> {
+                    // 与应用层一致：每个请求先读主行快照再锁定
+                    InventoryStock stock = stockRepository.load();
+                    ready.countDown();
+                    try {
+                        start.await();
+                        lockInTxn(stock, policy, orderId, 1L, requestId);
+                        outcome.succeeded.incrementAndGet();
+                    } catch (BusinessException ex) {
+                        if (ex.getMessage().contains("并发冲突")) {
+                            outcome.conflicts.incrementAndGet();
+                        } else {
+                            outcome.insufficient.incrementAndGet();
+                        }
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return null;
+                });
+            }
+            ready.await();
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+        return outcome;
+    }
+
+    /**
+     * 模拟一次事务：结束时释放当前线程持有的主行锁。
+     */
+    private InventoryLock lockInTxn(InventoryStock stock, InventoryPolicy policy, long orderId, long qty,
+                                    String requestId) {
+        try {
+            return lockService.lock(stock, policy, orderId, orderId, qty, requestId,
+                    LocalDateTime.now().plusMinutes(15));
+        } finally {
+            stockRepository.commit();
+        }
+    }
+
+    private static InventoryStock copyStock(InventoryStock stock) {
+        return InventoryStock.builder()
+                .id(stock.getId()).tenantId(stock.getTenantId()).storeId(stock.getStoreId())
+                .itemId(stock.getItemId()).locationId(stock.getLocationId())
+                .totalQty(stock.getTotalQty()).lockedQty(stock.getLockedQty()).availableQty(stock.getAvailableQty())
+                .version(stock.getVersion())
+                .build();
+    }
+
+    private static final class Outcome {
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final AtomicInteger conflicts = new AtomicInteger();
+        private final AtomicInteger insufficient = new AtomicInteger();
+    }
+
+    /**
+     * 单行库存，tryIncreaseLocked 按版本号做条件更新；当前读持有行锁直到 commit。
+     */
+    static final class InMemoryStockRepository implements InventoryStockRepository {
+
+        private final ReentrantLock rowLock = new ReentrantLock();
+        private InventoryStock row;
+
+        InMemoryStockRepository(InventoryStock row) {
+            this.row = row;
+        }
+
+        synchronized InventoryStock current() {
+            return copyStock(row);
+        }
+
+        InventoryStock load() {
+            return current();
+        }
+
+        @Override
+        public InventoryStock findByTenantStoreItem(Long tenantId, Long storeId, Long itemId, Long locationId) {
+            return current();
+        }
+
+        @Override
+        public InventoryStock findByTenantStoreItemForUpdate(Long tenantId, Long storeId, Long itemId,
+                                                             Long locationId) {
+            rowLock.lock();
+            return current();
+        }
+
+        void commit() {
+            while (rowLock.isHeldByCurrentThread()) {
+                rowLock.unlock();
+            }
+        }
+
+        @Override
+        public synchronized void save(InventoryStock stock) {
+            row = copyStock(stock);
+        }
+
+        @Override
+        public synchronized void update(InventoryStock stock) {
+            row = copyStock(stock);
+        }
+
+        @Override
+        public synchronized boolean tryIncreaseLocked(InventoryStock stock, long lockQty) {
+            if (!row.getVersion().equals(stock.getVersion()) || row.getAvailableQty() < lockQty) {
+                return false;
+            }
+            row.setLockedQty(row.getLockedQty() + lockQty);
+            row.setAvailableQty(row.getAvailableQty() - lockQty);
+            row.setVersion(row.getVersion() + 1);
+            return true;
+        }
+
+        @Override
+        public synchronized boolean tryDeduct(InventoryStock stock, long deductQty) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * 分桶表，每行独立加锁，模拟数据库行锁下的条件更新。
+     */
+    static final class InMemoryBucketRepository implements InventoryStockBucketRepository {
+
+        private final Map<Long, InventoryStockBucket> rows = new ConcurrentHashMap<>();
+        private final AtomicLong ids = new AtomicLong();
+
+        @Override
+        public List<InventoryStockBucket> findByStock(Long tenantId, Long storeId, Long itemId, Long locationId) {
+            return rows.values().stream()
+                    .filter(row -> row.getItemId().equals(itemId) && row.getStoreId().equals(storeId))
+                    .map(this::copy)
+                    .sorted(Comparator.comparing(InventoryStockBucket::getBucketNo))
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public List<InventoryStockBucket> findByStockForUpdate(Long tenantId, Long storeId, Long itemId,
+                                                               Long locationId) {
+            return findByStock(tenantId, storeId, itemId, locationId);
+        }
+
+        @Override
+        public InventoryStockBucket findById(Long id) {
+            return copy(rows.get(id));
+        }
+
+        @Override
+        public synchronized boolean saveAll(List<InventoryStockBucket> buckets) {
+            InventoryStockBucket first = buckets.get(0);
+            if (!findByStock(first.getTenantId(), first.getStoreId(), first.getItemId(), first.getLocationId())
+                    .isEmpty()) {
+                return false;
+            }
+            for (InventoryStockBucket bucket : buckets) {
+                bucket.setId(ids.incrementAndGet());
+                rows.put(bucket.getId(), copy(bucket));
+            }
+            return true;
+        }
+
+        @Override
+        public void deleteByStock(Long tenantId, Long storeId, Long itemId, Long locationId) {
+            rows.clear();
+        }
+
+        @Override
+        public boolean tryLock(Long bucketId, long qty) {
+            InventoryStockBucket row = rows.get(bucketId);
+            synchronized (row) {
+                if (row.getAvailableQty() < qty) {
+                    return false;
+                }
+                row.setAvailableQty(row.getAvailableQty() - qty);
+                row.setLockedQty(row.getLockedQty() + qty);
+                return true;
+            }
+        }
+
+        @Override
+        public boolean tryRelease(Long bucketId, long qty) {
+            InventoryStockBucket row = rows.get(bucketId);
+            synchronized (row) {
+                if (row.getLockedQty() < qty) {
+                    return false;
+                }
+                row.setLockedQty(row.getLockedQty() - qty);
+                row.setAvailableQty(row.getAvailableQty() + qty);
+                return true;
+            }
+        }
+
+        @Override
+        public boolean tryDeduct(Long bucketId, long qty) {
+            InventoryStockBucket row = rows.get(bucketId);
+            synchronized (row) {
+                if (row.getLockedQty() < qty) {
+                    return false;
+                }
+                row.setLockedQty(row.getLockedQty() - qty);
+                row.setTotalQty(row.getTotalQty() - qty);
+                return true;
+            }
+        }
+
+        private InventoryStockBucket copy(InventoryStockBucket row) {
+            synchronized (row) {
+                return InventoryStockBucket.builder()
+                        .id(row.getId()).tenantId(row.getTenantId()).storeId(row.getStoreId())
+                        .itemId(row.getItemId()).locationId(row.getLocationId()).bucketNo(row.getBucketNo())
+                        .totalQty(row.getTotalQty()).lockedQty(row.getLockedQty()).availableQty(row.getAvailableQty())
+                        .build();
+            }
+        }
+    }
+
+    static final class InMemoryLockRepository implements InventoryLockRepository {
+
+        private final Map<String, InventoryLock> locks = new ConcurrentHashMap<>();
+        private final AtomicLong ids = new AtomicLong();
+
+        @Override
+        public InventoryLock findById(Long id) {
+            return locks.values().stream().filter(lock -> lock.getId().equals(id)).findFirst().orElse(null);
+        }
+
+        @Override
+        public InventoryLock findByRequestId(Long tenantId, String requestId) {
+            return locks.get(requestId);
+        }
+
+        @Override
+        public List<InventoryLock> findLockedByOrder(Long tenantId, Long storeId, Long orderId) {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public void save(InventoryLock lock) {
+            lock.setId(ids.incrementAndGet());
+            locks.put(lock.getRequestId(), lock);
+        }
+
+        @Override
+        public void update(InventoryLock lock) {
+            locks.put(lock.getRequestId(), lock);
+        }
+    }
+
+    static final class InMemoryTxnRepository implements InventoryTxnRepository {
+
+        private final Queue<InventoryTxn> txns = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public void save(InventoryTxn txn) {
+            txns.add(txn);
+        }
+
+        @Override
+        public InventoryTxn findByRequestId(Long tenantId, String requestId) {
+            return null;
+        }
+    }
+}
@@ -1,15 +1,20 @@
 package com.bluecone.app.member.application.consumer;
 
+import com.bluecone.app.infra.event.consume.EventConsumeLogPO;
 import com.bluecone.app.infra.event.consume.EventConsumeLogService;
 import com.bluecone.app.infra.event.outbox.DispatchedEvent;
+import com.bluecone.app.infra.event.outbox.DispatchedEventBatchHandler;
 import com.bluecone.app.member.api.dto.PointsOperationCommand;
 import com.bluecone.app.member.api.dto.PointsOperationResult;
 import com.bluecone.app.member.api.facade.PointsAssetFacade;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * 积分事件消费者
@@ -19,35 +24,65 @@ import org.springframework.transaction.annotation.Transactional;
  * 1. 通过 bc_event_consume_log 表记录消费日志（consumer_name + event_id 唯一）
  * 2. 通过 Facade 层的幂等键（idempotencyKey）保证业务幂等性
  * 3. 重复消费时直接返回，不会重复执行业务逻辑
+ * 
+ * 由 InProcessEventDispatcher 按块批量调用（每块一个事务）：
+ * 一次查询过滤已消费事件，一条多行 INSERT 写入消费日志
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class PointsEventConsumer {
+public class PointsEventConsumer implements DispatchedEventBatchHandler {
     
     private static final String CONSUMER_NAME = "PointsConsumer";
     
     private final PointsAssetFacade pointsAssetFacade;
     private final EventConsumeLogService consumeLogService;
     
+    @Override
+    public String consumerName() {
+        return CONSUMER_NAME;
+    }
+    
+    @Override
+    public boolean supports(String eventType) {
+        return switch (eventType) {
+            case "order.checkout_locked", "order.paid", "order.canceled", "order.refunded" -> true;
+            case null, default -> false;
+        };
+    }
+    
     /**
-     * 监听订单结算锁定事件：冻结积分（如果使用积分抵扣）
+     * 批量消费：一次查询过滤已消费事件，按事件类型分派，最后批量写入消费日志
      */
-    @EventListener
-    @Transactional(rollbackFor = Exception.class)
-    public void onOrderCheckoutLocked(DispatchedEvent event) {
-        if (!"order.checkout_locked".equals(event.getEventType())) {
-            return;
+    @Override
+    public void handleBatch(List<DispatchedEvent> events) {
+        Set<String> consumed = consumeLogService.findConsumedEventIds(CONSUMER_NAME,
+                events.stream().map(DispatchedEvent::getEventId).toList());
+        Set<String> seen = new HashSet<>(consumed);
+        List<EventConsumeLogPO> logs = new ArrayList<>(events.size());
+        for (DispatchedEvent event : events) {
+            if (!seen.add(event.getEventId())) {
+                log.info("[{}] Event already consumed (idempotent): eventId={}", CONSUMER_NAME, event.getEventId());
+                continue;
+            }
+            logs.add(switch (event.getEventType()) {
+                case "order.checkout_locked" -> onOrderCheckoutLocked(event);
+                case "order.paid" -> onOrderPaid(event);
+                case "order.canceled" -> onOrderCanceled(event);
+                case "order.refunded" -> onOrderRefunded(event);
+                default -> throw new IllegalArgumentException("Unsupported event type: " + event.getEventType());
+            });
         }
-        
+        consumeLogService.recordSuccessBatch(logs);
+    }
+    
+    /**
+     * 处理订单结算锁定事件：冻结积分（如果使用积分抵扣）
+     */
+    private EventConsumeLogPO onOrderCheckoutLocked(DispatchedEvent event) {
         String eventId = event.getEventId();
         log.info("[{}] Received order.checkout_locked event: eventId={}", CONSUMER_NAME, eventId);
         
-        if (consumeLogService.isConsumed(CONSUMER_NAME, eventId)) {
-            log.info("[{}] Event already consumed (idempotent): eventId={}", CONSUMER_NAME, eventId);
-            return;
-        }
-        
         try {
             Long orderId = getLongField(event.getPayload().get("orderId"));
             Integer pointsUsed = getIntegerField(event.getPayload().get("pointsUsed"));
@@ -58,9 +93,8 @@ public class PointsEventConsumer {
             if (pointsUsed == null || pointsUsed <= 0) {
                 log.info("[{}] No points used, skip freezing: eventId={}, orderId={}", 
                         CONSUMER_NAME, eventId, orderId);
-                consumeLogService.recordSuccess(CONSUMER_NAME, eventId, event.getEventType(), 
+                return consumeLogService.successLog(CONSUMER_NAME, eventId, event.getEventType(), 
                         tenantId, buildIdempotencyKey(orderId, "freeze"), "NO_POINTS");
-                return;
             }
             
             // 构建冻结命令
@@ -77,12 +111,12 @@ public class PointsEventConsumer {
             // 调用 Facade 冻结积分
             PointsOperationResult result = pointsAssetFacade.freezePoints(command);
             
-            consumeLogService.recordSuccess(CONSUMER_NAME, eventId, event.getEventType(), 
+            EventConsumeLogPO consumeLog = consumeLogService.successLog(CONSUMER_NAME, eventId, event.getEventType(), 
                     tenantId, command.getIdempotencyKey(), result);
             
             log.info("[{}] Points frozen successfully: eventId={}, orderId={}, points={}", 
                     CONSUMER_NAME, eventId, orderId, pointsUsed);
-            
+            return consumeLog;
         } catch (Exception e) {
             log.error("[{}] Failed to freeze points: eventId={}, error={}", 
                     CONSUMER_NAME, eventId, e.getMessage(), e);
@@ -93,23 +127,12 @@ public class PointsEventConsumer {
     }
     
     /**
-     * 监听订单支付成功事件：提交扣减积分 + 赚取积分
+     * 处理订单支付成功事件：提交扣减积分 + 赚取积分
      */
-    @EventListener
-    @Transactional(rollbackFor = Exception.class)
-    public void onOrderPaid(DispatchedEvent event) {
-        if (!"order.paid".equals(event.getEventType())) {
-            return;
-        }
-        
+    private EventConsumeLogPO onOrderPaid(DispatchedEvent event) {
         String eventId = event.getEventId();
         log.info("[{}] Received order.paid event: eventId={}", CONSUMER_NAME, eventId);
         
-        if (consumeLogService.isConsumed(CONSUMER_NAME, eventId)) {
-            log.info("[{}] Event already consumed (idempotent): eventId={}", CONSUMER_NAME, eventId);
-            return;
-        }
-        
         try {
             Long orderId = getLongField(event.getPayload().get("orderId"));
             Integer pointsUsed = getIntegerField(event.getPayload().get("pointsUsed"));
@@ -151,11 +174,11 @@ public class PointsEventConsumer {
                         CONSUMER_NAME, eventId, orderId, pointsEarned);
             }
             
-            // 记录消费成功
-            consumeLogService.recordSuccess(CONSUMER_NAME, eventId, event.getEventType(), 
+            // 构建消费成功日志，由 handleBatch 批量写入
+            EventConsumeLogPO consumeLog = consumeLogService.successLog(CONSUMER_NAME, eventId, event.getEventType(), 
                     tenantId, buildIdempotencyKey(orderId, "paid"), 
                     String.format("used=%s, earned=%s", pointsUsed, pointsEarned));
-            
+            return consumeLog;
         } catch (Exception e) {
             log.error("[{}] Failed to process points on order paid: eventId={}, error={}", 
                     CONSUMER_NAME, eventId, e.getMessage(), e);
@@ -166,23 +189,12 @@ public class PointsEventConsumer {
     }
     
     /**
-     * 监听订单取消事件：释放积分冻结
+     * 处理订单取消事件：释放积分冻结
      */
-    @EventListener
-    @Transactional(rollbackFor = Exception.class)
-    public void onOrderCanceled(DispatchedEvent event) {
-        if (!"order.canceled".equals(event.getEventType())) {
-            return;
-        }
-        
+    private EventConsumeLogPO onOrderCanceled(DispatchedEvent event) {
         String eventId = event.getEventId();
         log.info("[{}] Received order.canceled event: eventId={}", CONSUMER_NAME, eventId);
         
-        if (consumeLogService.isConsumed(CONSUMER_NAME, eventId)) {
-            log.info("[{}] Event already consumed (idempotent): eventId={}", CONSUMER_NAME, eventId);
-            return;
-        }
-        
         try {
             Long orderId = getLongField(event.getPayload().get("orderId"));
             Integer pointsUsed = getIntegerField(event.getPayload().get("pointsUsed"));
@@ -192,9 +204,8 @@ public class PointsEventConsumer {
             if (pointsUsed == null || pointsUsed <= 0) {
                 log.info("[{}] No points used, skip releasing: eventId={}, orderId={}", 
                         CONSUMER_NAME, eventId, orderId);
-                consumeLogService.recordSuccess(CONSUMER_NAME, eventId, event.getEventType(), 
+                return consumeLogService.successLog(CONSUMER_NAME, eventId, event.getEventType(), 
                         tenantId, buildIdempotencyKey(orderId, "release"), "NO_POINTS");
-                return;
             }
             
             // 构建释放命令
@@ -211,12 +222,12 @@ public class PointsEventConsumer {
             // 调用 Facade 释放积分
             PointsOperationResult result = pointsAssetFacade.releasePoints(command);
             
-            consumeLogService.recordSuccess(CONSUMER_NAME, eventId, event.getEventType(), 
+            EventConsumeLogPO consumeLog = consumeLogService.successLog(CONSUMER_NAME, eventId, event.getEventType(), 
                     tenantId, command.getIdempotencyKey(), result);
             
             log.info("[{}] Points released successfully: eventId={}, orderId={}, points={}", 
                     CONSUMER_NAME, eventId, orderId, pointsUsed);
-            
+            return consumeLog;
         } catch (Exception e) {
             log.error("[{}] Failed to release points: eventId={}, error={}", 
                     CONSUMER_NAME, eventId, e.getMessage(), e);
@@ -227,23 +238,12 @@ public class PointsEventConsumer {
     }
     
     /**
-     * 监听订单退款成功事件：回退积分
+     * 处理订单退款成功事件：回退积分
      */
-    @EventListener
-    @Transactional(rollbackFor = Exception.class)
-    public void onOrderRefunded(DispatchedEvent event) {
-        if (!"order.refunded".equals(event.getEventType())) {
-            return;
-        }
-        
+    private EventConsumeLogPO onOrderRefunded(DispatchedEvent event) {
         String eventId = event.getEventId();
         log.info("[{}] Received order.refunded event: eventId={}", CONSUMER_NAME, eventId);
         
-        if (consumeLogService.isConsumed(CONSUMER_NAME, eventId)) {
-            log.info("[{}] Event already consumed (idempotent): eventId={}", CONSUMER_NAME, eventId);
-            return;
-        }
-        
         try {
             Long orderId = getLongField(event.getPayload().get("orderId"));
             Long refundId = getLongField(event.getPayload().get("refundId"));
@@ -286,11 +286,11 @@ public class PointsEventConsumer {
                         CONSUMER_NAME, eventId, orderId, refundId, pointsEarned);
             }
             
-            // 记录消费成功
-            consumeLogService.recordSuccess(CONSUMER_NAME, eventId, event.getEventType(), 
+            // 构建消费成功日志，由 handleBatch 批量写入
+            EventConsumeLogPO consumeLog = consumeLogService.successLog(CONSUMER_NAME, eventId, event.getEventType(), 
                     tenantId, buildIdempotencyKey(refundId, "refunded"), 
                     String.format("revert_used=%s, revert_earned=%s", pointsUsed, pointsEarned));
-            
+            return consumeLog;
         } catch (Exception e) {
             log.error("[{}] Failed to revert points: eventId={}, error={}", 
                     CONSUMER_NAME, eventId, e.getMessage(), e);
@@ -0,0 +1,119 @@
+package com.bluecone.app.member.application.consumer;
+
+import com.bluecone.app.infra.event.consume.EventConsumeLogMapper;
+import com.bluecone.app.infra.event.consume.EventConsumeLogPO;
+import com.bluecone.app.infra.event.consume.EventConsumeLogService;
+import com.bluecone.app.infra.event.outbox.DispatchedEvent;
+import com.bluecone.app.member.api.dto.PointsOperationCommand;
+import com.bluecone.app.member.api.facade.PointsAssetFacade;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 积分事件消费者批量消费测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("积分事件消费者批量消费测试")
+class PointsEventConsumerTest {
+
+    @Mock
+    private PointsAssetFacade pointsAssetFacade;
+
+    @Mock
+    private EventConsumeLogMapper consumeLogMapper;
+
+    private PointsEventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new PointsEventConsumer(pointsAssetFacade,
+                new EventConsumeLogService(consumeLogMapper, new ObjectMapper()));
+    }
+
+    @Test
+    @DisplayName("已消费事件被过滤，新事件的消费日志一次批量写入")
+    void skipsConsumedEventsAndRecordsTheRestInOneInsert() {
+        when(consumeLogMapper.selectConsumedEventIds(eq("PointsConsumer"), anyCollection()))
+                .thenReturn(List.of("evt-1"));
+
+        consumer.handleBatch(List.of(
+                event("evt-1", "order.checkout_locked", 1L, 100),
+                event("evt-2", "order.checkout_locked", 2L, 200),
+                event("evt-3", "order.canceled", 3L, 0)));
+
+        ArgumentCaptor<PointsOperationCommand> freeze = ArgumentCaptor.forClass(PointsOperationCommand.class);
+        verify(pointsAssetFacade).freezePoints(freeze.capture());
+        assertThat(freeze.getValue().getBizId()).isEqualTo("2");
+        assertThat(freeze.getValue().getPoints()).isEqualTo(200);
+        verify(pointsAssetFacade, never()).releasePoints(any());
+
+        List<EventConsumeLogPO> logs = capturedBatch();
+        assertThat(logs).extracting(EventConsumeLogPO::getEventId).containsExactly("evt-2", "evt-3");
+        assertThat(logs).extracting(EventConsumeLogPO::getConsumeResult).last().isEqualTo("\"NO_POINTS\"");
+        verify(consumeLogMapper, never()).insert(any(EventConsumeLogPO.class));
+    }
+
+    @Test
+    @DisplayName("整块都已消费时不调用门面")
+    void fullyConsumedBatchTouchesNothing() {
+        when(consumeLogMapper.selectConsumedEventIds(eq("PointsConsumer"), anyCollection()))
+                .thenReturn(List.of("evt-1", "evt-2"));
+
+        consumer.handleBatch(List.of(
+                event("evt-1", "order.paid", 1L, 100),
+                event("evt-2", "order.paid", 2L, 100)));
+
+        verifyNoInteractions(pointsAssetFacade);
+        verify(consumeLogMapper, never()).insertSuccessBatch(anyList());
+    }
+
+    @Test
+    @DisplayName("任一事件失败则整块抛出且不写成功日志")
+    void failureAbortsTheWholeBatch() {
+        when(consumeLogMapper.selectConsumedEventIds(eq("PointsConsumer"), anyCollection())).thenReturn(List.of());
+        when(pointsAssetFacade.freezePoints(any())).thenThrow(new IllegalStateException("insufficient points"));
+
+        assertThatThrownBy(() -> consumer.handleBatch(List.of(event("evt-1", "order.checkout_locked", 1L, 100))))
+                .hasMessage("insufficient points");
+
+        verify(consumeLogMapper, never()).insertSuccessBatch(anyList());
+        verify(consumeLogMapper).insert(argThat((EventConsumeLogPO log) -> "FAILED".equals(log.getStatus())));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<EventConsumeLogPO> capturedBatch() {
+        ArgumentCaptor<List<EventConsumeLogPO>> batch = ArgumentCaptor.forClass(List.class);
+        verify(consumeLogMapper).insertSuccessBatch(batch.capture());
+        return batch.getValue();
+    }
+
+    private static DispatchedEvent event(String eventId, String eventType, Long orderId, int pointsUsed) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("orderId", orderId);
+        payload.put("pointsUsed", pointsUsed);
+        return DispatchedEvent.builder()
+                .eventId(eventId)
+                .eventType(eventType)
+                .aggregateType("ORDER")
+                .aggregateId(String.valueOf(orderId))
+                .tenantId(1L)
+                .payload(payload)
+                .metadata(Map.of("userId", 1001L))
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.bluecone.app.ops.actuator;
+
+import com.bluecone.app.infra.cache.core.CacheEngine;
+import com.bluecone.app.infra.cache.core.CacheNamespace;
+import com.bluecone.app.infra.cache.hotkey.HotKey;
+import com.bluecone.app.ops.api.dto.cache.HotKeySummary;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 暴露本节点 CacheEngine 运行时识别出的热点 key：{@code GET /internal/actuator/cachehotkeys}。
+ *
+ * <p>热点按节点统计，排查大促期间的热点门店/商品时需要逐节点查看。</p>
+ */
+@Component
+@Endpoint(id = "cachehotkeys")
+public class CacheHotKeyEndpoint {
+
+    private final CacheEngine cacheEngine;
+
+    public CacheHotKeyEndpoint(CacheEngine cacheEngine) {
+        this.cacheEngine = cacheEngine;
+    }
+
+    @ReadOperation
+    public HotKeySummary hotKeys() {
+        List<HotKey> keys = cacheEngine.hotKeys();
+        return new HotKeySummary(keys.size(), keys);
+    }
+
+    /**
+     * 按租户过滤：{@code GET /internal/actuator/cachehotkeys/{tenantId}}。
+     */
+    @ReadOperation
+    public HotKeySummary hotKeysOfTenant(@Selector String tenantId) {
+        String pattern = CacheNamespace.tenant(tenantId).toRedisPattern();
+        String prefix = pattern.substring(0, pattern.length() - 1);
+        List<HotKey> keys = cacheEngine.hotKeys().stream()
+                .filter(hotKey -> hotKey.key().startsWith(prefix))
+                .toList();
+        return new HotKeySummary(keys.size(), keys);
+    }
+}
@@ -0,0 +1,14 @@
+package com.bluecone.app.ops.api.dto.cache;
+
+import com.bluecone.app.infra.cache.hotkey.HotKey;
+
+import java.util.List;
+
+/**
+ * 本节点缓存热点快照。
+ *
+ * @param count 当前热点数量
+ * @param keys  按访问量降序的热点 key
+ */
+public record HotKeySummary(int count, List<HotKey> keys) {
+}
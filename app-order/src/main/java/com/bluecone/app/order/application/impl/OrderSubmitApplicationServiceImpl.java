@@ -29,6 +29,7 @@ import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -238,10 +239,13 @@ public class OrderSubmitApplicationServiceImpl implements OrderSubmitApplication
     private Order buildOrder(OrderSubmitRequest request, Long orderId, String publicOrderNo) {
         LocalDateTime now = LocalDateTime.now();
 
-        // 构建订单明细
-        List<OrderItem> items = request.getItems().stream()
-                .map(item -> buildOrderItem(request, item, orderId, now))
-                .collect(Collectors.toList());
+        // 构建订单明细，明细ID一次性批量分配（使用 IdScope.ORDER_ITEM）
+        List<OrderConfirmItemRequest> itemRequests = request.getItems();
+        long[] itemIds = idService.nextLongs(IdScope.ORDER_ITEM, itemRequests.size());
+        List<OrderItem> items = new ArrayList<>(itemRequests.size());
+        for (int i = 0; i < itemRequests.size(); i++) {
+            items.add(buildOrderItem(request, itemRequests.get(i), itemIds[i], orderId, now));
+        }
 
         // 计算金额
         BigDecimal totalAmount = items.stream()
@@ -277,7 +281,8 @@ public class OrderSubmitApplicationServiceImpl implements OrderSubmitApplication
     /**
      * 构建订单明细项。
      */
-    private OrderItem buildOrderItem(OrderSubmitRequest request, OrderConfirmItemRequest itemReq, Long orderId, LocalDateTime now) {
+    private OrderItem buildOrderItem(OrderSubmitRequest request, OrderConfirmItemRequest itemReq, Long itemId,
+                                     Long orderId, LocalDateTime now) {
         // M0暂时使用客户端传递的价格，后续应从商品服务获取实时价格
         BigDecimal unitPrice = itemReq.getClientUnitPrice() != null
                 ? itemReq.getClientUnitPrice()
@@ -286,9 +291,6 @@ public class OrderSubmitApplicationServiceImpl implements OrderSubmitApplication
         BigDecimal payableAmount = unitPrice.multiply(BigDecimal.valueOf(itemReq.getQuantity()))
                 .subtract(discountAmount);
 
-        // 生成明细ID（使用 IdScope.ORDER_ITEM）
-        Long itemId = idService.nextLong(IdScope.ORDER_ITEM);
-
         return OrderItem.builder()
                 .id(itemId)
                 .orderId(orderId)
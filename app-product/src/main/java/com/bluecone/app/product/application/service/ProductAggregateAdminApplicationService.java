@@ -746,8 +746,11 @@ public class ProductAggregateAdminApplicationService {
         BcProduct product = productMapper.selectById(productId);
         int skuStatus = (product != null && product.getStatus() != null && product.getStatus() == 1) ? 1 : 0;
         
-        for (CreateProductAggregateCommand.SkuRequest skuReq : skuRequests) {
-            String skuPublicId = idService.nextPublicId(ResourceType.SKU);
+        // 一次性批量分配 SKU 的 public_id
+        List<String> skuPublicIds = idService.nextPublicIds(ResourceType.SKU, skuRequests.size());
+        for (int i = 0; i < skuRequests.size(); i++) {
+            CreateProductAggregateCommand.SkuRequest skuReq = skuRequests.get(i);
+            String skuPublicId = skuPublicIds.get(i);
             
             BcProductSku sku = new BcProductSku();
             // 不设置 id，让 DB AUTO 生成
@@ -12,6 +12,11 @@ import com.bluecone.app.product.runtime.api.ProductSnapshot;
 import com.bluecone.app.product.runtime.spi.ProductSnapshotRepository;
 import com.bluecone.app.id.core.Ulid128;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -62,6 +67,30 @@ public class ProductSnapshotProvider {
         return Optional.ofNullable(snapshot);
     }
 
+    /**
+     * 批量获取或加载商品快照（购物车、下单确认按行项目取快照），缓存与回源各只访问一次。
+     *
+     * @return 按入参顺序排列，只包含存在的快照
+     */
+    public Map<Ulid128, ProductSnapshot> getOrLoadAll(long tenantId, Collection<Ulid128> productIds) {
+        List<SnapshotLoadKey> loadKeys = new ArrayList<>(productIds.size());
+        for (Ulid128 id : productIds) {
+            loadKeys.add(new SnapshotLoadKey(tenantId, CacheNamespaces.PRODUCT_SNAPSHOT, id));
+        }
+        Map<SnapshotLoadKey, ProductSnapshot> loaded = delegate.getOrLoadAll(
+                loadKeys,
+                repository,
+                cache,
+                versionChecker,
+                serde,
+                kitProperties,
+                epochProvider
+        );
+        Map<Ulid128, ProductSnapshot> result = new LinkedHashMap<>(loaded.size());
+        loaded.forEach((loadKey, snapshot) -> result.put((Ulid128) loadKey.scopeId(), snapshot));
+        return result;
+    }
+
     private static class ProductSnapshotSerde implements SnapshotSerde<ProductSnapshot> {
 
         private final ObjectMapper objectMapper;
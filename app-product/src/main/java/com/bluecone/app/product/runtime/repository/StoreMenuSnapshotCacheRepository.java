@@ -2,6 +2,7 @@ package com.bluecone.app.product.runtime.repository;
 
 import com.bluecone.app.core.contextkit.SnapshotLoadKey;
 import com.bluecone.app.core.contextkit.SnapshotRepository;
+import com.bluecone.app.core.contextkit.VersionedSnapshot;
 import com.bluecone.app.product.dao.entity.BcStoreMenuSnapshot;
 import com.bluecone.app.product.dao.mapper.BcStoreMenuSnapshotMapper;
 import com.bluecone.app.product.runtime.model.StoreMenuSnapshotData;
@@ -92,6 +93,14 @@ public class StoreMenuSnapshotCacheRepository implements SnapshotRepository<Stor
         return Optional.of(snapshot.getVersion());
     }
 
+    /**
+     * version 已随 menu_json 在同一行读出，无需再查一次。
+     */
+    @Override
+    public Optional<VersionedSnapshot<StoreMenuSnapshotData>> loadFullWithVersion(SnapshotLoadKey loadKey) {
+        return loadFull(loadKey).map(data -> new VersionedSnapshot<>(data, data.version()));
+    }
+
     /**
      * 解析 scopeId 为 StoreMenuKey。
      * <p>
@@ -2,12 +2,16 @@ package com.bluecone.app.product.runtime.spi;
 
 import com.bluecone.app.core.contextkit.SnapshotRepository;
 import com.bluecone.app.core.contextkit.SnapshotLoadKey;
+import com.bluecone.app.core.contextkit.VersionedSnapshot;
 import com.bluecone.app.product.runtime.api.ProductSnapshot;
 
 import java.util.Optional;
 
 /**
  * 商品快照仓储 SPI。
+ *
+ * <p>实现应覆盖 {@link #loadFullBatch} 与 {@link #loadVersionBatch}，以一次 {@code IN} 查询服务
+ * {@code getOrLoadAll} 的批量路径。</p>
  */
 public interface ProductSnapshotRepository extends SnapshotRepository<ProductSnapshot> {
 
@@ -16,5 +20,13 @@ public interface ProductSnapshotRepository extends SnapshotRepository<ProductSna
 
     @Override
     Optional<Long> loadVersion(SnapshotLoadKey key);
+
+    /**
+     * 版本号即快照的 configVersion，与 loadFull 同一次查询得到。
+     */
+    @Override
+    default Optional<VersionedSnapshot<ProductSnapshot>> loadFullWithVersion(SnapshotLoadKey key) {
+        return loadFull(key).map(snapshot -> new VersionedSnapshot<>(snapshot, snapshot.configVersion()));
+    }
 }
 
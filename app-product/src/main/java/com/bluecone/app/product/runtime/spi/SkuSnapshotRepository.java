@@ -2,6 +2,7 @@ package com.bluecone.app.product.runtime.spi;
 
 import com.bluecone.app.core.contextkit.SnapshotRepository;
 import com.bluecone.app.core.contextkit.SnapshotLoadKey;
+import com.bluecone.app.core.contextkit.VersionedSnapshot;
 import com.bluecone.app.product.runtime.api.SkuSnapshot;
 
 import java.util.Optional;
@@ -16,5 +17,13 @@ public interface SkuSnapshotRepository extends SnapshotRepository<SkuSnapshot> {
 
     @Override
     Optional<Long> loadVersion(SnapshotLoadKey key);
+
+    /**
+     * 版本号即快照的 configVersion，与 loadFull 同一次查询得到。
+     */
+    @Override
+    default Optional<VersionedSnapshot<SkuSnapshot>> loadFullWithVersion(SnapshotLoadKey key) {
+        return loadFull(key).map(snapshot -> new VersionedSnapshot<>(snapshot, snapshot.configVersion()));
+    }
 }
 
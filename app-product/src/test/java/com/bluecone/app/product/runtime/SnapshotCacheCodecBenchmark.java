@@ -0,0 +1,116 @@
+package com.bluecone.app.product.runtime;
+
+import com.bluecone.app.core.store.StoreSnapshot;
+import com.bluecone.app.id.core.Ulid128;
+import com.bluecone.app.infra.cache.codec.BinaryCacheCodec;
+import com.bluecone.app.infra.cache.codec.CacheCodec;
+import com.bluecone.app.infra.cache.codec.JsonCacheCodec;
+import com.bluecone.app.product.runtime.api.ProductSnapshot;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * L2 缓存编解码基准：JSON 与 Smile+LZ4 二进制格式在真实快照 DTO 上的字节数与编解码耗时。
+ *
+ * <p>运行 {@link #main(String[])}：先打印每种格式的 bytes/entry，再执行 JMH 测量 encode/decode ns/op。</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotCacheCodecBenchmark {
+
+    private static final int COMPRESS_THRESHOLD_BYTES = 512;
+
+    @Param({"json", "binary"})
+    public String codecName;
+
+    @Param({"store", "product"})
+    public String dto;
+
+    private CacheCodec codec;
+    private Object value;
+    private Class<?> type;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws Exception {
+        codec = newCodec(codecName);
+        value = "store".equals(dto) ? sampleStore() : sampleProduct();
+        type = value.getClass();
+        payload = codec.encode(value);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return codec.encode(value);
+    }
+
+    @Benchmark
+    public Object decode() throws Exception {
+        return codec.decode(payload, type);
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (String name : new String[]{"json", "binary"}) {
+            CacheCodec codec = newCodec(name);
+            System.out.printf("codec=%-6s store=%d bytes/entry product=%d bytes/entry%n",
+                    name, codec.encode(sampleStore()).length, codec.encode(sampleProduct()).length);
+        }
+        new Runner(new OptionsBuilder().include(SnapshotCacheCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static CacheCodec newCodec(String name) {
+        if (BinaryCacheCodec.NAME.equals(name)) {
+            return new BinaryCacheCodec(COMPRESS_THRESHOLD_BYTES);
+        }
+        return new JsonCacheCodec(JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .build());
+    }
+
+    /**
+     * 带营业时间、渠道配置等扩展字段的门店快照，接近线上门店配置体量。
+     */
+    static StoreSnapshot sampleStore() {
+        Map<String, Object> ext = new LinkedHashMap<>();
+        for (int day = 1; day <= 7; day++) {
+            ext.put("openingHours.day" + day, Map.of("open", "09:00", "close", "22:00", "breakStart", "14:00", "breakEnd", "16:00"));
+        }
+        ext.put("channels", Map.of("dineIn", true, "takeaway", true, "delivery", false, "pickup", true));
+        ext.put("address", "上海市浦东新区世纪大道 100 号 1 层 101 室");
+        ext.put("contactPhone", "021-88886666");
+        ext.put("deliveryRadiusMeters", 3000);
+        ext.put("minOrderAmount", "20.00");
+        return new StoreSnapshot(10001L, new Ulid128(0x0190A1B2C3D4E5F6L, 0x1122334455667788L), "sto_01J0ABCDEFGHJKMNPQRSTVWXYZ",
+                "蓝锥咖啡·世纪大道店", 1, true, "Asia/Shanghai", 42L, Instant.parse("2025-06-01T08:30:00Z"), ext);
+    }
+
+    static ProductSnapshot sampleProduct() {
+        return new ProductSnapshot(new Ulid128(0x0190A1B2C3D4E5F7L, 0x2233445566778899L), "prd_01J0ABCDEFGHJKMNPQRSTVWXYZ",
+                10001L, 1, 7L, "生椰拿铁（大杯）", "https://cdn.bluecone.example/products/coconut-latte-large.png",
+                Instant.parse("2025-06-01T08:30:00Z"));
+    }
+}
@@ -1,7 +1,9 @@
 package com.bluecone.app.promo.application.consumer;
 
+import com.bluecone.app.infra.event.consume.EventConsumeLogPO;
 import com.bluecone.app.infra.event.consume.EventConsumeLogService;
 import com.bluecone.app.infra.event.outbox.DispatchedEvent;
+import com.bluecone.app.infra.event.outbox.DispatchedEventBatchHandler;
 import com.bluecone.app.promo.api.dto.CouponCommitCommand;
 import com.bluecone.app.promo.api.dto.CouponLockCommand;
 import com.bluecone.app.promo.api.dto.CouponLockResult;
@@ -9,9 +11,12 @@ import com.bluecone.app.promo.api.dto.CouponReleaseCommand;
 import com.bluecone.app.promo.api.facade.CouponLockFacade;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * 优惠券事件消费者
@@ -21,41 +26,69 @@ import org.springframework.transaction.annotation.Transactional;
  * 1. 通过 bc_event_consume_log 表记录消费日志（consumer_name + event_id 唯一）
  * 2. 通过 Facade 层的幂等键（idempotencyKey）保证业务幂等性
  * 3. 重复消费时直接返回，不会重复执行业务逻辑
+ * 
+ * 由 InProcessEventDispatcher 按块批量调用（每块一个事务）：
+ * 一次查询过滤已消费事件，一条多行 INSERT 写入消费日志
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class CouponEventConsumer {
+public class CouponEventConsumer implements DispatchedEventBatchHandler {
     
     private static final String CONSUMER_NAME = "CouponConsumer";
     
     private final CouponLockFacade couponLockFacade;
     private final EventConsumeLogService consumeLogService;
     
+    @Override
+    public String consumerName() {
+        return CONSUMER_NAME;
+    }
+    
+    @Override
+    public boolean supports(String eventType) {
+        return switch (eventType) {
+            case "order.checkout_locked", "order.paid", "order.canceled" -> true;
+            case null, default -> false;
+        };
+    }
+    
+    /**
+     * 批量消费：一次查询过滤已消费事件，按事件类型分派，最后批量写入消费日志
+     */
+    @Override
+    public void handleBatch(List<DispatchedEvent> events) {
+        Set<String> consumed = consumeLogService.findConsumedEventIds(CONSUMER_NAME,
+                events.stream().map(DispatchedEvent::getEventId).toList());
+        Set<String> seen = new HashSet<>(consumed);
+        List<EventConsumeLogPO> logs = new ArrayList<>(events.size());
+        for (DispatchedEvent event : events) {
+            if (!seen.add(event.getEventId())) {
+                log.info("[{}] Event already consumed (idempotent): eventId={}", CONSUMER_NAME, event.getEventId());
+                continue;
+            }
+            logs.add(switch (event.getEventType()) {
+                case "order.checkout_locked" -> onOrderCheckoutLocked(event);
+                case "order.paid" -> onOrderPaid(event);
+                case "order.canceled" -> onOrderCanceled(event);
+                default -> throw new IllegalArgumentException("Unsupported event type: " + event.getEventType());
+            });
+        }
+        consumeLogService.recordSuccessBatch(logs);
+    }
+    
     /**
-     * 监听订单结算锁定事件：锁定优惠券
+     * 处理订单结算锁定事件：锁定优惠券
      * 
      * @param event 分发的事件
      */
-    @EventListener
-    @Transactional(rollbackFor = Exception.class)
-    public void onOrderCheckoutLocked(DispatchedEvent event) {
-        if (!"order.checkout_locked".equals(event.getEventType())) {
-            return;
-        }
-        
+    private EventConsumeLogPO onOrderCheckoutLocked(DispatchedEvent event) {
         String eventId = event.getEventId();
         String traceId = event.getTraceId();
         
         log.info("[{}] Received order.checkout_locked event: eventId={}, traceId={}", 
                 CONSUMER_NAME, eventId, traceId);
         
-        // 幂等性检查：如果已消费，直接返回
-        if (consumeLogService.isConsumed(CONSUMER_NAME, eventId)) {
-            log.info("[{}] Event already consumed (idempotent): eventId={}", CONSUMER_NAME, eventId);
-            return;
-        }
-        
         try {
             // 解析事件载荷
             Long orderId = getLongField(event.getPayload().get("orderId"));
@@ -68,9 +101,8 @@ public class CouponEventConsumer {
             if (couponId == null) {
                 log.info("[{}] No coupon used, skip locking: eventId={}, orderId={}", 
                         CONSUMER_NAME, eventId, orderId);
-                consumeLogService.recordSuccess(CONSUMER_NAME, eventId, event.getEventType(), 
+                return consumeLogService.successLog(CONSUMER_NAME, eventId, event.getEventType(), 
                         tenantId, buildIdempotencyKey(orderId, "checkout"), "NO_COUPON");
-                return;
             }
             
             // 构建锁定命令
@@ -85,13 +117,13 @@ public class CouponEventConsumer {
             // 调用 Facade 锁定优惠券
             CouponLockResult result = couponLockFacade.lock(command);
             
-            // 记录消费成功
-            consumeLogService.recordSuccess(CONSUMER_NAME, eventId, event.getEventType(), 
+            // 构建消费成功日志，由 handleBatch 批量写入
+            EventConsumeLogPO consumeLog = consumeLogService.successLog(CONSUMER_NAME, eventId, event.getEventType(), 
                     tenantId, command.getIdempotencyKey(), result);
             
             log.info("[{}] Coupon locked successfully: eventId={}, orderId={}, couponId={}, lockId={}", 
                     CONSUMER_NAME, eventId, orderId, couponId, result.getLockId());
-            
+            return consumeLog;
         } catch (Exception e) {
             log.error("[{}] Failed to lock coupon: eventId={}, error={}", 
                     CONSUMER_NAME, eventId, e.getMessage(), e);
@@ -105,29 +137,17 @@ public class CouponEventConsumer {
     }
     
     /**
-     * 监听订单支付成功事件：核销优惠券
+     * 处理订单支付成功事件：核销优惠券
      * 
      * @param event 分发的事件
      */
-    @EventListener
-    @Transactional(rollbackFor = Exception.class)
-    public void onOrderPaid(DispatchedEvent event) {
-        if (!"order.paid".equals(event.getEventType())) {
-            return;
-        }
-        
+    private EventConsumeLogPO onOrderPaid(DispatchedEvent event) {
         String eventId = event.getEventId();
         String traceId = event.getTraceId();
         
         log.info("[{}] Received order.paid event: eventId={}, traceId={}", 
                 CONSUMER_NAME, eventId, traceId);
         
-        // 幂等性检查
-        if (consumeLogService.isConsumed(CONSUMER_NAME, eventId)) {
-            log.info("[{}] Event already consumed (idempotent): eventId={}", CONSUMER_NAME, eventId);
-            return;
-        }
-        
         try {
             // 解析事件载荷
             Long orderId = getLongField(event.getPayload().get("orderId"));
@@ -140,9 +160,8 @@ public class CouponEventConsumer {
             if (couponId == null) {
                 log.info("[{}] No coupon used, skip committing: eventId={}, orderId={}", 
                         CONSUMER_NAME, eventId, orderId);
-                consumeLogService.recordSuccess(CONSUMER_NAME, eventId, event.getEventType(), 
+                return consumeLogService.successLog(CONSUMER_NAME, eventId, event.getEventType(), 
                         tenantId, buildIdempotencyKey(orderId, "commit"), "NO_COUPON");
-                return;
             }
             
             // 构建核销命令
@@ -157,13 +176,13 @@ public class CouponEventConsumer {
             // 调用 Facade 核销优惠券
             couponLockFacade.commit(command);
             
-            // 记录消费成功
-            consumeLogService.recordSuccess(CONSUMER_NAME, eventId, event.getEventType(), 
+            // 构建消费成功日志，由 handleBatch 批量写入
+            EventConsumeLogPO consumeLog = consumeLogService.successLog(CONSUMER_NAME, eventId, event.getEventType(), 
                     tenantId, command.getIdempotencyKey(), "SUCCESS");
             
             log.info("[{}] Coupon committed successfully: eventId={}, orderId={}, couponId={}", 
                     CONSUMER_NAME, eventId, orderId, couponId);
-            
+            return consumeLog;
         } catch (Exception e) {
             log.error("[{}] Failed to commit coupon: eventId={}, error={}", 
                     CONSUMER_NAME, eventId, e.getMessage(), e);
@@ -176,29 +195,17 @@ public class CouponEventConsumer {
     }
     
     /**
-     * 监听订单取消事件：释放优惠券
+     * 处理订单取消事件：释放优惠券
      * 
      * @param event 分发的事件
      */
-    @EventListener
-    @Transactional(rollbackFor = Exception.class)
-    public void onOrderCanceled(DispatchedEvent event) {
-        if (!"order.canceled".equals(event.getEventType())) {
-            return;
-        }
-        
+    private EventConsumeLogPO onOrderCanceled(DispatchedEvent event) {
         String eventId = event.getEventId();
         String traceId = event.getTraceId();
         
         log.info("[{}] Received order.canceled event: eventId={}, traceId={}", 
                 CONSUMER_NAME, eventId, traceId);
         
-        // 幂等性检查
-        if (consumeLogService.isConsumed(CONSUMER_NAME, eventId)) {
-            log.info("[{}] Event already consumed (idempotent): eventId={}", CONSUMER_NAME, eventId);
-            return;
-        }
-        
         try {
             // 解析事件载荷
             Long orderId = getLongField(event.getPayload().get("orderId"));
@@ -211,9 +218,8 @@ public class CouponEventConsumer {
             if (couponId == null) {
                 log.info("[{}] No coupon used, skip releasing: eventId={}, orderId={}", 
                         CONSUMER_NAME, eventId, orderId);
-                consumeLogService.recordSuccess(CONSUMER_NAME, eventId, event.getEventType(), 
+                return consumeLogService.successLog(CONSUMER_NAME, eventId, event.getEventType(), 
                         tenantId, buildIdempotencyKey(orderId, "release"), "NO_COUPON");
-                return;
             }
             
             // 构建释放命令
@@ -228,13 +234,13 @@ public class CouponEventConsumer {
             // 调用 Facade 释放优惠券
             couponLockFacade.release(command);
             
-            // 记录消费成功
-            consumeLogService.recordSuccess(CONSUMER_NAME, eventId, event.getEventType(), 
+            // 构建消费成功日志，由 handleBatch 批量写入
+            EventConsumeLogPO consumeLog = consumeLogService.successLog(CONSUMER_NAME, eventId, event.getEventType(), 
                     tenantId, command.getIdempotencyKey(), "SUCCESS");
             
             log.info("[{}] Coupon released successfully: eventId={}, orderId={}, couponId={}", 
                     CONSUMER_NAME, eventId, orderId, couponId);
-            
+            return consumeLog;
         } catch (Exception e) {
             log.error("[{}] Failed to release coupon: eventId={}, error={}", 
                     CONSUMER_NAME, eventId, e.getMessage(), e);
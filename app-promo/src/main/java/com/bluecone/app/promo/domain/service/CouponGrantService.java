@@ -62,11 +62,26 @@ public class CouponGrantService {
                              String operatorName,
                              String grantReason) {
         
+        return grantWithIds(tenantId, templateId, userId, idempotencyKey, grantSource,
+                operatorId, operatorName, grantReason,
+                idService.nextLong(IdScope.COUPON_GRANT_LOG), idService.nextLong(IdScope.COUPON));
+    }
+
+    private Coupon grantWithIds(Long tenantId,
+                                Long templateId,
+                                Long userId,
+                                String idempotencyKey,
+                                GrantSource grantSource,
+                                Long operatorId,
+                                String operatorName,
+                                String grantReason,
+                                long grantLogId,
+                                long couponId) {
         long startTime = System.currentTimeMillis();
         
         try {
             return doGrantCoupon(tenantId, templateId, userId, idempotencyKey, 
-                    grantSource, operatorId, operatorName, grantReason);
+                    grantSource, operatorId, operatorName, grantReason, grantLogId, couponId);
         } finally {
             metrics.recordDuration(startTime);
         }
@@ -79,7 +94,9 @@ public class CouponGrantService {
                                  GrantSource grantSource,
                                  Long operatorId,
                                  String operatorName,
-                                 String grantReason) {
+                                 String grantReason,
+                                 long grantLogId,
+                                 long couponId) {
         
         // 1. 幂等检查：先查询是否已经发放过
         Optional<CouponGrantLog> existingLog = grantLogRepository.findByIdempotencyKey(tenantId, idempotencyKey);
@@ -105,7 +122,7 @@ public class CouponGrantService {
 
         // 2. 创建发放日志（PROCESSING状态）- 利用数据库唯一约束实现幂等
         CouponGrantLog grantLog = CouponGrantLog.builder()
-                .id(idService.nextLong(IdScope.COUPON_GRANT_LOG))
+                .id(grantLogId)
                 .tenantId(tenantId)
                 .templateId(templateId)
                 .idempotencyKey(idempotencyKey)
@@ -163,7 +180,7 @@ public class CouponGrantService {
             }
 
             // 8. 生成优惠券实例
-            Coupon coupon = createCouponFromTemplate(template, userId, grantLog.getId());
+            Coupon coupon = createCouponFromTemplate(template, couponId, userId, grantLog.getId());
             couponRepository.save(coupon);
 
             // 9. 更新发放日志为成功
@@ -216,14 +233,18 @@ public class CouponGrantService {
                                              String grantReason) {
         
         List<GrantResult> results = new ArrayList<>();
+        // 发放日志与券的 ID 按批次一次性分配，幂等重放时未用到的 ID 直接丢弃
+        long[] grantLogIds = idService.nextLongs(IdScope.COUPON_GRANT_LOG, userIds.size());
+        long[] couponIds = idService.nextLongs(IdScope.COUPON, userIds.size());
         
-        for (Long userId : userIds) {
+        for (int i = 0; i < userIds.size(); i++) {
+            Long userId = userIds.get(i);
             // 为每个用户生成唯一的幂等键
             String idempotencyKey = String.format("%s:%s:%d", batchNo, templateId, userId);
             
             try {
-                Coupon coupon = grantCoupon(tenantId, templateId, userId, idempotencyKey, 
-                        grantSource, operatorId, operatorName, grantReason);
+                Coupon coupon = grantWithIds(tenantId, templateId, userId, idempotencyKey, 
+                        grantSource, operatorId, operatorName, grantReason, grantLogIds[i], couponIds[i]);
                 results.add(new GrantResult(userId, true, coupon.getId(), null));
             } catch (BusinessException e) {
                 log.warn("批量发券失败: userId={}, error={}", userId, e.getMessage());
@@ -242,7 +263,7 @@ public class CouponGrantService {
     /**
      * 从模板创建优惠券实例
      */
-    private Coupon createCouponFromTemplate(CouponTemplate template, Long userId, Long grantLogId) {
+    private Coupon createCouponFromTemplate(CouponTemplate template, long couponId, Long userId, Long grantLogId) {
         LocalDateTime now = LocalDateTime.now();
         
         // 计算有效期
@@ -263,7 +284,7 @@ public class CouponGrantService {
         String couponCode = generateCouponCode(template.getTenantId(), template.getId());
 
         return Coupon.builder()
-                .id(idService.nextLong(IdScope.COUPON))
+                .id(couponId)
                 .tenantId(template.getTenantId())
                 .templateId(template.getId())
                 .grantLogId(grantLogId)
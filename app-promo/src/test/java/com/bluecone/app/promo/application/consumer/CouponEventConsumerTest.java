@@ -0,0 +1,123 @@
+package com.bluecone.app.promo.application.consumer;
+
+import com.bluecone.app.infra.event.consume.EventConsumeLogMapper;
+import com.bluecone.app.infra.event.consume.EventConsumeLogPO;
+import com.bluecone.app.infra.event.consume.EventConsumeLogService;
+import com.bluecone.app.infra.event.outbox.DispatchedEvent;
+import com.bluecone.app.promo.api.dto.CouponCommitCommand;
+import com.bluecone.app.promo.api.dto.CouponReleaseCommand;
+import com.bluecone.app.promo.api.facade.CouponLockFacade;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 优惠券事件消费者批量消费测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("优惠券事件消费者批量消费测试")
+class CouponEventConsumerTest {
+
+    @Mock
+    private CouponLockFacade couponLockFacade;
+
+    @Mock
+    private EventConsumeLogMapper consumeLogMapper;
+
+    private CouponEventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new CouponEventConsumer(couponLockFacade,
+                new EventConsumeLogService(consumeLogMapper, new ObjectMapper()));
+    }
+
+    @Test
+    @DisplayName("已消费与块内重复的事件只写一次消费日志")
+    void skipsConsumedAndDuplicateEvents() {
+        when(consumeLogMapper.selectConsumedEventIds(eq("CouponConsumer"), anyCollection()))
+                .thenReturn(List.of("evt-1"));
+
+        consumer.handleBatch(List.of(
+                event("evt-1", "order.paid", 1L),
+                event("evt-2", "order.paid", 2L),
+                event("evt-2", "order.paid", 2L),
+                event("evt-3", "order.canceled", 3L)));
+
+        ArgumentCaptor<CouponCommitCommand> commit = ArgumentCaptor.forClass(CouponCommitCommand.class);
+        verify(couponLockFacade).commit(commit.capture());
+        assertThat(commit.getValue().getOrderId()).isEqualTo(2L);
+        ArgumentCaptor<CouponReleaseCommand> release = ArgumentCaptor.forClass(CouponReleaseCommand.class);
+        verify(couponLockFacade).release(release.capture());
+        assertThat(release.getValue().getOrderId()).isEqualTo(3L);
+
+        List<EventConsumeLogPO> logs = capturedBatch();
+        assertThat(logs).extracting(EventConsumeLogPO::getEventId).containsExactly("evt-2", "evt-3");
+        assertThat(logs).allSatisfy(log -> {
+            assertThat(log.getConsumerName()).isEqualTo("CouponConsumer");
+            assertThat(log.getStatus()).isEqualTo("SUCCESS");
+        });
+        verify(consumeLogMapper, never()).insert(any(EventConsumeLogPO.class));
+    }
+
+    @Test
+    @DisplayName("任一事件失败则整块抛出且不写成功日志")
+    void failureAbortsTheWholeBatch() {
+        when(consumeLogMapper.selectConsumedEventIds(eq("CouponConsumer"), anyCollection())).thenReturn(List.of());
+        doAnswer(invocation -> {
+            CouponCommitCommand command = invocation.getArgument(0);
+            if (command.getOrderId() == 2L) {
+                throw new IllegalStateException("coupon not locked");
+            }
+            return null;
+        }).when(couponLockFacade).commit(any(CouponCommitCommand.class));
+
+        assertThatThrownBy(() -> consumer.handleBatch(List.of(
+                event("evt-1", "order.paid", 1L),
+                event("evt-2", "order.paid", 2L))))
+                .hasMessage("coupon not locked");
+
+        verify(consumeLogMapper, never()).insertSuccessBatch(anyList());
+        ArgumentCaptor<EventConsumeLogPO> failure = ArgumentCaptor.forClass(EventConsumeLogPO.class);
+        verify(consumeLogMapper).insert(failure.capture());
+        assertThat(failure.getValue().getEventId()).isEqualTo("evt-2");
+        assertThat(failure.getValue().getStatus()).isEqualTo("FAILED");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<EventConsumeLogPO> capturedBatch() {
+        ArgumentCaptor<List<EventConsumeLogPO>> batch = ArgumentCaptor.forClass(List.class);
+        verify(consumeLogMapper).insertSuccessBatch(batch.capture());
+        return batch.getValue();
+    }
+
+    private static DispatchedEvent event(String eventId, String eventType, Long orderId) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("orderId", orderId);
+        payload.put("couponId", 5000L + orderId);
+        return DispatchedEvent.builder()
+                .eventId(eventId)
+                .eventType(eventType)
+                .aggregateType("ORDER")
+                .aggregateId(String.valueOf(orderId))
+                .tenantId(1L)
+                .storeId(10L)
+                .payload(payload)
+                .metadata(Map.of("userId", 1001L))
+                .build();
+    }
+}
@@ -9,6 +9,7 @@ import com.bluecone.app.core.contextkit.SnapshotProvider;
 import com.bluecone.app.core.contextkit.SnapshotRepository;
 import com.bluecone.app.core.contextkit.SnapshotSerde;
 import com.bluecone.app.core.contextkit.VersionChecker;
+import com.bluecone.app.core.contextkit.VersionedSnapshot;
 import com.bluecone.app.id.core.Ulid128;
 import com.bluecone.app.core.store.StoreSnapshot;
 import com.bluecone.app.store.runtime.spi.StoreSnapshotRepository;
@@ -92,6 +93,11 @@ public class StoreSnapshotProvider {
         public Optional<Long> loadVersion(SnapshotLoadKey key) {
             return delegate.loadConfigVersion(key.tenantId(), (Ulid128) key.scopeId());
         }
+
+        @Override
+        public Optional<VersionedSnapshot<StoreSnapshot>> loadFullWithVersion(SnapshotLoadKey key) {
+            return loadFull(key).map(snapshot -> new VersionedSnapshot<>(snapshot, snapshot.configVersion()));
+        }
     }
 
     /**